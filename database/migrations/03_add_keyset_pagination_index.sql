@@ -0,0 +1,4 @@
+-- Keyset pagination for the flag list orders by (created_at DESC, id DESC).
+-- Replace the single-column index with a composite one covering the full sort key.
+DROP INDEX idx_feature_flags_created_at ON feature_flags;
+CREATE INDEX idx_feature_flags_created_at_id ON feature_flags(created_at, id);
@@ -0,0 +1,5 @@
+-- Indexes for server-side filtering and search of the flag list.
+-- Name prefixes use the UNIQUE index on name; name substrings are matched by the
+-- backend's in-memory trigram index, description substrings by an n-gram full-text index.
+CREATE INDEX idx_feature_flags_updated_at ON feature_flags(updated_at);
+CREATE FULLTEXT INDEX ft_feature_flags_description ON feature_flags(description) WITH PARSER ngram;
@@ -0,0 +1,3 @@
+-- Optimistic concurrency: every write increments the version, and conditional
+-- writes compare it in the WHERE clause instead of reading the row first.
+ALTER TABLE feature_flags ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,38 @@
+-- Append-only history of flag changes, written in the same transaction as
+-- each change. Rows are partitioned by quarter so point-in-time queries only
+-- touch partitions up to the requested time and old quarters can be dropped
+-- wholesale; new quarters are added by splitting pmax with REORGANIZE PARTITION.
+CREATE TABLE IF NOT EXISTS feature_flag_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    description TEXT,
+    enabled BOOLEAN NOT NULL,
+    version BIGINT NOT NULL,
+    changed_by VARCHAR(100),
+    changed_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id, changed_at),
+    INDEX idx_feature_flag_history_name_changed_at (name, changed_at)
+)
+PARTITION BY RANGE COLUMNS (changed_at) (
+    PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025q1 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p2025q2 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p2025q3 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p2025q4 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026q1 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p2026q2 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p2026q3 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p2026q4 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p2027q1 VALUES LESS THAN ('2027-04-01'),
+    PARTITION p2027q2 VALUES LESS THAN ('2027-07-01'),
+    PARTITION p2027q3 VALUES LESS THAN ('2027-10-01'),
+    PARTITION p2027q4 VALUES LESS THAN ('2028-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- Existing flags have held their current state since their last update
+INSERT INTO feature_flag_history (name, change_type, description, enabled, version, changed_by, changed_at)
+SELECT name, IF(updated_at = created_at, 'CREATED', 'UPDATED'), description, enabled, version,
+    updated_by, updated_at
+FROM feature_flags;
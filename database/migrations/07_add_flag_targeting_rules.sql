@@ -0,0 +1,4 @@
+-- Ordered targeting rules of each flag as a JSON array, NULL when the flag
+-- has no rules. The history keeps the rules of every recorded state.
+ALTER TABLE feature_flags ADD COLUMN rules JSON NULL AFTER enabled;
+ALTER TABLE feature_flag_history ADD COLUMN rules JSON NULL AFTER enabled;
@@ -0,0 +1,17 @@
+-- User segments referenced by targeting rules. Members are numeric user IDs
+-- kept as one portable Roaring bitmap per segment, a few bytes per member
+-- at worst and far less for dense ID ranges. member_count is stored so
+-- listings don't have to read the bitmap; version increases with every
+-- membership change and orders the deltas sent to consumers.
+CREATE TABLE IF NOT EXISTS segments (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    description TEXT,
+    members LONGBLOB NOT NULL,
+    member_count BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100)
+);
@@ -0,0 +1,9 @@
+-- Typed flags: BOOLEAN flags are only on or off, STRING, NUMBER and JSON
+-- flags also serve a value while on. The value is a JSON string, number, or
+-- object or array matching the type, and NULL for BOOLEAN flags.
+ALTER TABLE feature_flags
+    ADD COLUMN type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN' AFTER enabled,
+    ADD COLUMN value JSON NULL AFTER type;
+ALTER TABLE feature_flag_history
+    ADD COLUMN type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN' AFTER enabled,
+    ADD COLUMN value JSON NULL AFTER type;
@@ -0,0 +1,22 @@
+-- Flag changes scheduled for a later time, such as switching maintenance
+-- mode on for a maintenance window. The replica holding the scheduler lease
+-- loads PENDING rows into its timer wheel and moves each row to APPLIED or
+-- FAILED in the transaction that applies it, so a change is applied at most
+-- once even if two replicas briefly both believe they hold the lease.
+-- updated_at lets the scheduler pick up rows created or cancelled through
+-- other replicas without reloading everything.
+CREATE TABLE IF NOT EXISTS flag_schedules (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    flag_name VARCHAR(100) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    run_at DATETIME(3) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    error VARCHAR(500),
+    executed_at DATETIME(3),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    created_by VARCHAR(100),
+    INDEX idx_flag_schedules_status_run_at (status, run_at),
+    INDEX idx_flag_schedules_flag_name (flag_name, run_at),
+    INDEX idx_flag_schedules_updated_at (updated_at)
+);
@@ -0,0 +1,5 @@
+-- Prerequisites of a flag: names of flags that must be on for a context
+-- before the flag itself can be on for it. Stored as a JSON array of names;
+-- the prerequisite graph is validated to be acyclic on every write.
+ALTER TABLE feature_flags ADD COLUMN prerequisites JSON NULL AFTER rules;
+ALTER TABLE feature_flag_history ADD COLUMN prerequisites JSON NULL AFTER rules;
@@ -0,0 +1,12 @@
+-- Flag evaluations reported by consumers, summed per flag and time bucket.
+-- Consumers upload the counts they collected since their last upload; each
+-- upload adds to the bucket it arrives in with one multi-row upsert, so a
+-- bucket row is written once per upload rather than once per evaluation.
+CREATE TABLE IF NOT EXISTS flag_evaluation_counts (
+    flag_name VARCHAR(100) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    on_count BIGINT NOT NULL DEFAULT 0,
+    off_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (flag_name, bucket_start),
+    INDEX idx_flag_evaluation_counts_bucket (bucket_start)
+);
@@ -0,0 +1,21 @@
+-- Cold storage for flags archived as stale. Archiving moves the row here from
+-- feature_flags in one transaction, so archived flags drop out of snapshots,
+-- change feeds and consumer stores; restoring moves it back with its id.
+CREATE TABLE IF NOT EXISTS archived_feature_flags (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    description TEXT,
+    enabled BOOLEAN NOT NULL,
+    type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN',
+    value JSON NULL,
+    rules JSON NULL,
+    prerequisites JSON NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100),
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    archived_by VARCHAR(100),
+    INDEX idx_archived_feature_flags_archived_at (archived_at)
+);
@@ -0,0 +1,19 @@
+-- Change feed shared by all backend replicas, so long-polling consumers get
+-- the same revisions whichever replica they reach. flag_revision holds the
+-- latest revision and the revision up to which the log has been pruned;
+-- every committed flag write appends its names under the next revision.
+-- Recording takes the row lock on flag_revision until commit, so revisions
+-- become visible in order and a consumer never skips one still in flight.
+CREATE TABLE IF NOT EXISTS flag_revision (
+    id TINYINT PRIMARY KEY,
+    revision BIGINT NOT NULL,
+    floor_revision BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO flag_revision (id, revision, floor_revision) VALUES (1, 1, 1);
+
+CREATE TABLE IF NOT EXISTS flag_changes (
+    revision BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (revision, name)
+);
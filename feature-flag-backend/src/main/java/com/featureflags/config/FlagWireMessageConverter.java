@@ -0,0 +1,62 @@
+package com.featureflags.config;
+
+import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FlagChangesResponse;
+import com.featureflags.util.FlagWireFormat;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes batch and changes responses in wire format version 2 to clients that
+ * accept {@link #MEDIA_TYPE}. Registered after the JSON converter, so clients
+ * that accept anything keep getting JSON.
+ */
+public class FlagWireMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-feature-flags",
+            Map.of("version", String.valueOf(FlagWireFormat.VERSION)));
+
+    public FlagWireMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == FeatureFlagBatchResponse.class || clazz == FlagChangesResponse.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        // Another version asked for explicitly falls back to JSON
+        if (mediaType != null && mediaType.getParameter("version") != null
+                && !MEDIA_TYPE.getParameter("version").equals(mediaType.getParameter("version"))) {
+            return false;
+        }
+        return super.canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Requests aren't read in the binary wire format", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = response instanceof FlagChangesResponse changes
+                ? FlagWireFormat.encodeChanges(changes)
+                : FlagWireFormat.encodeBatch((FeatureFlagBatchResponse) response);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
@@ -4,12 +4,23 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.featureflags.service.FlagChangeTracker;
+import com.featureflags.service.FlagEventSubscriber;
+import com.featureflags.service.MessagePublisherService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
 /**
  * Redis configuration for caching and pub/sub.
  */
@@ -35,6 +46,41 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Expire entries of the shared flag cache, which all replicas fill and
+     * evict, so an entry that lost a race with a write on another replica
+     * can't outlive the TTL.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer featureFlagCacheCustomizer(
+            @Value("${feature-flag.cache.ttl-ms:300000}") long ttlMs) {
+        return builder -> builder.withCacheConfiguration("featureFlags",
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(ttlMs)));
+    }
+
+    /**
+     * Subscribe to the events other replicas publish, so their changes reach
+     * this replica's long-polling consumers without waiting for a timeout.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+            FlagChangeTracker flagChangeTracker, FlagEventSubscriber flagEventSubscriber,
+            @Value("${feature-flag.events.subscribe:true}") boolean subscribe) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (!subscribe) {
+            // Without listeners the container never connects
+            return container;
+        }
+        container.addMessageListener((message, pattern) -> flagChangeTracker.onRevisionAnnounced(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(FlagChangeTracker.CHANGES_CHANNEL));
+        container.addMessageListener((message, pattern) -> flagEventSubscriber.handleMessage(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(MessagePublisherService.FEATURE_FLAG_EVENTS_CHANNEL));
+        return container;
+    }
+
     /**
      * Configure ObjectMapper for JSON serialization.
      */
@@ -0,0 +1,20 @@
+package com.featureflags.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets consumers negotiate the binary wire format for flag responses.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Last, so a wildcard Accept header still selects JSON
+        converters.add(new FlagWireMessageConverter());
+    }
+}
@@ -0,0 +1,47 @@
+package com.featureflags.controller;
+
+import com.featureflags.dto.ExposureResponse;
+import com.featureflags.service.ExposureService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * REST controller for the unique users flags were served to.
+ */
+@RestController
+@RequestMapping("/flags/{name}/exposures")
+@CrossOrigin(origins = "*")
+@Tag(name = "Flag Exposures", description = "API for unique users per flag variant")
+@RequiredArgsConstructor
+public class ExposureController {
+
+        private final ExposureService exposureService;
+
+        /**
+         * Get the unique users a flag's variants were served to.
+         */
+        @GetMapping
+        @Operation(summary = "Get flag exposures", description = "Estimate the unique users served each variant per UTC day and over the range, up to 31 days")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved exposures"),
+                        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+                        @ApiResponse(responseCode = "404", description = "Feature flag not found")
+        })
+        public ResponseEntity<ExposureResponse> getExposures(
+                        @Parameter(description = "Feature flag name") @PathVariable String name,
+                        @Parameter(description = "First UTC day (ISO-8601), defaults to the last day") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @Parameter(description = "Last UTC day (ISO-8601), defaults to today") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+                LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+                return ResponseEntity.ok(exposureService.getExposures(name, from != null ? from : last, last));
+        }
+}
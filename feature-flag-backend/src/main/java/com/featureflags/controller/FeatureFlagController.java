@@ -1,11 +1,24 @@
 package com.featureflags.controller;
 
+import com.featureflags.dto.BulkFlagRequest;
+import com.featureflags.dto.BulkFlagResponse;
 import com.featureflags.dto.CreateFlagRequest;
 import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FlagImportResponse;
+import com.featureflags.dto.FlagChangesRequest;
+import com.featureflags.dto.FlagChangesResponse;
 import com.featureflags.dto.FlagListResponse;
+import com.featureflags.dto.FlagQuery;
+import com.featureflags.dto.FlagSort;
 import com.featureflags.dto.FlagResponse;
+import com.featureflags.dto.FlagSnapshotResponse;
 import com.featureflags.dto.UpdateFlagRequest;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagVersionConflictException;
 import com.featureflags.service.FeatureFlagService;
+import com.featureflags.service.FlagBulkService;
+import com.featureflags.service.FlagTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,11 +27,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for feature flag management.
@@ -31,22 +52,32 @@ import java.util.List;
 @Slf4j
 public class FeatureFlagController {
 
+        private static final long MAX_POLL_TIMEOUT_MS = 60000;
+
         private final FeatureFlagService featureFlagService;
+        private final FlagBulkService flagBulkService;
+        private final FlagTransferService flagTransferService;
 
         /**
          * Get all feature flags with pagination.
          */
         @GetMapping
-        @Operation(summary = "Get all feature flags", description = "Retrieve all feature flags with pagination")
+        @Operation(summary = "Get all feature flags", description = "Retrieve feature flags with optional filters, sorting and pagination")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Successfully retrieved feature flags"),
                         @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
         })
         public ResponseEntity<FlagListResponse> getAllFlags(
                         @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-                        @Parameter(description = "Page size(min 1, max 100)") @RequestParam(defaultValue = "20") int size) {
+                        @Parameter(description = "Page size(min 1, max 100)") @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Cursor from a previous page's nextCursor; takes precedence over page") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "Only flags in this state") @RequestParam(required = false) Boolean enabled,
+                        @Parameter(description = "Only flags whose name starts with this prefix") @RequestParam(required = false) String prefix,
+                        @Parameter(description = "Case-insensitive substring of the name or description") @RequestParam(required = false) String search,
+                        @Parameter(description = "Only flags updated after this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedAfter,
+                        @Parameter(description = "Sort order: created_desc (default), created_asc, name_asc, name_desc, updated_desc") @RequestParam(required = false) String sort) {
 
-                log.debug("Getting all flags - page: {}, size: {}", page, size);
+                log.debug("Getting all flags - page: {}, size: {}, cursor: {}", page, size, cursor);
 
                 if (page < 0) {
                         page = 0;
@@ -55,10 +86,66 @@ public class FeatureFlagController {
                         size = 20;
                 }
 
-                FlagListResponse response = featureFlagService.getAllFlags(page, size);
+                FlagQuery query = FlagQuery.builder()
+                                .enabled(enabled)
+                                .prefix(prefix)
+                                .search(search)
+                                .updatedAfter(updatedAfter)
+                                .sort(FlagSort.fromParam(sort))
+                                .build();
+                FlagListResponse response = featureFlagService.getAllFlags(page, size, cursor, query);
                 return ResponseEntity.ok(response);
         }
 
+        /**
+         * Export all feature flags as NDJSON, streamed as they are read.
+         */
+        @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        @Operation(summary = "Export all feature flags", description = "Stream every feature flag as one JSON object per line")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Feature flags streamed as NDJSON")
+        })
+        public ResponseEntity<StreamingResponseBody> exportFlags() {
+                log.debug("Exporting all feature flags");
+
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"feature-flags.ndjson\"")
+                                .body(flagTransferService::exportFlags);
+        }
+
+        /**
+         * Create or update feature flags from an NDJSON stream, as produced by
+         * the export.
+         */
+        @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE,
+                        MediaType.TEXT_PLAIN_VALUE })
+        @Operation(summary = "Import feature flags", description = "Create or update feature flags from one JSON object per line, written in batches")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Flags imported, see skipped lines")
+        })
+        public ResponseEntity<FlagImportResponse> importFlags(InputStream body) throws IOException {
+                log.debug("Importing feature flags");
+
+                return ResponseEntity.ok(flagTransferService.importFlags(body));
+        }
+
+        /**
+         * Get the state of all feature flags at a point in time.
+         */
+        @GetMapping("/history/snapshot")
+        @Operation(summary = "Get feature flags at a point in time", description = "Rebuild every flag as it was at the given time from the change history")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully rebuilt the snapshot")
+        })
+        public ResponseEntity<FlagSnapshotResponse> getSnapshot(
+                        @Parameter(description = "Point in time (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+                log.debug("Getting flag snapshot at {}", at);
+
+                return ResponseEntity.ok(featureFlagService.getSnapshotAt(at));
+        }
+
         /**
          * Get a feature flag by name.
          */
@@ -74,7 +161,7 @@ public class FeatureFlagController {
                 log.debug("Getting flag by name: {}", name);
 
                 FlagResponse response = featureFlagService.getFlagByName(name);
-                return ResponseEntity.ok(response);
+                return withETag(response);
         }
 
         /**
@@ -104,16 +191,18 @@ public class FeatureFlagController {
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Feature flag updated successfully"),
                         @ApiResponse(responseCode = "400", description = "Invalid request data"),
-                        @ApiResponse(responseCode = "404", description = "Feature flag not found")
+                        @ApiResponse(responseCode = "404", description = "Feature flag not found"),
+                        @ApiResponse(responseCode = "412", description = "Feature flag version does not match If-Match")
         })
         public ResponseEntity<FlagResponse> updateFlag(
                         @Parameter(description = "Feature flag name") @PathVariable String name,
+                        @Parameter(description = "Only update if the flag is still at this strong ETag version; one tag only") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                         @Parameter(description = "Feature flag update request") @Valid @RequestBody UpdateFlagRequest request) {
 
                 log.debug("Updating flag name: {} with request: {}", name, request);
 
-                FlagResponse response = featureFlagService.updateFlag(name, request);
-                return ResponseEntity.ok(response);
+                FlagResponse response = featureFlagService.updateFlag(name, request, parseIfMatch(ifMatch));
+                return withETag(response);
         }
 
         /**
@@ -123,17 +212,38 @@ public class FeatureFlagController {
         @Operation(summary = "Delete feature flag", description = "Delete a feature flag")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "204", description = "Feature flag deleted successfully"),
-                        @ApiResponse(responseCode = "404", description = "Feature flag not found")
+                        @ApiResponse(responseCode = "404", description = "Feature flag not found"),
+                        @ApiResponse(responseCode = "412", description = "Feature flag version does not match If-Match")
         })
         public ResponseEntity<Void> deleteFlag(
-                        @Parameter(description = "Feature flag name") @PathVariable String name) {
+                        @Parameter(description = "Feature flag name") @PathVariable String name,
+                        @Parameter(description = "Only delete if the flag is still at this strong ETag version; one tag only") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
                 log.debug("Deleting flag name: {}", name);
 
-                featureFlagService.deleteFlag(name);
+                featureFlagService.deleteFlag(name, parseIfMatch(ifMatch));
                 return ResponseEntity.noContent().build();
         }
 
+        /**
+         * Apply several flag creates, updates and deletes in one transaction.
+         * Operations that can't be applied are reported per item and skipped.
+         */
+        @PostMapping("/bulk")
+        @Operation(summary = "Bulk create, update and delete feature flags", description = "Apply up to 500 mixed operations in one transaction and publish a single aggregated change event")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Operations applied, see per-item results"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request data")
+        })
+        public ResponseEntity<BulkFlagResponse> applyBulk(
+                        @Parameter(description = "Operations to apply in order") @Valid @RequestBody BulkFlagRequest request) {
+
+                log.debug("Applying bulk flag request with {} operations", request.getOperations().size());
+
+                BulkFlagResponse response = flagBulkService.applyBulk(request);
+                return ResponseEntity.ok(response);
+        }
+
         /**
          * Get multiple feature flags with timestamp information for consistency
          * checking.
@@ -155,4 +265,63 @@ public class FeatureFlagController {
                 return ResponseEntity.ok(result);
         }
 
+        /**
+         * Long-poll for changes to a set of feature flags.
+         * The request is held until one of the flags changes after the given
+         * revision or the timeout expires, and only the changed flags are returned.
+         */
+        @PostMapping("/changes")
+        @Operation(summary = "Long-poll feature flag changes", description = "Wait for changes to the given feature flags since a revision and return only the deltas")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Changed feature flags since the revision, empty on timeout"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request data")
+        })
+        public CompletableFuture<ResponseEntity<FlagChangesResponse>> pollFlagChanges(
+                        @Parameter(description = "Maximum time to hold the request in milliseconds (max 60000)") @RequestParam(defaultValue = "30000") long timeoutMs,
+                        @Parameter(description = "Flag names or name prefixes and last applied revision") @RequestBody FlagChangesRequest request) {
+
+                log.debug("Polling flag changes since revision {} for: {}", request.getRevision(), request.getFlagNames());
+
+                long timeout = Math.min(Math.max(timeoutMs, 0), MAX_POLL_TIMEOUT_MS);
+                return featureFlagService.pollFlagChanges(request.getFlagNames(), request.getPrefixes(),
+                                request.getRevision(), timeout)
+                                .thenApply(ResponseEntity::ok);
+        }
+
+        private static ResponseEntity<FlagResponse> withETag(FlagResponse response) {
+                if (response.getVersion() == null) {
+                        return ResponseEntity.ok(response);
+                }
+                return ResponseEntity.ok().eTag(String.valueOf(response.getVersion())).body(response);
+        }
+
+        /**
+         * Parse the version from an If-Match header. Returns null when the
+         * header is absent or "*", meaning the write is unconditional.
+         *
+         * Only a single entity tag is supported; a list of tags is rejected
+         * as a bad request. If-Match uses the strong comparison, so a weak
+         * tag never matches and fails the precondition.
+         */
+        static Long parseIfMatch(String ifMatch) {
+                if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+                        return null;
+                }
+                String tag = ifMatch.trim();
+                if (tag.contains(",")) {
+                        throw new BusinessException(ErrorCode.INVALID_PARAMETER,
+                                        "If-Match supports a single entity tag: " + ifMatch);
+                }
+                if (tag.startsWith("W/")) {
+                        throw new FlagVersionConflictException("Weak entity tag " + tag + " never matches If-Match");
+                }
+                if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                        tag = tag.substring(1, tag.length() - 1);
+                }
+                try {
+                        return Long.parseLong(tag);
+                } catch (NumberFormatException e) {
+                        throw new BusinessException(ErrorCode.INVALID_PARAMETER, "Invalid If-Match header: " + ifMatch);
+                }
+        }
 }
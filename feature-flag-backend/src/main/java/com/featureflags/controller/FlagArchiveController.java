@@ -0,0 +1,100 @@
+package com.featureflags.controller;
+
+import com.featureflags.dto.ArchiveFlagsRequest;
+import com.featureflags.dto.ArchiveFlagsResponse;
+import com.featureflags.dto.ArchivedFlagResponse;
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.dto.StaleFlagReport;
+import com.featureflags.service.FlagArchiveService;
+import com.featureflags.service.StaleFlagDetector;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for finding stale flags and archiving them.
+ */
+@RestController
+@RequestMapping("/flags")
+@CrossOrigin(origins = "*")
+@Tag(name = "Flag Archive", description = "API for reporting stale feature flags and moving them to cold storage")
+@RequiredArgsConstructor
+@Slf4j
+public class FlagArchiveController {
+
+        private static final int MAX_ARCHIVED_LIMIT = 500;
+
+        private final StaleFlagDetector staleFlagDetector;
+        private final FlagArchiveService flagArchiveService;
+
+        /**
+         * Get the flags found stale by the last analysis.
+         */
+        @GetMapping("/stale")
+        @Operation(summary = "Get stale flags", description = "Report flags not evaluated or not changed within the configured windows, with the snapshot size archiving them would save")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved stale flags")
+        })
+        public ResponseEntity<StaleFlagReport> getStaleFlags(
+                        @Parameter(description = "Analyze now instead of returning the last report") @RequestParam(defaultValue = "false") boolean refresh) {
+                return ResponseEntity.ok(refresh ? staleFlagDetector.analyze() : staleFlagDetector.getReport());
+        }
+
+        /**
+         * Move flags into cold storage.
+         */
+        @PostMapping("/archive")
+        @Operation(summary = "Archive feature flags", description = "Move up to 500 flags out of the live flags and consumer snapshots, skipping flags still needed as prerequisites")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Flags archived, see skipped flags"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request data")
+        })
+        public ResponseEntity<ArchiveFlagsResponse> archiveFlags(
+                        @Parameter(description = "Flags to archive") @Valid @RequestBody ArchiveFlagsRequest request) {
+
+                log.debug("Archiving {} flags", request.getNames().size());
+
+                return ResponseEntity.ok(flagArchiveService.archiveFlags(request));
+        }
+
+        /**
+         * Get the most recently archived flags.
+         */
+        @GetMapping("/archived")
+        @Operation(summary = "Get archived flags", description = "List archived flags, most recently archived first")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved archived flags")
+        })
+        public ResponseEntity<List<ArchivedFlagResponse>> getArchivedFlags(
+                        @Parameter(description = "Number of flags (min 1, max 500)") @RequestParam(defaultValue = "100") int limit) {
+                int boundedLimit = Math.max(1, Math.min(limit, MAX_ARCHIVED_LIMIT));
+                return ResponseEntity.ok(flagArchiveService.getArchivedFlags(boundedLimit));
+        }
+
+        /**
+         * Move an archived flag back to the live flags.
+         */
+        @PostMapping("/archived/{name}/restore")
+        @Operation(summary = "Restore archived flag", description = "Move an archived flag back to the live flags as it was archived")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Flag restored"),
+                        @ApiResponse(responseCode = "404", description = "Archived flag not found"),
+                        @ApiResponse(responseCode = "409", description = "A live flag with the same name exists")
+        })
+        public ResponseEntity<FlagResponse> restoreFlag(
+                        @Parameter(description = "Feature flag name") @PathVariable String name) {
+
+                log.debug("Restoring archived flag {}", name);
+
+                return ResponseEntity.ok(flagArchiveService.restoreFlag(name));
+        }
+}
@@ -0,0 +1,85 @@
+package com.featureflags.controller;
+
+import com.featureflags.dto.CreateScheduleRequest;
+import com.featureflags.dto.ScheduleResponse;
+import com.featureflags.service.FlagScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for flag changes scheduled for a later time.
+ */
+@RestController
+@RequestMapping("/flags/{name}/schedules")
+@CrossOrigin(origins = "*")
+@Tag(name = "Flag Schedules", description = "API for scheduling feature flag changes")
+@RequiredArgsConstructor
+@Slf4j
+public class FlagScheduleController {
+
+        private final FlagScheduleService flagScheduleService;
+
+        /**
+         * Get the schedules of a flag.
+         */
+        @GetMapping
+        @Operation(summary = "Get flag schedules", description = "List pending and past scheduled changes of a flag ordered by run time")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved schedules")
+        })
+        public ResponseEntity<List<ScheduleResponse>> getSchedules(
+                        @Parameter(description = "Feature flag name") @PathVariable String name) {
+                return ResponseEntity.ok(flagScheduleService.getSchedules(name));
+        }
+
+        /**
+         * Schedule a flag change.
+         */
+        @PostMapping
+        @Operation(summary = "Schedule flag change", description = "Enable or disable a flag at a later time")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Change scheduled successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+                        @ApiResponse(responseCode = "404", description = "Feature flag not found")
+        })
+        public ResponseEntity<ScheduleResponse> createSchedule(
+                        @Parameter(description = "Feature flag name") @PathVariable String name,
+                        @Parameter(description = "Schedule creation request") @Valid @RequestBody CreateScheduleRequest request) {
+
+                log.debug("Scheduling change of flag {}: {}", name, request);
+
+                ScheduleResponse response = flagScheduleService.createSchedule(name, request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        /**
+         * Cancel a pending schedule.
+         */
+        @DeleteMapping("/{id}")
+        @Operation(summary = "Cancel scheduled change", description = "Cancel a change that has not been applied yet")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "204", description = "Schedule cancelled successfully"),
+                        @ApiResponse(responseCode = "404", description = "Schedule not found"),
+                        @ApiResponse(responseCode = "409", description = "Schedule already applied or cancelled")
+        })
+        public ResponseEntity<Void> cancelSchedule(
+                        @Parameter(description = "Feature flag name") @PathVariable String name,
+                        @Parameter(description = "Schedule id") @PathVariable Long id) {
+
+                log.debug("Cancelling schedule {} of flag {}", id, name);
+
+                flagScheduleService.cancelSchedule(name, id);
+                return ResponseEntity.noContent().build();
+        }
+}
@@ -0,0 +1,145 @@
+package com.featureflags.controller;
+
+import com.featureflags.dto.CreateSegmentRequest;
+import com.featureflags.dto.SegmentMembersRequest;
+import com.featureflags.dto.SegmentResponse;
+import com.featureflags.entity.Segment;
+import com.featureflags.service.SegmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for user segments referenced by targeting rules.
+ */
+@RestController
+@RequestMapping("/segments")
+@CrossOrigin(origins = "*")
+@Tag(name = "Segments", description = "API for managing user segments")
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentController {
+
+        /**
+         * Response header with the segment version of a members download.
+         */
+        public static final String SEGMENT_VERSION_HEADER = "X-Segment-Version";
+
+        private final SegmentService segmentService;
+
+        /**
+         * Get all segments.
+         */
+        @GetMapping
+        @Operation(summary = "Get all segments", description = "List segments with their member counts")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved segments")
+        })
+        public ResponseEntity<List<SegmentResponse>> getAllSegments() {
+                return ResponseEntity.ok(segmentService.getAllSegments());
+        }
+
+        /**
+         * Get a segment by name.
+         */
+        @GetMapping("/{name}")
+        @Operation(summary = "Get segment by name", description = "Retrieve a segment without its members")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved segment"),
+                        @ApiResponse(responseCode = "404", description = "Segment not found")
+        })
+        public ResponseEntity<SegmentResponse> getSegment(
+                        @Parameter(description = "Segment name") @PathVariable String name) {
+                return ResponseEntity.ok(segmentService.getSegment(name));
+        }
+
+        /**
+         * Download the members of a segment as a serialized Roaring bitmap.
+         */
+        @GetMapping(value = "/{name}/members", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        @Operation(summary = "Get segment members", description = "Download all members in the portable Roaring bitmap format, with the segment version in the X-Segment-Version header")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved members"),
+                        @ApiResponse(responseCode = "404", description = "Segment not found")
+        })
+        public ResponseEntity<byte[]> getSegmentMembers(
+                        @Parameter(description = "Segment name") @PathVariable String name) {
+
+                log.debug("Getting members of segment: {}", name);
+
+                Segment segment = segmentService.getSegmentWithMembers(name);
+                return ResponseEntity.ok()
+                                .header(SEGMENT_VERSION_HEADER, String.valueOf(segment.getVersion()))
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                                .body(segment.getMembers());
+        }
+
+        /**
+         * Create a new segment.
+         */
+        @PostMapping
+        @Operation(summary = "Create segment", description = "Create a new segment without members")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Segment created successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+                        @ApiResponse(responseCode = "409", description = "Segment already exists")
+        })
+        public ResponseEntity<SegmentResponse> createSegment(
+                        @Parameter(description = "Segment creation request") @Valid @RequestBody CreateSegmentRequest request) {
+
+                log.debug("Creating new segment: {}", request);
+
+                SegmentResponse response = segmentService.createSegment(request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        /**
+         * Add and remove segment members.
+         */
+        @PatchMapping("/{name}/members")
+        @Operation(summary = "Change segment members", description = "Add and remove up to 100000 user IDs each and publish the delta to consumers")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Members changed successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid user IDs or segment too large"),
+                        @ApiResponse(responseCode = "404", description = "Segment not found")
+        })
+        public ResponseEntity<SegmentResponse> updateMembers(
+                        @Parameter(description = "Segment name") @PathVariable String name,
+                        @Parameter(description = "User IDs to add and remove") @Valid @RequestBody SegmentMembersRequest request) {
+
+                log.debug("Changing members of segment {}: {} to add, {} to remove", name,
+                                request.getAdd() != null ? request.getAdd().size() : 0,
+                                request.getRemove() != null ? request.getRemove().size() : 0);
+
+                return ResponseEntity.ok(segmentService.updateMembers(name, request));
+        }
+
+        /**
+         * Delete a segment.
+         */
+        @DeleteMapping("/{name}")
+        @Operation(summary = "Delete segment", description = "Delete a segment; rules referring to it stop matching")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "204", description = "Segment deleted successfully"),
+                        @ApiResponse(responseCode = "404", description = "Segment not found")
+        })
+        public ResponseEntity<Void> deleteSegment(
+                        @Parameter(description = "Segment name") @PathVariable String name) {
+
+                log.debug("Deleting segment: {}", name);
+
+                segmentService.deleteSegment(name);
+                return ResponseEntity.noContent().build();
+        }
+}
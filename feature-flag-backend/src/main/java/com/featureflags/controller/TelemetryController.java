@@ -0,0 +1,41 @@
+package com.featureflags.controller;
+
+import com.featureflags.dto.EvaluationReport;
+import com.featureflags.service.EvaluationTelemetryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for telemetry uploaded by flag consumers.
+ */
+@RestController
+@RequestMapping("/telemetry")
+@CrossOrigin(origins = "*")
+@Tag(name = "Telemetry", description = "API for consumers reporting flag usage")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+        private final EvaluationTelemetryService evaluationTelemetryService;
+
+        /**
+         * Record flag evaluations counted by a consumer.
+         */
+        @PostMapping("/evaluations")
+        @Operation(summary = "Report flag evaluations", description = "Add evaluation counts per flag and variant to the current time bucket")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "204", description = "Evaluations recorded"),
+                        @ApiResponse(responseCode = "400", description = "Invalid report")
+        })
+        public ResponseEntity<Void> reportEvaluations(
+                        @Parameter(description = "Evaluation counts since the consumer's previous report") @Valid @RequestBody EvaluationReport report) {
+                evaluationTelemetryService.recordEvaluations(report);
+                return ResponseEntity.noContent().build();
+        }
+}
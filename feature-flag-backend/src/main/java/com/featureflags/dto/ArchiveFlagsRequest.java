@@ -0,0 +1,25 @@
+package com.featureflags.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for moving flags into cold storage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveFlagsRequest {
+
+    public static final int MAX_FLAGS = 500;
+
+    @NotEmpty(message = "At least one flag is required")
+    @Size(max = MAX_FLAGS, message = "At most " + MAX_FLAGS + " flags can be archived at once")
+    private List<@NotBlank String> names;
+}
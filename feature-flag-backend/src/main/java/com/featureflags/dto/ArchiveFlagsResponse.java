@@ -0,0 +1,34 @@
+package com.featureflags.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of archiving flags.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveFlagsResponse {
+
+    private List<String> archived;
+    private List<Skipped> skipped;
+    // Serialized size the archived flags took in a full consumer snapshot
+    private long snapshotBytesRemoved;
+
+    /**
+     * Flag left in place, with the reason.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Skipped {
+        private String name;
+        private String message;
+    }
+}
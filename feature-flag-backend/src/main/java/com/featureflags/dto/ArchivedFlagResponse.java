@@ -0,0 +1,47 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.featureflags.entity.ArchivedFlag;
+import com.featureflags.entity.FlagType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for archived flag response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedFlagResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean enabled;
+    private FlagType type;
+    private Long version;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime archivedAt;
+
+    private String archivedBy;
+
+    // Constructor from entity
+    public ArchivedFlagResponse(ArchivedFlag flag) {
+        this.id = flag.getId();
+        this.name = flag.getName();
+        this.description = flag.getDescription();
+        this.enabled = flag.getEnabled();
+        this.type = flag.getType();
+        this.version = flag.getVersion();
+        this.updatedAt = flag.getUpdatedAt();
+        this.archivedAt = flag.getArchivedAt();
+        this.archivedBy = flag.getArchivedBy();
+    }
+}
@@ -0,0 +1,55 @@
+package com.featureflags.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for applying several flag creates, updates and deletes in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFlagRequest {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most 500 operations are allowed per request")
+    @Valid
+    private List<Operation> operations;
+
+    public enum OperationType {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * A single operation. Description and enabled are ignored for deletes and
+     * optional for updates; enabled is required for creates.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private OperationType op;
+
+        @NotNull(message = "Flag name is required")
+        @Size(min = 1, max = 100, message = "Flag name must be between 1 and 100 characters")
+        @Pattern(regexp = "^[a-zA-Z0-9_]+$", message = "Flag name can only contain letters, numbers, and underscores")
+        private String name;
+
+        @Size(max = 500, message = "Description must not exceed 500 characters")
+        private String description;
+
+        private Boolean enabled;
+    }
+}
@@ -0,0 +1,45 @@
+package com.featureflags.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the per-operation results of a bulk flag request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFlagResponse {
+
+    private List<ItemResult> results;
+    private int succeeded;
+    private int failed;
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, ALREADY_EXISTS, INVALID
+    }
+
+    /**
+     * Result of one operation, in request order.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String name;
+        private BulkFlagRequest.OperationType op;
+        private Status status;
+        private String message;
+
+        public boolean isSuccess() {
+            return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.featureflags.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -8,6 +14,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * DTO for creating a new feature flag.
  */
@@ -26,4 +34,31 @@ public class CreateFlagRequest {
 
     @NotNull(message = "Enabled status is required")
     private Boolean enabled;
+
+    /**
+     * Type of the served value, BOOLEAN when not set.
+     */
+    private FlagType type;
+
+    /**
+     * Value served while the flag is on: a string, number, or JSON object or
+     * array matching the type; none for BOOLEAN flags.
+     */
+    private JsonNode value;
+
+    @Valid
+    @Size(max = 50, message = "A flag can have at most 50 targeting rules")
+    private List<TargetingRule> rules;
+
+    /**
+     * Names of existing flags that must be on for this flag to be on.
+     */
+    @Size(max = 10, message = "A flag can have at most 10 prerequisites")
+    private List<@NotBlank String> prerequisites;
+
+    @JsonIgnore
+    @AssertTrue(message = "Value must match the flag type and not exceed 16384 characters")
+    public boolean isValueValidForType() {
+        return (type != null ? type : FlagType.BOOLEAN).accepts(value);
+    }
 }
@@ -0,0 +1,25 @@
+package com.featureflags.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for scheduling a change of a flag's enabled state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateScheduleRequest {
+
+    @NotNull(message = "Enabled state is required")
+    private Boolean enabled;
+
+    @NotNull(message = "Run time is required")
+    @Future(message = "Run time must be in the future")
+    private LocalDateTime runAt;
+}
@@ -0,0 +1,51 @@
+package com.featureflags.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Flag evaluations counted by a consumer since its previous report, one entry
+ * per evaluated flag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationReport {
+
+    /**
+     * Largest number of flags in one report; consumers split larger uploads.
+     */
+    public static final int MAX_FLAGS = 1000;
+
+    @NotNull(message = "Counts are required")
+    @Size(max = MAX_FLAGS, message = "A report can have at most 1000 flags")
+    private List<@Valid @NotNull FlagCount> counts;
+
+    /**
+     * Evaluations of one flag per variant: on or off for the evaluated
+     * context.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlagCount {
+
+        @NotBlank(message = "Flag name is required")
+        @Size(max = 100, message = "Flag name must not exceed 100 characters")
+        private String flag;
+
+        @PositiveOrZero(message = "Counts must not be negative")
+        private long on;
+
+        @PositiveOrZero(message = "Counts must not be negative")
+        private long off;
+    }
+}
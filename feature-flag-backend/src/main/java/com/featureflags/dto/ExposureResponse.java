@@ -0,0 +1,45 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the unique users a flag's variants were served to, per UTC day and
+ * over the whole range. Counts are HyperLogLog estimates, within about 1%.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExposureResponse {
+
+    private String flagName;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    // Users counted once however many days of the range they were served on
+    private long uniqueOn;
+    private long uniqueOff;
+
+    private List<DailyExposures> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyExposures {
+
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate date;
+
+        private long on;
+        private long off;
+    }
+}
@@ -2,12 +2,16 @@ package com.featureflags.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for feature flag events published to Redis pub/sub.
@@ -20,7 +24,8 @@ import java.time.LocalDateTime;
 public class FeatureFlagEventDTO {
 
     /**
-     * Event type: CREATED, UPDATED, DELETED
+     * Event type: CREATED, UPDATED, DELETED, or BULK for an aggregated set of
+     * changes
      */
     @JsonProperty("eventType")
     private EventType eventType;
@@ -43,6 +48,32 @@ public class FeatureFlagEventDTO {
     @JsonProperty("enabled")
     private Boolean enabled;
 
+    /**
+     * Type of a created or updated flag
+     */
+    @JsonProperty("type")
+    private FlagType type;
+
+    /**
+     * Value served while the flag is on, null for BOOLEAN flags
+     */
+    @JsonProperty("value")
+    private JsonNode value;
+
+    /**
+     * Ordered targeting rules of a created or updated flag, null when it has
+     * none
+     */
+    @JsonProperty("rules")
+    private List<TargetingRule> rules;
+
+    /**
+     * Prerequisite flag names of a created or updated flag, null when it has
+     * none
+     */
+    @JsonProperty("prerequisites")
+    private List<String> prerequisites;
+
     /**
      * User who triggered the event
      */
@@ -75,6 +106,12 @@ public class FeatureFlagEventDTO {
     @JsonProperty("messageId")
     private String messageId;
 
+    /**
+     * Individual flag changes of a BULK event, applied together by consumers
+     */
+    @JsonProperty("changes")
+    private List<FlagChange> changes;
+
     /**
      * Get message ID for deduplication and tracking
      */
@@ -83,7 +120,62 @@ public class FeatureFlagEventDTO {
     }
 
     public enum EventType {
-        CREATED, UPDATED, DELETED
+        CREATED, UPDATED, DELETED, BULK
+    }
+
+    /**
+     * Compact flag change carried by a BULK event.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlagChange {
+
+        @JsonProperty("eventType")
+        private EventType eventType;
+
+        @JsonProperty("flagName")
+        private String flagName;
+
+        @JsonProperty("enabled")
+        private Boolean enabled;
+
+        /**
+         * Replacement targeting rules, null when the change left them as they
+         * were
+         */
+        @JsonProperty("rules")
+        private List<TargetingRule> rules;
+
+        /**
+         * Replacement type and value, null when the change left them as they
+         * were
+         */
+        @JsonProperty("type")
+        private FlagType type;
+
+        @JsonProperty("value")
+        private JsonNode value;
+
+        /**
+         * Replacement prerequisites, null when the change left them as they
+         * were
+         */
+        @JsonProperty("prerequisites")
+        private List<String> prerequisites;
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled) {
+            this(eventType, flagName, enabled, null, null, null, null);
+        }
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled, List<TargetingRule> rules) {
+            this(eventType, flagName, enabled, rules, null, null, null);
+        }
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled, List<TargetingRule> rules,
+                FlagType type, JsonNode value) {
+            this(eventType, flagName, enabled, rules, type, value, null);
+        }
     }
 
     /**
@@ -177,4 +269,18 @@ public class FeatureFlagEventDTO {
                 .messageId(messageId)
                 .build();
     }
+
+    /**
+     * Create an aggregated event for a set of flag changes
+     */
+    public static FeatureFlagEventDTO bulkEvent(List<FlagChange> changes, String triggeredBy,
+            LocalDateTime timestamp, String messageId) {
+        return FeatureFlagEventDTO.builder()
+                .eventType(EventType.BULK)
+                .changes(changes)
+                .triggeredBy(triggeredBy)
+                .timestamp(timestamp)
+                .messageId(messageId)
+                .build();
+    }
 }
@@ -0,0 +1,26 @@
+package com.featureflags.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of an NDJSON flag import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagImportResponse {
+
+    // Valid lines written to the database
+    private long imported;
+    // Lines that could not be parsed or failed validation
+    private long skipped;
+    // Messages for the first skipped lines, by line number
+    private List<String> errors;
+    private long durationMs;
+}
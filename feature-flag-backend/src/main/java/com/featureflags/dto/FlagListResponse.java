@@ -20,6 +20,9 @@ public class FlagListResponse {
     private int size;
     private int totalPages;
 
+    // Opaque keyset cursor for the next page, null on the last page
+    private String nextCursor;
+
     // Constructor with all fields (excluding totalPages which is calculated)
     public FlagListResponse(List<FlagResponse> flags, long total, int page, int size) {
         this.flags = flags;
@@ -0,0 +1,49 @@
+package com.featureflags.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and sort order for listing feature flags.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagQuery {
+
+    /**
+     * Only flags in this state, any state when null
+     */
+    private Boolean enabled;
+
+    /**
+     * Only flags whose name starts with this prefix
+     */
+    private String prefix;
+
+    /**
+     * Case-insensitive substring to find in the name or description
+     */
+    private String search;
+
+    /**
+     * Only flags updated after this time
+     */
+    private LocalDateTime updatedAfter;
+
+    @Builder.Default
+    private FlagSort sort = FlagSort.CREATED_DESC;
+
+    /**
+     * Whether any filter is set, so the list cannot use the plain table scan.
+     */
+    public boolean hasFilters() {
+        return enabled != null || (prefix != null && !prefix.isEmpty())
+                || (search != null && !search.isBlank()) || updatedAfter != null;
+    }
+}
@@ -1,13 +1,17 @@
 package com.featureflags.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for feature flag response.
@@ -21,6 +25,10 @@ public class FlagResponse implements Serializable {
     private String name;
     private String description;
     private Boolean enabled;
+    private FlagType type;
+    private JsonNode value;
+    private List<TargetingRule> rules;
+    private List<String> prerequisites;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -30,6 +38,7 @@ public class FlagResponse implements Serializable {
 
     private String createdBy;
     private String updatedBy;
+    private Long version;
 
     // Constructor from entity
     public FlagResponse(FeatureFlag flag) {
@@ -37,9 +46,14 @@ public class FlagResponse implements Serializable {
         this.name = flag.getName();
         this.description = flag.getDescription();
         this.enabled = flag.getEnabled();
+        this.type = flag.getType();
+        this.value = flag.getValue();
+        this.rules = flag.getRules();
+        this.prerequisites = flag.getPrerequisites();
         this.createdAt = flag.getCreatedAt();
         this.updatedAt = flag.getUpdatedAt();
         this.createdBy = flag.getCreatedBy();
         this.updatedBy = flag.getUpdatedBy();
+        this.version = flag.getVersion();
     }
 }
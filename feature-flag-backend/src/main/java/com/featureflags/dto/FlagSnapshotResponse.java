@@ -0,0 +1,25 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the state of all feature flags at a point in time, rebuilt from the
+ * change history. Each flag's updatedAt and updatedBy describe the change
+ * that produced the state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagSnapshotResponse {
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime at;
+
+    private List<FlagResponse> flags;
+}
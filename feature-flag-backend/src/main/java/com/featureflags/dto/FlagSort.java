@@ -0,0 +1,33 @@
+package com.featureflags.dto;
+
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+
+import java.util.Locale;
+
+/**
+ * Sort orders supported by the flag list endpoint.
+ */
+public enum FlagSort {
+
+    CREATED_DESC,
+    CREATED_ASC,
+    NAME_ASC,
+    NAME_DESC,
+    UPDATED_DESC;
+
+    /**
+     * Parse a sort request parameter such as "name_asc", defaulting to newest
+     * first when absent.
+     */
+    public static FlagSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CREATED_DESC;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "Unsupported sort order: " + value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.featureflags.entity.FlagSchedule;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for scheduled flag change response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleResponse {
+
+    private Long id;
+    private String flagName;
+    private Boolean enabled;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime runAt;
+
+    private FlagSchedule.Status status;
+    private String error;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime executedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    private String createdBy;
+
+    // Constructor from entity
+    public ScheduleResponse(FlagSchedule schedule) {
+        this.id = schedule.getId();
+        this.flagName = schedule.getFlagName();
+        this.enabled = schedule.getEnabled();
+        this.runAt = schedule.getRunAt();
+        this.status = schedule.getStatus();
+        this.error = schedule.getError();
+        this.executedAt = schedule.getExecutedAt();
+        this.createdAt = schedule.getCreatedAt();
+        this.createdBy = schedule.getCreatedBy();
+    }
+}
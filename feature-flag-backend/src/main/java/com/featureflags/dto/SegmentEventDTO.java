@@ -0,0 +1,55 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for segment events published to Redis pub/sub. A membership change
+ * carries only the IDs it added and removed, each as a serialized Roaring
+ * bitmap (base64 in JSON). Consumers apply a delta only on top of the
+ * previous version and fetch the full members otherwise.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentEventDTO {
+
+    @JsonProperty("eventType")
+    private EventType eventType;
+
+    @JsonProperty("segmentName")
+    private String segmentName;
+
+    /**
+     * Segment version after the change
+     */
+    @JsonProperty("version")
+    private Long version;
+
+    @JsonProperty("added")
+    private byte[] added;
+
+    @JsonProperty("removed")
+    private byte[] removed;
+
+    @JsonProperty("triggeredBy")
+    private String triggeredBy;
+
+    @JsonProperty("timestamp")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime timestamp;
+
+    @JsonProperty("messageId")
+    private String messageId;
+
+    public enum EventType {
+        UPDATED, DELETED
+    }
+}
@@ -0,0 +1,33 @@
+package com.featureflags.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for an incremental membership change. User IDs are unsigned 32-bit
+ * integers; additions are applied before removals, so an ID in both lists
+ * ends up removed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentMembersRequest {
+
+    static final int MAX_IDS = 100_000;
+
+    @Size(max = MAX_IDS, message = "At most 100000 user IDs can be added per request")
+    private List<@NotNull @Min(value = 0, message = "User IDs must not be negative")
+            @Max(value = 4294967295L, message = "User IDs must fit in 32 bits") Long> add = new ArrayList<>();
+
+    @Size(max = MAX_IDS, message = "At most 100000 user IDs can be removed per request")
+    private List<@NotNull @Min(value = 0, message = "User IDs must not be negative")
+            @Max(value = 4294967295L, message = "User IDs must fit in 32 bits") Long> remove = new ArrayList<>();
+}
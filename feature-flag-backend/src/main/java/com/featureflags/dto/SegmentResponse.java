@@ -0,0 +1,47 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.featureflags.entity.Segment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for segment response. Members are only served in their compressed
+ * form by the members endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long memberCount;
+    private Long version;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    private String createdBy;
+    private String updatedBy;
+
+    // Constructor from entity
+    public SegmentResponse(Segment segment) {
+        this.id = segment.getId();
+        this.name = segment.getName();
+        this.description = segment.getDescription();
+        this.memberCount = segment.getMemberCount();
+        this.version = segment.getVersion();
+        this.createdAt = segment.getCreatedAt();
+        this.updatedAt = segment.getUpdatedAt();
+        this.createdBy = segment.getCreatedBy();
+        this.updatedBy = segment.getUpdatedBy();
+    }
+}
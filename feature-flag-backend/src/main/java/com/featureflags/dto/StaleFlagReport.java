@@ -0,0 +1,67 @@
+package com.featureflags.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the flags found stale by the last analysis, with the snapshot size
+ * archiving them would save.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaleFlagReport {
+
+    public enum Reason {
+        // Not evaluated by any consumer within the evaluation window
+        NOT_EVALUATED,
+        // Not changed within the change window
+        UNCHANGED
+    }
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime generatedAt;
+
+    private int unevaluatedDays;
+    private int unchangedDays;
+    private int totalFlags;
+    // Serialized size of all flags in a full consumer snapshot
+    private long snapshotBytes;
+    // Part of it taken by stale flags that can be archived
+    private long archivableBytes;
+    private List<StaleFlag> flags;
+
+    /**
+     * A stale flag, ordered by name.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StaleFlag {
+        private String name;
+        private Boolean enabled;
+        private List<Reason> reasons;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime lastEvaluatedAt;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime updatedAt;
+
+        // Flags that aren't stale and need this one as a prerequisite; archiving skips it while set
+        private List<String> requiredBy;
+        private long snapshotBytes;
+
+        public boolean isArchivable() {
+            return requiredBy == null || requiredBy.isEmpty();
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.featureflags.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * DTO for updating an existing feature flag.
  */
@@ -17,4 +26,31 @@ public class UpdateFlagRequest {
     private String description;
 
     private Boolean enabled;
+
+    /**
+     * Changes the type together with the value when set; a value can only be
+     * changed along with its type.
+     */
+    private FlagType type;
+
+    private JsonNode value;
+
+    /**
+     * Replaces all targeting rules when set; an empty list removes them.
+     */
+    @Valid
+    @Size(max = 50, message = "A flag can have at most 50 targeting rules")
+    private List<TargetingRule> rules;
+
+    /**
+     * Replaces all prerequisites when set; an empty list removes them.
+     */
+    @Size(max = 10, message = "A flag can have at most 10 prerequisites")
+    private List<@NotBlank String> prerequisites;
+
+    @JsonIgnore
+    @AssertTrue(message = "Value must come with its type, match it and not exceed 16384 characters")
+    public boolean isValueValidForType() {
+        return type != null ? type.accepts(value) : value == null || value.isNull();
+    }
 }
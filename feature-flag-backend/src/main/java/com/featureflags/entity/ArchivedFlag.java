@@ -0,0 +1,26 @@
+package com.featureflags.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flag moved to cold storage as stale, with the state it was archived in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedFlag {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean enabled;
+    private FlagType type;
+    private Long version;
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+    private String archivedBy;
+}
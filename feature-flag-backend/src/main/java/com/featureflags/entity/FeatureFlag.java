@@ -1,13 +1,17 @@
 package com.featureflags.entity;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
- * Feature Flag entity representing a boolean feature flag in the system.
+ * Feature Flag entity. A flag is on or off; typed flags also serve a value
+ * of their type while on. A flag with prerequisites is only on for a
+ * context when all of its prerequisites are on for it as well.
  */
 @Data
 @NoArgsConstructor
@@ -18,10 +22,15 @@ public class FeatureFlag {
     private String name;
     private String description;
     private Boolean enabled;
+    private FlagType type;
+    private JsonNode value;
+    private List<TargetingRule> rules;
+    private List<String> prerequisites;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String createdBy;
     private String updatedBy;
+    private Long version;
 
     // Constructor with required fields (excluding id and timestamps)
     public FeatureFlag(String name, String description, Boolean enabled) {
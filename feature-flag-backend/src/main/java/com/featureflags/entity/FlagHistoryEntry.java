@@ -0,0 +1,36 @@
+package com.featureflags.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One row of the append-only flag change history: the state of a flag right
+ * after a change, or right before its deletion or archiving.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagHistoryEntry {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED, ARCHIVED, RESTORED
+    }
+
+    private Long id;
+    private String name;
+    private ChangeType changeType;
+    private String description;
+    private Boolean enabled;
+    private FlagType type;
+    private JsonNode value;
+    private List<TargetingRule> rules;
+    private List<String> prerequisites;
+    private Long version;
+    private String changedBy;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,19 @@
+package com.featureflags.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Start of the latest evaluation count bucket in which a flag was evaluated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagLastEvaluation {
+
+    private String flagName;
+    private LocalDateTime lastEvaluatedAt;
+}
@@ -0,0 +1,18 @@
+package com.featureflags.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latest revision of the shared change feed, and the revision after which
+ * its log is complete.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagRevision {
+
+    private long revision;
+    private long floorRevision;
+}
@@ -0,0 +1,31 @@
+package com.featureflags.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change of a flag's enabled state scheduled for a later time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagSchedule {
+
+    public enum Status {
+        PENDING, APPLIED, FAILED, CANCELLED
+    }
+
+    private Long id;
+    private String flagName;
+    private Boolean enabled;
+    private LocalDateTime runAt;
+    private Status status;
+    private String error;
+    private LocalDateTime executedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+}
@@ -0,0 +1,37 @@
+package com.featureflags.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Type of the value a flag serves while it is on. BOOLEAN flags are only on
+ * or off and have no value; the other types serve their value to consumers,
+ * which fall back to their own default while the flag is off.
+ */
+public enum FlagType {
+
+    BOOLEAN, STRING, NUMBER, JSON;
+
+    /**
+     * Largest value accepted, measured as serialized JSON.
+     */
+    public static final int MAX_VALUE_LENGTH = 16_384;
+
+    /**
+     * Check that the value has the shape this type requires: none for
+     * BOOLEAN, a JSON string, number, or object or array respectively.
+     */
+    public boolean accepts(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return this == BOOLEAN;
+        }
+        if (value.toString().length() > MAX_VALUE_LENGTH) {
+            return false;
+        }
+        return switch (this) {
+            case BOOLEAN -> false;
+            case STRING -> value.isTextual();
+            case NUMBER -> value.isNumber();
+            case JSON -> value.isContainerNode();
+        };
+    }
+}
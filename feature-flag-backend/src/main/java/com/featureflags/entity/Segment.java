@@ -0,0 +1,28 @@
+package com.featureflags.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * User segment: a named set of numeric user IDs that targeting rules can
+ * refer to. Members are stored as a serialized Roaring bitmap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Segment {
+
+    private Long id;
+    private String name;
+    private String description;
+    private byte[] members;
+    private Long memberCount;
+    private Long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private String updatedBy;
+}
@@ -0,0 +1,78 @@
+package com.featureflags.entity;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Targeting rule of a feature flag. A rule matches a request context when all
+ * of its conditions hold, so a rule without conditions matches everyone.
+ * Rules are checked in order and the first match decides the flag's value;
+ * when none matches the flag is off.
+ *
+ * A rollout percentage limits the rule to that share of matching users,
+ * bucketed by a hash of the flag name and user key. Buckets are sticky, so
+ * raising the percentage only adds users and lowering it only removes them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetingRule implements Serializable {
+
+    @Valid
+    @Size(max = 20, message = "A rule can have at most 20 conditions")
+    private List<Condition> conditions = new ArrayList<>();
+
+    @NotNull(message = "Rule value is required")
+    private Boolean serve;
+
+    @DecimalMin(value = "0.0", message = "Rollout percentage must be between 0 and 100")
+    @DecimalMax(value = "100.0", message = "Rollout percentage must be between 0 and 100")
+    private Double rolloutPercentage;
+
+    public TargetingRule(List<Condition> conditions, Boolean serve) {
+        this(conditions, serve, null);
+    }
+
+    /**
+     * Comparison operators. Version operators compare dotted numeric versions
+     * such as 5.2.1 and never match values that aren't versions. Segment
+     * operators take segment names as values and check whether the attribute,
+     * a numeric user ID, is a member of any of them.
+     */
+    public enum Operator {
+        IN, NOT_IN, STARTS_WITH, VERSION_AT_LEAST, VERSION_BELOW, IN_SEGMENT, NOT_IN_SEGMENT
+    }
+
+    /**
+     * Condition on one context attribute. A missing attribute only satisfies
+     * NOT_IN.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Condition implements Serializable {
+
+        @NotBlank(message = "Condition attribute is required")
+        @Size(max = 64, message = "Condition attribute must not exceed 64 characters")
+        private String attribute;
+
+        @NotNull(message = "Condition operator is required")
+        private Operator operator;
+
+        @NotEmpty(message = "Condition values are required")
+        @Size(max = 1000, message = "A condition can have at most 1000 values")
+        private List<String> values;
+    }
+}
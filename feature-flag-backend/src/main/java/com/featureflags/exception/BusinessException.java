@@ -28,6 +28,15 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
     }
 
+    /**
+     * For exceptions thrown on hot paths, where capturing the stack trace
+     * would cost more than the lookup that failed.
+     */
+    protected BusinessException(ErrorCode errorCode, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+    }
+
     public ErrorCode getErrorCode() {
         return errorCode;
     }
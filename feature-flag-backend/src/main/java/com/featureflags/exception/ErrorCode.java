@@ -18,7 +18,14 @@ public enum ErrorCode {
     FLAG_ALREADY_EXISTS(1002, "Feature flag already exists"),
     FLAG_NAME_INVALID(1003, "Feature flag name is invalid"),
     FLAG_DESCRIPTION_INVALID(1004, "Feature flag description is invalid"),
-    FLAG_OPERATION_FAILED(1005, "Feature flag operation failed");
+    FLAG_OPERATION_FAILED(1005, "Feature flag operation failed"),
+    FLAG_VERSION_CONFLICT(1006, "Feature flag version does not match"),
+    FLAG_PREREQUISITE_INVALID(1007, "Feature flag prerequisites are invalid"),
+    SEGMENT_NOT_FOUND(1101, "Segment not found"),
+    SEGMENT_ALREADY_EXISTS(1102, "Segment already exists"),
+    SEGMENT_TOO_LARGE(1103, "Segment exceeds its size limit"),
+    SCHEDULE_NOT_FOUND(1201, "Scheduled change not found"),
+    SCHEDULE_NOT_PENDING(1202, "Scheduled change is no longer pending");
 
     private final int code;
     private final String message;
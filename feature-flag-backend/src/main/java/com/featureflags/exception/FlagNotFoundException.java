@@ -12,4 +12,16 @@ public class FlagNotFoundException extends BusinessException {
     public FlagNotFoundException(String message, Throwable cause) {
         super(ErrorCode.FLAG_NOT_FOUND, message, cause);
     }
+
+    private FlagNotFoundException(String message, boolean writableStackTrace) {
+        super(ErrorCode.FLAG_NOT_FOUND, message, writableStackTrace);
+    }
+
+    /**
+     * A not-found exception without a stack trace, for lookups of unknown
+     * names that are answered on every request.
+     */
+    public static FlagNotFoundException withoutStackTrace(String message) {
+        return new FlagNotFoundException(message, false);
+    }
 }
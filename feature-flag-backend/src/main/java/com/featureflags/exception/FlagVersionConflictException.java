@@ -0,0 +1,16 @@
+package com.featureflags.exception;
+
+/**
+ * Exception thrown when a conditional write finds the feature flag at a
+ * different version than the client expected.
+ */
+public class FlagVersionConflictException extends BusinessException {
+
+    public FlagVersionConflictException(String message) {
+        super(ErrorCode.FLAG_VERSION_CONFLICT, message);
+    }
+
+    public FlagVersionConflictException(String message, Throwable cause) {
+        super(ErrorCode.FLAG_VERSION_CONFLICT, message, cause);
+    }
+}
@@ -63,13 +63,22 @@ public class GlobalExceptionHandler {
         HttpStatus status;
         switch (ex.getErrorCode()) {
             case FLAG_NOT_FOUND:
+            case SEGMENT_NOT_FOUND:
+            case SCHEDULE_NOT_FOUND:
                 status = HttpStatus.NOT_FOUND;
                 break;
             case FLAG_ALREADY_EXISTS:
+            case SEGMENT_ALREADY_EXISTS:
+            case SCHEDULE_NOT_PENDING:
                 status = HttpStatus.CONFLICT;
                 break;
+            case FLAG_VERSION_CONFLICT:
+                status = HttpStatus.PRECONDITION_FAILED;
+                break;
             case FLAG_NAME_INVALID:
             case FLAG_DESCRIPTION_INVALID:
+            case FLAG_PREREQUISITE_INVALID:
+            case SEGMENT_TOO_LARGE:
             case INVALID_PARAMETER:
                 status = HttpStatus.BAD_REQUEST;
                 break;
@@ -1,9 +1,16 @@
 package com.featureflags.repository;
 
+import com.featureflags.dto.FlagQuery;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.entity.TargetingRule;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,6 +24,13 @@ public interface FeatureFlagMapper {
          */
         List<FeatureFlag> findAll(@Param("offset") int offset, @Param("limit") int limit);
 
+        /**
+         * Find the next page of feature flags after the given (created_at, id)
+         * position, newest first.
+         */
+        List<FeatureFlag> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                        @Param("limit") int limit);
+
         /**
          * Find feature flag by ID.
          */
@@ -42,11 +56,34 @@ public interface FeatureFlagMapper {
          */
         int update(FeatureFlag flag);
 
+        /**
+         * Update the non-null fields of a feature flag by name in one statement.
+         * The value is only written along with the type.
+         * When expectedVersion is set the row is only updated at that version.
+         * Returns 0 if the flag doesn't exist or the version didn't match.
+         */
+        int updateByName(@Param("name") String name, @Param("description") String description,
+                        @Param("enabled") Boolean enabled, @Param("rules") List<TargetingRule> rules,
+                        @Param("type") FlagType type, @Param("value") JsonNode value,
+                        @Param("prerequisites") List<String> prerequisites,
+                        @Param("updatedBy") String updatedBy, @Param("expectedVersion") Long expectedVersion);
+
         /**
          * Delete a feature flag by ID.
          */
         int deleteById(@Param("id") Long id);
 
+        /**
+         * Delete a feature flag by name, only at expectedVersion when set.
+         * Returns 0 if the flag doesn't exist or the version didn't match.
+         */
+        int deleteByName(@Param("name") String name, @Param("expectedVersion") Long expectedVersion);
+
+        /**
+         * Delete the feature flags with the given names.
+         */
+        int deleteByNames(@Param("names") List<String> names);
+
         /**
          * Check if a feature flag exists by name.
          */
@@ -57,4 +94,78 @@ public interface FeatureFlagMapper {
          */
         List<FeatureFlag> findByNames(@Param("names") List<String> names);
 
+        /**
+         * Find feature flags by names, locking the rows until the transaction ends.
+         */
+        List<FeatureFlag> findByNamesForUpdate(@Param("names") List<String> names);
+
+        /**
+         * Find the state (name, enabled, updated_at) of feature flags by names.
+         * Other fields of the returned flags are not populated.
+         */
+        List<FeatureFlag> findStatesByNames(@Param("names") List<String> names);
+
+        /**
+         * Find the state (name, enabled, updated_at) of feature flags whose name
+         * starts with the given prefix. LIKE wildcards in the prefix must
+         * already be escaped.
+         */
+        List<FeatureFlag> findStatesByNamePrefix(@Param("prefix") String prefix);
+
+        /**
+         * Find the name and prerequisites of every flag that has
+         * prerequisites. Other fields of the returned flags are not populated.
+         */
+        List<FeatureFlag> findPrerequisiteEdges();
+
+        /**
+         * Find all feature flag names.
+         */
+        List<String> findAllNames();
+
+        /**
+         * Stream all feature flags row by row. The cursor must be consumed and
+         * closed within the surrounding transaction.
+         */
+        Cursor<FeatureFlag> streamAll();
+
+        /**
+         * Insert the given flags, or replace description, enabled state,
+         * type, value, targeting rules and prerequisites of existing flags
+         * with the same name. Unchanged rows are left untouched.
+         */
+        int upsertAll(@Param("flags") List<FeatureFlag> flags);
+
+        /**
+         * Append the current state of the named flags to the change history.
+         * For deletions this must run before the row is deleted.
+         */
+        int insertHistory(@Param("names") List<String> names,
+                        @Param("changeType") FlagHistoryEntry.ChangeType changeType,
+                        @Param("changedBy") String changedBy);
+
+        /**
+         * Find the latest history entry at or before the given time for every
+         * flag that has one, ordered by name and id.
+         */
+        List<FlagHistoryEntry> findHistorySnapshotAt(@Param("at") LocalDateTime at);
+
+        /**
+         * Find feature flags matching the list filters.
+         * The prefix and search patterns must already have LIKE wildcards
+         * escaped; nameMatches holds the names matching the search, or null
+         * to match names with LIKE. The cursor only applies to the default
+         * newest-first order.
+         */
+        List<FeatureFlag> findByQuery(@Param("query") FlagQuery query, @Param("prefix") String prefix,
+                        @Param("search") FlagSearch search, @Param("nameMatches") List<String> nameMatches,
+                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+                        @Param("offset") int offset, @Param("limit") int limit);
+
+        /**
+         * Count feature flags matching the list filters.
+         */
+        long countByQuery(@Param("query") FlagQuery query, @Param("prefix") String prefix,
+                        @Param("search") FlagSearch search, @Param("nameMatches") List<String> nameMatches);
+
 }
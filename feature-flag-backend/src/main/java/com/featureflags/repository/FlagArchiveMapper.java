@@ -0,0 +1,43 @@
+package com.featureflags.repository;
+
+import com.featureflags.entity.ArchivedFlag;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * MyBatis mapper interface for flags archived into cold storage.
+ */
+@Mapper
+public interface FlagArchiveMapper {
+
+        /**
+         * Copy the named feature flags into the archive. The rows must be
+         * deleted from feature_flags in the same transaction.
+         */
+        int archiveByNames(@Param("names") List<String> names, @Param("archivedBy") String archivedBy);
+
+        /**
+         * Copy an archived flag back into feature_flags with its original id
+         * and the next version. The archived row must be deleted in the same
+         * transaction.
+         */
+        int restoreByName(@Param("name") String name, @Param("restoredBy") String restoredBy);
+
+        /**
+         * Find an archived flag by name, locking the row until the
+         * transaction ends.
+         */
+        ArchivedFlag findByNameForUpdate(@Param("name") String name);
+
+        /**
+         * Find archived flags, most recently archived first.
+         */
+        List<ArchivedFlag> findRecent(@Param("limit") int limit);
+
+        /**
+         * Delete archived flags by names.
+         */
+        int deleteByNames(@Param("names") List<String> names);
+}
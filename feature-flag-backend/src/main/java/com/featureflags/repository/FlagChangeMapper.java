@@ -0,0 +1,47 @@
+package com.featureflags.repository;
+
+import com.featureflags.entity.FlagRevision;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MyBatis mapper interface for the change feed shared by all replicas.
+ */
+@Mapper
+public interface FlagChangeMapper {
+
+        /**
+         * Move the revision counter to the next revision, locking its row
+         * until the transaction ends.
+         */
+        int incrementRevision();
+
+        /**
+         * Read the latest revision and the revision the log is complete from.
+         */
+        FlagRevision findRevision();
+
+        /**
+         * Record the names changed at the given revision.
+         */
+        int insertChanges(@Param("revision") long revision, @Param("names") Collection<String> names);
+
+        /**
+         * Find the distinct names changed after the given revision.
+         */
+        List<String> findChangedNamesSince(@Param("since") long since);
+
+        /**
+         * Raise the revision the log is complete from. Must run before the
+         * log is pruned up to it, in the same transaction.
+         */
+        int updateFloorRevision(@Param("revision") long revision);
+
+        /**
+         * Delete the log entries up to and including the given revision.
+         */
+        int deleteChangesUpTo(@Param("revision") long revision);
+}
@@ -0,0 +1,29 @@
+package com.featureflags.repository;
+
+import com.featureflags.dto.EvaluationReport;
+import com.featureflags.entity.FlagLastEvaluation;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MyBatis mapper interface for flag evaluation counts per time bucket.
+ */
+@Mapper
+public interface FlagEvaluationCountMapper {
+
+        /**
+         * Add the counts to the rows of their flags in the given bucket,
+         * creating missing rows, in one statement.
+         */
+        int addCounts(@Param("bucketStart") LocalDateTime bucketStart,
+                        @Param("counts") List<EvaluationReport.FlagCount> counts);
+
+        /**
+         * Find the latest bucket with evaluations of every flag evaluated in a
+         * bucket starting at or after the given time.
+         */
+        List<FlagLastEvaluation> findLastEvaluationsSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,48 @@
+package com.featureflags.repository;
+
+import com.featureflags.entity.FlagSchedule;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MyBatis mapper interface for scheduled flag changes.
+ */
+@Mapper
+public interface FlagScheduleMapper {
+
+        /**
+         * Find a schedule by id.
+         */
+        FlagSchedule findById(@Param("id") Long id);
+
+        /**
+         * Find all schedules of a flag ordered by run time.
+         */
+        List<FlagSchedule> findByFlagName(@Param("flagName") String flagName);
+
+        /**
+         * Stream all pending schedules for loading the timer wheel.
+         */
+        Cursor<FlagSchedule> streamPending();
+
+        /**
+         * Find schedules created or changed at or after the given time.
+         */
+        List<FlagSchedule> findUpdatedSince(@Param("since") LocalDateTime since);
+
+        /**
+         * Insert a new pending schedule.
+         */
+        int insert(FlagSchedule schedule);
+
+        /**
+         * Move a pending schedule to the given status. Returns 0 when the
+         * schedule is no longer pending, so only one caller wins.
+         */
+        int updatePendingStatus(@Param("id") Long id, @Param("status") FlagSchedule.Status status,
+                        @Param("error") String error);
+}
@@ -0,0 +1,23 @@
+package com.featureflags.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Substring search parameters for {@link FeatureFlagMapper#findByQuery}.
+ */
+@Getter
+@AllArgsConstructor
+public class FlagSearch {
+
+    /**
+     * Search term with LIKE wildcards escaped
+     */
+    private final String like;
+
+    /**
+     * Quoted phrase for the n-gram full-text index on description, or null
+     * when the term is shorter than an n-gram token
+     */
+    private final String phrase;
+}
@@ -0,0 +1,62 @@
+package com.featureflags.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Maps the JSON value column of typed flags; a JSON null is stored as SQL
+ * NULL.
+ */
+public class JsonValueTypeHandler extends BaseTypeHandler<JsonNode> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, JsonNode value, JdbcType jdbcType)
+            throws SQLException {
+        if (value.isNull()) {
+            ps.setNull(i, Types.VARCHAR);
+            return;
+        }
+        try {
+            ps.setString(i, OBJECT_MAPPER.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to write flag value", e);
+        }
+    }
+
+    @Override
+    public JsonNode getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public JsonNode getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public JsonNode getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    private static JsonNode parse(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to read flag value", e);
+        }
+    }
+}
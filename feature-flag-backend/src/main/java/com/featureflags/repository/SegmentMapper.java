@@ -0,0 +1,52 @@
+package com.featureflags.repository;
+
+import com.featureflags.entity.Segment;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * MyBatis mapper interface for Segment operations. Only the methods named
+ * with members read the bitmap column.
+ */
+@Mapper
+public interface SegmentMapper {
+
+        /**
+         * Find all segments ordered by name, without members.
+         */
+        List<Segment> findAll();
+
+        /**
+         * Find segment by name, without members.
+         */
+        Segment findByName(@Param("name") String name);
+
+        /**
+         * Find segment by name with its members.
+         */
+        Segment findWithMembers(@Param("name") String name);
+
+        /**
+         * Find segment by name with its members, locking the row so concurrent
+         * membership changes are applied one after the other.
+         */
+        Segment findWithMembersForUpdate(@Param("name") String name);
+
+        /**
+         * Insert a new segment.
+         */
+        int insert(Segment segment);
+
+        /**
+         * Replace the members of a segment and increment its version.
+         */
+        int updateMembers(@Param("name") String name, @Param("members") byte[] members,
+                        @Param("memberCount") long memberCount, @Param("updatedBy") String updatedBy);
+
+        /**
+         * Delete segment by name.
+         */
+        int deleteByName(@Param("name") String name);
+}
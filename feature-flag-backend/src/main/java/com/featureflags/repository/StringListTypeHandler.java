@@ -0,0 +1,59 @@
+package com.featureflags.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps a JSON array of strings, such as the prerequisites column, to a list.
+ */
+public class StringListTypeHandler extends BaseTypeHandler<List<String>> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> STRINGS_TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<String> strings, JdbcType jdbcType)
+            throws SQLException {
+        try {
+            ps.setString(i, OBJECT_MAPPER.writeValueAsString(strings));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to write string list", e);
+        }
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<String> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    private static List<String> parse(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, STRINGS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to read string list", e);
+        }
+    }
+}
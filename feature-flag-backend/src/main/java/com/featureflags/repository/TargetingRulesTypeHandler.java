@@ -0,0 +1,60 @@
+package com.featureflags.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.featureflags.entity.TargetingRule;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps the JSON rules column to the ordered list of targeting rules.
+ */
+public class TargetingRulesTypeHandler extends BaseTypeHandler<List<TargetingRule>> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<TargetingRule>> RULES_TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<TargetingRule> rules, JdbcType jdbcType)
+            throws SQLException {
+        try {
+            ps.setString(i, OBJECT_MAPPER.writeValueAsString(rules));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to write targeting rules", e);
+        }
+    }
+
+    @Override
+    public List<TargetingRule> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<TargetingRule> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<TargetingRule> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    private static List<TargetingRule> parse(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, RULES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to read targeting rules", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.EvaluationReport;
+import com.featureflags.repository.FlagEvaluationCountMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service class for flag evaluation counts reported by consumers.
+ *
+ * Consumers count evaluations locally and upload the sums periodically, so
+ * the service sees one report per consumer and interval rather than one
+ * request per evaluation. Each report is added to the time bucket it arrives
+ * in with a single multi-row upsert.
+ */
+@Service
+@Transactional
+@Slf4j
+public class EvaluationTelemetryService {
+
+    private final FlagEvaluationCountMapper flagEvaluationCountMapper;
+    private final long bucketMinutes;
+    private final Counter evaluations;
+
+    public EvaluationTelemetryService(FlagEvaluationCountMapper flagEvaluationCountMapper,
+            MeterRegistry meterRegistry,
+            @Value("${feature-flag.telemetry.bucket-minutes:60}") long bucketMinutes) {
+        this.flagEvaluationCountMapper = flagEvaluationCountMapper;
+        this.bucketMinutes = bucketMinutes;
+        this.evaluations = Counter.builder("feature_flag.telemetry.evaluations")
+                .description("Flag evaluations reported by consumers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add the counts of a report to the current bucket.
+     */
+    public void recordEvaluations(EvaluationReport report) {
+        recordEvaluations(report, LocalDateTime.now());
+    }
+
+    void recordEvaluations(EvaluationReport report, LocalDateTime now) {
+        // Merge repeated flags and sort by name, the order the upsert locks rows in
+        Map<String, long[]> merged = new TreeMap<>();
+        long total = 0;
+        for (EvaluationReport.FlagCount count : report.getCounts()) {
+            if (count.getOn() == 0 && count.getOff() == 0) {
+                continue;
+            }
+            long[] sums = merged.computeIfAbsent(count.getFlag(), flag -> new long[2]);
+            sums[0] += count.getOn();
+            sums[1] += count.getOff();
+            total += count.getOn() + count.getOff();
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        List<EvaluationReport.FlagCount> counts = new ArrayList<>(merged.size());
+        merged.forEach((flag, sums) -> counts.add(new EvaluationReport.FlagCount(flag, sums[0], sums[1])));
+
+        LocalDateTime bucketStart = bucketStart(now);
+        flagEvaluationCountMapper.addCounts(bucketStart, counts);
+        evaluations.increment(total);
+        log.debug("Recorded {} evaluations of {} flags in bucket {}", total, counts.size(), bucketStart);
+    }
+
+    // Buckets start at midnight and every bucketMinutes after it
+    LocalDateTime bucketStart(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        long minutesIntoDay = minute.getHour() * 60L + minute.getMinute();
+        return minute.minusMinutes(minutesIntoDay % bucketMinutes);
+    }
+}
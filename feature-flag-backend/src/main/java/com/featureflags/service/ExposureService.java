@@ -0,0 +1,91 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.ExposureResponse;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FeatureFlagMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the unique users each flag variant was served to.
+ *
+ * Consumers add the keys of the users they serve to a HyperLogLog sketch in
+ * Redis per flag, variant and UTC day. A day's count is the cardinality of
+ * its sketch, and the count over a range is the cardinality of the union of
+ * its days, so a user served on several days is counted once. All counts of
+ * a query are read in a single pipeline.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExposureService {
+
+    // Must match the keys written by the consumers
+    static final String KEY_PREFIX = "feature-flag:exposures:";
+    static final int MAX_DAYS = 31;
+
+    private static final String ON = "on";
+    private static final String OFF = "off";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final FeatureFlagMapper featureFlagMapper;
+
+    /**
+     * Get the users the flag's variants were served to from one UTC day to
+     * another, both included.
+     */
+    public ExposureResponse getExposures(String flagName, LocalDate from, LocalDate to) {
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount < 1 || dayCount > MAX_DAYS) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER,
+                    "Exposure range must cover 1 to " + MAX_DAYS + " days, got " + from + " to " + to);
+        }
+        if (!featureFlagMapper.existsByName(flagName)) {
+            throw new FlagNotFoundException("Feature flag not found with name: " + flagName);
+        }
+
+        List<LocalDate> dates = from.datesUntil(to.plusDays(1)).toList();
+        byte[][] onKeys = new byte[dates.size()][];
+        byte[][] offKeys = new byte[dates.size()][];
+        for (int i = 0; i < dates.size(); i++) {
+            onKeys[i] = key(flagName, ON, dates.get(i)).getBytes(StandardCharsets.UTF_8);
+            offKeys[i] = key(flagName, OFF, dates.get(i)).getBytes(StandardCharsets.UTF_8);
+        }
+        // A count per variant and day, then the union of each variant over the range
+        List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < dates.size(); i++) {
+                connection.hyperLogLogCommands().pfCount(onKeys[i]);
+                connection.hyperLogLogCommands().pfCount(offKeys[i]);
+            }
+            connection.hyperLogLogCommands().pfCount(onKeys);
+            connection.hyperLogLogCommands().pfCount(offKeys);
+            return null;
+        });
+
+        List<ExposureResponse.DailyExposures> days = new ArrayList<>(dates.size());
+        for (int i = 0; i < dates.size(); i++) {
+            days.add(new ExposureResponse.DailyExposures(dates.get(i), count(counts, 2 * i),
+                    count(counts, 2 * i + 1)));
+        }
+        return new ExposureResponse(flagName, from, to, count(counts, 2 * dates.size()),
+                count(counts, 2 * dates.size() + 1), days);
+    }
+
+    static String key(String flagName, String variant, LocalDate day) {
+        return KEY_PREFIX + flagName + ":" + variant + ":" + day;
+    }
+
+    private static long count(List<Object> counts, int index) {
+        Object count = counts.get(index);
+        return count != null ? ((Number) count).longValue() : 0;
+    }
+}
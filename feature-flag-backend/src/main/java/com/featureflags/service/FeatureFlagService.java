@@ -2,22 +2,41 @@ package com.featureflags.service;
 
 import com.featureflags.dto.CreateFlagRequest;
 import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FlagChangesResponse;
 import com.featureflags.dto.FlagListResponse;
+import com.featureflags.dto.FlagQuery;
+import com.featureflags.dto.FlagSort;
 import com.featureflags.dto.FlagResponse;
+import com.featureflags.dto.FlagSnapshotResponse;
 import com.featureflags.dto.UpdateFlagRequest;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.entity.FlagType;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
 import com.featureflags.exception.FlagNotFoundException;
 import com.featureflags.exception.FlagAlreadyExistsException;
+import com.featureflags.exception.FlagVersionConflictException;
 import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagSearch;
+import com.featureflags.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -29,38 +48,115 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FeatureFlagService {
 
+    // Names matched in memory beyond this are searched with LIKE instead of IN
+    private static final int MAX_INDEXED_NAME_MATCHES = 1000;
+    // Matches the server's ngram_token_size for the description full-text index
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 2;
+    // Largest number of flags a single batch request may ask for
+    static final int MAX_BATCH_FLAGS = 5_000;
+
     private final FeatureFlagMapper featureFlagMapper;
     private final MessagePublisherService messagePublisherService;
+    private final FlagChangeTracker flagChangeTracker;
+    private final FlagCountCache flagCountCache;
+    private final FlagNameIndex flagNameIndex;
+    private final FlagBatchLoader flagBatchLoader;
+    private final FlagMissCache flagMissCache;
+    private final FlagPrerequisiteValidator flagPrerequisiteValidator;
 
     /**
      * Get all feature flags with pagination.
      */
     @Transactional(readOnly = true)
     public FlagListResponse getAllFlags(int page, int size) {
-        log.debug("Getting all flags - page: {}, size: {}", page, size);
+        return getAllFlags(page, size, null);
+    }
 
-        int offset = page * size;
-        List<FeatureFlag> flags = featureFlagMapper.findAll(offset, size);
-        long total = featureFlagMapper.countAll();
+    /**
+     * Get all feature flags, newest first.
+     */
+    @Transactional(readOnly = true)
+    public FlagListResponse getAllFlags(int page, int size, String cursor) {
+        return getAllFlags(page, size, cursor, null);
+    }
+
+    /**
+     * Get the feature flags matching the given filters.
+     * With a cursor the page after it is read by keyset on (created_at, id),
+     * which is only supported for the default newest-first order; otherwise
+     * the page number is used as an offset. Unfiltered totals come from the
+     * count cache, filtered totals are counted per request.
+     */
+    @Transactional(readOnly = true)
+    public FlagListResponse getAllFlags(int page, int size, String cursor, FlagQuery query) {
+        log.debug("Getting all flags - page: {}, size: {}, cursor: {}, query: {}", page, size, cursor, query);
+
+        FlagQuery flagQuery = query != null ? query : FlagQuery.builder().build();
+        boolean defaultSort = flagQuery.getSort() == FlagSort.CREATED_DESC;
+        PageCursor pageCursor = cursor != null && !cursor.isBlank() ? PageCursor.decode(cursor) : null;
+        if (pageCursor != null && !defaultSort) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER,
+                    "Cursor pagination is only supported for the default sort order");
+        }
+
+        List<FeatureFlag> flags;
+        long total;
+        if (!flagQuery.hasFilters() && defaultSort) {
+            flags = pageCursor != null
+                    ? featureFlagMapper.findPageAfter(pageCursor.createdAt(), pageCursor.id(), size)
+                    : featureFlagMapper.findAll(page * size, size);
+            total = flagCountCache.get(featureFlagMapper::countAll);
+        } else {
+            String prefix = flagQuery.getPrefix() != null && !flagQuery.getPrefix().isEmpty()
+                    ? escapeLikePattern(flagQuery.getPrefix())
+                    : null;
+            FlagSearch search = null;
+            List<String> nameMatches = null;
+            if (flagQuery.getSearch() != null && !flagQuery.getSearch().isBlank()) {
+                String term = flagQuery.getSearch().trim();
+                String phrase = term.length() >= FULLTEXT_MIN_TOKEN_SIZE
+                        ? "\"" + term.replace("\"", "") + "\""
+                        : null;
+                search = new FlagSearch(escapeLikePattern(term), phrase);
+                nameMatches = flagNameIndex.search(term, MAX_INDEXED_NAME_MATCHES);
+            }
+            flags = featureFlagMapper.findByQuery(flagQuery, prefix, search, nameMatches,
+                    pageCursor != null ? pageCursor.createdAt() : null,
+                    pageCursor != null ? pageCursor.id() : null,
+                    pageCursor != null ? 0 : page * size, size);
+            total = featureFlagMapper.countByQuery(flagQuery, prefix, search, nameMatches);
+        }
 
         List<FlagResponse> flagResponses = flags.stream()
                 .map(FlagResponse::new)
                 .collect(Collectors.toList());
 
-        return new FlagListResponse(flagResponses, total, page, size);
+        FlagListResponse response = new FlagListResponse(flagResponses, total, page, size);
+        if (defaultSort && flags.size() == size) {
+            FeatureFlag last = flags.get(flags.size() - 1);
+            if (last.getCreatedAt() != null && last.getId() != null) {
+                response.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
+            }
+        }
+        return response;
     }
 
     /**
-     * Get a feature flag by name.
+     * Get a feature flag by name. Names known to be missing are rejected by the
+     * miss cache without a query; not-found exceptions carry no stack trace.
      */
     @Transactional(readOnly = true)
     @Cacheable(value = "featureFlags", key = "#name")
     public FlagResponse getFlagByName(String name) {
         log.debug("Getting flag by name: {}", name);
 
+        if (!flagMissCache.mightExist(name)) {
+            throw FlagNotFoundException.withoutStackTrace("Feature flag not found with name: " + name);
+        }
         FeatureFlag flag = featureFlagMapper.findByName(name);
         if (flag == null) {
-            throw new FlagNotFoundException("Feature flag not found with name: " + name);
+            flagMissCache.recordMiss(name);
+            throw FlagNotFoundException.withoutStackTrace("Feature flag not found with name: " + name);
         }
 
         return new FlagResponse(flag);
@@ -68,32 +164,46 @@ public class FeatureFlagService {
 
     /**
      * Create a new feature flag.
+     * Duplicates are detected by the UNIQUE constraint on name rather than a
+     * separate existence check, so concurrent creates can't both succeed.
      */
     @CacheEvict(value = "featureFlags", key = "#request.name")
     public FlagResponse createFlag(CreateFlagRequest request) {
         log.debug("Creating new flag: {}", request);
 
-        // Check if flag with same name already exists
-        if (featureFlagMapper.existsByName(request.getName())) {
-            throw new FlagAlreadyExistsException("Feature flag already exists with name: " + request.getName());
-        }
-
         FeatureFlag flag = new FeatureFlag();
         flag.setName(request.getName());
         flag.setDescription(request.getDescription());
         flag.setEnabled(request.getEnabled());
+        flag.setType(request.getType() != null ? request.getType() : FlagType.BOOLEAN);
+        flag.setValue(request.getValue());
+        flag.setRules(request.getRules());
+        flag.setPrerequisites(request.getPrerequisites());
         flag.setCreatedBy("system"); // In real app, get from security context
         flag.setUpdatedBy("system");
+        flag.setVersion(0L);
 
-        int result = featureFlagMapper.insert(flag);
+        flagPrerequisiteValidator.validate(flag.getName(), flag.getPrerequisites());
+        int result;
+        try {
+            result = featureFlagMapper.insert(flag);
+        } catch (DuplicateKeyException e) {
+            throw new FlagAlreadyExistsException("Feature flag already exists with name: " + request.getName(), e);
+        }
         if (result == 0) {
             throw new RuntimeException("Failed to create feature flag");
         }
+        featureFlagMapper.insertHistory(List.of(flag.getName()), FlagHistoryEntry.ChangeType.CREATED, "system");
+        flagCountCache.adjust(1);
+        flagNameIndex.add(flag.getName());
+        flagMissCache.add(flag.getName());
 
         log.info("Created feature flag: {}", flag);
 
         // Publish flag creation event
         messagePublisherService.publishFlagCreated(flag);
+        flagChangeTracker.recordChange(flag.getName());
+        flagBatchLoader.evict(flag.getName());
 
         return new FlagResponse(flag);
     }
@@ -103,33 +213,43 @@ public class FeatureFlagService {
      */
     @CacheEvict(value = "featureFlags", key = "#name")
     public FlagResponse updateFlag(String name, UpdateFlagRequest request) {
-        log.debug("Updating flag name: {} with request: {}", name, request);
+        return updateFlag(name, request, null);
+    }
 
-        FeatureFlag existingFlag = featureFlagMapper.findByName(name);
-        if (existingFlag == null) {
-            throw new FlagNotFoundException("Feature flag not found with name: " + name);
-        }
+    /**
+     * Update an existing feature flag, only at the expected version when one is
+     * given. The provided fields are written with a single conditional UPDATE,
+     * so concurrent updates can't overwrite each other's changes; the row is
+     * read back afterwards for the response and event.
+     */
+    @CacheEvict(value = "featureFlags", key = "#name")
+    public FlagResponse updateFlag(String name, UpdateFlagRequest request, Long expectedVersion) {
+        log.debug("Updating flag name: {} at version {} with request: {}", name, expectedVersion, request);
 
-        // Update fields if provided
-        if (request.getDescription() != null) {
-            existingFlag.setDescription(request.getDescription());
+        if (request.getPrerequisites() != null) {
+            flagPrerequisiteValidator.validate(name, request.getPrerequisites());
         }
-        if (request.getEnabled() != null) {
-            existingFlag.setEnabled(request.getEnabled());
+        int result = featureFlagMapper.updateByName(name, request.getDescription(), request.getEnabled(),
+                request.getRules(), request.getType(), request.getValue(), request.getPrerequisites(), "system",
+                expectedVersion); // In real app, get from security context
+        if (result == 0) {
+            throw writeRejected(name, expectedVersion);
         }
-        existingFlag.setUpdatedBy("system"); // In real app, get from security context
+        featureFlagMapper.insertHistory(List.of(name), FlagHistoryEntry.ChangeType.UPDATED, "system");
 
-        int result = featureFlagMapper.update(existingFlag);
-        if (result == 0) {
+        FeatureFlag updatedFlag = featureFlagMapper.findByName(name);
+        if (updatedFlag == null) {
             throw new RuntimeException("Failed to update feature flag");
         }
 
-        log.info("Updated feature flag: {}", existingFlag);
+        log.info("Updated feature flag: {}", updatedFlag);
 
         // Publish flag update event
-        messagePublisherService.publishFlagUpdated(existingFlag);
+        messagePublisherService.publishFlagUpdated(updatedFlag);
+        flagChangeTracker.recordChange(updatedFlag.getName());
+        flagBatchLoader.evict(updatedFlag.getName());
 
-        return new FlagResponse(existingFlag);
+        return new FlagResponse(updatedFlag);
     }
 
     /**
@@ -137,29 +257,56 @@ public class FeatureFlagService {
      */
     @CacheEvict(value = "featureFlags", key = "#name")
     public void deleteFlag(String name) {
-        log.debug("Deleting flag name: {}", name);
+        deleteFlag(name, null);
+    }
 
-        FeatureFlag flag = featureFlagMapper.findByName(name);
-        if (flag == null) {
-            throw new FlagNotFoundException("Feature flag not found with name: " + name);
-        }
+    /**
+     * Delete a feature flag with a single DELETE by name, only at the expected
+     * version when one is given. The last state is recorded in the history
+     * first and rolled back with the delete if it is rejected.
+     */
+    @CacheEvict(value = "featureFlags", key = "#name")
+    public void deleteFlag(String name, Long expectedVersion) {
+        log.debug("Deleting flag name: {} at version {}", name, expectedVersion);
 
-        int result = featureFlagMapper.deleteById(flag.getId());
+        featureFlagMapper.insertHistory(List.of(name), FlagHistoryEntry.ChangeType.DELETED, "system");
+        int result = featureFlagMapper.deleteByName(name, expectedVersion);
         if (result == 0) {
-            throw new RuntimeException("Failed to delete feature flag");
+            throw writeRejected(name, expectedVersion);
         }
+        flagCountCache.adjust(-1);
+        flagNameIndex.remove(name);
 
-        log.info("Deleted feature flag: {}", flag);
+        FeatureFlag flag = new FeatureFlag(name, null, null);
+        flag.setUpdatedBy("system");
+        flag.setUpdatedAt(java.time.LocalDateTime.now());
+        log.info("Deleted feature flag: {}", name);
 
         // Publish flag deletion event
         messagePublisherService.publishFlagDeleted(flag);
+        flagChangeTracker.recordChange(name);
+        flagBatchLoader.evict(name);
+    }
+
+    /**
+     * Explain why a conditional write matched no row. Only reached on the
+     * failure path, so successful writes stay a single statement.
+     */
+    private BusinessException writeRejected(String name, Long expectedVersion) {
+        if (expectedVersion != null && featureFlagMapper.existsByName(name)) {
+            return new FlagVersionConflictException(
+                    "Feature flag " + name + " is no longer at version " + expectedVersion);
+        }
+        return new FlagNotFoundException("Feature flag not found with name: " + name);
     }
 
     /**
      * Get multiple feature flags with timestamp information for consistency
-     * checking.
+     * checking. Requests are limited to {@link #MAX_BATCH_FLAGS} names; large
+     * ones are loaded in parallel chunks outside a transaction, so each flag's
+     * timestamp is consistent but the set is not a single snapshot.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FeatureFlagBatchResponse getFeatureFlagsBatch(List<String> flagNames) {
         log.debug("Getting batch feature flags with timestamps: {}", flagNames);
 
@@ -169,21 +316,18 @@ public class FeatureFlagService {
                     .responseTimestamp(java.time.LocalDateTime.now())
                     .build();
         }
+        if (flagNames.size() > MAX_BATCH_FLAGS) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER,
+                    "At most " + MAX_BATCH_FLAGS + " flags can be requested in one batch");
+        }
 
         try {
-            // Get atomic snapshot of all requested flags
-            List<FeatureFlag> flags = featureFlagMapper.findByNames(flagNames);
+            List<FeatureFlag> flags = flagBatchLoader.load(flagNames);
 
             // Build response with timestamp information
             Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flagsWithTimestamps = new java.util.HashMap<>();
             for (FeatureFlag flag : flags) {
-                FeatureFlagBatchResponse.FeatureFlagInfo flagInfo = FeatureFlagBatchResponse.FeatureFlagInfo.builder()
-                        .enabled(flag.getEnabled())
-                        .timestamp(flag.getUpdatedAt())
-                        .name(flag.getName())
-                        .description(flag.getDescription())
-                        .build();
-                flagsWithTimestamps.put(flag.getName(), flagInfo);
+                flagsWithTimestamps.put(flag.getName(), toFlagInfo(flag));
             }
 
             return FeatureFlagBatchResponse.builder()
@@ -197,4 +341,147 @@ public class FeatureFlagService {
         }
     }
 
+    /**
+     * Rebuild the state of all flags at the given time from the change
+     * history. Flags whose latest change by then was a deletion or archiving
+     * are left out.
+     */
+    @Transactional(readOnly = true)
+    public FlagSnapshotResponse getSnapshotAt(LocalDateTime at) {
+        log.debug("Getting feature flag snapshot at {}", at);
+
+        // Entries are ordered by name and id, so the last one per name wins a timestamp tie
+        Map<String, FlagHistoryEntry> latest = new LinkedHashMap<>();
+        for (FlagHistoryEntry entry : featureFlagMapper.findHistorySnapshotAt(at)) {
+            latest.put(entry.getName(), entry);
+        }
+        List<FlagResponse> flags = latest.values().stream()
+                .filter(entry -> entry.getChangeType() != FlagHistoryEntry.ChangeType.DELETED
+                        && entry.getChangeType() != FlagHistoryEntry.ChangeType.ARCHIVED)
+                .map(FeatureFlagService::toFlagResponse)
+                .collect(Collectors.toList());
+        return new FlagSnapshotResponse(at, flags);
+    }
+
+    private static FlagResponse toFlagResponse(FlagHistoryEntry entry) {
+        FeatureFlag flag = new FeatureFlag(entry.getName(), entry.getDescription(), entry.getEnabled());
+        flag.setType(entry.getType());
+        flag.setValue(entry.getValue());
+        flag.setRules(entry.getRules());
+        flag.setPrerequisites(entry.getPrerequisites());
+        flag.setVersion(entry.getVersion());
+        flag.setUpdatedAt(entry.getChangedAt());
+        flag.setUpdatedBy(entry.getChangedBy());
+        return new FlagResponse(flag);
+    }
+
+    /**
+     * Get the requested flags changed since the given revision.
+     * Flags are selected by exact name or by name prefix. Returns a full
+     * snapshot of the selected flags when the revision is unknown or older
+     * than the change log; requested names missing from it are listed as
+     * deleted, and consumers drop any other flags of the selection that the
+     * snapshot doesn't contain.
+     */
+    @Transactional(readOnly = true)
+    public FlagChangesResponse getFlagChanges(List<String> flagNames, List<String> prefixes, long sinceRevision) {
+        FlagChangeTracker.ChangeSet changeSet = flagChangeTracker.changesSince(sinceRevision);
+        Set<String> names = flagNames == null ? Set.of() : Set.copyOf(flagNames);
+        List<String> namePrefixes = prefixes == null ? List.of() : prefixes;
+
+        Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> changedFlags = new HashMap<>();
+        List<String> deleted = new ArrayList<>();
+        if (changeSet.fullSnapshot()) {
+            if (!names.isEmpty()) {
+                featureFlagMapper.findStatesByNames(List.copyOf(names))
+                        .forEach(flag -> changedFlags.put(flag.getName(), toFlagInfo(flag)));
+            }
+            for (String prefix : namePrefixes) {
+                featureFlagMapper.findStatesByNamePrefix(escapeLikePattern(prefix))
+                        .forEach(flag -> changedFlags.put(flag.getName(), toFlagInfo(flag)));
+            }
+            // Requested names that no longer exist, so a consumer coming back drops them
+            names.stream()
+                    .filter(name -> !changedFlags.containsKey(name))
+                    .sorted()
+                    .forEach(deleted::add);
+        } else {
+            List<String> lookupNames = changeSet.changedFlags().stream()
+                    .filter(name -> names.contains(name) || matchesAnyPrefix(name, namePrefixes))
+                    .sorted()
+                    .collect(Collectors.toList());
+            if (!lookupNames.isEmpty()) {
+                featureFlagMapper.findStatesByNames(lookupNames)
+                        .forEach(flag -> changedFlags.put(flag.getName(), toFlagInfo(flag)));
+            }
+            lookupNames.stream()
+                    .filter(name -> !changedFlags.containsKey(name))
+                    .forEach(deleted::add);
+        }
+
+        return FlagChangesResponse.builder()
+                .revision(changeSet.revision())
+                .fullSnapshot(changeSet.fullSnapshot())
+                .flags(changedFlags)
+                .deleted(deleted)
+                .responseTimestamp(java.time.LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Long-poll for changes to the requested flags.
+     * Completes as soon as one of them changes after the given revision, or with
+     * an empty delta when the timeout expires. Changes to other flags do not
+     * end the poll.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<FlagChangesResponse> pollFlagChanges(List<String> flagNames, List<String> prefixes,
+            long sinceRevision, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        return awaitFlagChanges(flagNames, prefixes, sinceRevision, deadline);
+    }
+
+    private CompletableFuture<FlagChangesResponse> awaitFlagChanges(List<String> flagNames, List<String> prefixes,
+            long sinceRevision, long deadline) {
+        long remaining = Math.max(0, deadline - System.currentTimeMillis());
+        return flagChangeTracker.awaitChangeAfter(sinceRevision, remaining).thenCompose(revision -> {
+            FlagChangesResponse response = getFlagChanges(flagNames, prefixes, sinceRevision);
+            boolean hasChanges = response.isFullSnapshot() || !response.getFlags().isEmpty()
+                    || !response.getDeleted().isEmpty();
+            if (hasChanges || System.currentTimeMillis() >= deadline) {
+                return CompletableFuture.completedFuture(response);
+            }
+            return awaitFlagChanges(flagNames, prefixes, response.getRevision(), deadline);
+        });
+    }
+
+    private static boolean matchesAnyPrefix(String name, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Map a flag state read by the lean state queries; the description is not
+     * loaded and stays empty.
+     */
+    static FeatureFlagBatchResponse.FeatureFlagInfo toFlagInfo(FeatureFlag flag) {
+        return FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                .enabled(flag.getEnabled())
+                .type(flag.getType())
+                .value(flag.getValue())
+                .rules(flag.getRules())
+                .prerequisites(flag.getPrerequisites())
+                .timestamp(flag.getUpdatedAt())
+                .name(flag.getName())
+                .build();
+    }
+
 }
@@ -0,0 +1,174 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.ArchiveFlagsRequest;
+import com.featureflags.dto.ArchiveFlagsResponse;
+import com.featureflags.dto.ArchivedFlagResponse;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.exception.FlagAlreadyExistsException;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagArchiveMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for moving flags into cold storage and back.
+ *
+ * Archived rows move from feature_flags to archived_feature_flags, so they
+ * are no longer part of the snapshots and change feeds consumers sync, and
+ * consumers drop them on the aggregated deletion event. A flag that another
+ * flag staying in place names as a prerequisite is skipped, as archiving it
+ * would turn that flag off. Restoring moves the row back as it was archived.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class FlagArchiveService {
+
+    private static final String CACHE_NAME = "featureFlags";
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final FlagArchiveMapper flagArchiveMapper;
+    private final StaleFlagDetector staleFlagDetector;
+    private final MessagePublisherService messagePublisherService;
+    private final FlagChangeTracker flagChangeTracker;
+    private final FlagCountCache flagCountCache;
+    private final FlagNameIndex flagNameIndex;
+    private final FlagBatchLoader flagBatchLoader;
+    private final FlagMissCache flagMissCache;
+    private final CacheManager cacheManager;
+
+    /**
+     * Archive the named flags, skipping unknown flags and flags still needed
+     * as prerequisites. Archiving replaces an older archived flag of the same
+     * name.
+     */
+    public ArchiveFlagsResponse archiveFlags(ArchiveFlagsRequest request) {
+        Set<String> requested = new LinkedHashSet<>(request.getNames());
+        Map<String, FeatureFlag> flags = new LinkedHashMap<>();
+        for (FeatureFlag flag : featureFlagMapper.findByNamesForUpdate(List.copyOf(requested))) {
+            flags.put(flag.getName(), flag);
+        }
+        List<ArchiveFlagsResponse.Skipped> skipped = new ArrayList<>();
+        for (String name : requested) {
+            if (!flags.containsKey(name)) {
+                skipped.add(new ArchiveFlagsResponse.Skipped(name, "Feature flag not found with name: " + name));
+            }
+        }
+        // Read after the rows are locked: a write adding one of them as a prerequisite locks it too
+        keepRequiredPrerequisites(flags, featureFlagMapper.findPrerequisiteEdges(), skipped);
+
+        List<String> names = List.copyOf(flags.keySet());
+        long snapshotBytes = 0;
+        if (!names.isEmpty()) {
+            flagArchiveMapper.deleteByNames(names);
+            flagArchiveMapper.archiveByNames(names, "system");
+            featureFlagMapper.insertHistory(names, FlagHistoryEntry.ChangeType.ARCHIVED, "system");
+            featureFlagMapper.deleteByNames(names);
+
+            List<FeatureFlagEventDTO.FlagChange> changes = new ArrayList<>(names.size());
+            for (FeatureFlag flag : flags.values()) {
+                snapshotBytes += staleFlagDetector.snapshotBytes(flag);
+                changes.add(new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED,
+                        flag.getName(), null));
+                afterWrite(flag.getName());
+                flagNameIndex.remove(flag.getName());
+            }
+            flagCountCache.adjust(-names.size());
+            messagePublisherService.publishFlagsChanged(changes, "system");
+        }
+
+        log.info("Archived {} feature flags, skipped {}, {} snapshot bytes removed", names.size(), skipped.size(),
+                snapshotBytes);
+        return ArchiveFlagsResponse.builder()
+                .archived(names)
+                .skipped(skipped)
+                .snapshotBytesRemoved(snapshotBytes)
+                .build();
+    }
+
+    /**
+     * Move an archived flag back to the live flags, at the next version.
+     */
+    public FlagResponse restoreFlag(String name) {
+        if (flagArchiveMapper.findByNameForUpdate(name) == null) {
+            throw new FlagNotFoundException("Archived feature flag not found with name: " + name);
+        }
+        if (featureFlagMapper.existsByName(name)) {
+            throw new FlagAlreadyExistsException("Feature flag already exists with name: " + name);
+        }
+        flagArchiveMapper.restoreByName(name, "system");
+        flagArchiveMapper.deleteByNames(List.of(name));
+        featureFlagMapper.insertHistory(List.of(name), FlagHistoryEntry.ChangeType.RESTORED, "system");
+        FeatureFlag flag = featureFlagMapper.findByName(name);
+
+        afterWrite(name);
+        flagCountCache.adjust(1);
+        flagNameIndex.add(name);
+        flagMissCache.add(name);
+        log.info("Restored archived feature flag: {}", name);
+
+        messagePublisherService.publishFlagCreated(flag);
+        return new FlagResponse(flag);
+    }
+
+    /**
+     * Get the most recently archived flags.
+     */
+    @Transactional(readOnly = true)
+    public List<ArchivedFlagResponse> getArchivedFlags(int limit) {
+        return flagArchiveMapper.findRecent(limit).stream()
+                .map(ArchivedFlagResponse::new)
+                .toList();
+    }
+
+    /**
+     * Drop the flags that a flag staying in place names as a prerequisite from
+     * the ones to archive, until no remaining one is needed.
+     */
+    private static void keepRequiredPrerequisites(Map<String, FeatureFlag> flags, List<FeatureFlag> edges,
+            List<ArchiveFlagsResponse.Skipped> skipped) {
+        Map<String, List<String>> prerequisites = new HashMap<>();
+        for (FeatureFlag flag : edges) {
+            prerequisites.put(flag.getName(), flag.getPrerequisites());
+        }
+        ArrayDeque<String> kept = new ArrayDeque<>();
+        prerequisites.keySet().stream().filter(name -> !flags.containsKey(name)).forEach(kept::add);
+        while (!kept.isEmpty()) {
+            String name = kept.poll();
+            for (String prerequisite : prerequisites.getOrDefault(name, List.of())) {
+                if (flags.remove(prerequisite) != null) {
+                    skipped.add(new ArchiveFlagsResponse.Skipped(prerequisite,
+                            "Required as a prerequisite by " + name));
+                    kept.add(prerequisite);
+                }
+            }
+        }
+    }
+
+    private void afterWrite(String name) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(name);
+        }
+        flagChangeTracker.recordChange(name);
+        flagBatchLoader.evict(name);
+    }
+}
@@ -0,0 +1,163 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Loads flag states for large batch requests.
+ *
+ * Recently read states are served from a short-lived near-cache, which is
+ * evicted per flag after a write commits. The remaining names are looked up in
+ * chunks of at most {@link #CHUNK_SIZE}, each padded to a power of two by
+ * repeating its last name, so only a handful of distinct IN (...) statement
+ * shapes reach the driver's prepared statement cache. Multiple chunks are
+ * queried in parallel on a small pool, each on its own pooled connection.
+ * A load racing a write may cache the previous state until the TTL expires.
+ */
+@Component
+@Slf4j
+public class FlagBatchLoader {
+
+    static final int CHUNK_SIZE = 128;
+    static final int PARALLELISM = 4;
+    static final long NEAR_CACHE_TTL_MS = 5_000;
+    static final int NEAR_CACHE_MAX_ENTRIES = 10_000;
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final LongSupplier clock;
+    private final ExecutorService executor;
+    private final Map<String, CachedState> nearCache = new ConcurrentHashMap<>();
+
+    private record CachedState(FeatureFlag flag, long loadedAt) {
+    }
+
+    @Autowired
+    public FlagBatchLoader(FeatureFlagMapper featureFlagMapper) {
+        this(featureFlagMapper, System::currentTimeMillis);
+    }
+
+    FlagBatchLoader(FeatureFlagMapper featureFlagMapper, LongSupplier clock) {
+        this.featureFlagMapper = featureFlagMapper;
+        this.clock = clock;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "flag-batch-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the states of the given flags. Unknown names are left out of the
+     * result.
+     */
+    public List<FeatureFlag> load(Collection<String> flagNames) {
+        long now = clock.getAsLong();
+        List<FeatureFlag> flags = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+        for (String name : new LinkedHashSet<>(flagNames)) {
+            CachedState cached = nearCache.get(name);
+            if (cached != null && now - cached.loadedAt() < NEAR_CACHE_TTL_MS) {
+                flags.add(cached.flag());
+            } else {
+                misses.add(name);
+            }
+        }
+        if (misses.isEmpty()) {
+            return flags;
+        }
+
+        List<FeatureFlag> loaded = loadChunks(misses);
+        flags.addAll(loaded);
+        cache(loaded, now);
+        log.debug("Loaded {} flag states: {} from near-cache, {} names queried", flags.size(),
+                flags.size() - loaded.size(), misses.size());
+        return flags;
+    }
+
+    private List<FeatureFlag> loadChunks(List<String> names) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < names.size(); from += CHUNK_SIZE) {
+            chunks.add(padChunk(names.subList(from, Math.min(from + CHUNK_SIZE, names.size()))));
+        }
+        if (chunks.size() == 1) {
+            return featureFlagMapper.findStatesByNames(chunks.get(0));
+        }
+
+        List<CompletableFuture<List<FeatureFlag>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> featureFlagMapper.findStatesByNames(chunk),
+                        executor))
+                .toList();
+        List<FeatureFlag> flags = new ArrayList<>(names.size());
+        futures.forEach(future -> flags.addAll(future.join()));
+        return flags;
+    }
+
+    /**
+     * Pad a chunk to the next power of two with its last name, so the number of
+     * distinct statement shapes stays logarithmic in {@link #CHUNK_SIZE}.
+     */
+    static List<String> padChunk(List<String> chunk) {
+        int size = Math.min(CHUNK_SIZE, Integer.highestOneBit(Math.max(1, chunk.size() - 1)) << 1);
+        if (chunk.size() == 1 || chunk.size() == size) {
+            return chunk;
+        }
+        List<String> padded = new ArrayList<>(size);
+        padded.addAll(chunk);
+        String last = chunk.get(chunk.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private void cache(List<FeatureFlag> flags, long now) {
+        if (nearCache.size() + flags.size() > NEAR_CACHE_MAX_ENTRIES) {
+            nearCache.values().removeIf(cached -> now - cached.loadedAt() >= NEAR_CACHE_TTL_MS);
+            if (nearCache.size() + flags.size() > NEAR_CACHE_MAX_ENTRIES) {
+                return;
+            }
+        }
+        flags.forEach(flag -> nearCache.put(flag.getName(), new CachedState(flag, now)));
+    }
+
+    /**
+     * Drop the cached state of a flag. Inside a transaction the eviction is
+     * applied only after commit.
+     */
+    public void evict(String flagName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    nearCache.remove(flagName);
+                }
+            });
+        } else {
+            nearCache.remove(flagName);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
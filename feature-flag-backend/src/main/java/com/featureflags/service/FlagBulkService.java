@@ -0,0 +1,259 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.BulkFlagRequest;
+import com.featureflags.dto.BulkFlagResponse;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.repository.FeatureFlagMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for applying many flag creates, updates and deletes at once.
+ *
+ * All rows touched by a request are read and locked with a single query, the
+ * writes are queued on a MyBatis batch executor and sent together when the
+ * statements are flushed, and everything runs in one transaction. Operations
+ * that can't be applied (unknown flag, duplicate name, missing fields) are
+ * reported per item and skipped. Consumers receive one aggregated event for
+ * the whole request instead of one event per flag.
+ */
+@Service
+@Transactional
+@Slf4j
+public class FlagBulkService {
+
+    private static final String CACHE_NAME = "featureFlags";
+
+    private final SqlSession batchSqlSession;
+    private final FeatureFlagMapper batchMapper;
+    private final MessagePublisherService messagePublisherService;
+    private final FlagChangeTracker flagChangeTracker;
+    private final FlagCountCache flagCountCache;
+    private final FlagNameIndex flagNameIndex;
+    private final FlagBatchLoader flagBatchLoader;
+    private final FlagMissCache flagMissCache;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public FlagBulkService(SqlSessionFactory sqlSessionFactory, MessagePublisherService messagePublisherService,
+            FlagChangeTracker flagChangeTracker, FlagCountCache flagCountCache, FlagNameIndex flagNameIndex,
+            FlagBatchLoader flagBatchLoader, FlagMissCache flagMissCache, CacheManager cacheManager) {
+        this(new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH), messagePublisherService,
+                flagChangeTracker, flagCountCache, flagNameIndex, flagBatchLoader, flagMissCache, cacheManager);
+    }
+
+    FlagBulkService(SqlSession batchSqlSession, MessagePublisherService messagePublisherService,
+            FlagChangeTracker flagChangeTracker, FlagCountCache flagCountCache, FlagNameIndex flagNameIndex,
+            FlagBatchLoader flagBatchLoader, FlagMissCache flagMissCache, CacheManager cacheManager) {
+        this.batchSqlSession = batchSqlSession;
+        this.batchMapper = batchSqlSession.getMapper(FeatureFlagMapper.class);
+        this.messagePublisherService = messagePublisherService;
+        this.flagChangeTracker = flagChangeTracker;
+        this.flagCountCache = flagCountCache;
+        this.flagNameIndex = flagNameIndex;
+        this.flagBatchLoader = flagBatchLoader;
+        this.flagMissCache = flagMissCache;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Apply the operations of a bulk request in order.
+     * Only this service's batch session may be used inside the transaction,
+     * since MyBatis can't switch executor types within one transaction.
+     */
+    public BulkFlagResponse applyBulk(BulkFlagRequest request) {
+        List<BulkFlagRequest.Operation> operations = request.getOperations();
+        log.debug("Applying bulk flag request with {} operations", operations.size());
+
+        Set<String> names = operations.stream()
+                .map(BulkFlagRequest.Operation::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, FeatureFlag> existing = batchMapper.findByNamesForUpdate(List.copyOf(names)).stream()
+                .collect(Collectors.toMap(FeatureFlag::getName, Function.identity()));
+
+        List<BulkFlagResponse.ItemResult> results = new ArrayList<>();
+        List<FeatureFlagEventDTO.FlagChange> changes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BulkFlagRequest.Operation operation = operations.get(i);
+            BulkFlagResponse.ItemResult result = seen.add(operation.getName())
+                    ? apply(operation, existing.get(operation.getName()), changes)
+                    : failure(operation, BulkFlagResponse.Status.INVALID, "Flag appears more than once in the request");
+            result.setIndex(i);
+            results.add(result);
+        }
+
+        queueHistoryAndDeletes(changes, existing);
+        verifyBatchResults(batchSqlSession.flushStatements());
+
+        for (FeatureFlagEventDTO.FlagChange change : changes) {
+            afterWrite(change);
+        }
+        if (!changes.isEmpty()) {
+            messagePublisherService.publishFlagsChanged(changes, "system");
+        }
+
+        int succeeded = (int) results.stream().filter(BulkFlagResponse.ItemResult::isSuccess).count();
+        log.info("Applied bulk flag request: {} succeeded, {} failed", succeeded, results.size() - succeeded);
+        return BulkFlagResponse.builder()
+                .results(results)
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .build();
+    }
+
+    private BulkFlagResponse.ItemResult apply(BulkFlagRequest.Operation operation, FeatureFlag flag,
+            List<FeatureFlagEventDTO.FlagChange> changes) {
+        switch (operation.getOp()) {
+            case CREATE:
+                if (flag != null) {
+                    return failure(operation, BulkFlagResponse.Status.ALREADY_EXISTS,
+                            "Feature flag already exists with name: " + operation.getName());
+                }
+                if (operation.getEnabled() == null) {
+                    return failure(operation, BulkFlagResponse.Status.INVALID, "Enabled status is required");
+                }
+                FeatureFlag created = new FeatureFlag(operation.getName(), operation.getDescription(),
+                        operation.getEnabled());
+                created.setCreatedBy("system");
+                created.setUpdatedBy("system");
+                batchMapper.insert(created);
+                changes.add(new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.CREATED,
+                        created.getName(), created.getEnabled()));
+                return success(operation, BulkFlagResponse.Status.CREATED);
+            case UPDATE:
+                if (flag == null) {
+                    return notFound(operation);
+                }
+                if (operation.getDescription() != null) {
+                    flag.setDescription(operation.getDescription());
+                }
+                if (operation.getEnabled() != null) {
+                    flag.setEnabled(operation.getEnabled());
+                }
+                flag.setUpdatedBy("system");
+                batchMapper.update(flag);
+                changes.add(new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED,
+                        flag.getName(), flag.getEnabled()));
+                return success(operation, BulkFlagResponse.Status.UPDATED);
+            case DELETE:
+                if (flag == null) {
+                    return notFound(operation);
+                }
+                // The delete is queued with the history rows, after the row has been copied
+                changes.add(new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED,
+                        flag.getName(), null));
+                return success(operation, BulkFlagResponse.Status.DELETED);
+            default:
+                return failure(operation, BulkFlagResponse.Status.INVALID, "Unsupported operation");
+        }
+    }
+
+    /**
+     * Queue one history statement per change type, so the batch keeps one
+     * statement per flag only for the writes themselves. Deleted flags are
+     * copied to the history before their deletes are queued.
+     */
+    private void queueHistoryAndDeletes(List<FeatureFlagEventDTO.FlagChange> changes,
+            Map<String, FeatureFlag> existing) {
+        Map<FeatureFlagEventDTO.EventType, List<String>> namesByType = changes.stream()
+                .collect(Collectors.groupingBy(FeatureFlagEventDTO.FlagChange::getEventType,
+                        () -> new EnumMap<>(FeatureFlagEventDTO.EventType.class),
+                        Collectors.mapping(FeatureFlagEventDTO.FlagChange::getFlagName, Collectors.toList())));
+
+        List<String> created = namesByType.get(FeatureFlagEventDTO.EventType.CREATED);
+        if (created != null) {
+            batchMapper.insertHistory(created, FlagHistoryEntry.ChangeType.CREATED, "system");
+        }
+        List<String> updated = namesByType.get(FeatureFlagEventDTO.EventType.UPDATED);
+        if (updated != null) {
+            batchMapper.insertHistory(updated, FlagHistoryEntry.ChangeType.UPDATED, "system");
+        }
+        List<String> deleted = namesByType.get(FeatureFlagEventDTO.EventType.DELETED);
+        if (deleted != null) {
+            batchMapper.insertHistory(deleted, FlagHistoryEntry.ChangeType.DELETED, "system");
+            for (String name : deleted) {
+                batchMapper.deleteById(existing.get(name).getId());
+            }
+        }
+    }
+
+    /**
+     * Roll back the whole request if any queued write matched no row, which
+     * means the flag changed underneath us despite the row locks.
+     */
+    private void verifyBatchResults(List<BatchResult> batchResults) {
+        for (BatchResult batchResult : batchResults) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                if (updateCount == 0) {
+                    throw new BusinessException(ErrorCode.FLAG_OPERATION_FAILED,
+                            "Bulk write affected no rows for statement " + batchResult.getMappedStatement().getId());
+                }
+            }
+        }
+    }
+
+    private void afterWrite(FeatureFlagEventDTO.FlagChange change) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(change.getFlagName());
+        }
+        if (change.getEventType() == FeatureFlagEventDTO.EventType.CREATED) {
+            flagCountCache.adjust(1);
+            flagNameIndex.add(change.getFlagName());
+            flagMissCache.add(change.getFlagName());
+        } else if (change.getEventType() == FeatureFlagEventDTO.EventType.DELETED) {
+            flagCountCache.adjust(-1);
+            flagNameIndex.remove(change.getFlagName());
+        }
+        flagChangeTracker.recordChange(change.getFlagName());
+        flagBatchLoader.evict(change.getFlagName());
+    }
+
+    private static BulkFlagResponse.ItemResult success(BulkFlagRequest.Operation operation,
+            BulkFlagResponse.Status status) {
+        return BulkFlagResponse.ItemResult.builder()
+                .name(operation.getName())
+                .op(operation.getOp())
+                .status(status)
+                .build();
+    }
+
+    private static BulkFlagResponse.ItemResult notFound(BulkFlagRequest.Operation operation) {
+        return failure(operation, BulkFlagResponse.Status.NOT_FOUND,
+                "Feature flag not found with name: " + operation.getName());
+    }
+
+    private static BulkFlagResponse.ItemResult failure(BulkFlagRequest.Operation operation,
+            BulkFlagResponse.Status status, String message) {
+        return BulkFlagResponse.ItemResult.builder()
+                .name(operation.getName())
+                .op(operation.getOp())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
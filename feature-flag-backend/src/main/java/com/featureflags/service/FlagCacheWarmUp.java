@@ -0,0 +1,161 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preloads the "featureFlags" read cache after startup so the first wave of
+ * lookups after a deploy doesn't fall through to MySQL key by key.
+ *
+ * All flags are streamed with a MyBatis cursor in one read-only transaction
+ * and stored only where the cache has no entry yet. The cache is shared by
+ * all replicas, so a write elsewhere can evict a key just before a streamed
+ * row for it is stored. Flags any replica changed while the warm-up ran are
+ * therefore evicted afterwards, and a change recorded only after that pass
+ * is covered by the cache TTL. As a health indicator, included in the
+ * readiness group, the warm-up reports OUT_OF_SERVICE until it completes,
+ * fails or runs out of time.
+ */
+@Component
+@Slf4j
+public class FlagCacheWarmUp implements HealthIndicator {
+
+    static final String CACHE_NAME = "featureFlags";
+
+    enum State {
+        PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED, DISABLED
+    }
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final FlagChangeTracker flagChangeTracker;
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final Timer duration;
+
+    private volatile State state = State.PENDING;
+    private volatile long rows;
+    private volatile long deadline;
+
+    public FlagCacheWarmUp(FeatureFlagMapper featureFlagMapper, CacheManager cacheManager,
+            PlatformTransactionManager transactionManager, FlagChangeTracker flagChangeTracker,
+            MeterRegistry meterRegistry,
+            @Value("${feature-flag.warm-up.enabled:true}") boolean enabled,
+            @Value("${feature-flag.warm-up.timeout-ms:30000}") long timeoutMs) {
+        this.featureFlagMapper = featureFlagMapper;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.flagChangeTracker = flagChangeTracker;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.duration = Timer.builder("feature_flag.cache.warmup.duration")
+                .description("Time taken to preload the feature flag cache at startup")
+                .register(meterRegistry);
+        Gauge.builder("feature_flag.cache.warmup.rows", this, warmUp -> warmUp.rows)
+                .description("Feature flags loaded into the cache by the startup warm-up")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "flag-cache-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        deadline = System.currentTimeMillis() + timeoutMs;
+        state = State.RUNNING;
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            state = State.DISABLED;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        long startRevision = flagChangeTracker.currentRevision();
+        try {
+            boolean finished = Boolean.TRUE.equals(transactionTemplate.execute(status -> stream(cache)));
+            evictChangedSince(cache, startRevision);
+            state = finished ? State.COMPLETED : State.TIMED_OUT;
+        } catch (RuntimeException e) {
+            evictChangedSince(cache, startRevision);
+            state = State.FAILED;
+            log.warn("Feature flag cache warm-up failed after {} flags: {}", rows, e.getMessage());
+        } finally {
+            duration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        log.info("Feature flag cache warm-up {} with {} flags in {}ms", state, rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+
+    /**
+     * Stream all flags into the cache. Returns false when the deadline passed
+     * before the last row.
+     */
+    private boolean stream(Cache cache) {
+        try (Cursor<FeatureFlag> cursor = featureFlagMapper.streamAll()) {
+            for (FeatureFlag flag : cursor) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                cache.putIfAbsent(flag.getName(), new FlagResponse(flag));
+                rows++;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to close feature flag cursor", e);
+        }
+    }
+
+    private void evictChangedSince(Cache cache, long revision) {
+        FlagChangeTracker.ChangeSet changeSet = flagChangeTracker.changesSince(revision);
+        if (changeSet.fullSnapshot()) {
+            cache.clear();
+        } else {
+            changeSet.changedFlags().forEach(cache::evict);
+        }
+    }
+
+    @Override
+    public Health health() {
+        State current = state;
+        boolean warming = current == State.PENDING && enabled
+                || current == State.RUNNING && System.currentTimeMillis() < deadline;
+        Health.Builder builder = warming ? Health.outOfService() : Health.up();
+        return builder.withDetail("state", current).withDetail("rows", rows).build();
+    }
+
+    State getState() {
+        return state;
+    }
+
+    long getRows() {
+        return rows;
+    }
+}
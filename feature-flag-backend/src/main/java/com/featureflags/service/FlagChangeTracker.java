@@ -0,0 +1,232 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FlagRevision;
+import com.featureflags.repository.FlagChangeMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Tracks a monotonically increasing revision of the flag set and a bounded log
+ * of which flags changed at each revision, so long-polling consumers can wait
+ * for the next change and receive only deltas.
+ *
+ * The revision and the log live in the database and are shared by all
+ * replicas, so a consumer may poll any of them. Each committed transaction
+ * records its changed flags under one new revision, and the new revision is
+ * announced on Redis to wake consumers waiting on other replicas. A replica
+ * that misses an announcement still answers from the database when the poll
+ * times out.
+ */
+@Component
+@Slf4j
+public class FlagChangeTracker {
+
+    public static final String CHANGES_CHANNEL = "feature-flag-changes";
+
+    static final long MAX_RETAINED_REVISIONS = 10_000;
+    static final long PRUNE_INTERVAL = 100;
+
+    private final FlagChangeMapper flagChangeMapper;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate recordTemplate;
+    private final TransactionTemplate readTemplate;
+    private final List<CompletableFuture<Long>> waiters = new ArrayList<>();
+    private final ExecutorService notifier;
+
+    // Latest revision this replica knows of
+    private long revision;
+
+    public FlagChangeTracker(FlagChangeMapper flagChangeMapper, PlatformTransactionManager transactionManager,
+            RedisTemplate<String, String> redisTemplate) {
+        this.flagChangeMapper = flagChangeMapper;
+        this.redisTemplate = redisTemplate;
+        // Recording runs after the writing transaction has committed
+        this.recordTemplate = new TransactionTemplate(transactionManager);
+        this.recordTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Reads the revision and the log from one snapshot
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.notifier = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "flag-change-notifier-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Changed flag names since a revision, or a full snapshot marker when the
+     * revision is unknown or older than the retained change log.
+     */
+    public record ChangeSet(long revision, boolean fullSnapshot, Set<String> changedFlags) {
+    }
+
+    /**
+     * Latest revision, read from the database.
+     */
+    public long currentRevision() {
+        long latest = flagChangeMapper.findRevision().getRevision();
+        advanceTo(latest);
+        return latest;
+    }
+
+    /**
+     * Record a change to the given flag. When called inside a transaction the
+     * changes are recorded after commit, all under one revision, so waiting
+     * consumers never read uncommitted state.
+     */
+    @SuppressWarnings("unchecked")
+    public void recordChange(String flagName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(Set.of(flagName));
+            return;
+        }
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> names = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, names);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(names);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FlagChangeTracker.this);
+                }
+            });
+            pending = names;
+        }
+        pending.add(flagName);
+    }
+
+    private void record(Collection<String> names) {
+        Long recorded;
+        try {
+            recorded = recordTemplate.execute(status -> {
+                flagChangeMapper.incrementRevision();
+                FlagRevision current = flagChangeMapper.findRevision();
+                long newRevision = current.getRevision();
+                flagChangeMapper.insertChanges(newRevision, names);
+                long floor = newRevision - MAX_RETAINED_REVISIONS;
+                if (newRevision % PRUNE_INTERVAL == 0 && floor > current.getFloorRevision()) {
+                    flagChangeMapper.updateFloorRevision(floor);
+                    flagChangeMapper.deleteChangesUpTo(floor);
+                }
+                return newRevision;
+            });
+        } catch (RuntimeException e) {
+            // The write itself is committed; consumers still get its event and the next full snapshot
+            log.error("Failed to record changes to flags {}: {}", names, e.getMessage(), e);
+            return;
+        }
+        log.debug("Recorded changes to flags {} at revision {}", names, recorded);
+        advanceTo(recorded);
+        try {
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, Long.toString(recorded));
+        } catch (Exception e) {
+            log.warn("Failed to announce flag revision {}: {}", recorded, e.getMessage());
+        }
+    }
+
+    /**
+     * Handle a revision announced by any replica, including this one.
+     */
+    public void onRevisionAnnounced(String message) {
+        try {
+            advanceTo(Long.parseLong(message.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed flag revision announcement: {}", message);
+        }
+    }
+
+    private void advanceTo(long newRevision) {
+        List<CompletableFuture<Long>> toNotify;
+        synchronized (this) {
+            if (newRevision <= revision) {
+                return;
+            }
+            revision = newRevision;
+            toNotify = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        log.debug("Flag revision advanced to {}, notifying {} waiters", newRevision, toNotify.size());
+        toNotify.forEach(waiter -> waiter.complete(newRevision));
+    }
+
+    /**
+     * Get the flags changed after the given revision.
+     */
+    public ChangeSet changesSince(long sinceRevision) {
+        return readTemplate.execute(status -> {
+            FlagRevision current = flagChangeMapper.findRevision();
+            advanceTo(current.getRevision());
+            if (sinceRevision < current.getFloorRevision() || sinceRevision > current.getRevision()) {
+                return new ChangeSet(current.getRevision(), true, Set.of());
+            }
+            if (sinceRevision == current.getRevision()) {
+                return new ChangeSet(current.getRevision(), false, Set.of());
+            }
+            return new ChangeSet(current.getRevision(), false,
+                    new HashSet<>(flagChangeMapper.findChangedNamesSince(sinceRevision)));
+        });
+    }
+
+    /**
+     * Wait until the revision moves past the given one or the timeout expires.
+     * Completes with the new revision, or with the given revision on timeout.
+     * The database is checked first, so a change announced before the call
+     * isn't missed.
+     * Dependent stages run on the tracker's notifier threads.
+     */
+    public CompletableFuture<Long> awaitChangeAfter(long sinceRevision, long timeoutMs) {
+        long latest = flagChangeMapper.findRevision().getRevision();
+        CompletableFuture<Long> waiter = new CompletableFuture<>();
+        synchronized (this) {
+            revision = Math.max(revision, latest);
+            // A revision ahead of the latest one is unknown and needs a full snapshot right away
+            if (revision != sinceRevision) {
+                long current = revision;
+                return CompletableFuture.supplyAsync(() -> current, notifier);
+            }
+            waiters.add(waiter);
+        }
+        waiter.whenComplete((result, error) -> {
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+        });
+        return waiter.completeOnTimeout(sinceRevision, timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(Function.identity(), notifier);
+    }
+
+    synchronized int pendingWaiters() {
+        return waiters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.featureflags.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the total number of feature flags for the list endpoint so pages
+ * don't run a full COUNT(*) each time.
+ *
+ * The cached value is adjusted on create and delete once the transaction
+ * commits, and reloaded from the database when it is older than
+ * {@link #MAX_AGE_MS} to correct any drift from concurrent loads or writes
+ * made outside this service.
+ */
+@Component
+@Slf4j
+public class FlagCountCache {
+
+    static final long MAX_AGE_MS = 60_000;
+
+    private long count;
+    private long loadedAt;
+    private boolean loaded;
+
+    /**
+     * Get the cached total, loading it with the given query when missing or
+     * expired.
+     */
+    public long get(LongSupplier loader) {
+        synchronized (this) {
+            if (loaded && System.currentTimeMillis() - loadedAt < MAX_AGE_MS) {
+                return count;
+            }
+        }
+        long total = loader.getAsLong();
+        synchronized (this) {
+            count = total;
+            loadedAt = System.currentTimeMillis();
+            loaded = true;
+        }
+        log.debug("Loaded feature flag count: {}", total);
+        return total;
+    }
+
+    /**
+     * Adjust the cached total by the given delta. Inside a transaction the
+     * adjustment is applied only after commit.
+     */
+    public void adjust(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyDelta(delta);
+                }
+            });
+        } else {
+            applyDelta(delta);
+        }
+    }
+
+    private synchronized void applyDelta(long delta) {
+        if (loaded) {
+            count = Math.max(0, count + delta);
+        }
+    }
+
+    /**
+     * Drop the cached total so the next read reloads it.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies flag events published by any replica, including this one, to the
+ * in-memory lookup structures, so flags created elsewhere are found here
+ * without waiting for a rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlagEventSubscriber {
+
+    private final ObjectMapper objectMapper;
+    private final FlagMissCache flagMissCache;
+    private final FlagNameIndex flagNameIndex;
+
+    public void handleMessage(String message) {
+        FeatureFlagEventDTO event;
+        try {
+            event = objectMapper.readValue(message, FeatureFlagEventDTO.class);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable flag event: {}", e.getMessage());
+            return;
+        }
+        if (event.getEventType() == FeatureFlagEventDTO.EventType.BULK) {
+            if (event.getChanges() != null) {
+                event.getChanges().forEach(change -> apply(change.getEventType(), change.getFlagName()));
+            }
+        } else {
+            apply(event.getEventType(), event.getFlagName());
+        }
+    }
+
+    private void apply(FeatureFlagEventDTO.EventType eventType, String flagName) {
+        if (flagName == null) {
+            return;
+        }
+        if (eventType == FeatureFlagEventDTO.EventType.CREATED) {
+            flagMissCache.add(flagName);
+            flagNameIndex.add(flagName);
+        } else if (eventType == FeatureFlagEventDTO.EventType.DELETED) {
+            flagNameIndex.remove(flagName);
+        }
+    }
+}
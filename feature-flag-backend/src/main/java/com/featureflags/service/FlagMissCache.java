@@ -0,0 +1,149 @@
+package com.featureflags.service;
+
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Negative cache for flag lookups by name, so repeated requests for unknown
+ * flags don't reach the database.
+ *
+ * A Bloom filter over all existing names rules out names that were never
+ * created; names that pass it but were not found (deleted flags, false
+ * positives) are remembered for {@link #MISS_TTL_MS}. Creates add the name to
+ * the filter and drop any remembered miss after commit, and creates on other
+ * instances do the same when their events arrive through
+ * {@link FlagEventSubscriber}. The filter is also rebuilt from the database
+ * when older than {@link #MAX_AGE_MS}, in case an event was missed.
+ */
+@Component
+@Slf4j
+public class FlagMissCache {
+
+    static final long MAX_AGE_MS = 60_000;
+    static final long MISS_TTL_MS = 10_000;
+    static final int MAX_MISSES = 10_000;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final LongSupplier clock;
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+
+    private volatile BloomFilter names;
+    private volatile long builtAt;
+    // Names created while a rebuild is reading the table, added to the new filter
+    private Set<String> createdDuringRebuild;
+
+    @Autowired
+    public FlagMissCache(FeatureFlagMapper featureFlagMapper) {
+        this(featureFlagMapper, System::currentTimeMillis);
+    }
+
+    FlagMissCache(FeatureFlagMapper featureFlagMapper, LongSupplier clock) {
+        this.featureFlagMapper = featureFlagMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a flag with the given name may exist. False means the name is
+     * known to be missing and the lookup can be skipped.
+     */
+    public boolean mightExist(String name) {
+        long now = clock.getAsLong();
+        Long expiresAt = misses.get(name);
+        if (expiresAt != null) {
+            if (now < expiresAt) {
+                return false;
+            }
+            misses.remove(name, expiresAt);
+        }
+        return currentNames(now).mightContain(name);
+    }
+
+    /**
+     * Remember that a lookup for the given name found nothing.
+     */
+    public void recordMiss(String name) {
+        long now = clock.getAsLong();
+        if (misses.size() >= MAX_MISSES) {
+            misses.values().removeIf(expiresAt -> expiresAt <= now);
+            if (misses.size() >= MAX_MISSES) {
+                return;
+            }
+        }
+        misses.put(name, now + MISS_TTL_MS);
+    }
+
+    /**
+     * Mark a flag name as existing, after commit when called inside a
+     * transaction.
+     */
+    public void add(String name) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAdd(name);
+                }
+            });
+        } else {
+            applyAdd(name);
+        }
+    }
+
+    private synchronized void applyAdd(String name) {
+        if (names != null) {
+            names.put(name);
+        }
+        if (createdDuringRebuild != null) {
+            createdDuringRebuild.add(name);
+        }
+        misses.remove(name);
+    }
+
+    private BloomFilter currentNames(long now) {
+        BloomFilter current = names;
+        if (current != null && now - builtAt < MAX_AGE_MS) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            if (names != current) {
+                return names;
+            }
+            synchronized (this) {
+                createdDuringRebuild = new HashSet<>();
+            }
+            List<String> allNames;
+            try {
+                allNames = featureFlagMapper.findAllNames();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    createdDuringRebuild = null;
+                }
+                throw e;
+            }
+            BloomFilter rebuilt = new BloomFilter(Math.max(1024, allNames.size() * 2), FALSE_POSITIVE_RATE);
+            allNames.forEach(rebuilt::put);
+            synchronized (this) {
+                createdDuringRebuild.forEach(rebuilt::put);
+                createdDuringRebuild = null;
+                builtAt = now;
+                names = rebuilt;
+            }
+            log.debug("Built flag name Bloom filter with {} names", allNames.size());
+            return rebuilt;
+        }
+    }
+}
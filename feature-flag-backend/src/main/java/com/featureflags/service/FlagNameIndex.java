@@ -0,0 +1,196 @@
+package com.featureflags.service;
+
+import com.featureflags.repository.FeatureFlagMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over flag names for substring search.
+ *
+ * A search looks up the posting list of every trigram in the term and only
+ * checks the names in the smallest one, so lookups stay fast regardless of
+ * how many flags exist. Terms shorter than a trigram fall back to scanning the
+ * names in memory. The index is built on first use and kept up to date by
+ * creates and deletes after commit, on this instance directly and on others
+ * through their events in {@link FlagEventSubscriber}. Changes made while a
+ * rebuild reads the table are replayed onto the new index. The index is also
+ * rebuilt from the database when older than {@link #MAX_AGE_MS}, in case an
+ * event was missed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlagNameIndex {
+
+    static final int GRAM_SIZE = 3;
+    static final long MAX_AGE_MS = 300_000;
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final Object rebuildLock = new Object();
+
+    private volatile Index index;
+    // Names added (true) or removed (false) while a rebuild is reading the table, replayed onto the new index
+    private Map<String, Boolean> changedDuringRebuild;
+
+    private static final class Index {
+        private final Set<String> names = ConcurrentHashMap.newKeySet();
+        private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+        private final long builtAt = System.currentTimeMillis();
+
+        void add(String name) {
+            if (names.add(name)) {
+                for (String gram : grams(normalize(name))) {
+                    postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(name);
+                }
+            }
+        }
+
+        void remove(String name) {
+            if (names.remove(name)) {
+                for (String gram : grams(normalize(name))) {
+                    Set<String> posting = postings.get(gram);
+                    if (posting != null) {
+                        posting.remove(name);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Find flag names containing the given term, ignoring case.
+     * Returns null when more than maxMatches names match, so callers can fall
+     * back to a broader query instead of passing a huge name list around.
+     */
+    public List<String> search(String term, int maxMatches) {
+        Index current = currentIndex();
+        String needle = normalize(term);
+
+        Set<String> candidates = current.names;
+        if (needle.length() >= GRAM_SIZE) {
+            for (String gram : grams(needle)) {
+                Set<String> posting = current.postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                if (posting.size() < candidates.size()) {
+                    candidates = posting;
+                }
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String name : candidates) {
+            if (normalize(name).contains(needle)) {
+                if (matches.size() == maxMatches) {
+                    return null;
+                }
+                matches.add(name);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Add a flag name, after commit when called inside a transaction.
+     */
+    public void add(String name) {
+        afterCommit(() -> apply(name, true));
+    }
+
+    /**
+     * Remove a flag name, after commit when called inside a transaction.
+     */
+    public void remove(String name) {
+        afterCommit(() -> apply(name, false));
+    }
+
+    private synchronized void apply(String name, boolean added) {
+        Index current = index;
+        if (current != null) {
+            if (added) {
+                current.add(name);
+            } else {
+                current.remove(name);
+            }
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(name, added);
+        }
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        if (current != null && System.currentTimeMillis() - current.builtAt < MAX_AGE_MS) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            if (index != current) {
+                return index;
+            }
+            synchronized (this) {
+                changedDuringRebuild = new LinkedHashMap<>();
+            }
+            Index rebuilt = new Index();
+            try {
+                featureFlagMapper.findAllNames().forEach(rebuilt::add);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach((name, added) -> {
+                    if (added) {
+                        rebuilt.add(name);
+                    } else {
+                        rebuilt.remove(name);
+                    }
+                });
+                changedDuringRebuild = null;
+                index = rebuilt;
+            }
+            log.debug("Built flag name index with {} names and {} trigrams",
+                    rebuilt.names.size(), rebuilt.postings.size());
+            return rebuilt;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,204 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.repository.FeatureFlagMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates the prerequisites of a flag before they are written.
+ *
+ * Prerequisites must name existing flags and keep the prerequisite graph
+ * acyclic. The check walks the graph breadth first from the new
+ * prerequisites, one locking read per level, and fails when it reaches the
+ * flag itself. The flag's own row is locked by the first read as well, so
+ * two concurrent writes that would close a cycle between them wait for each
+ * other instead of both passing the check; it must run inside the writing
+ * transaction.
+ *
+ * Prerequisites deeper in the graph that were deleted since are skipped;
+ * consumers treat a flag with a missing prerequisite as off.
+ *
+ * Imports check a whole batch at once, since flags in one file may name
+ * each other; each rejected flag gets its own reason.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlagPrerequisiteValidator {
+
+    private final FeatureFlagMapper featureFlagMapper;
+
+    /**
+     * Check that the given prerequisites can be set on the flag, throwing a
+     * {@link ErrorCode#FLAG_PREREQUISITE_INVALID} business exception when
+     * they can't.
+     */
+    public void validate(String flagName, List<String> prerequisites) {
+        if (prerequisites == null || prerequisites.isEmpty()) {
+            return;
+        }
+        Set<String> requested = new LinkedHashSet<>(prerequisites);
+        if (requested.contains(flagName)) {
+            throw invalid("Flag " + flagName + " can't be its own prerequisite");
+        }
+
+        List<String> first = new ArrayList<>(requested.size() + 1);
+        first.add(flagName);
+        first.addAll(requested);
+        List<FeatureFlag> flags = featureFlagMapper.findByNamesForUpdate(first);
+        Set<String> found = flags.stream().map(FeatureFlag::getName).collect(Collectors.toSet());
+        List<String> unknown = requested.stream().filter(name -> !found.contains(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw invalid("Unknown prerequisite flags: " + String.join(", ", unknown));
+        }
+
+        // Flag that first named each reached flag, to report the cycle
+        Map<String, String> reachedFrom = new HashMap<>();
+        Set<String> visited = new LinkedHashSet<>(requested);
+        while (true) {
+            List<String> next = new ArrayList<>();
+            for (FeatureFlag flag : flags) {
+                if (flag.getName().equals(flagName) || flag.getPrerequisites() == null) {
+                    continue;
+                }
+                for (String prerequisite : flag.getPrerequisites()) {
+                    if (prerequisite.equals(flagName)) {
+                        throw invalid("Prerequisites would form a cycle: " + cycle(flagName, flag.getName(),
+                                reachedFrom));
+                    }
+                    if (visited.add(prerequisite)) {
+                        reachedFrom.put(prerequisite, flag.getName());
+                        next.add(prerequisite);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                return;
+            }
+            flags = featureFlagMapper.findByNamesForUpdate(next);
+        }
+    }
+
+    /**
+     * Check the prerequisites of flags written together, such as one import
+     * batch, where flags may name each other and the given prerequisites
+     * replace the stored ones. Returns the reason for each flag whose
+     * prerequisites can't be set; the other flags can be written together.
+     * Flags that name a rejected flag are checked again against its stored
+     * state, or reported as unknown when it doesn't exist yet.
+     */
+    public Map<String, String> validateAll(Map<String, List<String>> prerequisites) {
+        if (prerequisites.values().stream().allMatch(requested -> requested == null || requested.isEmpty())) {
+            return Map.of();
+        }
+        // Stored prerequisites of every flag the batch can reach, read level by level with locks
+        Map<String, List<String>> stored = new HashMap<>();
+        Set<String> first = new LinkedHashSet<>(prerequisites.keySet());
+        prerequisites.values().stream().filter(Objects::nonNull).forEach(first::addAll);
+        Set<String> read = new HashSet<>();
+        List<String> level = List.copyOf(first);
+        while (!level.isEmpty()) {
+            read.addAll(level);
+            Set<String> nextLevel = new LinkedHashSet<>();
+            for (FeatureFlag flag : featureFlagMapper.findByNamesForUpdate(level)) {
+                List<String> flagPrerequisites = flag.getPrerequisites() != null ? flag.getPrerequisites() : List.of();
+                stored.put(flag.getName(), flagPrerequisites);
+                for (String prerequisite : flagPrerequisites) {
+                    if (!read.contains(prerequisite)) {
+                        nextLevel.add(prerequisite);
+                    }
+                }
+            }
+            level = List.copyOf(nextLevel);
+        }
+
+        Map<String, String> rejected = new LinkedHashMap<>();
+        while (true) {
+            // Checked against one state per pass, so both ends of a cycle are reported as the cycle
+            Map<String, String> found = new LinkedHashMap<>();
+            prerequisites.forEach((flagName, requested) -> {
+                if (rejected.containsKey(flagName) || requested == null || requested.isEmpty()) {
+                    return;
+                }
+                String reason = problem(flagName, requested, prerequisites, stored, rejected);
+                if (reason != null) {
+                    found.put(flagName, reason);
+                }
+            });
+            if (found.isEmpty()) {
+                return rejected;
+            }
+            rejected.putAll(found);
+        }
+    }
+
+    private static String problem(String flagName, List<String> requested, Map<String, List<String>> prerequisites,
+            Map<String, List<String>> stored, Map<String, String> rejected) {
+        if (requested.contains(flagName)) {
+            return "Flag " + flagName + " can't be its own prerequisite";
+        }
+        // Prerequisites each flag will have once the accepted flags are written, null when it won't exist
+        Function<String, List<String>> edges = name -> {
+            if (prerequisites.containsKey(name) && !rejected.containsKey(name)) {
+                return prerequisites.get(name) != null ? prerequisites.get(name) : List.of();
+            }
+            return stored.get(name);
+        };
+        List<String> unknown = requested.stream().distinct().filter(name -> edges.apply(name) == null).toList();
+        if (!unknown.isEmpty()) {
+            return "Unknown prerequisite flags: " + String.join(", ", unknown);
+        }
+
+        Map<String, String> reachedFrom = new HashMap<>();
+        Set<String> visited = new LinkedHashSet<>(requested);
+        List<String> level = List.copyOf(visited);
+        while (!level.isEmpty()) {
+            List<String> nextLevel = new ArrayList<>();
+            for (String name : level) {
+                List<String> flagPrerequisites = edges.apply(name);
+                if (flagPrerequisites == null) {
+                    continue;
+                }
+                for (String prerequisite : flagPrerequisites) {
+                    if (prerequisite.equals(flagName)) {
+                        return "Prerequisites would form a cycle: " + cycle(flagName, name, reachedFrom);
+                    }
+                    if (visited.add(prerequisite)) {
+                        reachedFrom.put(prerequisite, name);
+                        nextLevel.add(prerequisite);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        return null;
+    }
+
+    private static String cycle(String flagName, String last, Map<String, String> reachedFrom) {
+        List<String> path = new ArrayList<>();
+        path.add(flagName);
+        for (String name = last; name != null; name = reachedFrom.get(name)) {
+            path.add(1, name);
+        }
+        path.add(flagName);
+        return String.join(" -> ", path);
+    }
+
+    private static BusinessException invalid(String message) {
+        return new BusinessException(ErrorCode.FLAG_PREREQUISITE_INVALID, message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.CreateScheduleRequest;
+import com.featureflags.dto.ScheduleResponse;
+import com.featureflags.entity.FlagSchedule;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagScheduleMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for scheduled flag changes. Schedules are stored here and
+ * applied at their time by the {@link FlagScheduler} of the leading replica.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class FlagScheduleService {
+
+    private final FlagScheduleMapper flagScheduleMapper;
+    private final FeatureFlagMapper featureFlagMapper;
+    private final FlagScheduler flagScheduler;
+
+    /**
+     * Get all schedules of a flag, applied, failed and cancelled ones
+     * included.
+     */
+    @Transactional(readOnly = true)
+    public List<ScheduleResponse> getSchedules(String flagName) {
+        return flagScheduleMapper.findByFlagName(flagName).stream()
+                .map(ScheduleResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Schedule a change of a flag's enabled state.
+     */
+    public ScheduleResponse createSchedule(String flagName, CreateScheduleRequest request) {
+        if (!featureFlagMapper.existsByName(flagName)) {
+            throw new FlagNotFoundException("Feature flag not found with name: " + flagName);
+        }
+
+        FlagSchedule schedule = new FlagSchedule();
+        schedule.setFlagName(flagName);
+        schedule.setEnabled(request.getEnabled());
+        schedule.setRunAt(request.getRunAt());
+        schedule.setStatus(FlagSchedule.Status.PENDING);
+        schedule.setCreatedAt(LocalDateTime.now());
+        schedule.setCreatedBy("system"); // In real app, get from security context
+        flagScheduleMapper.insert(schedule);
+        flagScheduler.schedule(schedule);
+
+        log.info("Scheduled flag {} to be {} at {} (schedule {})", flagName,
+                request.getEnabled() ? "enabled" : "disabled", request.getRunAt(), schedule.getId());
+        return new ScheduleResponse(schedule);
+    }
+
+    /**
+     * Cancel a pending schedule.
+     */
+    public void cancelSchedule(String flagName, Long scheduleId) {
+        FlagSchedule schedule = flagScheduleMapper.findById(scheduleId);
+        if (schedule == null || !schedule.getFlagName().equals(flagName)) {
+            throw new BusinessException(ErrorCode.SCHEDULE_NOT_FOUND,
+                    "Scheduled change " + scheduleId + " not found for flag: " + flagName);
+        }
+        if (flagScheduleMapper.updatePendingStatus(scheduleId, FlagSchedule.Status.CANCELLED, null) == 0) {
+            throw new BusinessException(ErrorCode.SCHEDULE_NOT_PENDING,
+                    "Scheduled change " + scheduleId + " was already applied or cancelled");
+        }
+        flagScheduler.unschedule(scheduleId);
+        log.info("Cancelled scheduled change {} of flag {}", scheduleId, flagName);
+    }
+}
@@ -0,0 +1,312 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.UpdateFlagRequest;
+import com.featureflags.entity.FlagSchedule;
+import com.featureflags.repository.FlagScheduleMapper;
+import com.featureflags.util.TimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies scheduled flag changes at their time.
+ *
+ * Only the replica holding the {@link SchedulerLease} runs schedules. When it
+ * takes the lease it streams all pending schedules into a hierarchical timer
+ * wheel, so each tick costs the same however many schedules are pending, and
+ * then polls the updated_at index for schedules created or cancelled through
+ * other replicas. Schedules created through the leader itself are added
+ * right after commit.
+ *
+ * A change is applied in the transaction that moves its row from PENDING to
+ * APPLIED, so it is applied at most once even when a former leader still
+ * fires. Changes are applied no earlier than their time and, with the
+ * scheduler keeping up, less than one tick after it; schedules created
+ * through another replica may be picked up up to one refresh interval late.
+ * A failed change is marked FAILED with its error and not retried.
+ */
+@Component
+@Slf4j
+public class FlagScheduler {
+
+    // Re-read schedules changed this long before the last refresh, for transactions still open during it
+    static final long REFRESH_OVERLAP_MS = 60_000;
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final FlagScheduleMapper flagScheduleMapper;
+    private final FeatureFlagService featureFlagService;
+    private final SchedulerLease lease;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final boolean enabled;
+    private final long tickMs;
+    private final long refreshMs;
+    private final Timer delay;
+
+    // Wheel and its timeouts by schedule id, only set while this replica leads; guarded by this
+    private TimerWheel<FlagSchedule> wheel;
+    private final Map<Long, TimerWheel.Timeout<FlagSchedule>> timeouts = new HashMap<>();
+
+    // Only used by the scheduler thread
+    private long nextLeaseCheck;
+    private long nextRefresh;
+    private LocalDateTime lastRefresh;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public FlagScheduler(FlagScheduleMapper flagScheduleMapper, FeatureFlagService featureFlagService,
+            SchedulerLease lease, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${feature-flag.schedules.enabled:true}") boolean enabled,
+            @Value("${feature-flag.schedules.tick-ms:1000}") long tickMs,
+            @Value("${feature-flag.schedules.refresh-ms:5000}") long refreshMs) {
+        this.flagScheduleMapper = flagScheduleMapper;
+        this.featureFlagService = featureFlagService;
+        this.lease = lease;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.refreshMs = refreshMs;
+        this.delay = Timer.builder("feature_flag.schedules.delay")
+                .description("Time between the scheduled time of flag changes and when they were applied")
+                .register(meterRegistry);
+        Gauge.builder("feature_flag.schedules.pending", this, FlagScheduler::getPendingCount)
+                .description("Scheduled flag changes waiting in the timer wheel of the leading replica")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Flag scheduler disabled");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "flag-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        lease.release();
+    }
+
+    private void run() {
+        while (running) {
+            long now = System.currentTimeMillis();
+            try {
+                tick(now);
+            } catch (RuntimeException e) {
+                log.warn("Flag scheduler tick failed: {}", e.getMessage(), e);
+            }
+            try {
+                // Wake at the next tick boundary, when the next slot becomes due
+                Thread.sleep(tickMs - System.currentTimeMillis() % tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Renew the lease, pick up changed schedules and apply the ones due at
+     * the given time.
+     */
+    void tick(long now) {
+        if (now >= nextLeaseCheck) {
+            nextLeaseCheck = now + lease.getLeaseMs() / 3;
+            boolean leading = lease.acquireOrRenew(now);
+            if (leading && !isLoaded()) {
+                load(now);
+            }
+        }
+        if (!lease.isHeld(now)) {
+            if (isLoaded()) {
+                log.info("Flag scheduler stopped leading, dropping {} pending schedules", getPendingCount());
+                unload();
+            }
+            return;
+        }
+        if (!isLoaded()) {
+            return;
+        }
+        if (now >= nextRefresh) {
+            refresh(now);
+        }
+
+        List<FlagSchedule> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(now / tickMs, timeout -> {
+                timeouts.remove(timeout.getValue().getId());
+                due.add(timeout.getValue());
+            });
+        }
+        for (FlagSchedule schedule : due) {
+            // Leave the rest pending for the next leader rather than risk applying without the lease
+            if (!lease.isHeld(System.currentTimeMillis())) {
+                log.warn("Flag scheduler lost its lease while applying {} due schedules", due.size());
+                unload();
+                return;
+            }
+            apply(schedule);
+        }
+    }
+
+    /**
+     * Add a schedule created through this replica right away instead of at
+     * the next refresh, after commit when called inside a transaction.
+     */
+    public void schedule(FlagSchedule schedule) {
+        afterCommit(() -> add(schedule));
+    }
+
+    /**
+     * Remove a cancelled schedule from the wheel, after commit when called
+     * inside a transaction.
+     */
+    public void unschedule(Long scheduleId) {
+        afterCommit(() -> remove(scheduleId));
+    }
+
+    public synchronized int getPendingCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    synchronized boolean isLoaded() {
+        return wheel != null;
+    }
+
+    private void load(long now) {
+        // Schedules changed while loading are picked up by the first refresh
+        lastRefresh = LocalDateTime.now();
+        nextRefresh = now + refreshMs;
+        TimerWheel<FlagSchedule> loaded = new TimerWheel<>(now / tickMs);
+        Map<Long, TimerWheel.Timeout<FlagSchedule>> loadedTimeouts = new HashMap<>();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Cursor<FlagSchedule> cursor = flagScheduleMapper.streamPending()) {
+                for (FlagSchedule schedule : cursor) {
+                    loadedTimeouts.put(schedule.getId(), loaded.add(deadline(schedule), schedule));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to close flag schedule cursor", e);
+            }
+        });
+        synchronized (this) {
+            wheel = loaded;
+            timeouts.clear();
+            timeouts.putAll(loadedTimeouts);
+        }
+        log.info("Flag scheduler leading with {} pending schedules", loadedTimeouts.size());
+    }
+
+    private synchronized void add(FlagSchedule schedule) {
+        if (wheel != null && schedule.getStatus() == FlagSchedule.Status.PENDING) {
+            timeouts.computeIfAbsent(schedule.getId(), id -> wheel.add(deadline(schedule), schedule));
+        }
+    }
+
+    private synchronized void remove(Long scheduleId) {
+        TimerWheel.Timeout<FlagSchedule> timeout = timeouts.remove(scheduleId);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    private synchronized void unload() {
+        wheel = null;
+        timeouts.clear();
+    }
+
+    private void refresh(long now) {
+        LocalDateTime since = lastRefresh.minusNanos(TimeUnit.MILLISECONDS.toNanos(REFRESH_OVERLAP_MS));
+        lastRefresh = LocalDateTime.now();
+        nextRefresh = now + refreshMs;
+        List<FlagSchedule> changed = flagScheduleMapper.findUpdatedSince(since);
+        for (FlagSchedule schedule : changed) {
+            if (schedule.getStatus() == FlagSchedule.Status.PENDING) {
+                add(schedule);
+            } else {
+                remove(schedule.getId());
+            }
+        }
+    }
+
+    private void apply(FlagSchedule schedule) {
+        try {
+            boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                // Claim the row first: a schedule cancelled or already applied elsewhere is skipped
+                if (flagScheduleMapper.updatePendingStatus(schedule.getId(), FlagSchedule.Status.APPLIED,
+                        null) == 0) {
+                    return false;
+                }
+                UpdateFlagRequest request = new UpdateFlagRequest();
+                request.setEnabled(schedule.getEnabled());
+                featureFlagService.updateFlag(schedule.getFlagName(), request);
+                return true;
+            }));
+            if (applied) {
+                long lateMs = Math.max(0, System.currentTimeMillis() - toEpochMilli(schedule.getRunAt()));
+                delay.record(lateMs, TimeUnit.MILLISECONDS);
+                log.info("Applied scheduled change {} of flag {} to {}, {}ms after its time", schedule.getId(),
+                        schedule.getFlagName(), schedule.getEnabled(), lateMs);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Scheduled change {} of flag {} failed: {}", schedule.getId(), schedule.getFlagName(),
+                    e.getMessage());
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            flagScheduleMapper.updatePendingStatus(schedule.getId(), FlagSchedule.Status.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+    }
+
+    // First tick at or after the scheduled time, so changes are never applied early
+    private long deadline(FlagSchedule schedule) {
+        return Math.floorDiv(toEpochMilli(schedule.getRunAt()) + tickMs - 1, tickMs);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
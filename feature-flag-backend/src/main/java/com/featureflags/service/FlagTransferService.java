@@ -0,0 +1,354 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.featureflags.dto.CreateFlagRequest;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.FlagImportResponse;
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
+import com.featureflags.repository.FeatureFlagMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service for exporting and importing all flags as NDJSON, one flag per line.
+ *
+ * Exports stream rows from a MyBatis cursor straight to the response, so
+ * memory use doesn't grow with the number of flags. Imports read the request
+ * body line by line and upsert every {@link #IMPORT_BATCH_SIZE} valid lines
+ * in their own transaction with one multi-row statement. Flags the batch
+ * created or changed get a history entry and one aggregated change event;
+ * lines that repeat the stored state leave no trace. Invalid lines are
+ * skipped and reported, including lines whose prerequisites are unknown or
+ * would form a cycle with the stored flags or the rest of their batch;
+ * batches committed before a failure stay applied.
+ */
+@Service
+@Slf4j
+public class FlagTransferService {
+
+    static final int IMPORT_BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final String CACHE_NAME = "featureFlags";
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ObjectWriter flagWriter;
+    private final ObjectReader lineReader;
+    private final Validator validator;
+    private final MessagePublisherService messagePublisherService;
+    private final FlagChangeTracker flagChangeTracker;
+    private final FlagCountCache flagCountCache;
+    private final FlagNameIndex flagNameIndex;
+    private final FlagBatchLoader flagBatchLoader;
+    private final FlagMissCache flagMissCache;
+    private final FlagPrerequisiteValidator flagPrerequisiteValidator;
+    private final CacheManager cacheManager;
+    private final Timer exportDuration;
+    private final Timer importDuration;
+    private final Counter exportedRows;
+    private final Counter importedRows;
+
+    public FlagTransferService(FeatureFlagMapper featureFlagMapper, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, Validator validator, MessagePublisherService messagePublisherService,
+            FlagChangeTracker flagChangeTracker, FlagCountCache flagCountCache, FlagNameIndex flagNameIndex,
+            FlagBatchLoader flagBatchLoader, FlagMissCache flagMissCache,
+            FlagPrerequisiteValidator flagPrerequisiteValidator, CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        this.featureFlagMapper = featureFlagMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.flagWriter = objectMapper.writerFor(FlagResponse.class);
+        this.lineReader = objectMapper.readerFor(CreateFlagRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.validator = validator;
+        this.messagePublisherService = messagePublisherService;
+        this.flagChangeTracker = flagChangeTracker;
+        this.flagCountCache = flagCountCache;
+        this.flagNameIndex = flagNameIndex;
+        this.flagBatchLoader = flagBatchLoader;
+        this.flagMissCache = flagMissCache;
+        this.flagPrerequisiteValidator = flagPrerequisiteValidator;
+        this.cacheManager = cacheManager;
+        this.exportDuration = transferTimer(meterRegistry, "export");
+        this.importDuration = transferTimer(meterRegistry, "import");
+        this.exportedRows = transferCounter(meterRegistry, "export");
+        this.importedRows = transferCounter(meterRegistry, "import");
+    }
+
+    private static Timer transferTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("feature_flag.transfer.duration")
+                .description("Time taken by flag exports and imports")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Counter transferCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("feature_flag.transfer.rows")
+                .description("Flags written by exports and imports")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write all flags to the given stream as NDJSON, oldest row first as
+     * stored. Returns the number of flags written.
+     */
+    public long exportFlags(OutputStream out) throws IOException {
+        long startTime = System.nanoTime();
+        long rows;
+        try {
+            rows = readTransaction.execute(status -> {
+                long count = 0;
+                try (Cursor<FeatureFlag> cursor = featureFlagMapper.streamAll()) {
+                    for (FeatureFlag flag : cursor) {
+                        out.write(flagWriter.writeValueAsBytes(new FlagResponse(flag)));
+                        out.write('\n');
+                        count++;
+                        exportedRows.increment();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportDuration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        out.flush();
+        logThroughput("Exported", rows, startTime);
+        return rows;
+    }
+
+    /**
+     * Read NDJSON flags from the given stream and create or update them in
+     * batches. Lines use the create request fields; other fields, such as
+     * those of an export, are ignored.
+     */
+    public FlagImportResponse importFlags(InputStream in) throws IOException {
+        long startTime = System.nanoTime();
+        FlagImportResponse response = new FlagImportResponse(0, 0, new ArrayList<>(), 0);
+        List<ImportLine> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                FeatureFlag flag = parseLine(line, lineNumber, response);
+                if (flag == null) {
+                    continue;
+                }
+                batch.add(new ImportLine(lineNumber, flag));
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    writeBatch(batch, response);
+                    batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, response);
+            }
+        } finally {
+            importDuration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        response.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        logThroughput("Imported", response.getImported(), startTime);
+        return response;
+    }
+
+    private FeatureFlag parseLine(String line, long lineNumber, FlagImportResponse response) {
+        CreateFlagRequest request;
+        try {
+            request = lineReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            skip(response, lineNumber, "invalid JSON");
+            return null;
+        }
+        Set<ConstraintViolation<CreateFlagRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            skip(response, lineNumber, violations.iterator().next().getMessage());
+            return null;
+        }
+
+        FeatureFlag flag = new FeatureFlag(request.getName(), request.getDescription(), request.getEnabled());
+        flag.setType(request.getType());
+        flag.setValue(request.getValue());
+        flag.setRules(request.getRules());
+        flag.setPrerequisites(request.getPrerequisites());
+        flag.setCreatedBy("system"); // In real app, get from security context
+        flag.setUpdatedBy("system");
+        return flag;
+    }
+
+    private static void skip(FlagImportResponse response, long lineNumber, String message) {
+        response.setSkipped(response.getSkipped() + 1);
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add("line " + lineNumber + ": " + message);
+        }
+    }
+
+    /**
+     * A parsed line, kept with its number to report rejected prerequisites.
+     */
+    private record ImportLine(long lineNumber, FeatureFlag flag) {
+    }
+
+    private void writeBatch(List<ImportLine> lines, FlagImportResponse response) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        List<ImportLine> accepted = new ArrayList<>(lines.size());
+        List<FeatureFlagEventDTO.FlagChange> changes = writeTransaction.execute(status -> {
+            Map<String, List<String>> prerequisites = new LinkedHashMap<>();
+            lines.forEach(line -> prerequisites.put(line.flag().getName(), line.flag().getPrerequisites()));
+            Map<String, String> rejected = flagPrerequisiteValidator.validateAll(prerequisites);
+            // Later lines for the same name win, as in the upsert
+            Map<String, FeatureFlag> flags = new LinkedHashMap<>();
+            for (ImportLine line : lines) {
+                String reason = rejected.get(line.flag().getName());
+                if (reason != null) {
+                    skip(response, line.lineNumber(), reason);
+                } else {
+                    accepted.add(line);
+                    flags.put(line.flag().getName(), line.flag());
+                }
+            }
+            if (flags.isEmpty()) {
+                return List.of();
+            }
+            List<String> names = List.copyOf(flags.keySet());
+            Map<String, Long> versions = featureFlagMapper.findByNamesForUpdate(names).stream()
+                    .collect(Collectors.toMap(FeatureFlag::getName, FeatureFlag::getVersion));
+            featureFlagMapper.upsertAll(List.copyOf(flags.values()));
+            List<FeatureFlagEventDTO.FlagChange> written = written(flags, versions,
+                    featureFlagMapper.findByNames(names));
+            queueHistory(written);
+            for (FeatureFlagEventDTO.FlagChange change : written) {
+                if (cache != null) {
+                    cache.evict(change.getFlagName());
+                }
+                if (change.getEventType() == FeatureFlagEventDTO.EventType.CREATED) {
+                    flagNameIndex.add(change.getFlagName());
+                    flagMissCache.add(change.getFlagName());
+                }
+                flagBatchLoader.evict(change.getFlagName());
+                flagChangeTracker.recordChange(change.getFlagName());
+            }
+            return written;
+        });
+        response.setImported(response.getImported() + accepted.size());
+        importedRows.increment(accepted.size());
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        long created = changes.stream()
+                .filter(change -> change.getEventType() == FeatureFlagEventDTO.EventType.CREATED)
+                .count();
+        if (created > 0) {
+            flagCountCache.adjust(created);
+        }
+        messagePublisherService.publishFlagsChanged(changes, "system");
+    }
+
+    /**
+     * Changes of the imported flags that the upsert created or changed. It
+     * leaves unchanged rows at their version, so re-importing the same flags
+     * records no history and publishes no event.
+     */
+    private static List<FeatureFlagEventDTO.FlagChange> written(Map<String, FeatureFlag> flags,
+            Map<String, Long> versionsBefore, List<FeatureFlag> rowsAfter) {
+        Map<String, Long> versionsAfter = rowsAfter.stream()
+                .collect(Collectors.toMap(FeatureFlag::getName, FeatureFlag::getVersion));
+        List<FeatureFlagEventDTO.FlagChange> changes = new ArrayList<>();
+        flags.forEach((name, flag) -> {
+            Long before = versionsBefore.get(name);
+            if (before != null && before.equals(versionsAfter.get(name))) {
+                return;
+            }
+            FeatureFlagEventDTO.EventType eventType = before == null
+                    ? FeatureFlagEventDTO.EventType.CREATED
+                    : FeatureFlagEventDTO.EventType.UPDATED;
+            changes.add(new FeatureFlagEventDTO.FlagChange(eventType, name, flag.getEnabled(), rulesOrEmpty(flag),
+                    flag.getType() != null ? flag.getType() : FlagType.BOOLEAN, flag.getValue(),
+                    prerequisitesOrEmpty(flag)));
+        });
+        return changes;
+    }
+
+    private void queueHistory(List<FeatureFlagEventDTO.FlagChange> changes) {
+        List<String> created = namesOf(changes, FeatureFlagEventDTO.EventType.CREATED);
+        if (!created.isEmpty()) {
+            featureFlagMapper.insertHistory(created, FlagHistoryEntry.ChangeType.CREATED, "system");
+        }
+        List<String> updated = namesOf(changes, FeatureFlagEventDTO.EventType.UPDATED);
+        if (!updated.isEmpty()) {
+            featureFlagMapper.insertHistory(updated, FlagHistoryEntry.ChangeType.UPDATED, "system");
+        }
+    }
+
+    private static List<String> namesOf(List<FeatureFlagEventDTO.FlagChange> changes,
+            FeatureFlagEventDTO.EventType eventType) {
+        return changes.stream()
+                .filter(change -> change.getEventType() == eventType)
+                .map(FeatureFlagEventDTO.FlagChange::getFlagName)
+                .toList();
+    }
+
+    /**
+     * Imports replace the rules, so a line without rules clears them; the
+     * change says so with an empty list rather than null.
+     */
+    private static List<TargetingRule> rulesOrEmpty(FeatureFlag flag) {
+        return flag.getRules() != null ? flag.getRules() : List.of();
+    }
+
+    /**
+     * Imports replace the prerequisites as well, cleared the same way.
+     */
+    private static List<String> prerequisitesOrEmpty(FeatureFlag flag) {
+        return flag.getPrerequisites() != null ? flag.getPrerequisites() : List.of();
+    }
+
+    private static void logThroughput(String operation, long rows, long startTime) {
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        log.info("{} {} feature flags in {}ms ({} flags/s)", operation, rows, elapsedMs, rows * 1000 / elapsedMs);
+    }
+}
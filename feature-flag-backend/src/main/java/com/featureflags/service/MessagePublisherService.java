@@ -1,28 +1,51 @@
 package com.featureflags.service;
 
 import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.SegmentEventDTO;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.util.FlagWireFormat;
 import com.featureflags.util.MessageIdGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Service for publishing structured feature flag events to Redis pub/sub.
  * Uses standardized event format for better reliability and maintainability.
+ *
+ * Flag events go out as JSON and, unless disabled, also in the compact binary
+ * {@link FlagWireFormat} on a channel of their own, so consumers pick the
+ * format by the channel they subscribe to and JSON consumers keep working.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class MessagePublisherService {
 
     // Unified channel for all feature flag events
-    private static final String FEATURE_FLAG_EVENTS_CHANNEL = "feature-flag-events";
+    public static final String FEATURE_FLAG_EVENTS_CHANNEL = "feature-flag-events";
+    // Segment membership deltas, kept apart so flag consumers never parse them
+    private static final String SEGMENT_EVENTS_CHANNEL = "segment-events";
+    // Same events in wire format version 2
+    private static final String BINARY_EVENTS_CHANNEL = FEATURE_FLAG_EVENTS_CHANNEL + ":v" + FlagWireFormat.VERSION;
+    private static final byte[] BINARY_EVENTS_CHANNEL_BYTES = BINARY_EVENTS_CHANNEL.getBytes(StandardCharsets.UTF_8);
 
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final boolean publishBinary;
+
+    public MessagePublisherService(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper,
+            @Value("${feature-flag.wire.publish-binary:true}") boolean publishBinary) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.publishBinary = publishBinary;
+    }
 
     /**
      * Publish a feature flag creation event.
@@ -39,6 +62,10 @@ public class MessagePublisherService {
                     flag.getCreatedBy(),
                     flag.getCreatedAt(),
                     messageId);
+            event.setType(flag.getType());
+            event.setValue(flag.getValue());
+            event.setRules(flag.getRules());
+            event.setPrerequisites(flag.getPrerequisites());
             publishEventSafely(event);
             log.info("Published flag creation event for flag: {} at {} with messageId: {}",
                     flag.getName(), flag.getCreatedAt(), messageId);
@@ -66,6 +93,10 @@ public class MessagePublisherService {
                     flag.getUpdatedBy(),
                     flag.getUpdatedAt(),
                     messageId);
+            event.setType(flag.getType());
+            event.setValue(flag.getValue());
+            event.setRules(flag.getRules());
+            event.setPrerequisites(flag.getPrerequisites());
             publishEventSafely(event);
             log.info("Published flag update event for flag: {} at {} with messageId: {}",
                     flag.getName(), flag.getUpdatedAt(), messageId);
@@ -103,6 +134,46 @@ public class MessagePublisherService {
         }
     }
 
+    /**
+     * Publish one aggregated event for a set of flag changes so consumers can
+     * apply them together.
+     * This method will not throw exceptions to avoid affecting the main business
+     * flow.
+     */
+    public void publishFlagsChanged(List<FeatureFlagEventDTO.FlagChange> changes, String triggeredBy) {
+        try {
+            String messageId = MessageIdGenerator.generateSimpleMessageId();
+            FeatureFlagEventDTO event = FeatureFlagEventDTO.bulkEvent(changes, triggeredBy, LocalDateTime.now(),
+                    messageId);
+            publishEventSafely(event);
+            log.info("Published bulk change event for {} flags with messageId: {}", changes.size(), messageId);
+        } catch (Exception e) {
+            log.error(
+                    "Failed to publish bulk change event for {} flags - This will not affect the main business operation",
+                    changes.size(), e);
+            // Consumer will get the latest state via periodic polling
+        }
+    }
+
+    /**
+     * Publish a segment membership change or deletion.
+     * This method will not throw exceptions to avoid affecting the main business
+     * flow.
+     */
+    public void publishSegmentChanged(SegmentEventDTO event) {
+        try {
+            event.setMessageId(MessageIdGenerator.generateMessageId(event.getSegmentName()));
+            redisTemplate.convertAndSend(SEGMENT_EVENTS_CHANNEL, objectMapper.writeValueAsString(event));
+            log.info("Published segment {} event for segment: {} at version {} with messageId: {}",
+                    event.getEventType(), event.getSegmentName(), event.getVersion(), event.getMessageId());
+        } catch (Exception e) {
+            log.error(
+                    "Failed to publish segment event for segment: {} - This will not affect the main business operation",
+                    event.getSegmentName(), e);
+            // Consumers notice the missed version on the next delta or refresh
+        }
+    }
+
     /**
      * Safe method to publish events without throwing exceptions.
      * This method will log errors but not propagate them to avoid affecting
@@ -126,6 +197,26 @@ public class MessagePublisherService {
                     FEATURE_FLAG_EVENTS_CHANNEL, event.getFlagName(), e.getMessage(), e);
             // Don't rethrow - let the calling method handle the failure gracefully
         }
+        if (publishBinary) {
+            publishBinarySafely(event);
+        }
+    }
+
+    /**
+     * Publish the event in wire format version 2, independently of the JSON
+     * message so a failure of one doesn't hold back the other.
+     */
+    private void publishBinarySafely(FeatureFlagEventDTO event) {
+        try {
+            byte[] message = FlagWireFormat.encodeEvent(event);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(BINARY_EVENTS_CHANNEL_BYTES,
+                    message));
+            log.debug("✅ [PUB/SUB] Published {} byte binary event to channel '{}' for flag '{}'", message.length,
+                    BINARY_EVENTS_CHANNEL, event.getFlagName());
+        } catch (Exception e) {
+            log.error("❌ [PUB/SUB] Failed to publish event to channel '{}' for flag '{}': {}",
+                    BINARY_EVENTS_CHANNEL, event.getFlagName(), e.getMessage(), e);
+        }
     }
 
 }
@@ -0,0 +1,103 @@
+package com.featureflags.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis lease that elects one replica to run scheduled flag changes.
+ *
+ * The lease is a key holding the owner's random id with a TTL. A replica
+ * takes it with SET NX and, while it owns it, extends it with a script that
+ * only touches the key if it still holds its id, so an expired owner can
+ * never extend or release a lease another replica took over. The owner
+ * considers itself leader only until a safety margin before the TTL it last
+ * set runs out, which keeps it from firing after the lease may have passed
+ * on. If Redis is unavailable nobody leads and schedules fire late.
+ */
+@Component
+@Slf4j
+public class SchedulerLease {
+
+    static final String LEASE_KEY = "feature-flag:scheduler:leader";
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String ownerId = UUID.randomUUID().toString();
+    private final long leaseMs;
+
+    // Local time until which this replica may act as leader
+    private volatile long validUntil;
+
+    public SchedulerLease(RedisTemplate<String, String> redisTemplate,
+            @Value("${feature-flag.schedules.lease-ms:15000}") long leaseMs) {
+        this.redisTemplate = redisTemplate;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Take the lease if it is free or extend it if this replica holds it.
+     * Returns whether this replica leads afterwards.
+     */
+    public boolean acquireOrRenew(long now) {
+        try {
+            // Renew first: the key may still be ours even after the local validity ran out
+            boolean owned = Long.valueOf(1).equals(redisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_KEY),
+                    ownerId, String.valueOf(leaseMs)))
+                    || Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, ownerId,
+                            Duration.ofMillis(leaseMs)));
+            if (!owned && validUntil != 0) {
+                log.info("Scheduler lease lost by {}", ownerId);
+            }
+            // Leave a third of the lease for clock drift and the time the call took
+            validUntil = owned ? now + leaseMs * 2 / 3 : 0;
+            return owned;
+        } catch (RuntimeException e) {
+            log.warn("Failed to acquire or renew scheduler lease: {}", e.getMessage());
+            validUntil = 0;
+            return false;
+        }
+    }
+
+    /**
+     * Whether this replica holds a lease that is still safely valid.
+     */
+    public boolean isHeld(long now) {
+        return now < validUntil;
+    }
+
+    /**
+     * Give the lease up so another replica can take over without waiting for
+     * it to expire.
+     */
+    public void release() {
+        if (validUntil == 0) {
+            return;
+        }
+        validUntil = 0;
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_KEY), ownerId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release scheduler lease: {}", e.getMessage());
+        }
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+}
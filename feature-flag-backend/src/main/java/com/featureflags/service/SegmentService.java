@@ -0,0 +1,227 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.CreateSegmentRequest;
+import com.featureflags.dto.SegmentEventDTO;
+import com.featureflags.dto.SegmentMembersRequest;
+import com.featureflags.dto.SegmentResponse;
+import com.featureflags.entity.Segment;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.repository.SegmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for managing user segments.
+ *
+ * Members are kept as one Roaring bitmap per segment: about 2 bytes per member
+ * for scattered IDs and much less for runs of consecutive IDs. A membership
+ * change locks the row, applies the additions and removals to the bitmap and
+ * writes it back, then publishes only the effective delta once the
+ * transaction commits. Segments larger than the configured size are
+ * rejected, which bounds both the row and the memory of every consumer.
+ */
+@Service
+@Transactional
+@Slf4j
+public class SegmentService {
+
+    private final SegmentMapper segmentMapper;
+    private final MessagePublisherService messagePublisherService;
+    private final int maxSegmentBytes;
+
+    public SegmentService(SegmentMapper segmentMapper, MessagePublisherService messagePublisherService,
+            @Value("${feature-flag.segments.max-bytes:16777216}") int maxSegmentBytes) {
+        this.segmentMapper = segmentMapper;
+        this.messagePublisherService = messagePublisherService;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Get all segments without their members.
+     */
+    @Transactional(readOnly = true)
+    public List<SegmentResponse> getAllSegments() {
+        return segmentMapper.findAll().stream()
+                .map(SegmentResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a segment by name without its members.
+     */
+    @Transactional(readOnly = true)
+    public SegmentResponse getSegment(String name) {
+        Segment segment = segmentMapper.findByName(name);
+        if (segment == null) {
+            throw notFound(name);
+        }
+        return new SegmentResponse(segment);
+    }
+
+    /**
+     * Get a segment with its members as a serialized Roaring bitmap, for
+     * consumers loading the segment or recovering from a missed delta.
+     */
+    @Transactional(readOnly = true)
+    public Segment getSegmentWithMembers(String name) {
+        Segment segment = segmentMapper.findWithMembers(name);
+        if (segment == null) {
+            throw notFound(name);
+        }
+        return segment;
+    }
+
+    /**
+     * Create a new segment without members. Duplicates are detected by the
+     * UNIQUE constraint on name.
+     */
+    public SegmentResponse createSegment(CreateSegmentRequest request) {
+        log.debug("Creating new segment: {}", request);
+
+        Segment segment = new Segment();
+        segment.setName(request.getName());
+        segment.setDescription(request.getDescription());
+        segment.setMembers(serialize(new RoaringBitmap()));
+        segment.setMemberCount(0L);
+        segment.setVersion(1L);
+        segment.setCreatedBy("system"); // In real app, get from security context
+        segment.setUpdatedBy("system");
+
+        try {
+            segmentMapper.insert(segment);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.SEGMENT_ALREADY_EXISTS,
+                    "Segment already exists with name: " + request.getName(), e);
+        }
+
+        log.info("Created segment: {}", segment.getName());
+        return new SegmentResponse(segment);
+    }
+
+    /**
+     * Add and remove members of a segment. Only IDs that actually change
+     * membership are written and published, so a repeated request is a no-op
+     * that keeps the version.
+     */
+    public SegmentResponse updateMembers(String name, SegmentMembersRequest request) {
+        Segment segment = segmentMapper.findWithMembersForUpdate(name);
+        if (segment == null) {
+            throw notFound(name);
+        }
+        RoaringBitmap members = deserialize(segment.getMembers());
+        RoaringBitmap toRemove = toBitmap(request.getRemove());
+        RoaringBitmap added = RoaringBitmap.andNot(toBitmap(request.getAdd()), members);
+        added.andNot(toRemove);
+        RoaringBitmap removed = RoaringBitmap.and(toRemove, members);
+        if (added.isEmpty() && removed.isEmpty()) {
+            log.debug("Segment {} membership unchanged at version {}", name, segment.getVersion());
+            return new SegmentResponse(segment);
+        }
+
+        members.or(added);
+        members.andNot(removed);
+        members.runOptimize();
+        byte[] serialized = serialize(members);
+        if (serialized.length > maxSegmentBytes) {
+            throw new BusinessException(ErrorCode.SEGMENT_TOO_LARGE, "Segment " + name + " would take "
+                    + serialized.length + " bytes, more than the limit of " + maxSegmentBytes);
+        }
+        segmentMapper.updateMembers(name, serialized, members.getLongCardinality(), "system");
+
+        segment.setMemberCount(members.getLongCardinality());
+        segment.setVersion(segment.getVersion() + 1);
+        segment.setUpdatedBy("system");
+        segment.setUpdatedAt(LocalDateTime.now());
+        log.info("Updated segment {} to version {}: {} added, {} removed, {} members in {} bytes", name,
+                segment.getVersion(), added.getLongCardinality(), removed.getLongCardinality(),
+                segment.getMemberCount(), serialized.length);
+
+        added.runOptimize();
+        removed.runOptimize();
+        publishAfterCommit(SegmentEventDTO.builder()
+                .eventType(SegmentEventDTO.EventType.UPDATED)
+                .segmentName(name)
+                .version(segment.getVersion())
+                .added(serialize(added))
+                .removed(serialize(removed))
+                .triggeredBy("system")
+                .timestamp(segment.getUpdatedAt())
+                .build());
+        return new SegmentResponse(segment);
+    }
+
+    /**
+     * Delete a segment. Rules that still refer to it stop matching.
+     */
+    public void deleteSegment(String name) {
+        if (segmentMapper.deleteByName(name) == 0) {
+            throw notFound(name);
+        }
+        log.info("Deleted segment: {}", name);
+        publishAfterCommit(SegmentEventDTO.builder()
+                .eventType(SegmentEventDTO.EventType.DELETED)
+                .segmentName(name)
+                .triggeredBy("system")
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Publish once the change is visible, so a consumer that fetches the full
+     * members after this event never reads an older version.
+     */
+    private void publishAfterCommit(SegmentEventDTO event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messagePublisherService.publishSegmentChanged(event);
+                }
+            });
+        } else {
+            messagePublisherService.publishSegmentChanged(event);
+        }
+    }
+
+    private static BusinessException notFound(String name) {
+        return new BusinessException(ErrorCode.SEGMENT_NOT_FOUND, "Segment not found with name: " + name);
+    }
+
+    // IDs are unsigned 32-bit integers, which the int cast keeps bit for bit
+    private static RoaringBitmap toBitmap(List<Long> userIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (userIds != null) {
+            userIds.forEach(userId -> bitmap.add(userId.intValue()));
+        }
+        return bitmap;
+    }
+
+    static byte[] serialize(RoaringBitmap bitmap) {
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    static RoaringBitmap deserialize(byte[] serialized) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(serialized));
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt segment bitmap", e);
+        }
+        return bitmap;
+    }
+}
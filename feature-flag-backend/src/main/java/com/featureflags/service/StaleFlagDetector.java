@@ -0,0 +1,254 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.StaleFlagReport;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagLastEvaluation;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagEvaluationCountMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds flags that are no longer in use.
+ *
+ * A flag is stale when no consumer evaluated it within the evaluation window,
+ * using the counts consumers upload, or when it hasn't changed within the
+ * change window. Flags created within the evaluation window count as
+ * evaluated. A stale flag that a flag in use names as a prerequisite, directly
+ * or through other stale flags, is reported as required and is not
+ * archivable, since archiving it would turn its dependents off.
+ *
+ * The analysis streams all flags once and runs in the background every
+ * {@code analyze-interval-ms}; the latest report is kept for the report
+ * endpoint along with the snapshot size of all flags and of the archivable
+ * ones, so the effect of archiving shows in the next report.
+ */
+@Component
+@Slf4j
+public class StaleFlagDetector {
+
+    private final FeatureFlagMapper featureFlagMapper;
+    private final FlagEvaluationCountMapper flagEvaluationCountMapper;
+    private final ObjectWriter flagInfoWriter;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final boolean enabled;
+    private final int unevaluatedDays;
+    private final int unchangedDays;
+    private final long analyzeIntervalMs;
+
+    private ScheduledExecutorService executor;
+    private volatile StaleFlagReport latest;
+
+    public StaleFlagDetector(FeatureFlagMapper featureFlagMapper, FlagEvaluationCountMapper flagEvaluationCountMapper,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${feature-flag.stale.enabled:true}") boolean enabled,
+            @Value("${feature-flag.stale.unevaluated-days:30}") int unevaluatedDays,
+            @Value("${feature-flag.stale.unchanged-days:90}") int unchangedDays,
+            @Value("${feature-flag.stale.analyze-interval-ms:3600000}") long analyzeIntervalMs) {
+        this.featureFlagMapper = featureFlagMapper;
+        this.flagEvaluationCountMapper = flagEvaluationCountMapper;
+        this.flagInfoWriter = objectMapper.writerFor(FeatureFlagBatchResponse.FeatureFlagInfo.class);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.unevaluatedDays = unevaluatedDays;
+        this.unchangedDays = unchangedDays;
+        this.analyzeIntervalMs = analyzeIntervalMs;
+        Gauge.builder("feature_flag.stale.flags", this,
+                detector -> detector.latest != null ? detector.latest.getFlags().size() : 0)
+                .description("Flags found stale by the last analysis")
+                .register(meterRegistry);
+        Gauge.builder("feature_flag.snapshot.bytes", this,
+                detector -> detector.latest != null ? detector.latest.getSnapshotBytes() : 0)
+                .description("Serialized size of all flags in a full consumer snapshot at the last analysis")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Stale flag detector disabled");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stale-flag-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::analyzeQuietly, analyzeIntervalMs, analyzeIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The report of the last analysis, running one first if there is none.
+     */
+    public StaleFlagReport getReport() {
+        StaleFlagReport report = latest;
+        return report != null ? report : analyze();
+    }
+
+    /**
+     * Analyze all flags now and keep the report.
+     */
+    public StaleFlagReport analyze() {
+        return analyze(LocalDateTime.now());
+    }
+
+    StaleFlagReport analyze(LocalDateTime now) {
+        LocalDateTime evaluatedSince = now.minusDays(unevaluatedDays);
+        LocalDateTime changedSince = now.minusDays(unchangedDays);
+        Map<String, LocalDateTime> lastEvaluations = new HashMap<>();
+        for (FlagLastEvaluation evaluation : flagEvaluationCountMapper.findLastEvaluationsSince(evaluatedSince)) {
+            lastEvaluations.put(evaluation.getFlagName(), evaluation.getLastEvaluatedAt());
+        }
+
+        List<StaleFlagReport.StaleFlag> stale = new ArrayList<>();
+        Map<String, List<String>> prerequisites = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Set<String> staleNames = new HashSet<>();
+        List<String> inUse = new ArrayList<>();
+        long[] snapshotBytes = new long[1];
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Cursor<FeatureFlag> cursor = featureFlagMapper.streamAll()) {
+                for (FeatureFlag flag : cursor) {
+                    long bytes = snapshotBytes(flag);
+                    snapshotBytes[0] += bytes;
+                    if (flag.getPrerequisites() != null) {
+                        prerequisites.put(flag.getName(), flag.getPrerequisites());
+                        for (String prerequisite : flag.getPrerequisites()) {
+                            dependents.computeIfAbsent(prerequisite, name -> new ArrayList<>()).add(flag.getName());
+                        }
+                    }
+                    List<StaleFlagReport.Reason> reasons = reasons(flag, lastEvaluations.get(flag.getName()),
+                            evaluatedSince, changedSince);
+                    if (reasons.isEmpty()) {
+                        inUse.add(flag.getName());
+                        continue;
+                    }
+                    staleNames.add(flag.getName());
+                    stale.add(StaleFlagReport.StaleFlag.builder()
+                            .name(flag.getName())
+                            .enabled(flag.getEnabled())
+                            .reasons(reasons)
+                            .lastEvaluatedAt(lastEvaluations.get(flag.getName()))
+                            .updatedAt(flag.getUpdatedAt())
+                            .snapshotBytes(bytes)
+                            .build());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to close flag cursor", e);
+            }
+        });
+
+        Set<String> required = requiredPrerequisites(inUse, staleNames, prerequisites);
+        long archivableBytes = 0;
+        for (StaleFlagReport.StaleFlag flag : stale) {
+            flag.setRequiredBy(dependents.getOrDefault(flag.getName(), List.of()).stream()
+                    .filter(name -> !staleNames.contains(name) || required.contains(name))
+                    .sorted()
+                    .toList());
+            if (flag.isArchivable()) {
+                archivableBytes += flag.getSnapshotBytes();
+            }
+        }
+        stale.sort(Comparator.comparing(StaleFlagReport.StaleFlag::getName));
+
+        StaleFlagReport report = StaleFlagReport.builder()
+                .generatedAt(now)
+                .unevaluatedDays(unevaluatedDays)
+                .unchangedDays(unchangedDays)
+                .totalFlags(inUse.size() + stale.size())
+                .snapshotBytes(snapshotBytes[0])
+                .archivableBytes(archivableBytes)
+                .flags(stale)
+                .build();
+        latest = report;
+        log.info("Found {} stale flags out of {}, {} of {} snapshot bytes archivable", stale.size(),
+                report.getTotalFlags(), archivableBytes, snapshotBytes[0]);
+        return report;
+    }
+
+    /**
+     * Serialized size of the flag in a full consumer snapshot.
+     */
+    long snapshotBytes(FeatureFlag flag) {
+        try {
+            return flagInfoWriter.writeValueAsBytes(FeatureFlagService.toFlagInfo(flag)).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize flag " + flag.getName(), e);
+        }
+    }
+
+    private static List<StaleFlagReport.Reason> reasons(FeatureFlag flag, LocalDateTime lastEvaluatedAt,
+            LocalDateTime evaluatedSince, LocalDateTime changedSince) {
+        List<StaleFlagReport.Reason> reasons = new ArrayList<>(2);
+        boolean created = flag.getCreatedAt() != null && !flag.getCreatedAt().isBefore(evaluatedSince);
+        if (lastEvaluatedAt == null && !created) {
+            reasons.add(StaleFlagReport.Reason.NOT_EVALUATED);
+        }
+        if (flag.getUpdatedAt() != null && flag.getUpdatedAt().isBefore(changedSince)) {
+            reasons.add(StaleFlagReport.Reason.UNCHANGED);
+        }
+        return reasons;
+    }
+
+    /**
+     * Stale flags reachable over prerequisites from the flags in use.
+     */
+    private static Set<String> requiredPrerequisites(List<String> inUse, Set<String> staleNames,
+            Map<String, List<String>> prerequisites) {
+        Set<String> required = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>(inUse);
+        while (!queue.isEmpty()) {
+            for (String prerequisite : prerequisites.getOrDefault(queue.poll(), List.of())) {
+                if (staleNames.contains(prerequisite) && required.add(prerequisite)) {
+                    queue.add(prerequisite);
+                }
+            }
+        }
+        return required;
+    }
+
+    private void analyzeQuietly() {
+        try {
+            analyze();
+        } catch (RuntimeException e) {
+            log.warn("Stale flag analysis failed: {}", e.getMessage(), e);
+        }
+    }
+}
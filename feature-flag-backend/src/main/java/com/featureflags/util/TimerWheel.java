@@ -0,0 +1,201 @@
+package com.featureflags.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timer wheel over absolute ticks.
+ *
+ * Timeouts are kept in doubly linked slots on six levels of 64 slots each:
+ * level 0 holds the next 64 ticks, every higher level covers 64 times the
+ * span of the one below. Advancing by a tick expires one level 0 slot and,
+ * each time a level completes a revolution, moves the next slot of the level
+ * above down to where its timeouts now belong. Adding and cancelling are
+ * O(1), and a tick costs O(1) plus the timeouts it expires or moves, each of
+ * which moves at most once per level, however many timeouts are pending.
+ *
+ * Not thread-safe; the owner serializes access.
+ */
+public class TimerWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 6;
+
+    // Furthest a timeout is placed ahead, later ones are moved down and placed again
+    private static final long MAX_SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final Slot<T>[][] wheel;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Pending timeout, which can be cancelled until it expires.
+     */
+    public static final class Timeout<T> {
+        private final long deadline;
+        private final T value;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> takeAll() {
+            Timeout<T> first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    /**
+     * Create a wheel whose current tick is the given one; timeouts due at or
+     * before it expire on the next tick.
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        this.wheel = new Slot[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Add a timeout that expires at the given tick, or on the next tick when
+     * that has already passed.
+     */
+    public Timeout<T> add(long deadline, T value) {
+        Timeout<T> timeout = new Timeout<>(deadline, value);
+        place(timeout, currentTick + 1);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a timeout. Returns false when it already expired or was
+     * cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance tick by tick up to the given tick, passing each expired timeout
+     * to the consumer in order of the tick it expired at.
+     */
+    public void advanceTo(long tick, Consumer<Timeout<T>> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Move higher levels down first, so timeouts due this tick reach level 0 before it expires
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheel[level][index(currentTick, level)]);
+                }
+            }
+            Timeout<T> timeout = wheel[0][index(currentTick, 0)].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                detach(timeout);
+                size--;
+                expired.accept(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Slot<T> slot) {
+        Timeout<T> timeout = slot.takeAll();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            detach(timeout);
+            // Moved while the current tick is about to expire, so timeouts due now still make it
+            place(timeout, currentTick);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout, long earliest) {
+        long deadline = Math.max(timeout.deadline, earliest);
+        long delay = Math.min(deadline - currentTick, MAX_SPAN);
+        deadline = currentTick + delay;
+        int level = 0;
+        while (delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheel[level][index(deadline, level)].add(timeout);
+    }
+
+    private static void detach(Timeout<?> timeout) {
+        timeout.slot = null;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static int index(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+}
@@ -1,33 +1,64 @@
 package com.featureflags.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.featureflags.config.FlagWireMessageConverter;
+import com.featureflags.dto.BulkFlagRequest;
+import com.featureflags.dto.BulkFlagResponse;
 import com.featureflags.dto.CreateFlagRequest;
 import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FlagChangesRequest;
+import com.featureflags.dto.FlagChangesResponse;
+import com.featureflags.dto.FlagImportResponse;
 import com.featureflags.dto.FlagListResponse;
+import com.featureflags.dto.FlagQuery;
+import com.featureflags.dto.FlagSort;
 import com.featureflags.dto.FlagResponse;
+import com.featureflags.dto.FlagSnapshotResponse;
 import com.featureflags.dto.UpdateFlagRequest;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagType;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagVersionConflictException;
+import com.featureflags.exception.GlobalExceptionHandler;
 import com.featureflags.service.FeatureFlagService;
+import com.featureflags.service.FlagBulkService;
+import com.featureflags.service.FlagTransferService;
+import com.featureflags.util.FlagWireFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,6 +75,12 @@ class FeatureFlagControllerSimpleTest {
         @Mock
         private FeatureFlagService featureFlagService;
 
+        @Mock
+        private FlagBulkService flagBulkService;
+
+        @Mock
+        private FlagTransferService flagTransferService;
+
         @InjectMocks
         private FeatureFlagController featureFlagController;
 
@@ -82,7 +119,7 @@ class FeatureFlagControllerSimpleTest {
                                 new FlagResponse(testFlag),
                                 new FlagResponse(new FeatureFlag()));
                 FlagListResponse response = new FlagListResponse(flags, 2L, 0, 20);
-                when(featureFlagService.getAllFlags(anyInt(), anyInt())).thenReturn(response);
+                when(featureFlagService.getAllFlags(anyInt(), anyInt(), isNull(), any(FlagQuery.class))).thenReturn(response);
 
                 // When & Then
                 mockMvc.perform(get("/flags")
@@ -95,6 +132,97 @@ class FeatureFlagControllerSimpleTest {
                                 .andExpect(jsonPath("$.size").value(20));
         }
 
+        @Test
+        void testGetAllFlags_WithFilters() throws Exception {
+                // Given
+                FlagListResponse response = new FlagListResponse(List.of(new FlagResponse(testFlag)), 1L, 0, 20);
+                when(featureFlagService.getAllFlags(eq(0), eq(20), isNull(), any(FlagQuery.class))).thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(get("/flags")
+                                .param("enabled", "true")
+                                .param("prefix", "test_")
+                                .param("search", "flag")
+                                .param("updatedAfter", "2024-01-01T00:00:00")
+                                .param("sort", "name_asc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.total").value(1));
+
+                ArgumentCaptor<FlagQuery> queryCaptor = ArgumentCaptor.forClass(FlagQuery.class);
+                verify(featureFlagService).getAllFlags(eq(0), eq(20), isNull(), queryCaptor.capture());
+                FlagQuery query = queryCaptor.getValue();
+                assertEquals(Boolean.TRUE, query.getEnabled());
+                assertEquals("test_", query.getPrefix());
+                assertEquals("flag", query.getSearch());
+                assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), query.getUpdatedAfter());
+                assertEquals(FlagSort.NAME_ASC, query.getSort());
+        }
+
+        @Test
+        void testApplyBulk_Success() throws Exception {
+                // Given
+                BulkFlagRequest bulkRequest = new BulkFlagRequest(List.of(
+                                new BulkFlagRequest.Operation(BulkFlagRequest.OperationType.UPDATE, "test_flag", null, false),
+                                new BulkFlagRequest.Operation(BulkFlagRequest.OperationType.DELETE, "old_flag", null, null)));
+                BulkFlagResponse response = BulkFlagResponse.builder()
+                                .results(List.of(
+                                                BulkFlagResponse.ItemResult.builder().index(0).name("test_flag")
+                                                                .op(BulkFlagRequest.OperationType.UPDATE)
+                                                                .status(BulkFlagResponse.Status.UPDATED).build(),
+                                                BulkFlagResponse.ItemResult.builder().index(1).name("old_flag")
+                                                                .op(BulkFlagRequest.OperationType.DELETE)
+                                                                .status(BulkFlagResponse.Status.NOT_FOUND).build()))
+                                .succeeded(1)
+                                .failed(1)
+                                .build();
+                when(flagBulkService.applyBulk(any(BulkFlagRequest.class))).thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(post("/flags/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bulkRequest)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(1))
+                                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+        }
+
+        @Test
+        void testApplyBulk_ValidationError() throws Exception {
+                // When & Then
+                mockMvc.perform(post("/flags/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"operations\":[]}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testImportFlags_PassesBodyStream() throws Exception {
+                // Given
+                FlagImportResponse response = new FlagImportResponse(2, 0, List.of(), 5);
+                when(flagTransferService.importFlags(any(InputStream.class))).thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(post("/flags/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{\"name\":\"a\",\"enabled\":true}\n{\"name\":\"b\",\"enabled\":false}\n"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imported").value(2));
+        }
+
+        @Test
+        void testGetSnapshot_ParsesTime() throws Exception {
+                // Given
+                LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+                when(featureFlagService.getSnapshotAt(at))
+                                .thenReturn(new FlagSnapshotResponse(at, List.of(new FlagResponse(testFlag))));
+
+                // When & Then
+                mockMvc.perform(get("/flags/history/snapshot").param("at", "2026-03-01T12:00:00"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.at").value("2026-03-01T12:00:00"))
+                                .andExpect(jsonPath("$.flags[0].name").value("test_flag"));
+        }
+
         @Test
         void testGetFlagByName_Success() throws Exception {
                 // Given
@@ -136,11 +264,88 @@ class FeatureFlagControllerSimpleTest {
                                 .andExpect(status().isBadRequest());
         }
 
+        @Test
+        void testCreateFlag_InvalidTargetingRule() throws Exception {
+                // Given: a condition without values
+                String request = "{\"name\":\"new_search_ui\",\"enabled\":true,\"rules\":[{\"serve\":true,"
+                                + "\"conditions\":[{\"attribute\":\"country\",\"operator\":\"IN\",\"values\":[]}]}]}";
+
+                // When & Then
+                mockMvc.perform(post("/flags")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(request))
+                                .andExpect(status().isBadRequest());
+                verify(featureFlagService, never()).createFlag(any());
+        }
+
+        @Test
+        void testCreateFlag_InvalidRolloutPercentage() throws Exception {
+                // Given
+                String request = "{\"name\":\"new_search_ui\",\"enabled\":true,"
+                                + "\"rules\":[{\"serve\":true,\"rolloutPercentage\":150}]}";
+
+                // When & Then
+                mockMvc.perform(post("/flags")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(request))
+                                .andExpect(status().isBadRequest());
+                verify(featureFlagService, never()).createFlag(any());
+        }
+
+        @Test
+        void testCreateFlag_ValueMustMatchType() throws Exception {
+                // Given
+                String numberAsString = "{\"name\":\"search_page_size\",\"enabled\":true,"
+                                + "\"type\":\"NUMBER\",\"value\":\"20\"}";
+                String booleanWithValue = "{\"name\":\"dark_mode\",\"enabled\":true,\"value\":1}";
+                String jsonScalar = "{\"name\":\"cache_ttls\",\"enabled\":true,"
+                                + "\"type\":\"JSON\",\"value\":3600}";
+
+                // When & Then
+                for (String request : List.of(numberAsString, booleanWithValue, jsonScalar)) {
+                        mockMvc.perform(post("/flags")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(request))
+                                        .andExpect(status().isBadRequest());
+                }
+                verify(featureFlagService, never()).createFlag(any());
+        }
+
+        @Test
+        void testCreateFlag_TypedValue() throws Exception {
+                // Given
+                testFlag.setType(FlagType.JSON);
+                testFlag.setValue(objectMapper.readTree("{\"movieSearch\":1800,\"movieDetails\":86400}"));
+                when(featureFlagService.createFlag(any(CreateFlagRequest.class))).thenReturn(new FlagResponse(testFlag));
+                String request = "{\"name\":\"test_flag\",\"enabled\":true,\"type\":\"JSON\","
+                                + "\"value\":{\"movieSearch\":1800,\"movieDetails\":86400}}";
+
+                // When & Then
+                mockMvc.perform(post("/flags")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(request))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.type").value("JSON"))
+                                .andExpect(jsonPath("$.value.movieDetails").value(86400));
+                verify(featureFlagService).createFlag(argThat(flag -> flag.getType() == FlagType.JSON
+                                && flag.getValue().get("movieSearch").asInt() == 1800));
+        }
+
+        @Test
+        void testUpdateFlag_ValueRequiresType() throws Exception {
+                // When & Then
+                mockMvc.perform(put("/flags/search_page_size")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"value\":50}"))
+                                .andExpect(status().isBadRequest());
+                verify(featureFlagService, never()).updateFlag(anyString(), any(), any());
+        }
+
         @Test
         void testUpdateFlag_Success() throws Exception {
                 // Given
                 FlagResponse response = new FlagResponse(testFlag);
-                when(featureFlagService.updateFlag(anyString(), any(UpdateFlagRequest.class))).thenReturn(response);
+                when(featureFlagService.updateFlag(anyString(), any(UpdateFlagRequest.class), isNull())).thenReturn(response);
 
                 // When & Then
                 mockMvc.perform(put("/flags/test_flag")
@@ -150,11 +355,63 @@ class FeatureFlagControllerSimpleTest {
                                 .andExpect(jsonPath("$.name").value("test_flag"));
         }
 
+        @Test
+        void testUpdateFlag_WithIfMatch() throws Exception {
+                // Given
+                testFlag.setVersion(6L);
+                FlagResponse response = new FlagResponse(testFlag);
+                when(featureFlagService.updateFlag(eq("test_flag"), any(UpdateFlagRequest.class), eq(5L)))
+                                .thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(put("/flags/test_flag")
+                                .header("If-Match", "\"5\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(updateRequest)))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"6\""))
+                                .andExpect(jsonPath("$.version").value(6));
+        }
+
         @Test
         void testDeleteFlag_Success() throws Exception {
                 // When & Then
                 mockMvc.perform(delete("/flags/test_flag"))
                                 .andExpect(status().isNoContent());
+                verify(featureFlagService).deleteFlag("test_flag", null);
+        }
+
+        @Test
+        void testDeleteFlag_WithIfMatch() throws Exception {
+                // When & Then
+                mockMvc.perform(delete("/flags/test_flag").header("If-Match", "\"3\""))
+                                .andExpect(status().isNoContent());
+                verify(featureFlagService).deleteFlag("test_flag", 3L);
+        }
+
+        @Test
+        void testDeleteFlag_WeakIfMatchFailsPrecondition() throws Exception {
+                // Given
+                MockMvc handlingMockMvc = MockMvcBuilders.standaloneSetup(featureFlagController)
+                                .setControllerAdvice(new GlobalExceptionHandler())
+                                .build();
+
+                // When & Then
+                handlingMockMvc.perform(delete("/flags/test_flag").header("If-Match", "W/\"3\""))
+                                .andExpect(status().isPreconditionFailed());
+                verify(featureFlagService, never()).deleteFlag(anyString(), any());
+        }
+
+        @Test
+        void testParseIfMatch() {
+                assertEquals(null, FeatureFlagController.parseIfMatch(null));
+                assertEquals(null, FeatureFlagController.parseIfMatch("*"));
+                assertEquals(7L, FeatureFlagController.parseIfMatch("\"7\""));
+                assertThrows(BusinessException.class, () -> FeatureFlagController.parseIfMatch("\"abc\""));
+                BusinessException list = assertThrows(BusinessException.class,
+                                () -> FeatureFlagController.parseIfMatch("\"3\", \"4\""));
+                assertEquals(ErrorCode.INVALID_PARAMETER, list.getErrorCode());
+                assertThrows(FlagVersionConflictException.class, () -> FeatureFlagController.parseIfMatch("W/\"7\""));
         }
 
         @Test
@@ -205,4 +462,76 @@ class FeatureFlagControllerSimpleTest {
                                 .andExpect(jsonPath("$.flags").exists())
                                 .andExpect(jsonPath("$.responseTimestamp").exists());
         }
+
+        @Test
+        void testPollFlagChanges_Success() throws Exception {
+                // Given
+                FlagChangesResponse response = FlagChangesResponse.builder()
+                                .revision(11L)
+                                .flags(Map.of("test_flag", FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                                                .name("test_flag")
+                                                .enabled(true)
+                                                .build()))
+                                .deleted(List.of())
+                                .responseTimestamp(LocalDateTime.now())
+                                .build();
+                when(featureFlagService.pollFlagChanges(anyList(), isNull(), eq(10L), eq(60000L)))
+                                .thenReturn(CompletableFuture.completedFuture(response));
+
+                FlagChangesRequest changesRequest = new FlagChangesRequest(List.of("test_flag"), null, 10L);
+
+                // When & Then
+                var result = mockMvc.perform(post("/flags/changes")
+                                .param("timeoutMs", "120000")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(changesRequest)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.revision").value(11))
+                                .andExpect(jsonPath("$.flags.test_flag.enabled").value(true));
+        }
+
+        @Test
+        void testGetFeatureFlagsBatch_NegotiatesBinaryWireFormat() throws Exception {
+                // Given
+                MockMvc negotiatingMockMvc = MockMvcBuilders.standaloneSetup(featureFlagController)
+                                .setMessageConverters(
+                                                new MappingJackson2HttpMessageConverter(
+                                                                Jackson2ObjectMapperBuilder.json().build()),
+                                                new FlagWireMessageConverter())
+                                .build();
+                FeatureFlagBatchResponse response = FeatureFlagBatchResponse.builder()
+                                .flags(Map.of("test_flag", FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                                                .name("test_flag")
+                                                .enabled(true)
+                                                .type(FlagType.BOOLEAN)
+                                                .build()))
+                                .responseTimestamp(LocalDateTime.of(2026, 10, 19, 12, 0))
+                                .build();
+                when(featureFlagService.getFeatureFlagsBatch(any())).thenReturn(response);
+                String body = objectMapper.writeValueAsString(List.of("test_flag"));
+
+                // When
+                byte[] binary = negotiatingMockMvc.perform(post("/flags/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Accept", FlagWireMessageConverter.MEDIA_TYPE + ", application/json;q=0.9")
+                                .content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(FlagWireMessageConverter.MEDIA_TYPE))
+                                .andReturn().getResponse().getContentAsByteArray();
+
+                // Then
+                assertTrue(FlagWireFormat.isBinary(binary));
+                assertEquals(response, FlagWireFormat.decodeBatch(binary));
+                negotiatingMockMvc.perform(post("/flags/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Accept", "*/*")
+                                .content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                                .andExpect(jsonPath("$.flags.test_flag.enabled").value(true));
+        }
 }
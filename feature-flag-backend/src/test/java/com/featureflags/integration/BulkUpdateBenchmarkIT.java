@@ -0,0 +1,93 @@
+package com.featureflags.integration;
+
+import com.featureflags.config.BaseIntegrationTest;
+import com.featureflags.dto.BulkFlagRequest;
+import com.featureflags.dto.BulkFlagResponse;
+import com.featureflags.dto.UpdateFlagRequest;
+import com.featureflags.service.FeatureFlagService;
+import com.featureflags.service.FlagBulkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares toggling N flags through N individual updates against one bulk
+ * request.
+ *
+ * Run with: mvn verify -Dit.test=BulkUpdateBenchmarkIT -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkUpdateBenchmarkIT extends BaseIntegrationTest {
+
+    private static final int FLAGS = 100;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private FeatureFlagService featureFlagService;
+
+    @Autowired
+    private FlagBulkService flagBulkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+        for (int i = 0; i < FLAGS; i++) {
+            jdbcTemplate.update("INSERT INTO feature_flags (name, enabled) VALUES (?, FALSE)", flagName(i));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+    }
+
+    @Test
+    void compareIndividualAndBulkUpdates() {
+        long individualNanos = 0;
+        long bulkNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean enabled = round % 2 == 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < FLAGS; i++) {
+                UpdateFlagRequest request = new UpdateFlagRequest();
+                request.setEnabled(enabled);
+                featureFlagService.updateFlag(flagName(i), request);
+            }
+            individualNanos += System.nanoTime() - start;
+
+            List<BulkFlagRequest.Operation> operations = new ArrayList<>();
+            for (int i = 0; i < FLAGS; i++) {
+                operations.add(new BulkFlagRequest.Operation(BulkFlagRequest.OperationType.UPDATE, flagName(i),
+                        null, !enabled));
+            }
+            start = System.nanoTime();
+            BulkFlagResponse response = flagBulkService.applyBulk(new BulkFlagRequest(operations));
+            bulkNanos += System.nanoTime() - start;
+            assertEquals(FLAGS, response.getSucceeded());
+        }
+
+        System.out.printf("Toggling %d flags: individual=%.2fms bulk=%.2fms per round%n",
+                FLAGS, individualNanos / 1e6 / ROUNDS, bulkNanos / 1e6 / ROUNDS);
+        assertTrue(bulkNanos < individualNanos, "Bulk request should be faster than individual updates");
+    }
+
+    private static String flagName(int i) {
+        return "bulk_bench_" + i;
+    }
+}
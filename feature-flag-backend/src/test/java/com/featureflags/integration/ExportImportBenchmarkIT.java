@@ -0,0 +1,104 @@
+package com.featureflags.integration;
+
+import com.featureflags.config.BaseIntegrationTest;
+import com.featureflags.dto.FlagImportResponse;
+import com.featureflags.service.FlagTransferService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trips 1M flags through the NDJSON export and import, reporting
+ * throughput and heap growth.
+ *
+ * Seeding takes a while, so the benchmark only runs when requested:
+ * mvn verify -Dit.test=ExportImportBenchmarkIT -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExportImportBenchmarkIT extends BaseIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private FlagTransferService flagTransferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + ROWS);
+        jdbcTemplate.execute("INSERT INTO feature_flags (name, description, enabled, created_by, updated_by) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + ROWS + ") "
+                + "SELECT CONCAT('bench_flag_', n), 'benchmark flag', n % 2 = 0, 'bench', 'bench' FROM seq");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+    }
+
+    @Test
+    void roundTripAllFlags() throws Exception {
+        Path file = tempDir.resolve("feature-flags.ndjson");
+
+        long heapBefore = usedHeap();
+        long exportStart = System.nanoTime();
+        long exported;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            exported = flagTransferService.exportFlags(out);
+        }
+        long exportMs = (System.nanoTime() - exportStart) / 1_000_000;
+        long exportHeapGrowth = usedHeap() - heapBefore;
+        assertEquals(ROWS, exported);
+
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+        FlagImportResponse response;
+        try (InputStream in = Files.newInputStream(file)) {
+            response = flagTransferService.importFlags(in);
+        }
+        assertEquals(ROWS, response.getImported());
+        assertEquals(0, response.getSkipped());
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM feature_flags", Long.class));
+        assertEquals(ROWS / 2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM feature_flags WHERE enabled = TRUE", Long.class));
+
+        System.out.printf("NDJSON round trip of %d flags (%d MB): export=%dms (%d/s, heap +%d MB) import=%dms (%d/s)%n",
+                ROWS, Files.size(file) >> 20, exportMs, ROWS * 1000L / Math.max(1, exportMs),
+                exportHeapGrowth >> 20, response.getDurationMs(),
+                ROWS * 1000L / Math.max(1, response.getDurationMs()));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -3,6 +3,7 @@ package com.featureflags.integration;
 import com.featureflags.config.BaseIntegrationTest;
 import com.featureflags.dto.CreateFlagRequest;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
 import com.featureflags.repository.FeatureFlagMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -189,4 +191,25 @@ class FeatureFlagIntegrationTest extends BaseIntegrationTest {
         assertTrue(foundFlag.getEnabled());
     }
 
+    @Test
+    void testHistorySnapshot() {
+        // Given
+        featureFlagMapper.insert(testFlag);
+        featureFlagMapper.insertHistory(List.of("test_flag"), FlagHistoryEntry.ChangeType.CREATED, "test");
+        featureFlagMapper.updateByName("test_flag", null, false, null, null, null, null, "test", null);
+        featureFlagMapper.insertHistory(List.of("test_flag"), FlagHistoryEntry.ChangeType.UPDATED, "test");
+
+        // When
+        List<FlagHistoryEntry> before = featureFlagMapper.findHistorySnapshotAt(LocalDateTime.now().minusYears(1));
+        List<FlagHistoryEntry> now = featureFlagMapper.findHistorySnapshotAt(LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertTrue(before.stream().noneMatch(entry -> entry.getName().equals("test_flag")));
+        FlagHistoryEntry latest = now.stream()
+                .filter(entry -> entry.getName().equals("test_flag"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertEquals(FlagHistoryEntry.ChangeType.UPDATED, latest.getChangeType());
+        assertFalse(latest.getEnabled());
+    }
 }
@@ -0,0 +1,93 @@
+package com.featureflags.integration;
+
+import com.featureflags.config.BaseIntegrationTest;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares offset and keyset pagination of the flag list at 1M rows.
+ *
+ * Seeding takes a while, so the benchmark only runs when requested:
+ * mvn verify -Dit.test=PaginationBenchmarkIT -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaginationBenchmarkIT extends BaseIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + ROWS);
+        jdbcTemplate.execute("INSERT INTO feature_flags (name, description, enabled, created_at, created_by, updated_by) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + ROWS + ") "
+                + "SELECT CONCAT('bench_flag_', n), 'benchmark flag', n % 2 = 0, "
+                + "TIMESTAMP('2024-01-01') + INTERVAL (n DIV 10) SECOND, 'bench', 'bench' FROM seq");
+        jdbcTemplate.execute("ANALYZE TABLE feature_flags");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+    }
+
+    @Test
+    void compareDeepPageLatency() {
+        int deepOffset = ROWS - PAGE_SIZE * 2;
+
+        // The keyset cursor for the same deep page is the row just before it
+        FeatureFlag previous = featureFlagMapper.findAll(deepOffset - 1, 1).get(0);
+        List<FeatureFlag> offsetPage = featureFlagMapper.findAll(deepOffset, PAGE_SIZE);
+        List<FeatureFlag> keysetPage = featureFlagMapper.findPageAfter(previous.getCreatedAt(), previous.getId(),
+                PAGE_SIZE);
+        assertEquals(offsetPage.stream().map(FeatureFlag::getId).toList(),
+                keysetPage.stream().map(FeatureFlag::getId).toList());
+
+        long offsetNanos = time(() -> featureFlagMapper.findAll(deepOffset, PAGE_SIZE));
+        long keysetNanos = time(() -> featureFlagMapper.findPageAfter(previous.getCreatedAt(), previous.getId(),
+                PAGE_SIZE));
+        long countNanos = time(featureFlagMapper::countAll);
+
+        System.out.printf("Pagination at %d rows, offset %d: offset=%.2fms keyset=%.2fms count=%.2fms%n",
+                ROWS, deepOffset, offsetNanos / 1e6, keysetNanos / 1e6, countNanos / 1e6);
+        assertTrue(keysetNanos < offsetNanos, "Keyset page should be faster than a deep offset page");
+    }
+
+    private static long time(Runnable query) {
+        query.run(); // warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
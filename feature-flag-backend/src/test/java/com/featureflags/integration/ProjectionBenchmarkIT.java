@@ -0,0 +1,111 @@
+package com.featureflags.integration;
+
+import com.featureflags.config.BaseIntegrationTest;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares full-row and state-projection batch lookups on flags with large
+ * descriptions: latency and bytes sent by the server per query.
+ *
+ * Seeding takes a while, so the benchmark only runs when requested:
+ * mvn verify -Dit.test=ProjectionBenchmarkIT -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionBenchmarkIT extends BaseIntegrationTest {
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH_SIZE = 100;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private List<String> batch;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + ROWS);
+        jdbcTemplate.execute("INSERT INTO feature_flags (name, description, enabled, created_by, updated_by) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + ROWS + ") "
+                + "SELECT CONCAT('bench_flag_', n), REPEAT('benchmark flag description ', 40), n % 2 = 0, "
+                + "'bench', 'bench' FROM seq");
+        jdbcTemplate.execute("ANALYZE TABLE feature_flags");
+        batch = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "bench_flag_" + (1 + i * (ROWS / BATCH_SIZE)))
+                .toList();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM feature_flags");
+    }
+
+    @Test
+    @Transactional // keeps the queries and the session status reads on one connection
+    void compareBatchLookup() {
+        List<FeatureFlag> fullRows = featureFlagMapper.findByNames(batch);
+        List<FeatureFlag> states = featureFlagMapper.findStatesByNames(batch);
+        assertEquals(BATCH_SIZE, states.size());
+        assertEquals(fullRows.stream().map(FeatureFlag::getEnabled).toList(),
+                states.stream().map(FeatureFlag::getEnabled).toList());
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN FORMAT=TREE SELECT name, enabled, updated_at "
+                + "FROM feature_flags WHERE name LIKE 'bench\\_flag\\_1%'", String.class);
+        System.out.println("State prefix lookup plan: " + plan);
+
+        Sample full = sample(() -> featureFlagMapper.findByNames(batch));
+        Sample lean = sample(() -> featureFlagMapper.findStatesByNames(batch));
+
+        System.out.printf("Batch of %d at %d rows: full=%.2fms/%dB state=%.2fms/%dB%n",
+                BATCH_SIZE, ROWS, full.nanos() / 1e6, full.bytesSent(), lean.nanos() / 1e6, lean.bytesSent());
+        assertTrue(lean.bytesSent() < full.bytesSent(), "State projection should send fewer bytes");
+    }
+
+    private record Sample(long nanos, long bytesSent) {
+    }
+
+    private Sample sample(Runnable query) {
+        query.run(); // warm up
+        long bytesBefore = sessionStatus("Bytes_sent");
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        long nanos = (System.nanoTime() - start) / ITERATIONS;
+        return new Sample(nanos, (sessionStatus("Bytes_sent") - bytesBefore) / ITERATIONS);
+    }
+
+    private long sessionStatus(String name) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SHOW SESSION STATUS LIKE ?", name);
+        return Long.parseLong(String.valueOf(row.get("Value")));
+    }
+}
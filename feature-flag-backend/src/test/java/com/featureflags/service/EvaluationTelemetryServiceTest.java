@@ -0,0 +1,72 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.EvaluationReport;
+import com.featureflags.repository.FlagEvaluationCountMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationTelemetryServiceTest {
+
+    @Mock
+    private FlagEvaluationCountMapper flagEvaluationCountMapper;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EvaluationTelemetryService evaluationTelemetryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        evaluationTelemetryService = new EvaluationTelemetryService(flagEvaluationCountMapper, meterRegistry, 15);
+    }
+
+    @Test
+    void testRecordEvaluations_MergesAndSortsIntoCurrentBucket() {
+        // Given
+        EvaluationReport report = new EvaluationReport(List.of(
+                new EvaluationReport.FlagCount("search_v2", 10, 2),
+                new EvaluationReport.FlagCount("dark_mode", 0, 5),
+                new EvaluationReport.FlagCount("search_v2", 1, 0),
+                new EvaluationReport.FlagCount("unused_flag", 0, 0)));
+
+        // When
+        evaluationTelemetryService.recordEvaluations(report, LocalDateTime.of(2026, 3, 1, 10, 44, 59));
+
+        // Then
+        verify(flagEvaluationCountMapper).addCounts(LocalDateTime.of(2026, 3, 1, 10, 30), List.of(
+                new EvaluationReport.FlagCount("dark_mode", 0, 5),
+                new EvaluationReport.FlagCount("search_v2", 11, 2)));
+        assertEquals(18.0, meterRegistry.get("feature_flag.telemetry.evaluations").counter().count());
+    }
+
+    @Test
+    void testRecordEvaluations_EmptyReportWritesNothing() {
+        // When
+        evaluationTelemetryService.recordEvaluations(new EvaluationReport(List.of(
+                new EvaluationReport.FlagCount("dark_mode", 0, 0))), LocalDateTime.now());
+
+        // Then
+        verify(flagEvaluationCountMapper, never()).addCounts(any(), anyList());
+    }
+
+    @Test
+    void testBucketStart_AlignsToMidnight() {
+        assertEquals(LocalDateTime.of(2026, 3, 1, 0, 0),
+                evaluationTelemetryService.bucketStart(LocalDateTime.of(2026, 3, 1, 0, 14, 59, 999)));
+        assertEquals(LocalDateTime.of(2026, 3, 1, 23, 45),
+                evaluationTelemetryService.bucketStart(LocalDateTime.of(2026, 3, 1, 23, 59)));
+    }
+}
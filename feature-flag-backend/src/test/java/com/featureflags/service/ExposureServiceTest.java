@@ -0,0 +1,95 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.ExposureResponse;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHyperLogLogCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExposureServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisHyperLogLogCommands hyperLogLogCommands;
+
+    @InjectMocks
+    private ExposureService exposureService;
+
+    private static byte[] key(String variant, LocalDate day) {
+        return ExposureService.key("new_search", variant, day).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testGetExposures_CountsDaysAndUnionInOnePipeline() {
+        // Given
+        when(featureFlagMapper.existsByName("new_search")).thenReturn(true);
+        when(connection.hyperLogLogCommands()).thenReturn(hyperLogLogCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return Arrays.asList(120L, 30L, 100L, null, 190L, 30L);
+        });
+
+        // When
+        ExposureResponse response = exposureService.getExposures("new_search", DAY, DAY.plusDays(1));
+
+        // Then
+        assertEquals(List.of(new ExposureResponse.DailyExposures(DAY, 120, 30),
+                new ExposureResponse.DailyExposures(DAY.plusDays(1), 100, 0)), response.getDays());
+        assertEquals(190, response.getUniqueOn());
+        assertEquals(30, response.getUniqueOff());
+        verify(hyperLogLogCommands).pfCount(key("on", DAY));
+        verify(hyperLogLogCommands).pfCount(key("off", DAY.plusDays(1)));
+        verify(hyperLogLogCommands).pfCount(key("on", DAY), key("on", DAY.plusDays(1)));
+        verify(hyperLogLogCommands).pfCount(key("off", DAY), key("off", DAY.plusDays(1)));
+    }
+
+    @Test
+    void testGetExposures_RejectsInvalidRange() {
+        // When & Then
+        BusinessException reversed = assertThrows(BusinessException.class,
+                () -> exposureService.getExposures("new_search", DAY, DAY.minusDays(1)));
+        assertEquals(ErrorCode.INVALID_PARAMETER, reversed.getErrorCode());
+        assertThrows(BusinessException.class,
+                () -> exposureService.getExposures("new_search", DAY, DAY.plusDays(ExposureService.MAX_DAYS)));
+        verifyNoInteractions(redisTemplate, featureFlagMapper);
+    }
+
+    @Test
+    void testGetExposures_FlagNotFound() {
+        // Given
+        when(featureFlagMapper.existsByName("unknown_flag")).thenReturn(false);
+
+        // When & Then
+        assertThrows(FlagNotFoundException.class, () -> exposureService.getExposures("unknown_flag", DAY, DAY));
+        verifyNoInteractions(redisTemplate);
+    }
+}
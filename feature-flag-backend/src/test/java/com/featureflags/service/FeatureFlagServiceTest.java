@@ -3,25 +3,42 @@ package com.featureflags.service;
 import com.featureflags.config.UnitTestConfig;
 import com.featureflags.dto.CreateFlagRequest;
 import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FlagChangesResponse;
 import com.featureflags.dto.FlagListResponse;
+import com.featureflags.dto.FlagQuery;
+import com.featureflags.dto.FlagSort;
 import com.featureflags.dto.FlagResponse;
+import com.featureflags.dto.FlagSnapshotResponse;
 import com.featureflags.dto.UpdateFlagRequest;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
 import com.featureflags.exception.FlagAlreadyExistsException;
 import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.exception.FlagVersionConflictException;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
 import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagSearch;
+import com.featureflags.util.PageCursor;
+import com.fasterxml.jackson.databind.node.IntNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +55,24 @@ class FeatureFlagServiceTest {
     @Mock
     private MessagePublisherService messagePublisherService;
 
+    @Mock
+    private FlagChangeTracker flagChangeTracker;
+
+    @Spy
+    private FlagCountCache flagCountCache = new FlagCountCache();
+
+    @Mock
+    private FlagNameIndex flagNameIndex;
+
+    @Mock
+    private FlagBatchLoader flagBatchLoader;
+
+    @Mock
+    private FlagMissCache flagMissCache;
+
+    @Mock
+    private FlagPrerequisiteValidator flagPrerequisiteValidator;
+
     @InjectMocks
     private FeatureFlagService featureFlagService;
 
@@ -83,9 +118,102 @@ class FeatureFlagServiceTest {
         verify(featureFlagMapper).countAll();
     }
 
+    @Test
+    void testGetAllFlags_WithCursorUsesKeyset() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        String cursor = new PageCursor(createdAt, 42L).encode();
+        when(featureFlagMapper.findPageAfter(createdAt, 42L, 1)).thenReturn(List.of(testFlag));
+        when(featureFlagMapper.countAll()).thenReturn(5L);
+
+        // When
+        FlagListResponse response = featureFlagService.getAllFlags(0, 1, cursor);
+
+        // Then
+        assertEquals(1, response.getFlags().size());
+        assertEquals(new PageCursor(testFlag.getCreatedAt(), 1L), PageCursor.decode(response.getNextCursor()));
+        verify(featureFlagMapper, never()).findAll(anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetAllFlags_LastPageHasNoCursor() {
+        // Given
+        when(featureFlagMapper.findAll(0, 10)).thenReturn(List.of(testFlag));
+        when(featureFlagMapper.countAll()).thenReturn(1L);
+
+        // When
+        FlagListResponse response = featureFlagService.getAllFlags(0, 10, null);
+
+        // Then
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetAllFlags_InvalidCursor() {
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> featureFlagService.getAllFlags(0, 10, "not-a-cursor"));
+        assertEquals(ErrorCode.INVALID_PARAMETER, exception.getErrorCode());
+        verifyNoInteractions(featureFlagMapper);
+    }
+
+    @Test
+    void testGetAllFlags_CountIsCachedAndAdjusted() {
+        // Given
+        when(featureFlagMapper.findAll(anyInt(), anyInt())).thenReturn(List.of());
+        when(featureFlagMapper.countAll()).thenReturn(2L);
+        when(featureFlagMapper.insert(any(FeatureFlag.class))).thenReturn(1);
+
+        // When
+        featureFlagService.getAllFlags(0, 10);
+        featureFlagService.createFlag(createRequest);
+        FlagListResponse response = featureFlagService.getAllFlags(1, 10);
+
+        // Then
+        assertEquals(3L, response.getTotal());
+        verify(featureFlagMapper, times(1)).countAll();
+    }
+
+    @Test
+    void testGetAllFlags_WithFiltersUsesQuery() {
+        // Given
+        FlagQuery query = FlagQuery.builder()
+                .enabled(true)
+                .prefix("test_")
+                .search("flag")
+                .sort(FlagSort.NAME_ASC)
+                .build();
+        when(flagNameIndex.search("flag", 1000)).thenReturn(List.of("test_flag"));
+        when(featureFlagMapper.findByQuery(eq(query), eq("test\\_"), any(FlagSearch.class), eq(List.of("test_flag")),
+                isNull(), isNull(), eq(0), eq(10))).thenReturn(List.of(testFlag));
+        when(featureFlagMapper.countByQuery(eq(query), eq("test\\_"), any(FlagSearch.class), eq(List.of("test_flag"))))
+                .thenReturn(1L);
+
+        // When
+        FlagListResponse response = featureFlagService.getAllFlags(0, 10, null, query);
+
+        // Then
+        assertEquals(1, response.getFlags().size());
+        assertEquals(1L, response.getTotal());
+        assertNull(response.getNextCursor());
+        verify(featureFlagMapper, never()).countAll();
+    }
+
+    @Test
+    void testGetAllFlags_CursorRequiresDefaultSort() {
+        // Given
+        String cursor = new PageCursor(LocalDateTime.now(), 1L).encode();
+        FlagQuery query = FlagQuery.builder().sort(FlagSort.NAME_ASC).build();
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> featureFlagService.getAllFlags(0, 10, cursor, query));
+        verifyNoInteractions(featureFlagMapper);
+    }
+
     @Test
     void testGetFlagByName_Success() {
         // Given
+        when(flagMissCache.mightExist("test_flag")).thenReturn(true);
         when(featureFlagMapper.findByName("test_flag")).thenReturn(testFlag);
 
         // When
@@ -100,18 +228,30 @@ class FeatureFlagServiceTest {
     @Test
     void testGetFlagByName_NotFound() {
         // Given
+        when(flagMissCache.mightExist("nonexistent_flag")).thenReturn(true);
         when(featureFlagMapper.findByName("nonexistent_flag")).thenReturn(null);
 
         // When & Then
-        assertThrows(FlagNotFoundException.class, () -> {
+        FlagNotFoundException exception = assertThrows(FlagNotFoundException.class, () -> {
             featureFlagService.getFlagByName("nonexistent_flag");
         });
+        assertEquals(0, exception.getStackTrace().length);
+        verify(flagMissCache).recordMiss("nonexistent_flag");
+    }
+
+    @Test
+    void testGetFlagByName_KnownMissSkipsQuery() {
+        // Given
+        when(flagMissCache.mightExist("deleted_flag")).thenReturn(false);
+
+        // When & Then
+        assertThrows(FlagNotFoundException.class, () -> featureFlagService.getFlagByName("deleted_flag"));
+        verify(featureFlagMapper, never()).findByName(anyString());
     }
 
     @Test
     void testCreateFlag_Success() {
         // Given
-        when(featureFlagMapper.existsByName(createRequest.getName())).thenReturn(false);
         when(featureFlagMapper.insert(any(FeatureFlag.class))).thenReturn(1);
 
         // When
@@ -120,30 +260,85 @@ class FeatureFlagServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(createRequest.getName(), response.getName());
-        verify(featureFlagMapper).existsByName(createRequest.getName());
+        assertEquals(0L, response.getVersion());
+        verify(featureFlagMapper, never()).existsByName(anyString());
         verify(featureFlagMapper).insert(any(FeatureFlag.class));
+        verify(featureFlagMapper).insertHistory(List.of("new_flag"), FlagHistoryEntry.ChangeType.CREATED, "system");
         verify(messagePublisherService).publishFlagCreated(any(FeatureFlag.class));
+        verify(flagChangeTracker).recordChange(createRequest.getName());
+    }
+
+    @Test
+    void testCreateFlag_StoresTargetingRules() {
+        // Given
+        TargetingRule rule = new TargetingRule(List.of(new TargetingRule.Condition("country",
+                TargetingRule.Operator.IN, List.of("US", "CA"))), true);
+        createRequest.setRules(List.of(rule));
+        when(featureFlagMapper.insert(any(FeatureFlag.class))).thenReturn(1);
+
+        // When
+        FlagResponse response = featureFlagService.createFlag(createRequest);
+
+        // Then
+        assertEquals(List.of(rule), response.getRules());
+        verify(featureFlagMapper).insert(argThat(flag -> List.of(rule).equals(flag.getRules())));
+        verify(messagePublisherService).publishFlagCreated(argThat(flag -> List.of(rule).equals(flag.getRules())));
+    }
+
+    @Test
+    void testCreateFlag_StoresTypedValue() {
+        // Given
+        createRequest.setType(FlagType.NUMBER);
+        createRequest.setValue(IntNode.valueOf(25));
+        when(featureFlagMapper.insert(any(FeatureFlag.class))).thenReturn(1);
+
+        // When
+        FlagResponse response = featureFlagService.createFlag(createRequest);
+
+        // Then
+        assertEquals(FlagType.NUMBER, response.getType());
+        assertEquals(25, response.getValue().intValue());
+        verify(messagePublisherService).publishFlagCreated(argThat(flag -> flag.getType() == FlagType.NUMBER
+                && IntNode.valueOf(25).equals(flag.getValue())));
+    }
+
+    @Test
+    void testCreateFlag_DefaultsToBooleanType() {
+        // Given
+        when(featureFlagMapper.insert(any(FeatureFlag.class))).thenReturn(1);
+
+        // When
+        FlagResponse response = featureFlagService.createFlag(createRequest);
+
+        // Then
+        assertEquals(FlagType.BOOLEAN, response.getType());
+        assertNull(response.getValue());
     }
 
     @Test
     void testCreateFlag_AlreadyExists() {
         // Given
-        when(featureFlagMapper.existsByName("new_flag")).thenReturn(true);
+        when(featureFlagMapper.insert(any(FeatureFlag.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry 'new_flag' for key 'name'"));
 
         // When & Then
         assertThrows(FlagAlreadyExistsException.class, () -> {
             featureFlagService.createFlag(createRequest);
         });
 
-        verify(featureFlagMapper).existsByName("new_flag");
-        verify(featureFlagMapper, never()).insert(any(FeatureFlag.class));
+        verify(messagePublisherService, never()).publishFlagCreated(any(FeatureFlag.class));
+        verify(flagChangeTracker, never()).recordChange(anyString());
     }
 
     @Test
     void testUpdateFlag_Success() {
         // Given
+        when(featureFlagMapper.updateByName("test_flag", "Updated description", false, null, null, null, null, "system", null))
+                .thenReturn(1);
+        testFlag.setDescription("Updated description");
+        testFlag.setEnabled(false);
+        testFlag.setVersion(4L);
         when(featureFlagMapper.findByName("test_flag")).thenReturn(testFlag);
-        when(featureFlagMapper.update(any(FeatureFlag.class))).thenReturn(1);
 
         // When
         FlagResponse response = featureFlagService.updateFlag("test_flag", updateRequest);
@@ -152,53 +347,139 @@ class FeatureFlagServiceTest {
         assertNotNull(response);
         assertEquals(updateRequest.getDescription(), response.getDescription());
         assertEquals(updateRequest.getEnabled(), response.getEnabled());
+        assertEquals(4L, response.getVersion());
 
-        verify(featureFlagMapper).findByName("test_flag");
-        verify(featureFlagMapper).update(any(FeatureFlag.class));
-        verify(messagePublisherService).publishFlagUpdated(any(FeatureFlag.class));
+        verify(featureFlagMapper).updateByName("test_flag", "Updated description", false, null, null, null, null, "system", null);
+        verify(featureFlagMapper).insertHistory(List.of("test_flag"), FlagHistoryEntry.ChangeType.UPDATED, "system");
+        verify(messagePublisherService).publishFlagUpdated(testFlag);
+        verify(flagChangeTracker).recordChange("test_flag");
     }
 
     @Test
     void testUpdateFlag_NotFound() {
         // Given
-        when(featureFlagMapper.findByName("nonexistent_flag")).thenReturn(null);
+        when(featureFlagMapper.updateByName(eq("nonexistent_flag"), any(), any(), any(), any(), any(), any(), any(), isNull())).thenReturn(0);
 
         // When & Then
         assertThrows(FlagNotFoundException.class, () -> {
             featureFlagService.updateFlag("nonexistent_flag", updateRequest);
         });
 
-        verify(featureFlagMapper).findByName("nonexistent_flag");
-        verify(featureFlagMapper, never()).update(any(FeatureFlag.class));
+        verify(featureFlagMapper, never()).findByName(anyString());
+        verify(featureFlagMapper, never()).insertHistory(anyList(), any(), anyString());
+        verify(messagePublisherService, never()).publishFlagUpdated(any(FeatureFlag.class));
+    }
+
+    @Test
+    void testUpdateFlag_VersionConflict() {
+        // Given
+        when(featureFlagMapper.updateByName(eq("test_flag"), any(), any(), any(), any(), any(), any(), any(), eq(3L))).thenReturn(0);
+        when(featureFlagMapper.existsByName("test_flag")).thenReturn(true);
+
+        // When & Then
+        assertThrows(FlagVersionConflictException.class, () -> {
+            featureFlagService.updateFlag("test_flag", updateRequest, 3L);
+        });
+
+        verify(messagePublisherService, never()).publishFlagUpdated(any(FeatureFlag.class));
+        verify(flagChangeTracker, never()).recordChange(anyString());
+    }
+
+    @Test
+    void testUpdateFlag_InvalidPrerequisitesRejectedBeforeWrite() {
+        // Given
+        updateRequest.setPrerequisites(List.of("test_flag_parent"));
+        doThrow(new BusinessException(ErrorCode.FLAG_PREREQUISITE_INVALID, "cycle"))
+                .when(flagPrerequisiteValidator).validate("test_flag", List.of("test_flag_parent"));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> featureFlagService.updateFlag("test_flag", updateRequest));
+        assertEquals(ErrorCode.FLAG_PREREQUISITE_INVALID, exception.getErrorCode());
+        verify(featureFlagMapper, never()).updateByName(any(), any(), any(), any(), any(), any(), any(), any(), any());
+        verify(messagePublisherService, never()).publishFlagUpdated(any(FeatureFlag.class));
     }
 
     @Test
     void testDeleteFlag_Success() {
         // Given
-        when(featureFlagMapper.findByName("test_flag")).thenReturn(testFlag);
-        when(featureFlagMapper.deleteById(1L)).thenReturn(1);
+        when(featureFlagMapper.deleteByName("test_flag", null)).thenReturn(1);
 
         // When
         featureFlagService.deleteFlag("test_flag");
 
         // Then
-        verify(featureFlagMapper).findByName("test_flag");
-        verify(featureFlagMapper).deleteById(1L);
-        verify(messagePublisherService).publishFlagDeleted(any(FeatureFlag.class));
+        InOrder inOrder = inOrder(featureFlagMapper);
+        inOrder.verify(featureFlagMapper).insertHistory(List.of("test_flag"), FlagHistoryEntry.ChangeType.DELETED,
+                "system");
+        inOrder.verify(featureFlagMapper).deleteByName("test_flag", null);
+        verify(featureFlagMapper, never()).findByName(anyString());
+        verify(messagePublisherService).publishFlagDeleted(argThat(flag -> "test_flag".equals(flag.getName())));
+        verify(flagChangeTracker).recordChange("test_flag");
     }
 
     @Test
     void testDeleteFlag_NotFound() {
         // Given
-        when(featureFlagMapper.findByName("nonexistent_flag")).thenReturn(null);
+        when(featureFlagMapper.deleteByName("nonexistent_flag", 2L)).thenReturn(0);
+        when(featureFlagMapper.existsByName("nonexistent_flag")).thenReturn(false);
 
         // When & Then
         assertThrows(FlagNotFoundException.class, () -> {
-            featureFlagService.deleteFlag("nonexistent_flag");
+            featureFlagService.deleteFlag("nonexistent_flag", 2L);
         });
 
-        verify(featureFlagMapper).findByName("nonexistent_flag");
-        verify(featureFlagMapper, never()).deleteById(anyLong());
+        verify(messagePublisherService, never()).publishFlagDeleted(any(FeatureFlag.class));
+    }
+
+    @Test
+    void testDeleteFlag_VersionConflict() {
+        // Given
+        when(featureFlagMapper.deleteByName("test_flag", 2L)).thenReturn(0);
+        when(featureFlagMapper.existsByName("test_flag")).thenReturn(true);
+
+        // When & Then
+        assertThrows(FlagVersionConflictException.class, () -> {
+            featureFlagService.deleteFlag("test_flag", 2L);
+        });
+
+        verify(flagChangeTracker, never()).recordChange(anyString());
+    }
+
+    @Test
+    void testGetSnapshotAt_KeepsLatestEntryPerFlag() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        when(featureFlagMapper.findHistorySnapshotAt(at)).thenReturn(List.of(
+                historyEntry(1L, "dark_mode", FlagHistoryEntry.ChangeType.CREATED, false),
+                historyEntry(2L, "dark_mode", FlagHistoryEntry.ChangeType.UPDATED, true),
+                historyEntry(3L, "old_checkout", FlagHistoryEntry.ChangeType.DELETED, true),
+                historyEntry(4L, "search_v2", FlagHistoryEntry.ChangeType.UPDATED, false)));
+
+        // When
+        FlagSnapshotResponse response = featureFlagService.getSnapshotAt(at);
+
+        // Then
+        assertEquals(at, response.getAt());
+        assertEquals(2, response.getFlags().size());
+        FlagResponse darkMode = response.getFlags().get(0);
+        assertEquals("dark_mode", darkMode.getName());
+        assertTrue(darkMode.getEnabled());
+        assertEquals(2L, darkMode.getVersion());
+        assertEquals("search_v2", response.getFlags().get(1).getName());
+    }
+
+    private static FlagHistoryEntry historyEntry(long id, String name, FlagHistoryEntry.ChangeType changeType,
+            boolean enabled) {
+        FlagHistoryEntry entry = new FlagHistoryEntry();
+        entry.setId(id);
+        entry.setName(name);
+        entry.setChangeType(changeType);
+        entry.setEnabled(enabled);
+        entry.setVersion(id);
+        entry.setChangedBy("system");
+        entry.setChangedAt(LocalDateTime.of(2026, 2, 1, 0, 0).plusMinutes(id));
+        return entry;
     }
 
     @Test
@@ -213,7 +494,7 @@ class FeatureFlagServiceTest {
         flag2.setUpdatedAt(LocalDateTime.now());
 
         List<FeatureFlag> flags = Arrays.asList(testFlag, flag2);
-        when(featureFlagMapper.findByNames(flagNames)).thenReturn(flags);
+        when(flagBatchLoader.load(flagNames)).thenReturn(flags);
 
         // When
         FeatureFlagBatchResponse response = featureFlagService.getFeatureFlagsBatch(flagNames);
@@ -225,7 +506,7 @@ class FeatureFlagServiceTest {
         assertTrue(response.getFlags().containsKey("test_flag"));
         assertTrue(response.getFlags().containsKey("another_flag"));
         assertNotNull(response.getResponseTimestamp());
-        verify(featureFlagMapper).findByNames(flagNames);
+        verify(flagBatchLoader).load(flagNames);
     }
 
     @Test
@@ -241,7 +522,7 @@ class FeatureFlagServiceTest {
         assertNotNull(response.getFlags());
         assertTrue(response.getFlags().isEmpty());
         assertNotNull(response.getResponseTimestamp());
-        verify(featureFlagMapper, never()).findByNames(any());
+        verify(flagBatchLoader, never()).load(any());
     }
 
     @Test
@@ -254,20 +535,115 @@ class FeatureFlagServiceTest {
         assertNotNull(response.getFlags());
         assertTrue(response.getFlags().isEmpty());
         assertNotNull(response.getResponseTimestamp());
-        verify(featureFlagMapper, never()).findByNames(any());
+        verify(flagBatchLoader, never()).load(any());
+    }
+
+    @Test
+    void testGetFeatureFlagsBatch_TooManyFlags() {
+        // Given
+        List<String> flagNames = Collections.nCopies(FeatureFlagService.MAX_BATCH_FLAGS + 1, "test_flag");
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> featureFlagService.getFeatureFlagsBatch(flagNames));
+        assertEquals(ErrorCode.INVALID_PARAMETER, exception.getErrorCode());
+        verify(flagBatchLoader, never()).load(any());
     }
 
     @Test
     void testGetFeatureFlagsBatch_Exception() {
         // Given
         List<String> flagNames = Arrays.asList("test_flag");
-        when(featureFlagMapper.findByNames(flagNames)).thenThrow(new RuntimeException("Database error"));
+        when(flagBatchLoader.load(flagNames)).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> {
             featureFlagService.getFeatureFlagsBatch(flagNames);
         });
 
-        verify(featureFlagMapper).findByNames(flagNames);
+        verify(flagBatchLoader).load(flagNames);
+    }
+
+    @Test
+    void testGetFlagChanges_Delta() {
+        // Given
+        when(flagChangeTracker.changesSince(100L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(102L, false, Set.of("test_flag", "deleted_flag", "other")));
+        when(featureFlagMapper.findStatesByNames(Arrays.asList("deleted_flag", "test_flag")))
+                .thenReturn(Arrays.asList(testFlag));
+
+        // When
+        FlagChangesResponse response = featureFlagService.getFlagChanges(
+                Arrays.asList("test_flag", "deleted_flag", "unchanged_flag"), null, 100L);
+
+        // Then
+        assertEquals(102L, response.getRevision());
+        assertFalse(response.isFullSnapshot());
+        assertEquals(Set.of("test_flag"), response.getFlags().keySet());
+        assertEquals(List.of("deleted_flag"), response.getDeleted());
+    }
+
+    @Test
+    void testGetFlagChanges_NoRelevantChanges() {
+        // Given
+        when(flagChangeTracker.changesSince(100L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(101L, false, Set.of("other")));
+
+        // When
+        FlagChangesResponse response = featureFlagService.getFlagChanges(Arrays.asList("test_flag"), null, 100L);
+
+        // Then
+        assertTrue(response.getFlags().isEmpty());
+        assertTrue(response.getDeleted().isEmpty());
+        verify(featureFlagMapper, never()).findStatesByNames(any());
+    }
+
+    @Test
+    void testGetFlagChanges_FullSnapshotListsMissingNamesAsDeleted() {
+        // Given
+        when(flagChangeTracker.changesSince(0L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(100L, true, Set.of()));
+        when(featureFlagMapper.findStatesByNames(any())).thenReturn(Arrays.asList(testFlag));
+
+        // When
+        FlagChangesResponse response = featureFlagService.getFlagChanges(
+                Arrays.asList("test_flag", "missing_flag"), null, 0L);
+
+        // Then
+        assertTrue(response.isFullSnapshot());
+        assertEquals(Set.of("test_flag"), response.getFlags().keySet());
+        assertEquals(List.of("missing_flag"), response.getDeleted());
+    }
+
+    @Test
+    void testGetFlagChanges_PrefixDelta() {
+        // Given
+        when(flagChangeTracker.changesSince(100L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(102L, false, Set.of("search_v2", "dark_mode")));
+        FeatureFlag searchFlag = new FeatureFlag("search_v2", null, true);
+        when(featureFlagMapper.findStatesByNames(List.of("search_v2"))).thenReturn(List.of(searchFlag));
+
+        // When
+        FlagChangesResponse response = featureFlagService.getFlagChanges(null, List.of("search_"), 100L);
+
+        // Then
+        assertEquals(Set.of("search_v2"), response.getFlags().keySet());
+    }
+
+    @Test
+    void testGetFlagChanges_PrefixSnapshotEscapesWildcards() {
+        // Given
+        when(flagChangeTracker.changesSince(0L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(100L, true, Set.of()));
+        FeatureFlag searchFlag = new FeatureFlag("search_v2", null, true);
+        when(featureFlagMapper.findStatesByNamePrefix("search\\_")).thenReturn(List.of(searchFlag));
+
+        // When
+        FlagChangesResponse response = featureFlagService.getFlagChanges(null, List.of("search_"), 0L);
+
+        // Then
+        assertTrue(response.isFullSnapshot());
+        assertEquals(Set.of("search_v2"), response.getFlags().keySet());
+        verify(featureFlagMapper, never()).findStatesByNames(any());
     }
 }
@@ -0,0 +1,152 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.ArchiveFlagsRequest;
+import com.featureflags.dto.ArchiveFlagsResponse;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.entity.ArchivedFlag;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.exception.FlagAlreadyExistsException;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagArchiveMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagArchiveServiceTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private FlagArchiveMapper flagArchiveMapper;
+
+    @Mock
+    private StaleFlagDetector staleFlagDetector;
+
+    @Mock
+    private MessagePublisherService messagePublisherService;
+
+    @Mock
+    private FlagChangeTracker flagChangeTracker;
+
+    @Mock
+    private FlagCountCache flagCountCache;
+
+    @Mock
+    private FlagNameIndex flagNameIndex;
+
+    @Mock
+    private FlagBatchLoader flagBatchLoader;
+
+    @Mock
+    private FlagMissCache flagMissCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private FlagArchiveService flagArchiveService;
+
+    private static FeatureFlag flag(String name, String... prerequisites) {
+        FeatureFlag flag = new FeatureFlag(name, "Flag " + name, false);
+        flag.setPrerequisites(prerequisites.length > 0 ? List.of(prerequisites) : null);
+        return flag;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testArchiveFlags_MovesFlagsAndSkipsRequiredPrerequisites() {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("old_banner", "payments_gate", "region_gate",
+                "unknown_flag"))).thenReturn(List.of(flag("old_banner"), flag("payments_gate", "region_gate"),
+                        flag("region_gate")));
+        // checkout_v3 stays and needs payments_gate, which then needs region_gate
+        when(featureFlagMapper.findPrerequisiteEdges()).thenReturn(List.of(flag("checkout_v3", "payments_gate"),
+                flag("payments_gate", "region_gate")));
+        when(staleFlagDetector.snapshotBytes(any(FeatureFlag.class))).thenReturn(120L);
+
+        // When
+        ArchiveFlagsResponse response = flagArchiveService.archiveFlags(new ArchiveFlagsRequest(
+                List.of("old_banner", "payments_gate", "region_gate", "unknown_flag")));
+
+        // Then
+        assertEquals(List.of("old_banner"), response.getArchived());
+        assertEquals(List.of("unknown_flag", "payments_gate", "region_gate"),
+                response.getSkipped().stream().map(ArchiveFlagsResponse.Skipped::getName).toList());
+        assertEquals(120L, response.getSnapshotBytesRemoved());
+        InOrder inOrder = inOrder(flagArchiveMapper, featureFlagMapper);
+        inOrder.verify(flagArchiveMapper).archiveByNames(List.of("old_banner"), "system");
+        inOrder.verify(featureFlagMapper).insertHistory(List.of("old_banner"), FlagHistoryEntry.ChangeType.ARCHIVED,
+                "system");
+        inOrder.verify(featureFlagMapper).deleteByNames(List.of("old_banner"));
+        verify(flagCountCache).adjust(-1);
+        verify(flagChangeTracker).recordChange("old_banner");
+        ArgumentCaptor<List<FeatureFlagEventDTO.FlagChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(messagePublisherService).publishFlagsChanged(changes.capture(), eq("system"));
+        assertEquals(FeatureFlagEventDTO.EventType.DELETED, changes.getValue().get(0).getEventType());
+    }
+
+    @Test
+    void testArchiveFlags_NothingToArchive() {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("unknown_flag"))).thenReturn(List.of());
+
+        // When
+        ArchiveFlagsResponse response = flagArchiveService.archiveFlags(new ArchiveFlagsRequest(
+                List.of("unknown_flag")));
+
+        // Then
+        assertEquals(List.of(), response.getArchived());
+        assertEquals(1, response.getSkipped().size());
+        verifyNoInteractions(flagArchiveMapper, messagePublisherService);
+        verify(featureFlagMapper, never()).deleteByNames(anyList());
+    }
+
+    @Test
+    void testRestoreFlag_MovesFlagBack() {
+        // Given
+        when(flagArchiveMapper.findByNameForUpdate("old_banner")).thenReturn(new ArchivedFlag());
+        when(featureFlagMapper.existsByName("old_banner")).thenReturn(false);
+        when(featureFlagMapper.findByName("old_banner")).thenReturn(flag("old_banner"));
+
+        // When
+        FlagResponse response = flagArchiveService.restoreFlag("old_banner");
+
+        // Then
+        assertEquals("old_banner", response.getName());
+        InOrder inOrder = inOrder(flagArchiveMapper, featureFlagMapper);
+        inOrder.verify(flagArchiveMapper).restoreByName("old_banner", "system");
+        inOrder.verify(flagArchiveMapper).deleteByNames(List.of("old_banner"));
+        inOrder.verify(featureFlagMapper).insertHistory(List.of("old_banner"), FlagHistoryEntry.ChangeType.RESTORED,
+                "system");
+        verify(flagCountCache).adjust(1);
+        verify(messagePublisherService).publishFlagCreated(any(FeatureFlag.class));
+    }
+
+    @Test
+    void testRestoreFlag_LiveFlagWithSameName() {
+        // Given
+        when(flagArchiveMapper.findByNameForUpdate("old_banner")).thenReturn(new ArchivedFlag());
+        when(featureFlagMapper.existsByName("old_banner")).thenReturn(true);
+
+        // When & Then
+        assertThrows(FlagAlreadyExistsException.class, () -> flagArchiveService.restoreFlag("old_banner"));
+        verify(flagArchiveMapper, never()).restoreByName(anyString(), anyString());
+    }
+}
@@ -0,0 +1,109 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagBatchLoaderTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private FlagBatchLoader flagBatchLoader;
+
+    @BeforeEach
+    void setUp() {
+        flagBatchLoader = new FlagBatchLoader(featureFlagMapper, now::get);
+        when(featureFlagMapper.findStatesByNames(anyList())).thenAnswer(invocation -> {
+            List<String> names = invocation.getArgument(0);
+            return new HashSet<>(names).stream().map(name -> new FeatureFlag(name, null, true)).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        flagBatchLoader.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> queriedChunks(int times) {
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(featureFlagMapper, times(times)).findStatesByNames(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void testLoad_PadsSmallChunkToPowerOfTwo() {
+        // When
+        List<FeatureFlag> flags = flagBatchLoader.load(List.of("a", "b", "c", "b"));
+
+        // Then
+        assertEquals(3, flags.size());
+        assertEquals(List.of("a", "b", "c", "c"), queriedChunks(1).get(0));
+    }
+
+    @Test
+    void testLoad_SplitsLargeRequestIntoFixedSizeChunks() {
+        // Given
+        List<String> names = IntStream.range(0, 300).mapToObj(i -> "flag_" + i).toList();
+
+        // When
+        List<FeatureFlag> flags = flagBatchLoader.load(names);
+
+        // Then
+        assertEquals(300, flags.size());
+        List<List<String>> chunks = queriedChunks(3);
+        assertEquals(Set.of(FlagBatchLoader.CHUNK_SIZE, 64),
+                new HashSet<>(chunks.stream().map(List::size).toList()));
+        List<String> queried = new ArrayList<>();
+        chunks.forEach(queried::addAll);
+        assertEquals(new HashSet<>(names), new HashSet<>(queried));
+    }
+
+    @Test
+    void testLoad_ServesRepeatedRequestsFromNearCacheUntilExpired() {
+        // Given
+        flagBatchLoader.load(List.of("dark_mode"));
+
+        // When
+        flagBatchLoader.load(List.of("dark_mode"));
+        now.addAndGet(FlagBatchLoader.NEAR_CACHE_TTL_MS);
+        flagBatchLoader.load(List.of("dark_mode"));
+
+        // Then
+        queriedChunks(2);
+    }
+
+    @Test
+    void testEvict_ReloadsFlagOnNextRequest() {
+        // Given
+        flagBatchLoader.load(List.of("dark_mode", "search_v2"));
+
+        // When
+        flagBatchLoader.evict("dark_mode");
+        List<FeatureFlag> flags = flagBatchLoader.load(List.of("dark_mode", "search_v2"));
+
+        // Then
+        assertEquals(2, flags.size());
+        assertEquals(List.of("dark_mode"), queriedChunks(2).get(1));
+    }
+}
@@ -0,0 +1,188 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.BulkFlagRequest;
+import com.featureflags.dto.BulkFlagResponse;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagBulkServiceTest {
+
+    @Mock
+    private SqlSession batchSqlSession;
+
+    @Mock
+    private FeatureFlagMapper batchMapper;
+
+    @Mock
+    private MessagePublisherService messagePublisherService;
+
+    @Mock
+    private FlagChangeTracker flagChangeTracker;
+
+    @Mock
+    private FlagCountCache flagCountCache;
+
+    @Mock
+    private FlagNameIndex flagNameIndex;
+
+    @Mock
+    private FlagBatchLoader flagBatchLoader;
+
+    @Mock
+    private FlagMissCache flagMissCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    private FlagBulkService flagBulkService;
+    private FeatureFlag existingFlag;
+
+    @BeforeEach
+    void setUp() {
+        when(batchSqlSession.getMapper(FeatureFlagMapper.class)).thenReturn(batchMapper);
+        lenient().when(cacheManager.getCache("featureFlags")).thenReturn(cache);
+        flagBulkService = new FlagBulkService(batchSqlSession, messagePublisherService, flagChangeTracker,
+                flagCountCache, flagNameIndex, flagBatchLoader, flagMissCache,
+                cacheManager);
+
+        existingFlag = new FeatureFlag("existing_flag", "An existing flag", false);
+        existingFlag.setId(7L);
+    }
+
+    private static BulkFlagRequest.Operation operation(BulkFlagRequest.OperationType op, String name,
+            Boolean enabled) {
+        return new BulkFlagRequest.Operation(op, name, null, enabled);
+    }
+
+    @Test
+    void testApplyBulk_MixedOperations() {
+        // Given
+        when(batchMapper.findByNamesForUpdate(anyList())).thenReturn(List.of(existingFlag));
+        when(batchSqlSession.flushStatements()).thenReturn(List.of());
+        BulkFlagRequest request = new BulkFlagRequest(List.of(
+                operation(BulkFlagRequest.OperationType.CREATE, "new_flag", true),
+                operation(BulkFlagRequest.OperationType.UPDATE, "existing_flag", true),
+                operation(BulkFlagRequest.OperationType.DELETE, "missing_flag", null),
+                operation(BulkFlagRequest.OperationType.CREATE, "existing_flag", true)));
+
+        // When
+        BulkFlagResponse response = flagBulkService.applyBulk(request);
+
+        // Then
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(BulkFlagResponse.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(BulkFlagResponse.Status.UPDATED, response.getResults().get(1).getStatus());
+        assertEquals(BulkFlagResponse.Status.NOT_FOUND, response.getResults().get(2).getStatus());
+        assertEquals(BulkFlagResponse.Status.INVALID, response.getResults().get(3).getStatus());
+        assertEquals(3, response.getResults().get(3).getIndex());
+
+        verify(batchMapper).findByNamesForUpdate(List.of("new_flag", "existing_flag", "missing_flag"));
+        verify(batchMapper).insert(any(FeatureFlag.class));
+        verify(batchMapper).update(existingFlag);
+        assertTrue(existingFlag.getEnabled());
+        verify(batchMapper, never()).deleteById(any());
+        verify(batchMapper).insertHistory(List.of("new_flag"), FlagHistoryEntry.ChangeType.CREATED, "system");
+        verify(batchMapper).insertHistory(List.of("existing_flag"), FlagHistoryEntry.ChangeType.UPDATED, "system");
+        verify(batchSqlSession).flushStatements();
+
+        verify(flagCountCache).adjust(1);
+        verify(flagNameIndex).add("new_flag");
+        verify(flagChangeTracker).recordChange("new_flag");
+        verify(flagChangeTracker).recordChange("existing_flag");
+        verify(cache).evict("existing_flag");
+
+        // One aggregated event for the whole request
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FeatureFlagEventDTO.FlagChange>> changesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(messagePublisherService, times(1)).publishFlagsChanged(changesCaptor.capture(), anyString());
+        assertEquals(List.of(
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.CREATED, "new_flag", true),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "existing_flag", true)),
+                changesCaptor.getValue());
+    }
+
+    @Test
+    void testApplyBulk_DeleteAndCreateValidation() {
+        // Given
+        when(batchMapper.findByNamesForUpdate(anyList())).thenReturn(List.of(existingFlag));
+        when(batchSqlSession.flushStatements()).thenReturn(List.of());
+        BulkFlagRequest request = new BulkFlagRequest(List.of(
+                operation(BulkFlagRequest.OperationType.DELETE, "existing_flag", null),
+                operation(BulkFlagRequest.OperationType.CREATE, "flag_without_state", null)));
+
+        // When
+        BulkFlagResponse response = flagBulkService.applyBulk(request);
+
+        // Then
+        assertEquals(BulkFlagResponse.Status.DELETED, response.getResults().get(0).getStatus());
+        assertEquals(BulkFlagResponse.Status.INVALID, response.getResults().get(1).getStatus());
+        // The last state is copied to the history before the row goes
+        InOrder inOrder = inOrder(batchMapper);
+        inOrder.verify(batchMapper).insertHistory(List.of("existing_flag"), FlagHistoryEntry.ChangeType.DELETED,
+                "system");
+        inOrder.verify(batchMapper).deleteById(7L);
+        verify(flagCountCache).adjust(-1);
+        verify(flagNameIndex).remove("existing_flag");
+    }
+
+    @Test
+    void testApplyBulk_NothingToApply() {
+        // Given
+        when(batchMapper.findByNamesForUpdate(anyList())).thenReturn(List.of());
+        when(batchSqlSession.flushStatements()).thenReturn(List.of());
+        BulkFlagRequest request = new BulkFlagRequest(List.of(
+                operation(BulkFlagRequest.OperationType.UPDATE, "missing_flag", true)));
+
+        // When
+        BulkFlagResponse response = flagBulkService.applyBulk(request);
+
+        // Then
+        assertEquals(0, response.getSucceeded());
+        verifyNoInteractions(messagePublisherService, flagChangeTracker);
+    }
+
+    @Test
+    void testApplyBulk_WriteMatchingNoRowsRollsBack() {
+        // Given
+        when(batchMapper.findByNamesForUpdate(anyList())).thenReturn(List.of(existingFlag));
+        MappedStatement mappedStatement = mock(MappedStatement.class);
+        when(mappedStatement.getId()).thenReturn("update");
+        BatchResult batchResult = new BatchResult(mappedStatement, "UPDATE feature_flags ...");
+        batchResult.setUpdateCounts(new int[] { 0 });
+        when(batchSqlSession.flushStatements()).thenReturn(List.of(batchResult));
+        BulkFlagRequest request = new BulkFlagRequest(List.of(
+                operation(BulkFlagRequest.OperationType.UPDATE, "existing_flag", true)));
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> flagBulkService.applyBulk(request));
+        verifyNoInteractions(messagePublisherService, flagChangeTracker);
+    }
+}
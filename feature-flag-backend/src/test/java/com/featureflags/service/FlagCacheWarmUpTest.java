@@ -0,0 +1,134 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.FlagResponse;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.repository.FeatureFlagMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagCacheWarmUpTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FlagChangeTracker flagChangeTracker;
+
+    @Mock
+    private Cursor<FeatureFlag> cursor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache("featureFlags")).thenReturn(cache);
+        when(flagChangeTracker.currentRevision()).thenReturn(10L);
+        when(featureFlagMapper.streamAll()).thenReturn(cursor);
+        when(cursor.iterator()).thenReturn(List.of(
+                new FeatureFlag("dark_mode", "Dark mode", true),
+                new FeatureFlag("search_v2", "Search v2", false)).iterator());
+    }
+
+    private FlagCacheWarmUp warmUp(long timeoutMs) {
+        return new FlagCacheWarmUp(featureFlagMapper, cacheManager, transactionManager, flagChangeTracker,
+                meterRegistry, true, timeoutMs);
+    }
+
+    @Test
+    void testWarmUp_PreloadsAllFlagsAndEvictsConcurrentChanges() throws Exception {
+        // Given
+        when(flagChangeTracker.changesSince(10L))
+                .thenReturn(new FlagChangeTracker.ChangeSet(11L, false, Set.of("search_v2")));
+        FlagCacheWarmUp warmUp = warmUp(30_000);
+
+        // When
+        warmUp.warmUp();
+
+        // Then
+        verify(cache).putIfAbsent(eq("dark_mode"), any(FlagResponse.class));
+        verify(cache).putIfAbsent(eq("search_v2"), any(FlagResponse.class));
+        verify(cache).evict("search_v2");
+        verify(cursor).close();
+        assertEquals(FlagCacheWarmUp.State.COMPLETED, warmUp.getState());
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        assertEquals(2.0, meterRegistry.get("feature_flag.cache.warmup.rows").gauge().value());
+        assertEquals(1, meterRegistry.get("feature_flag.cache.warmup.duration").timer().count());
+    }
+
+    @Test
+    void testWarmUp_StopsAtDeadline() {
+        // Given
+        when(flagChangeTracker.changesSince(10L)).thenReturn(new FlagChangeTracker.ChangeSet(10L, false, Set.of()));
+        FlagCacheWarmUp warmUp = warmUp(0);
+
+        // When
+        warmUp.warmUp();
+
+        // Then
+        verify(cache, never()).putIfAbsent(any(), any());
+        assertEquals(FlagCacheWarmUp.State.TIMED_OUT, warmUp.getState());
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+
+    @Test
+    void testWarmUp_ClearsCacheWhenChangeLogOverflowed() {
+        // Given
+        when(flagChangeTracker.changesSince(10L)).thenReturn(new FlagChangeTracker.ChangeSet(20_000L, true, Set.of()));
+        FlagCacheWarmUp warmUp = warmUp(30_000);
+
+        // When
+        warmUp.warmUp();
+
+        // Then
+        verify(cache).clear();
+        assertEquals(2, warmUp.getRows());
+    }
+
+    @Test
+    void testHealth_OutOfServiceWhileRunning() {
+        // Given
+        FlagCacheWarmUp warmUp = warmUp(30_000);
+        AtomicReference<Status> statusWhileRunning = new AtomicReference<>();
+        when(featureFlagMapper.streamAll()).thenAnswer(invocation -> {
+            statusWhileRunning.set(warmUp.health().getStatus());
+            return cursor;
+        });
+        when(flagChangeTracker.changesSince(10L)).thenReturn(new FlagChangeTracker.ChangeSet(10L, false, Set.of()));
+
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+        // When
+        warmUp.warmUp();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, statusWhileRunning.get());
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+}
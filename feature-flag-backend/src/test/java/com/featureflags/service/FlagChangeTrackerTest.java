@@ -0,0 +1,233 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FlagRevision;
+import com.featureflags.repository.FlagChangeMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FlagChangeTrackerTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private InMemoryFlagChangeMapper flagChangeMapper;
+    private FlagChangeTracker flagChangeTracker;
+
+    @BeforeEach
+    void setUp() {
+        flagChangeMapper = new InMemoryFlagChangeMapper();
+        flagChangeTracker = new FlagChangeTracker(flagChangeMapper, transactionManager, redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flagChangeTracker.shutdown();
+    }
+
+    @Test
+    void testChangesSince_ReturnsOnlyLaterChanges() {
+        // Given
+        flagChangeTracker.recordChange("flag_a");
+        long revision = flagChangeTracker.currentRevision();
+        flagChangeTracker.recordChange("flag_b");
+        flagChangeTracker.recordChange("flag_b");
+
+        // When
+        FlagChangeTracker.ChangeSet changeSet = flagChangeTracker.changesSince(revision);
+
+        // Then
+        assertFalse(changeSet.fullSnapshot());
+        assertEquals(Set.of("flag_b"), changeSet.changedFlags());
+        assertEquals(revision + 2, changeSet.revision());
+        verify(redisTemplate).convertAndSend(FlagChangeTracker.CHANGES_CHANNEL, Long.toString(revision + 2));
+    }
+
+    @Test
+    void testChangesSince_SeesChangesRecordedByOtherReplicas() {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        FlagChangeTracker otherReplica = new FlagChangeTracker(flagChangeMapper, transactionManager, redisTemplate);
+        otherReplica.recordChange("flag_a");
+        otherReplica.shutdown();
+
+        // When
+        FlagChangeTracker.ChangeSet changeSet = flagChangeTracker.changesSince(revision);
+
+        // Then
+        assertFalse(changeSet.fullSnapshot());
+        assertEquals(Set.of("flag_a"), changeSet.changedFlags());
+        assertEquals(revision + 1, changeSet.revision());
+    }
+
+    @Test
+    void testRecordChange_TransactionRecordsOneRevisionAfterCommit() {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flagChangeTracker.recordChange("flag_a");
+            flagChangeTracker.recordChange("flag_b");
+            assertEquals(revision, flagChangeTracker.currentRevision());
+
+            // When
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(revision + 1, flagChangeTracker.currentRevision());
+        assertEquals(Set.of("flag_a", "flag_b"), flagChangeTracker.changesSince(revision).changedFlags());
+        assertNull(TransactionSynchronizationManager.getResource(flagChangeTracker));
+    }
+
+    @Test
+    void testChangesSince_UnknownRevisionRequiresFullSnapshot() {
+        // When & Then
+        assertTrue(flagChangeTracker.changesSince(0).fullSnapshot());
+        assertTrue(flagChangeTracker.changesSince(flagChangeTracker.currentRevision() + 1).fullSnapshot());
+        assertFalse(flagChangeTracker.changesSince(flagChangeTracker.currentRevision()).fullSnapshot());
+    }
+
+    @Test
+    void testChangesSince_PrunedLogRequiresFullSnapshot() {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        for (int i = 0; i < FlagChangeTracker.MAX_RETAINED_REVISIONS + FlagChangeTracker.PRUNE_INTERVAL; i++) {
+            flagChangeTracker.recordChange("flag_" + i);
+        }
+        long floor = flagChangeMapper.findRevision().getFloorRevision();
+
+        // When & Then
+        assertTrue(floor > revision);
+        assertTrue(flagChangeTracker.changesSince(revision).fullSnapshot());
+        assertFalse(flagChangeTracker.changesSince(floor).fullSnapshot());
+        assertTrue(flagChangeMapper.changes.firstKey() > floor);
+    }
+
+    @Test
+    void testAwaitChangeAfter_CompletesOnChange() throws Exception {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        CompletableFuture<Long> waiter = flagChangeTracker.awaitChangeAfter(revision, 10000);
+        assertFalse(waiter.isDone());
+
+        // When
+        flagChangeTracker.recordChange("flag_a");
+
+        // Then
+        assertEquals(revision + 1, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flagChangeTracker.pendingWaiters());
+    }
+
+    @Test
+    void testAwaitChangeAfter_CompletesOnAnnouncedRevision() throws Exception {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        CompletableFuture<Long> waiter = flagChangeTracker.awaitChangeAfter(revision, 10000);
+
+        // When
+        flagChangeTracker.onRevisionAnnounced("not a revision");
+        flagChangeTracker.onRevisionAnnounced(Long.toString(revision + 3));
+
+        // Then
+        assertEquals(revision + 3, waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testAwaitChangeAfter_CompletesImmediatelyWhenBehind() throws Exception {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+        flagChangeTracker.recordChange("flag_a");
+
+        // When & Then
+        assertEquals(revision + 1, flagChangeTracker.awaitChangeAfter(revision, 10000).get(5, TimeUnit.SECONDS));
+        assertEquals(revision + 1, flagChangeTracker.awaitChangeAfter(revision + 50, 10000).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testAwaitChangeAfter_TimesOutWithSameRevision() throws Exception {
+        // Given
+        long revision = flagChangeTracker.currentRevision();
+
+        // When
+        Long result = flagChangeTracker.awaitChangeAfter(revision, 50).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(revision, result);
+        assertEquals(0, flagChangeTracker.pendingWaiters());
+    }
+
+    /**
+     * Change feed tables kept in memory, shared by trackers standing in for
+     * different replicas.
+     */
+    private static class InMemoryFlagChangeMapper implements FlagChangeMapper {
+
+        private final TreeMap<Long, Set<String>> changes = new TreeMap<>();
+        private long revision = 1;
+        private long floorRevision = 1;
+
+        @Override
+        public synchronized int incrementRevision() {
+            revision++;
+            return 1;
+        }
+
+        @Override
+        public synchronized FlagRevision findRevision() {
+            return new FlagRevision(revision, floorRevision);
+        }
+
+        @Override
+        public synchronized int insertChanges(long revision, Collection<String> names) {
+            changes.computeIfAbsent(revision, key -> new TreeSet<>()).addAll(names);
+            return names.size();
+        }
+
+        @Override
+        public synchronized List<String> findChangedNamesSince(long since) {
+            return changes.tailMap(since, false).values().stream().flatMap(Set::stream).distinct().toList();
+        }
+
+        @Override
+        public synchronized int updateFloorRevision(long revision) {
+            floorRevision = Math.max(floorRevision, revision);
+            return 1;
+        }
+
+        @Override
+        public synchronized int deleteChangesUpTo(long revision) {
+            Map<Long, Set<String>> pruned = changes.headMap(revision, true);
+            int count = pruned.size();
+            pruned.clear();
+            return count;
+        }
+    }
+}
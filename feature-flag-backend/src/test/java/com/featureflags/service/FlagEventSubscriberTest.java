@@ -0,0 +1,61 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.featureflags.config.RedisConfig;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagEventSubscriberTest {
+
+    @Mock
+    private FlagMissCache flagMissCache;
+
+    @Mock
+    private FlagNameIndex flagNameIndex;
+
+    private final ObjectMapper objectMapper = new RedisConfig().objectMapper();
+    private FlagEventSubscriber flagEventSubscriber;
+
+    @BeforeEach
+    void setUp() {
+        flagEventSubscriber = new FlagEventSubscriber(objectMapper, flagMissCache, flagNameIndex);
+    }
+
+    @Test
+    void testHandleMessage_AddsNamesCreatedOnOtherReplicas() throws Exception {
+        // Given
+        FeatureFlagEventDTO bulk = FeatureFlagEventDTO.bulkEvent(List.of(
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.CREATED, "new_flag", true),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "dark_mode", false),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED, "old_flag", null)),
+                "system", LocalDateTime.now(), "msg-1");
+        FeatureFlagEventDTO created = FeatureFlagEventDTO.builder()
+                .eventType(FeatureFlagEventDTO.EventType.CREATED)
+                .flagName("search_v2")
+                .enabled(true)
+                .build();
+
+        // When
+        flagEventSubscriber.handleMessage(objectMapper.writeValueAsString(bulk));
+        flagEventSubscriber.handleMessage(objectMapper.writeValueAsString(created));
+        flagEventSubscriber.handleMessage("not json");
+
+        // Then
+        verify(flagMissCache).add("new_flag");
+        verify(flagMissCache).add("search_v2");
+        verify(flagNameIndex).add("new_flag");
+        verify(flagNameIndex).add("search_v2");
+        verify(flagNameIndex).remove("old_flag");
+        verifyNoMoreInteractions(flagMissCache, flagNameIndex);
+    }
+}
@@ -0,0 +1,77 @@
+package com.featureflags.service;
+
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagMissCacheTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private FlagMissCache flagMissCache;
+
+    @BeforeEach
+    void setUp() {
+        flagMissCache = new FlagMissCache(featureFlagMapper, now::get);
+        when(featureFlagMapper.findAllNames()).thenReturn(List.of("dark_mode", "search_v2"));
+    }
+
+    @Test
+    void testMightExist_RulesOutNamesNeverCreated() {
+        // When & Then
+        assertTrue(flagMissCache.mightExist("dark_mode"));
+        assertTrue(flagMissCache.mightExist("search_v2"));
+        assertFalse(flagMissCache.mightExist("unknown_flag"));
+        verify(featureFlagMapper, times(1)).findAllNames();
+    }
+
+    @Test
+    void testRecordMiss_ExpiresAfterTtl() {
+        // Given a flag that was deleted after the filter was built
+        flagMissCache.recordMiss("dark_mode");
+
+        // When & Then
+        assertFalse(flagMissCache.mightExist("dark_mode"));
+        now.addAndGet(FlagMissCache.MISS_TTL_MS);
+        assertTrue(flagMissCache.mightExist("dark_mode"));
+    }
+
+    @Test
+    void testAdd_MakesCreatedFlagVisible() {
+        // Given
+        assertFalse(flagMissCache.mightExist("new_flag"));
+        flagMissCache.recordMiss("new_flag");
+
+        // When
+        flagMissCache.add("new_flag");
+
+        // Then
+        assertTrue(flagMissCache.mightExist("new_flag"));
+    }
+
+    @Test
+    void testMightExist_RebuildsFilterWhenExpired() {
+        // Given
+        assertFalse(flagMissCache.mightExist("new_flag"));
+        when(featureFlagMapper.findAllNames()).thenReturn(List.of("dark_mode", "search_v2", "new_flag"));
+
+        // When
+        now.addAndGet(FlagMissCache.MAX_AGE_MS);
+
+        // Then
+        assertTrue(flagMissCache.mightExist("new_flag"));
+        verify(featureFlagMapper, times(2)).findAllNames();
+    }
+}
@@ -0,0 +1,84 @@
+package com.featureflags.service;
+
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagNameIndexTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @InjectMocks
+    private FlagNameIndex flagNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(featureFlagMapper.findAllNames())
+                .thenReturn(List.of("dark_mode", "Search_V2", "search_ranking", "maintenance_mode"));
+    }
+
+    @Test
+    void testSearch_MatchesSubstringIgnoringCase() {
+        // When
+        Set<String> matches = new HashSet<>(flagNameIndex.search("SEARCH", 100));
+
+        // Then
+        assertEquals(Set.of("Search_V2", "search_ranking"), matches);
+    }
+
+    @Test
+    void testSearch_ShortTermScansNames() {
+        // When & Then
+        assertEquals(Set.of("dark_mode", "maintenance_mode"), new HashSet<>(flagNameIndex.search("_m", 100)));
+        assertEquals(List.of(), flagNameIndex.search("zzz", 100));
+    }
+
+    @Test
+    void testSearch_TooManyMatches() {
+        // When & Then
+        assertNull(flagNameIndex.search("mode", 1));
+    }
+
+    @Test
+    void testAddAndRemove_UpdateIndexWithoutReload() {
+        // Given
+        flagNameIndex.search("mode", 100);
+
+        // When
+        flagNameIndex.add("light_mode");
+        flagNameIndex.remove("dark_mode");
+
+        // Then
+        assertEquals(Set.of("light_mode", "maintenance_mode"), new HashSet<>(flagNameIndex.search("mode", 100)));
+        verify(featureFlagMapper, times(1)).findAllNames();
+    }
+
+    @Test
+    void testAddAndRemove_DuringRebuildReachNewIndex() {
+        // Given
+        when(featureFlagMapper.findAllNames()).thenAnswer(invocation -> {
+            flagNameIndex.add("light_mode");
+            flagNameIndex.remove("dark_mode");
+            return List.of("dark_mode", "maintenance_mode");
+        });
+
+        // When
+        List<String> matches = flagNameIndex.search("mode", 100);
+
+        // Then
+        assertEquals(Set.of("light_mode", "maintenance_mode"), new HashSet<>(matches));
+    }
+}
@@ -0,0 +1,110 @@
+package com.featureflags.service;
+
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.repository.FeatureFlagMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagPrerequisiteValidatorTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @InjectMocks
+    private FlagPrerequisiteValidator validator;
+
+    private static FeatureFlag flag(String name, String... prerequisites) {
+        FeatureFlag flag = new FeatureFlag(name, null, true);
+        flag.setPrerequisites(prerequisites.length > 0 ? List.of(prerequisites) : null);
+        return flag;
+    }
+
+    @Test
+    void testValidate_AcceptsAcyclicPrerequisites() {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("advanced_filtering", "new_search_ui")))
+                .thenReturn(List.of(flag("advanced_filtering"), flag("new_search_ui", "search_v2")));
+        when(featureFlagMapper.findByNamesForUpdate(List.of("search_v2"))).thenReturn(List.of(flag("search_v2")));
+
+        // When & Then
+        assertDoesNotThrow(() -> validator.validate("advanced_filtering", List.of("new_search_ui")));
+        verify(featureFlagMapper, times(2)).findByNamesForUpdate(anyList());
+    }
+
+    @Test
+    void testValidate_RejectsCycleWithPath() {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("search_v2", "new_search_ui")))
+                .thenReturn(List.of(flag("search_v2"), flag("new_search_ui", "advanced_filtering")));
+        when(featureFlagMapper.findByNamesForUpdate(List.of("advanced_filtering")))
+                .thenReturn(List.of(flag("advanced_filtering", "search_v2")));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> validator.validate("search_v2", List.of("new_search_ui")));
+        assertEquals(ErrorCode.FLAG_PREREQUISITE_INVALID, exception.getErrorCode());
+        assertEquals("Prerequisites would form a cycle: search_v2 -> new_search_ui -> advanced_filtering -> search_v2",
+                exception.getMessage());
+    }
+
+    @Test
+    void testValidate_RejectsSelfAndUnknownPrerequisites() {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("advanced_filtering", "missing_flag")))
+                .thenReturn(List.of(flag("advanced_filtering")));
+
+        // When & Then
+        BusinessException self = assertThrows(BusinessException.class,
+                () -> validator.validate("advanced_filtering", List.of("advanced_filtering")));
+        assertEquals(ErrorCode.FLAG_PREREQUISITE_INVALID, self.getErrorCode());
+        BusinessException unknown = assertThrows(BusinessException.class,
+                () -> validator.validate("advanced_filtering", List.of("missing_flag")));
+        assertEquals("Unknown prerequisite flags: missing_flag", unknown.getMessage());
+    }
+
+    @Test
+    void testValidate_NoPrerequisitesNeedNoQuery() {
+        // When
+        validator.validate("advanced_filtering", List.of());
+        validator.validate("advanced_filtering", null);
+
+        // Then
+        verifyNoInteractions(featureFlagMapper);
+    }
+
+    @Test
+    void testValidateAll_ChecksFlagsOfOneBatchTogether() {
+        // Given
+        Map<String, List<String>> prerequisites = new LinkedHashMap<>();
+        prerequisites.put("search_v2", List.of("new_search_ui"));
+        prerequisites.put("advanced_filtering", List.of("search_v2"));
+        prerequisites.put("dark_mode", List.of("new_search_ui"));
+        prerequisites.put("beta_banner", null);
+        when(featureFlagMapper.findByNamesForUpdate(
+                List.of("search_v2", "advanced_filtering", "dark_mode", "beta_banner", "new_search_ui")))
+                .thenReturn(List.of(flag("new_search_ui", "search_v2")));
+
+        // When
+        Map<String, String> rejected = validator.validateAll(prerequisites);
+
+        // Then
+        assertEquals(Map.of(
+                "search_v2", "Prerequisites would form a cycle: search_v2 -> new_search_ui -> search_v2",
+                "advanced_filtering", "Unknown prerequisite flags: search_v2"), rejected);
+        verify(featureFlagMapper, times(1)).findByNamesForUpdate(anyList());
+    }
+}
@@ -0,0 +1,107 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.CreateScheduleRequest;
+import com.featureflags.dto.ScheduleResponse;
+import com.featureflags.entity.FlagSchedule;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagScheduleMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagScheduleServiceTest {
+
+    @Mock
+    private FlagScheduleMapper flagScheduleMapper;
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private FlagScheduler flagScheduler;
+
+    @InjectMocks
+    private FlagScheduleService flagScheduleService;
+
+    private static FlagSchedule schedule(FlagSchedule.Status status) {
+        FlagSchedule schedule = new FlagSchedule();
+        schedule.setId(7L);
+        schedule.setFlagName("maintenance_mode");
+        schedule.setEnabled(true);
+        schedule.setStatus(status);
+        return schedule;
+    }
+
+    @Test
+    void testCreateSchedule_StoresAndSchedules() {
+        // Given
+        LocalDateTime runAt = LocalDateTime.now().plusHours(2);
+        when(featureFlagMapper.existsByName("maintenance_mode")).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<FlagSchedule>getArgument(0).setId(7L);
+            return 1;
+        }).when(flagScheduleMapper).insert(any(FlagSchedule.class));
+
+        // When
+        ScheduleResponse response = flagScheduleService.createSchedule("maintenance_mode",
+                new CreateScheduleRequest(true, runAt));
+
+        // Then
+        assertEquals(7L, response.getId());
+        assertEquals(FlagSchedule.Status.PENDING, response.getStatus());
+        assertEquals(runAt, response.getRunAt());
+        verify(flagScheduler).schedule(argThat(schedule -> schedule.getId() == 7L && schedule.getEnabled()));
+    }
+
+    @Test
+    void testCreateSchedule_FlagNotFound() {
+        // Given
+        when(featureFlagMapper.existsByName("unknown_flag")).thenReturn(false);
+
+        // When & Then
+        assertThrows(FlagNotFoundException.class, () -> flagScheduleService.createSchedule("unknown_flag",
+                new CreateScheduleRequest(true, LocalDateTime.now().plusHours(1))));
+        verifyNoInteractions(flagScheduleMapper, flagScheduler);
+    }
+
+    @Test
+    void testCancelSchedule_Success() {
+        // Given
+        when(flagScheduleMapper.findById(7L)).thenReturn(schedule(FlagSchedule.Status.PENDING));
+        when(flagScheduleMapper.updatePendingStatus(7L, FlagSchedule.Status.CANCELLED, null)).thenReturn(1);
+
+        // When
+        flagScheduleService.cancelSchedule("maintenance_mode", 7L);
+
+        // Then
+        verify(flagScheduler).unschedule(7L);
+    }
+
+    @Test
+    void testCancelSchedule_NotPendingOrOtherFlag() {
+        // Given
+        when(flagScheduleMapper.findById(7L)).thenReturn(schedule(FlagSchedule.Status.APPLIED));
+        when(flagScheduleMapper.updatePendingStatus(7L, FlagSchedule.Status.CANCELLED, null)).thenReturn(0);
+
+        // When & Then
+        BusinessException notPending = assertThrows(BusinessException.class,
+                () -> flagScheduleService.cancelSchedule("maintenance_mode", 7L));
+        assertEquals(ErrorCode.SCHEDULE_NOT_PENDING, notPending.getErrorCode());
+        BusinessException otherFlag = assertThrows(BusinessException.class,
+                () -> flagScheduleService.cancelSchedule("dark_mode", 7L));
+        assertEquals(ErrorCode.SCHEDULE_NOT_FOUND, otherFlag.getErrorCode());
+        verifyNoInteractions(flagScheduler);
+    }
+}
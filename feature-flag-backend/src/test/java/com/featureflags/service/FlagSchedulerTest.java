@@ -0,0 +1,180 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.UpdateFlagRequest;
+import com.featureflags.entity.FlagSchedule;
+import com.featureflags.exception.FlagNotFoundException;
+import com.featureflags.repository.FlagScheduleMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagSchedulerTest {
+
+    private static final long NOW = 1_800_000_000_000L;
+
+    @Mock
+    private FlagScheduleMapper flagScheduleMapper;
+
+    @Mock
+    private FeatureFlagService featureFlagService;
+
+    @Mock
+    private SchedulerLease lease;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Cursor<FlagSchedule> cursor;
+
+    private final List<FlagSchedule> pending = new ArrayList<>();
+
+    private FlagScheduler flagScheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(lease.getLeaseMs()).thenReturn(15_000L);
+        lenient().when(lease.acquireOrRenew(anyLong())).thenReturn(true);
+        lenient().when(lease.isHeld(anyLong())).thenReturn(true);
+        lenient().when(flagScheduleMapper.streamPending()).thenReturn(cursor);
+        lenient().when(cursor.iterator()).thenAnswer(invocation -> pending.iterator());
+        lenient().when(flagScheduleMapper.updatePendingStatus(anyLong(), any(), any())).thenReturn(1);
+        flagScheduler = new FlagScheduler(flagScheduleMapper, featureFlagService, lease, transactionManager,
+                new SimpleMeterRegistry(), true, 1000, 5000);
+    }
+
+    private static FlagSchedule schedule(long id, String flagName, boolean enabled, long runAtMillis) {
+        FlagSchedule schedule = new FlagSchedule();
+        schedule.setId(id);
+        schedule.setFlagName(flagName);
+        schedule.setEnabled(enabled);
+        schedule.setRunAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(runAtMillis), ZoneId.systemDefault()));
+        schedule.setStatus(FlagSchedule.Status.PENDING);
+        return schedule;
+    }
+
+    @Test
+    void testTick_AppliesLoadedSchedulesAtTheirTime() {
+        // Given
+        pending.add(schedule(1, "maintenance_mode", true, NOW + 60_000));
+        pending.add(schedule(2, "maintenance_mode", false, NOW + 90_000));
+
+        // When
+        flagScheduler.tick(NOW);
+        flagScheduler.tick(NOW + 59_999);
+
+        // Then
+        assertEquals(2, flagScheduler.getPendingCount());
+        verifyNoInteractions(featureFlagService);
+
+        // When
+        flagScheduler.tick(NOW + 60_000);
+
+        // Then
+        verify(flagScheduleMapper).updatePendingStatus(1L, FlagSchedule.Status.APPLIED, null);
+        verify(featureFlagService).updateFlag(eq("maintenance_mode"),
+                argThat((UpdateFlagRequest request) -> request.getEnabled()));
+        assertEquals(1, flagScheduler.getPendingCount());
+    }
+
+    @Test
+    void testTick_SkipsScheduleClaimedElsewhere() {
+        // Given
+        pending.add(schedule(1, "maintenance_mode", true, NOW - 1_000));
+        when(flagScheduleMapper.updatePendingStatus(1L, FlagSchedule.Status.APPLIED, null)).thenReturn(0);
+
+        // When
+        flagScheduler.tick(NOW);
+        flagScheduler.tick(NOW + 1_000);
+
+        // Then
+        verify(flagScheduleMapper).updatePendingStatus(1L, FlagSchedule.Status.APPLIED, null);
+        verifyNoInteractions(featureFlagService);
+    }
+
+    @Test
+    void testTick_MarksFailedChange() {
+        // Given
+        pending.add(schedule(1, "deleted_flag", true, NOW + 500));
+        when(featureFlagService.updateFlag(eq("deleted_flag"), any(UpdateFlagRequest.class)))
+                .thenThrow(new FlagNotFoundException("Feature flag not found with name: deleted_flag"));
+
+        // When
+        flagScheduler.tick(NOW);
+        flagScheduler.tick(NOW + 1_000);
+
+        // Then
+        verify(flagScheduleMapper).updatePendingStatus(1L, FlagSchedule.Status.FAILED,
+                "Feature flag not found with name: deleted_flag");
+    }
+
+    @Test
+    void testTick_OnlyLeaderLoadsAndApplies() {
+        // Given
+        when(lease.acquireOrRenew(anyLong())).thenReturn(false);
+        when(lease.isHeld(anyLong())).thenReturn(false);
+        pending.add(schedule(1, "maintenance_mode", true, NOW - 1_000));
+
+        // When
+        flagScheduler.tick(NOW);
+        flagScheduler.tick(NOW + 1_000);
+
+        // Then
+        verify(flagScheduleMapper, never()).streamPending();
+        verifyNoInteractions(featureFlagService);
+        assertEquals(0, flagScheduler.getPendingCount());
+    }
+
+    @Test
+    void testTick_DropsWheelWhenLeaseIsLost() {
+        // Given
+        pending.add(schedule(1, "maintenance_mode", true, NOW + 60_000));
+        flagScheduler.tick(NOW);
+        assertEquals(1, flagScheduler.getPendingCount());
+
+        // When
+        when(lease.isHeld(anyLong())).thenReturn(false);
+        flagScheduler.tick(NOW + 60_000);
+
+        // Then
+        assertFalse(flagScheduler.isLoaded());
+        verifyNoInteractions(featureFlagService);
+    }
+
+    @Test
+    void testScheduleAndRefresh_PickUpNewAndCancelledSchedules() {
+        // Given
+        flagScheduler.tick(NOW);
+        FlagSchedule cancelled = schedule(2, "dark_mode", true, NOW + 10_000);
+        cancelled.setStatus(FlagSchedule.Status.CANCELLED);
+        when(flagScheduleMapper.findUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(schedule(3, "search_v2", true, NOW + 10_000), cancelled));
+
+        // When
+        flagScheduler.schedule(schedule(2, "dark_mode", true, NOW + 10_000));
+        assertEquals(1, flagScheduler.getPendingCount());
+        flagScheduler.tick(NOW + 5_000);
+
+        // Then
+        assertEquals(1, flagScheduler.getPendingCount());
+        flagScheduler.tick(NOW + 10_000);
+        verify(featureFlagService).updateFlag(eq("search_v2"), any(UpdateFlagRequest.class));
+        verify(featureFlagService, never()).updateFlag(eq("dark_mode"), any(UpdateFlagRequest.class));
+    }
+}
@@ -0,0 +1,235 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.FlagImportResponse;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagHistoryEntry;
+import com.featureflags.repository.FeatureFlagMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlagTransferServiceTest {
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MessagePublisherService messagePublisherService;
+
+    @Mock
+    private FlagChangeTracker flagChangeTracker;
+
+    @Mock
+    private FlagCountCache flagCountCache;
+
+    @Mock
+    private FlagNameIndex flagNameIndex;
+
+    @Mock
+    private FlagBatchLoader flagBatchLoader;
+
+    @Mock
+    private FlagMissCache flagMissCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cursor<FeatureFlag> cursor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FlagTransferService flagTransferService;
+
+    @BeforeEach
+    void setUp() {
+        flagTransferService = new FlagTransferService(featureFlagMapper, transactionManager, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), messagePublisherService,
+                flagChangeTracker, flagCountCache, flagNameIndex, flagBatchLoader, flagMissCache,
+                new FlagPrerequisiteValidator(featureFlagMapper), cacheManager, meterRegistry);
+    }
+
+    private static ByteArrayInputStream ndjson(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportFlags_WritesOneLinePerFlag() throws Exception {
+        // Given
+        when(featureFlagMapper.streamAll()).thenReturn(cursor);
+        when(cursor.iterator()).thenReturn(List.of(
+                new FeatureFlag("dark_mode", "Dark mode", true),
+                new FeatureFlag("search_v2", null, false)).iterator());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = flagTransferService.exportFlags(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("dark_mode", first.get("name").asText());
+        assertTrue(first.get("enabled").asBoolean());
+        verify(cursor).close();
+        assertEquals(2.0, meterRegistry.get("feature_flag.transfer.rows").tag("operation", "export")
+                .counter().count());
+    }
+
+    @Test
+    void testImportFlags_WritesInBatches() throws Exception {
+        // Given
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i <= FlagTransferService.IMPORT_BATCH_SIZE; i++) {
+            content.append("{\"name\":\"flag_").append(i).append("\",\"enabled\":true,\"version\":3}\n");
+        }
+
+        // When
+        FlagImportResponse response = flagTransferService.importFlags(ndjson(content.toString()));
+
+        // Then
+        assertEquals(FlagTransferService.IMPORT_BATCH_SIZE + 1, response.getImported());
+        assertEquals(0, response.getSkipped());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FeatureFlag>> batches = ArgumentCaptor.forClass(List.class);
+        verify(featureFlagMapper, times(2)).upsertAll(batches.capture());
+        assertEquals(FlagTransferService.IMPORT_BATCH_SIZE, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+        verify(messagePublisherService, times(2)).publishFlagsChanged(anyList(), eq("system"));
+        verify(featureFlagMapper, times(2)).insertHistory(anyList(), eq(FlagHistoryEntry.ChangeType.CREATED), eq("system"));
+        verify(featureFlagMapper, never()).insertHistory(anyList(), eq(FlagHistoryEntry.ChangeType.UPDATED), anyString());
+        verify(flagCountCache).adjust(FlagTransferService.IMPORT_BATCH_SIZE);
+        verify(flagCountCache).adjust(1);
+        verify(flagChangeTracker, times(FlagTransferService.IMPORT_BATCH_SIZE + 1)).recordChange(anyString());
+    }
+
+    @Test
+    void testImportFlags_SkipsInvalidLines() throws Exception {
+        // Given
+        String content = "{\"name\":\"dark_mode\",\"description\":\"Dark mode\",\"enabled\":true}\n"
+                + "\n"
+                + "not json\n"
+                + "{\"name\":\"bad name!\",\"enabled\":true}\n"
+                + "{\"name\":\"search_v2\"}\n";
+
+        // When
+        FlagImportResponse response = flagTransferService.importFlags(ndjson(content));
+
+        // Then
+        assertEquals(1, response.getImported());
+        assertEquals(3, response.getSkipped());
+        assertEquals(3, response.getErrors().size());
+        assertTrue(response.getErrors().get(0).startsWith("line 3:"));
+        assertTrue(response.getErrors().get(1).startsWith("line 4:"));
+        assertTrue(response.getErrors().get(2).startsWith("line 5:"));
+        verify(featureFlagMapper).upsertAll(argThat(flags -> flags.size() == 1
+                && flags.get(0).getName().equals("dark_mode")));
+    }
+
+    @Test
+    void testImportFlags_KeepsPrerequisitesAndRejectsInvalidOnesPerLine() throws Exception {
+        // Given
+        String content = "{\"name\":\"search_v2\",\"enabled\":true,\"prerequisites\":[\"search_index\"]}\n"
+                + "{\"name\":\"search_index\",\"enabled\":true}\n"
+                + "{\"name\":\"dark_mode\",\"enabled\":true,\"prerequisites\":[\"dark_palette\"]}\n"
+                + "{\"name\":\"dark_palette\",\"enabled\":true,\"prerequisites\":[\"dark_mode\"]}\n"
+                + "{\"name\":\"beta_banner\",\"enabled\":true,\"prerequisites\":[\"missing_flag\"]}\n";
+        when(featureFlagMapper.findByNamesForUpdate(anyList())).thenReturn(List.of());
+
+        // When
+        FlagImportResponse response = flagTransferService.importFlags(ndjson(content));
+
+        // Then
+        assertEquals(2, response.getImported());
+        assertEquals(List.of(
+                "line 3: Prerequisites would form a cycle: dark_mode -> dark_palette -> dark_mode",
+                "line 4: Prerequisites would form a cycle: dark_palette -> dark_mode -> dark_palette",
+                "line 5: Unknown prerequisite flags: missing_flag"), response.getErrors());
+        verify(featureFlagMapper).upsertAll(argThat(flags -> flags.size() == 2
+                && flags.get(0).getPrerequisites().equals(List.of("search_index"))
+                && flags.get(1).getPrerequisites() == null));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FeatureFlagEventDTO.FlagChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(messagePublisherService).publishFlagsChanged(changes.capture(), eq("system"));
+        assertEquals(List.of("search_index"), changes.getValue().get(0).getPrerequisites());
+        assertEquals(List.of(), changes.getValue().get(1).getPrerequisites());
+    }
+
+    @Test
+    void testImportFlags_RecordsOnlyCreatedAndChangedFlags() throws Exception {
+        // Given
+        String content = "{\"name\":\"dark_mode\",\"enabled\":true}\n"
+                + "{\"name\":\"search_v2\",\"enabled\":false}\n"
+                + "{\"name\":\"beta_banner\",\"enabled\":true}\n";
+        when(featureFlagMapper.findByNamesForUpdate(List.of("dark_mode", "search_v2", "beta_banner")))
+                .thenReturn(List.of(flag("dark_mode", 3L), flag("search_v2", 5L)));
+        when(featureFlagMapper.findByNames(List.of("dark_mode", "search_v2", "beta_banner")))
+                .thenReturn(List.of(flag("dark_mode", 3L), flag("search_v2", 6L), flag("beta_banner", 0L)));
+
+        // When
+        FlagImportResponse response = flagTransferService.importFlags(ndjson(content));
+
+        // Then
+        assertEquals(3, response.getImported());
+        verify(featureFlagMapper).insertHistory(List.of("beta_banner"), FlagHistoryEntry.ChangeType.CREATED, "system");
+        verify(featureFlagMapper).insertHistory(List.of("search_v2"), FlagHistoryEntry.ChangeType.UPDATED, "system");
+        verify(flagChangeTracker, never()).recordChange("dark_mode");
+        verify(flagCountCache).adjust(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FeatureFlagEventDTO.FlagChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(messagePublisherService).publishFlagsChanged(changes.capture(), eq("system"));
+        assertEquals(List.of(FeatureFlagEventDTO.EventType.UPDATED, FeatureFlagEventDTO.EventType.CREATED),
+                changes.getValue().stream().map(FeatureFlagEventDTO.FlagChange::getEventType).toList());
+        assertEquals(List.of("search_v2", "beta_banner"),
+                changes.getValue().stream().map(FeatureFlagEventDTO.FlagChange::getFlagName).toList());
+    }
+
+    @Test
+    void testImportFlags_ReimportOfUnchangedFlagsWritesNoHistory() throws Exception {
+        // Given
+        when(featureFlagMapper.findByNamesForUpdate(List.of("dark_mode"))).thenReturn(List.of(flag("dark_mode", 3L)));
+        when(featureFlagMapper.findByNames(List.of("dark_mode"))).thenReturn(List.of(flag("dark_mode", 3L)));
+
+        // When
+        FlagImportResponse response = flagTransferService.importFlags(ndjson("{\"name\":\"dark_mode\",\"enabled\":true}\n"));
+
+        // Then
+        assertEquals(1, response.getImported());
+        verify(featureFlagMapper).upsertAll(anyList());
+        verify(featureFlagMapper, never()).insertHistory(anyList(), any(), anyString());
+        verifyNoInteractions(messagePublisherService, flagChangeTracker, flagCountCache);
+    }
+
+    private static FeatureFlag flag(String name, long version) {
+        FeatureFlag flag = new FeatureFlag(name, null, true);
+        flag.setVersion(version);
+        return flag;
+    }
+}
@@ -1,17 +1,27 @@
 package com.featureflags.service;
 
 import com.featureflags.config.UnitTestConfig;
+import com.featureflags.dto.FeatureFlagEventDTO;
 import com.featureflags.entity.FeatureFlag;
+import com.featureflags.util.FlagWireFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,13 +35,16 @@ class MessagePublisherServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
-    @InjectMocks
+    @Mock
+    private RedisConnection redisConnection;
+
     private MessagePublisherService messagePublisherService;
 
     private FeatureFlag testFlag;
 
     @BeforeEach
     void setUp() {
+        messagePublisherService = new MessagePublisherService(redisTemplate, objectMapper, true);
         testFlag = new FeatureFlag();
         testFlag.setId(1L);
         testFlag.setName("test_flag");
@@ -77,4 +90,59 @@ class MessagePublisherServiceTest {
         verify(objectMapper).writeValueAsString(any());
         verify(redisTemplate).convertAndSend(anyString(), anyString());
     }
+
+    @Test
+    void testPublishFlagsChanged_Success() throws Exception {
+        // Given
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"eventType\":\"BULK\"}");
+        List<FeatureFlagEventDTO.FlagChange> changes = List.of(
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "test_flag", true),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED, "old_flag", null));
+
+        // When
+        messagePublisherService.publishFlagsChanged(changes, "system");
+
+        // Then
+        ArgumentCaptor<FeatureFlagEventDTO> eventCaptor = ArgumentCaptor.forClass(FeatureFlagEventDTO.class);
+        verify(objectMapper).writeValueAsString(eventCaptor.capture());
+        assertEquals(FeatureFlagEventDTO.EventType.BULK, eventCaptor.getValue().getEventType());
+        assertEquals(changes, eventCaptor.getValue().getChanges());
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublishFlagUpdated_AlsoPublishesBinaryEvent() throws Exception {
+        // Given
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"eventType\":\"UPDATED\"}");
+        when(redisTemplate.execute(ArgumentMatchers.<RedisCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RedisCallback<Long>>getArgument(0).doInRedis(redisConnection));
+
+        // When
+        messagePublisherService.publishFlagUpdated(testFlag);
+
+        // Then
+        ArgumentCaptor<byte[]> channelCaptor = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> messageCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(redisConnection).publish(channelCaptor.capture(), messageCaptor.capture());
+        assertArrayEquals("feature-flag-events:v2".getBytes(StandardCharsets.UTF_8), channelCaptor.getValue());
+        FeatureFlagEventDTO event = FlagWireFormat.decodeEvent(messageCaptor.getValue());
+        assertEquals(FeatureFlagEventDTO.EventType.UPDATED, event.getEventType());
+        assertEquals("test_flag", event.getFlagName());
+        assertEquals(true, event.getEnabled());
+    }
+
+    @Test
+    void testPublishFlagUpdated_BinaryEventsDisabled() throws Exception {
+        // Given
+        messagePublisherService = new MessagePublisherService(redisTemplate, objectMapper, false);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"eventType\":\"UPDATED\"}");
+
+        // When
+        messagePublisherService.publishFlagUpdated(testFlag);
+
+        // Then
+        verify(redisTemplate).convertAndSend(anyString(), anyString());
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisCallback<Object>>any());
+    }
 }
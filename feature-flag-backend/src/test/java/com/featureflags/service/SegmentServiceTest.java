@@ -0,0 +1,153 @@
+package com.featureflags.service;
+
+import com.featureflags.dto.CreateSegmentRequest;
+import com.featureflags.dto.SegmentEventDTO;
+import com.featureflags.dto.SegmentMembersRequest;
+import com.featureflags.dto.SegmentResponse;
+import com.featureflags.entity.Segment;
+import com.featureflags.exception.BusinessException;
+import com.featureflags.exception.ErrorCode;
+import com.featureflags.repository.SegmentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SegmentServiceTest {
+
+    @Mock
+    private SegmentMapper segmentMapper;
+
+    @Mock
+    private MessagePublisherService messagePublisherService;
+
+    private SegmentService segmentService;
+
+    @BeforeEach
+    void setUp() {
+        segmentService = new SegmentService(segmentMapper, messagePublisherService, 1 << 20);
+    }
+
+    private static Segment segment(long version, int... members) {
+        Segment segment = new Segment();
+        segment.setName("beta_testers");
+        segment.setMembers(SegmentService.serialize(RoaringBitmap.bitmapOf(members)));
+        segment.setMemberCount((long) members.length);
+        segment.setVersion(version);
+        return segment;
+    }
+
+    @Test
+    void testCreateSegment_AlreadyExists() {
+        // Given
+        when(segmentMapper.insert(any(Segment.class))).thenThrow(new DuplicateKeyException("duplicate"));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> segmentService.createSegment(new CreateSegmentRequest("beta_testers", null)));
+        assertEquals(ErrorCode.SEGMENT_ALREADY_EXISTS, exception.getErrorCode());
+    }
+
+    @Test
+    void testUpdateMembers_PublishesEffectiveDelta() {
+        // Given
+        when(segmentMapper.findWithMembersForUpdate("beta_testers")).thenReturn(segment(3, 1, 2, 3));
+        SegmentMembersRequest request = new SegmentMembersRequest(List.of(3L, 4L, 4294967295L, 5L),
+                List.of(1L, 5L, 9L));
+
+        // When
+        SegmentResponse response = segmentService.updateMembers("beta_testers", request);
+
+        // Then: 3 was already a member, 5 is removed again and 9 never was a member
+        ArgumentCaptor<byte[]> members = ArgumentCaptor.forClass(byte[].class);
+        verify(segmentMapper).updateMembers(eq("beta_testers"), members.capture(), eq(4L), eq("system"));
+        assertEquals(RoaringBitmap.bitmapOf(2, 3, 4, -1), SegmentService.deserialize(members.getValue()));
+        assertEquals(4L, response.getVersion());
+        assertEquals(4L, response.getMemberCount());
+
+        ArgumentCaptor<SegmentEventDTO> event = ArgumentCaptor.forClass(SegmentEventDTO.class);
+        verify(messagePublisherService).publishSegmentChanged(event.capture());
+        assertEquals(4L, event.getValue().getVersion());
+        assertEquals(RoaringBitmap.bitmapOf(4, -1), SegmentService.deserialize(event.getValue().getAdded()));
+        assertEquals(RoaringBitmap.bitmapOf(1), SegmentService.deserialize(event.getValue().getRemoved()));
+    }
+
+    @Test
+    void testUpdateMembers_UnchangedKeepsVersion() {
+        // Given
+        when(segmentMapper.findWithMembersForUpdate("beta_testers")).thenReturn(segment(3, 1, 2));
+
+        // When
+        SegmentResponse response = segmentService.updateMembers("beta_testers",
+                new SegmentMembersRequest(List.of(1L), List.of(7L)));
+
+        // Then
+        assertEquals(3L, response.getVersion());
+        verify(segmentMapper, never()).updateMembers(anyString(), any(), anyLong(), anyString());
+        verifyNoInteractions(messagePublisherService);
+    }
+
+    @Test
+    void testUpdateMembers_RejectsSegmentsOverTheSizeLimit() {
+        // Given: 100,000 scattered IDs take about 200 KB, over a 64 KB limit
+        segmentService = new SegmentService(segmentMapper, messagePublisherService, 64 * 1024);
+        when(segmentMapper.findWithMembersForUpdate("beta_testers")).thenReturn(segment(1));
+        List<Long> userIds = new Random(7).longs(100_000, 0, 1L << 32).boxed().toList();
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> segmentService.updateMembers("beta_testers", new SegmentMembersRequest(userIds, List.of())));
+        assertEquals(ErrorCode.SEGMENT_TOO_LARGE, exception.getErrorCode());
+        verify(segmentMapper, never()).updateMembers(anyString(), any(), anyLong(), anyString());
+    }
+
+    @Test
+    void testUpdateMembers_NotFound() {
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> segmentService.updateMembers("missing", new SegmentMembersRequest()));
+        assertEquals(ErrorCode.SEGMENT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    void testSerializedSize_PerMillionMembers() {
+        // Given
+        Random random = new Random(42);
+        RoaringBitmap consecutive = new RoaringBitmap();
+        consecutive.add(0L, 1_000_000L);
+        RoaringBitmap clustered = new RoaringBitmap();
+        RoaringBitmap scattered = new RoaringBitmap();
+        for (int added = 0; added < 1_000_000;) {
+            added += clustered.checkedAdd(random.nextInt(10_000_000)) ? 1 : 0;
+        }
+        for (int added = 0; added < 1_000_000;) {
+            added += scattered.checkedAdd(random.nextInt()) ? 1 : 0;
+        }
+
+        // When
+        consecutive.runOptimize();
+        clustered.runOptimize();
+        scattered.runOptimize();
+
+        // Then: a run costs a few bytes, dense ID ranges about 1.3 bytes per
+        // member and scattered IDs never much more than 2 bytes per member
+        assertTrue(SegmentService.serialize(consecutive).length < 1_000);
+        assertTrue(SegmentService.serialize(clustered).length < 1_400_000);
+        assertTrue(SegmentService.serialize(scattered).length < 2_600_000);
+    }
+}
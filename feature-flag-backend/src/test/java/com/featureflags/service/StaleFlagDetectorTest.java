@@ -0,0 +1,117 @@
+package com.featureflags.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.featureflags.dto.StaleFlagReport;
+import com.featureflags.entity.FeatureFlag;
+import com.featureflags.entity.FlagLastEvaluation;
+import com.featureflags.repository.FeatureFlagMapper;
+import com.featureflags.repository.FlagEvaluationCountMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StaleFlagDetectorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    @Mock
+    private FeatureFlagMapper featureFlagMapper;
+
+    @Mock
+    private FlagEvaluationCountMapper flagEvaluationCountMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Cursor<FeatureFlag> cursor;
+
+    private final List<FeatureFlag> flags = new ArrayList<>();
+
+    private StaleFlagDetector staleFlagDetector;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(featureFlagMapper.streamAll()).thenReturn(cursor);
+        lenient().when(cursor.iterator()).thenAnswer(invocation -> flags.iterator());
+        staleFlagDetector = new StaleFlagDetector(featureFlagMapper, flagEvaluationCountMapper,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, new SimpleMeterRegistry(),
+                false, 30, 90, 3_600_000);
+    }
+
+    private void flag(String name, int createdDaysAgo, int updatedDaysAgo, String... prerequisites) {
+        FeatureFlag flag = new FeatureFlag(name, "Flag " + name, true);
+        flag.setCreatedAt(NOW.minusDays(createdDaysAgo));
+        flag.setUpdatedAt(NOW.minusDays(updatedDaysAgo));
+        flag.setPrerequisites(prerequisites.length > 0 ? List.of(prerequisites) : null);
+        flags.add(flag);
+    }
+
+    private static StaleFlagReport.StaleFlag find(StaleFlagReport report, String name) {
+        return report.getFlags().stream().filter(flag -> flag.getName().equals(name)).findFirst().orElse(null);
+    }
+
+    @Test
+    void testAnalyze_ReportsUnevaluatedAndUnchangedFlags() {
+        // Given
+        flag("search_v2", 200, 10);
+        flag("old_banner", 200, 120);
+        flag("dead_experiment", 60, 40);
+        flag("new_checkout", 5, 5);
+        when(flagEvaluationCountMapper.findLastEvaluationsSince(NOW.minusDays(30))).thenReturn(List.of(
+                new FlagLastEvaluation("search_v2", NOW.minusHours(2)),
+                new FlagLastEvaluation("old_banner", NOW.minusDays(3))));
+
+        // When
+        StaleFlagReport report = staleFlagDetector.analyze(NOW);
+
+        // Then
+        assertEquals(4, report.getTotalFlags());
+        assertEquals(List.of("dead_experiment", "old_banner"),
+                report.getFlags().stream().map(StaleFlagReport.StaleFlag::getName).toList());
+        assertEquals(List.of(StaleFlagReport.Reason.NOT_EVALUATED), find(report, "dead_experiment").getReasons());
+        assertEquals(List.of(StaleFlagReport.Reason.UNCHANGED), find(report, "old_banner").getReasons());
+        assertEquals(NOW.minusDays(3), find(report, "old_banner").getLastEvaluatedAt());
+        assertTrue(report.getArchivableBytes() > 0);
+        assertTrue(report.getSnapshotBytes() > report.getArchivableBytes());
+        assertSame(report, staleFlagDetector.getReport());
+    }
+
+    @Test
+    void testAnalyze_StalePrerequisitesOfFlagsInUseAreNotArchivable() {
+        // Given
+        flag("checkout_v3", 200, 10, "payments_gate");
+        flag("payments_gate", 200, 120, "region_gate");
+        flag("region_gate", 200, 120);
+        flag("old_banner", 200, 120, "legacy_gate");
+        flag("legacy_gate", 200, 120);
+        when(flagEvaluationCountMapper.findLastEvaluationsSince(any())).thenReturn(List.of(
+                new FlagLastEvaluation("checkout_v3", NOW.minusHours(1))));
+
+        // When
+        StaleFlagReport report = staleFlagDetector.analyze(NOW);
+
+        // Then
+        assertEquals(List.of("checkout_v3"), find(report, "payments_gate").getRequiredBy());
+        assertEquals(List.of("payments_gate"), find(report, "region_gate").getRequiredBy());
+        assertFalse(find(report, "region_gate").isArchivable());
+        assertTrue(find(report, "old_banner").isArchivable());
+        assertTrue(find(report, "legacy_gate").isArchivable());
+        assertEquals(find(report, "old_banner").getSnapshotBytes() + find(report, "legacy_gate").getSnapshotBytes(),
+                report.getArchivableBytes());
+    }
+}
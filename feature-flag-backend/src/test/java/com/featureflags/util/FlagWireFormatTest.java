@@ -0,0 +1,124 @@
+package com.featureflags.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.featureflags.dto.FeatureFlagBatchResponse;
+import com.featureflags.dto.FeatureFlagEventDTO;
+import com.featureflags.dto.FlagChangesResponse;
+import com.featureflags.entity.FlagType;
+import com.featureflags.entity.TargetingRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlagWireFormatTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 10, 19, 9, 30, 15, 123_000_000);
+
+    private static List<TargetingRule> rules() {
+        return List.of(
+                new TargetingRule(List.of(
+                        new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("NZ", "AU")),
+                        new TargetingRule.Condition("appVersion", TargetingRule.Operator.VERSION_AT_LEAST,
+                                List.of("5.2.1"))),
+                        true, 12.5),
+                new TargetingRule(List.of(), false));
+    }
+
+    private static FeatureFlagEventDTO event() {
+        FeatureFlagEventDTO event = FeatureFlagEventDTO.updateEvent("search_v2", "New search ranking", true,
+                "alice", TIMESTAMP, MessageIdGenerator.generateMessageId("search_v2"));
+        event.setType(FlagType.JSON);
+        event.setValue(JSON.createObjectNode().put("ranker", "bm25").put("boost", 1.5));
+        event.setRules(rules());
+        event.setPrerequisites(List.of("search_index_ready"));
+        return event;
+    }
+
+    @Test
+    void testEvent_RoundTripsAndIsSmallerThanJson() throws Exception {
+        // Given
+        FeatureFlagEventDTO event = event();
+
+        // When
+        byte[] binary = FlagWireFormat.encodeEvent(event);
+        FeatureFlagEventDTO decoded = FlagWireFormat.decodeEvent(binary);
+
+        // Then
+        assertTrue(FlagWireFormat.isBinary(binary));
+        assertEquals(FlagWireFormat.EVENT_VERSION, decoded.getVersion());
+        decoded.setVersion(event.getVersion());
+        assertEquals(event, decoded);
+        assertTrue(binary.length * 2 < JSON.writeValueAsBytes(event).length,
+                binary.length + " bytes against " + JSON.writeValueAsBytes(event).length + " JSON bytes");
+    }
+
+    @Test
+    void testBulkEvent_RoundTripsChangesAndMessageIdForms() {
+        // Given
+        List<FeatureFlagEventDTO.FlagChange> changes = List.of(
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "dark_mode", false,
+                        rules()),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED, "old_flag", null),
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.CREATED, "banner_text", true, null,
+                        FlagType.STRING, JSON.getNodeFactory().textNode("Kia ora"), List.of("dark_mode")));
+        FeatureFlagEventDTO bulk = FeatureFlagEventDTO.bulkEvent(changes, "system", TIMESTAMP,
+                MessageIdGenerator.generateSimpleMessageId());
+        FeatureFlagEventDTO custom = FeatureFlagEventDTO.deleteEvent("old_flag", "bob", TIMESTAMP, "flag-OLD-42");
+
+        // When
+        FeatureFlagEventDTO decodedBulk = FlagWireFormat.decodeEvent(FlagWireFormat.encodeEvent(bulk));
+        FeatureFlagEventDTO decodedCustom = FlagWireFormat.decodeEvent(FlagWireFormat.encodeEvent(custom));
+
+        // Then
+        assertEquals(changes, decodedBulk.getChanges());
+        assertEquals(bulk.getMessageId(), decodedBulk.getMessageId());
+        assertNull(decodedBulk.getFlagName());
+        assertEquals("flag-OLD-42", decodedCustom.getMessageId());
+        assertNull(decodedCustom.getEnabled());
+    }
+
+    @Test
+    void testChangesResponse_RoundTripsSnapshot() {
+        // Given
+        Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flags = new LinkedHashMap<>();
+        flags.put("search_v2", FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                .name("search_v2").enabled(true).type(FlagType.NUMBER).value(JSON.getNodeFactory().numberNode(3))
+                .rules(rules()).prerequisites(List.of("dark_mode")).timestamp(TIMESTAMP).build());
+        flags.put("dark_mode", FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                .name("dark_mode").enabled(false).type(FlagType.BOOLEAN).description("Dark theme")
+                .timestamp(TIMESTAMP).build());
+        FlagChangesResponse response = new FlagChangesResponse(42, true, flags, List.of("old_flag"), TIMESTAMP);
+
+        // When
+        FlagChangesResponse decoded = FlagWireFormat.decodeChanges(FlagWireFormat.encodeChanges(response));
+
+        // Then
+        assertEquals(response, decoded);
+        assertEquals(List.of("search_v2", "dark_mode"), List.copyOf(decoded.getFlags().keySet()));
+    }
+
+    @Test
+    void testDecode_RejectsForeignNewerAndTruncatedMessages() {
+        // Given
+        byte[] binary = FlagWireFormat.encodeBatch(new FeatureFlagBatchResponse(Map.of(), TIMESTAMP));
+        byte[] newer = binary.clone();
+        newer[1] = FlagWireFormat.VERSION + 1;
+
+        // When & Then
+        assertEquals(TIMESTAMP, FlagWireFormat.decodeBatch(binary).getResponseTimestamp());
+        assertFalse(FlagWireFormat.isBinary("{\"flags\":{}}".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> FlagWireFormat.decodeBatch("{}".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> FlagWireFormat.decodeBatch(newer));
+        assertThrows(IllegalArgumentException.class, () -> FlagWireFormat.decodeChanges(binary));
+        assertThrows(IllegalArgumentException.class,
+                () -> FlagWireFormat.decodeBatch(Arrays.copyOf(binary, binary.length - 1)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.featureflags.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testAdvanceTo_ExpiresTimeoutsAtTheirTickAcrossLevels() {
+        // Given
+        long start = 1_000_003;
+        TimerWheel<Long> wheel = new TimerWheel<>(start);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Spread over the first three levels, up to about three days of one second ticks
+            long deadline = start + 1 + random.nextInt(300_000);
+            deadlines.add(deadline);
+            wheel.add(deadline, deadline);
+        }
+
+        // When
+        List<String> mismatches = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(start + 300_000, timeout -> {
+            if (timeout.getDeadline() != wheel.getCurrentTick()) {
+                mismatches.add(timeout.getDeadline() + " at " + wheel.getCurrentTick());
+            }
+            expired.add(timeout.getValue());
+        });
+
+        // Then
+        assertEquals(List.of(), mismatches);
+        assertEquals(deadlines.size(), expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdd_OverdueTimeoutExpiresOnNextTick() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(500);
+        wheel.add(10, "overdue");
+        List<String> expired = new ArrayList<>();
+
+        // When
+        wheel.advanceTo(501, timeout -> expired.add(timeout.getValue()));
+
+        // Then
+        assertEquals(List.of("overdue"), expired);
+    }
+
+    @Test
+    void testCancel_RemovesPendingTimeout() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimerWheel.Timeout<String> kept = wheel.add(5_000, "kept");
+        TimerWheel.Timeout<String> cancelled = wheel.add(5_000, "cancelled");
+        List<String> expired = new ArrayList<>();
+
+        // When
+        assertTrue(wheel.cancel(cancelled));
+        wheel.advanceTo(5_000, timeout -> expired.add(timeout.getValue()));
+
+        // Then
+        assertEquals(List.of("kept"), expired);
+        assertFalse(kept.isPending());
+        assertFalse(wheel.cancel(kept));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdd_FarFutureTimeoutIsKeptUntilDue() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        wheel.add(Long.MAX_VALUE, "far");
+        wheel.add(1L << 24, "year");
+        List<String> expired = new ArrayList<>();
+
+        // When
+        wheel.advanceTo(1L << 24, timeout -> expired.add(timeout.getValue()));
+
+        // Then
+        assertEquals(List.of("year"), expired);
+        assertEquals(1, wheel.size());
+    }
+}
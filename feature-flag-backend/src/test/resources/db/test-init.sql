@@ -7,14 +7,120 @@ CREATE TABLE IF NOT EXISTS feature_flags (
     name VARCHAR(100) NOT NULL UNIQUE,
     description TEXT,
     enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN',
+    value JSON NULL,
+    rules JSON NULL,
+    prerequisites JSON NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by VARCHAR(100),
-    updated_by VARCHAR(100)
+    updated_by VARCHAR(100),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Create indexes for better performance
 CREATE INDEX idx_feature_flags_enabled ON feature_flags(enabled);
-CREATE INDEX idx_feature_flags_created_at ON feature_flags(created_at);
+CREATE INDEX idx_feature_flags_created_at_id ON feature_flags(created_at, id);
+CREATE INDEX idx_feature_flags_updated_at ON feature_flags(updated_at);
+CREATE FULLTEXT INDEX ft_feature_flags_description ON feature_flags(description) WITH PARSER ngram;
+
+-- Append-only flag change history, partitioned by time
+CREATE TABLE IF NOT EXISTS feature_flag_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    description TEXT,
+    enabled BOOLEAN NOT NULL,
+    type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN',
+    value JSON NULL,
+    rules JSON NULL,
+    prerequisites JSON NULL,
+    version BIGINT NOT NULL,
+    changed_by VARCHAR(100),
+    changed_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id, changed_at),
+    INDEX idx_feature_flag_history_name_changed_at (name, changed_at)
+)
+PARTITION BY RANGE COLUMNS (changed_at) (
+    PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- User segments with their members as a Roaring bitmap
+CREATE TABLE IF NOT EXISTS segments (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    description TEXT,
+    members LONGBLOB NOT NULL,
+    member_count BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100)
+);
+
+-- Flag changes scheduled for a later time
+CREATE TABLE IF NOT EXISTS flag_schedules (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    flag_name VARCHAR(100) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    run_at DATETIME(3) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    error VARCHAR(500),
+    executed_at DATETIME(3),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    created_by VARCHAR(100),
+    INDEX idx_flag_schedules_status_run_at (status, run_at),
+    INDEX idx_flag_schedules_flag_name (flag_name, run_at),
+    INDEX idx_flag_schedules_updated_at (updated_at)
+);
+
+-- Flag evaluations reported by consumers, summed per flag and time bucket
+CREATE TABLE IF NOT EXISTS flag_evaluation_counts (
+    flag_name VARCHAR(100) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    on_count BIGINT NOT NULL DEFAULT 0,
+    off_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (flag_name, bucket_start),
+    INDEX idx_flag_evaluation_counts_bucket (bucket_start)
+);
+
+-- Flags archived as stale, moved out of feature_flags
+CREATE TABLE IF NOT EXISTS archived_feature_flags (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    description TEXT,
+    enabled BOOLEAN NOT NULL,
+    type VARCHAR(16) NOT NULL DEFAULT 'BOOLEAN',
+    value JSON NULL,
+    rules JSON NULL,
+    prerequisites JSON NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100),
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    archived_by VARCHAR(100),
+    INDEX idx_archived_feature_flags_archived_at (archived_at)
+);
+
+-- Change feed shared by all replicas
+CREATE TABLE IF NOT EXISTS flag_revision (
+    id TINYINT PRIMARY KEY,
+    revision BIGINT NOT NULL,
+    floor_revision BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO flag_revision (id, revision, floor_revision) VALUES (1, 1, 1);
+
+CREATE TABLE IF NOT EXISTS flag_changes (
+    revision BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (revision, name)
+);
 
 -- No initial test data - tests will create their own data as needed
@@ -7,6 +7,7 @@ export interface FeatureFlag {
   updatedAt: string;
   createdBy: string;
   updatedBy: string;
+  version?: number;
 }
 
 export interface CreateFlagRequest {
@@ -26,6 +27,7 @@ export interface FlagListResponse {
   page: number;
   size: number;
   totalPages: number;
+  nextCursor?: string | null;
 }
 
 export interface ApiError {
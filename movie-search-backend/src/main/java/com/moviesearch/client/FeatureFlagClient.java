@@ -1,8 +1,13 @@
 package com.moviesearch.client;
 
+import com.moviesearch.dto.EvaluationReport;
 import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.SegmentResponse;
 import com.moviesearch.config.FeignConfig;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -13,4 +18,17 @@ public interface FeatureFlagClient {
 
     @PostMapping("/flags/batch")
     FeatureFlagBatchResponse getFeatureFlagsBatch(@RequestBody List<String> flagNames);
+
+    @GetMapping("/segments/{name}")
+    SegmentResponse getSegment(@PathVariable("name") String name);
+
+    /**
+     * Members as a serialized Roaring bitmap, with the segment version in the
+     * X-Segment-Version header.
+     */
+    @GetMapping("/segments/{name}/members")
+    ResponseEntity<byte[]> getSegmentMembers(@PathVariable("name") String name);
+
+    @PostMapping("/telemetry/evaluations")
+    void reportEvaluations(@RequestBody EvaluationReport report);
 }
@@ -0,0 +1,21 @@
+package com.moviesearch.client;
+
+import com.moviesearch.config.LongPollFeignConfig;
+import com.moviesearch.dto.FlagChangesRequest;
+import com.moviesearch.dto.FlagChangesResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Feign client for long-polling flag changes. Uses its own configuration so
+ * held requests get a longer read timeout and are never retried.
+ */
+@FeignClient(name = "feature-flag-service", contextId = "featureFlagLongPollClient", url = "${feature-flag.service.url:http://localhost:8080/feature}", configuration = LongPollFeignConfig.class)
+public interface FeatureFlagLongPollClient {
+
+    @PostMapping("/flags/changes")
+    FlagChangesResponse pollFlagChanges(@RequestParam("timeoutMs") long timeoutMs,
+            @RequestBody FlagChangesRequest request);
+}
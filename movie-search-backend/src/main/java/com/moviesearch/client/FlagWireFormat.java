@@ -0,0 +1,764 @@
+package com.moviesearch.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.FlagChangesResponse;
+import com.moviesearch.dto.FlagType;
+import com.moviesearch.dto.TargetingRule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding, version 2 of the wire format, of flag events and
+ * of batch and changes responses. Version 1 is the JSON form of the same
+ * DTOs, which stays the default.
+ *
+ * Layout:
+ * <pre>
+ * byte    magic 0xF7, never the first byte of a JSON document
+ * byte    format version 2
+ * byte    kind: 1 event, 2 batch response, 3 changes response
+ * varint  name count, then per name [varint UTF-8 length][UTF-8 bytes]
+ * ...     body
+ * </pre>
+ *
+ * Flag names, prerequisite names and condition attributes are written once
+ * into the name table and referenced by index. Each record starts with a
+ * varint bit set of the fields present, written in bit order. Enums are one
+ * byte codes from fixed tables, so constants may only be appended. Timestamps
+ * are varint epoch millis of the local date time read as UTC, which keeps the
+ * millisecond precision of the JSON form. Message IDs of the generated forms
+ * are packed into their timestamp and random bytes. Flag values are embedded
+ * as JSON text since their shape is free.
+ *
+ * Decoding fails with an {@link IllegalArgumentException} on a foreign,
+ * newer or truncated message.
+ *
+ * This is a copy of the codec from feature-flag-backend; both sides must
+ * change together.
+ */
+public final class FlagWireFormat {
+
+    public static final byte MAGIC = (byte) 0xF7;
+    public static final int VERSION = 2;
+
+    /**
+     * Event version reported by decoded events, next to "1.0" of JSON events.
+     */
+    public static final String EVENT_VERSION = "2.0";
+
+    static final byte KIND_EVENT = 1;
+    static final byte KIND_BATCH = 2;
+    static final byte KIND_CHANGES = 3;
+
+    // Fields of flag records, events and changes
+    private static final int NAME = 1;
+    private static final int ENABLED = 1 << 1;
+    private static final int ENABLED_ON = 1 << 2;
+    private static final int TYPE = 1 << 3;
+    private static final int VALUE = 1 << 4;
+    private static final int RULES = 1 << 5;
+    private static final int PREREQUISITES = 1 << 6;
+    private static final int TIMESTAMP = 1 << 7;
+    private static final int DESCRIPTION = 1 << 8;
+    private static final int TRIGGERED_BY = 1 << 9;
+    private static final int METADATA = 1 << 10;
+    private static final int MESSAGE_ID = 1 << 11;
+    private static final int CHANGES = 1 << 12;
+
+    // Fields of responses
+    private static final int FLAGS = 1;
+    private static final int DELETED = 1 << 1;
+    private static final int RESPONSE_TIMESTAMP = 1 << 2;
+
+    // Fields of rules and conditions
+    private static final int SERVE = 1;
+    private static final int SERVE_ON = 1 << 1;
+    private static final int ROLLOUT = 1 << 2;
+    private static final int CONDITIONS = 1 << 3;
+    private static final int ATTRIBUTE = 1;
+    private static final int OPERATOR = 1 << 1;
+    private static final int VALUES = 1 << 2;
+
+    private static final byte MESSAGE_ID_TEXT = 0;
+    private static final byte MESSAGE_ID_FLAG = 1; // flag-{flagName}-{millis}-{8 hex}
+    private static final byte MESSAGE_ID_SIMPLE = 2; // msg-{32 hex}
+
+    // Wire codes are positions in these tables
+    private static final FeatureFlagEventDTO.EventType[] EVENT_TYPES = {
+            FeatureFlagEventDTO.EventType.CREATED, FeatureFlagEventDTO.EventType.UPDATED,
+            FeatureFlagEventDTO.EventType.DELETED, FeatureFlagEventDTO.EventType.BULK };
+    private static final FlagType[] FLAG_TYPES = {
+            FlagType.BOOLEAN, FlagType.STRING, FlagType.NUMBER, FlagType.JSON };
+    private static final TargetingRule.Operator[] OPERATORS = {
+            TargetingRule.Operator.IN, TargetingRule.Operator.NOT_IN, TargetingRule.Operator.STARTS_WITH,
+            TargetingRule.Operator.VERSION_AT_LEAST, TargetingRule.Operator.VERSION_BELOW,
+            TargetingRule.Operator.IN_SEGMENT, TargetingRule.Operator.NOT_IN_SEGMENT };
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private FlagWireFormat() {
+    }
+
+    /**
+     * Whether the message is in this format rather than JSON.
+     */
+    public static boolean isBinary(byte[] message) {
+        return message != null && message.length > 0 && message[0] == MAGIC;
+    }
+
+    public static byte[] encodeEvent(FeatureFlagEventDTO event) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeByte(code(EVENT_TYPES, event.getEventType()));
+        int fields = flagFields(event.getFlagName(), event.getEnabled(), event.getType(), event.getValue(),
+                event.getRules(), event.getPrerequisites())
+                | bit(TIMESTAMP, event.getTimestamp()) | bit(DESCRIPTION, event.getDescription())
+                | bit(TRIGGERED_BY, event.getTriggeredBy()) | bit(METADATA, event.getMetadata())
+                | bit(MESSAGE_ID, event.getMessageId()) | bit(CHANGES, event.getChanges());
+        encoder.body.writeVarLong(fields);
+        encoder.writeFlagFields(fields, event.getFlagName(), event.getType(), event.getValue(), event.getRules(),
+                event.getPrerequisites());
+        if ((fields & TIMESTAMP) != 0) {
+            encoder.body.writeTimestamp(event.getTimestamp());
+        }
+        if ((fields & DESCRIPTION) != 0) {
+            encoder.body.writeString(event.getDescription());
+        }
+        if ((fields & TRIGGERED_BY) != 0) {
+            encoder.body.writeString(event.getTriggeredBy());
+        }
+        if ((fields & METADATA) != 0) {
+            encoder.body.writeString(event.getMetadata());
+        }
+        if ((fields & MESSAGE_ID) != 0) {
+            encoder.writeMessageId(event.getMessageId(), event.getFlagName());
+        }
+        if ((fields & CHANGES) != 0) {
+            encoder.body.writeVarLong(event.getChanges().size());
+            for (FeatureFlagEventDTO.FlagChange change : event.getChanges()) {
+                encoder.body.writeByte(code(EVENT_TYPES, change.getEventType()));
+                int changeFields = flagFields(change.getFlagName(), change.getEnabled(), change.getType(),
+                        change.getValue(), change.getRules(), change.getPrerequisites());
+                encoder.body.writeVarLong(changeFields);
+                encoder.writeFlagFields(changeFields, change.getFlagName(), change.getType(), change.getValue(),
+                        change.getRules(), change.getPrerequisites());
+            }
+        }
+        return encoder.finish(KIND_EVENT);
+    }
+
+    public static FeatureFlagEventDTO decodeEvent(byte[] message) {
+        Decoder decoder = new Decoder(message, KIND_EVENT);
+        FeatureFlagEventDTO event = new FeatureFlagEventDTO();
+        event.setVersion(EVENT_VERSION);
+        event.setEventType(decoder.readEnum(EVENT_TYPES));
+        int fields = decoder.in.readVarInt();
+        event.setFlagName(decoder.readName(fields));
+        event.setEnabled(enabled(fields));
+        event.setType(decoder.readType(fields));
+        event.setValue(decoder.readValue(fields));
+        event.setRules(decoder.readRules(fields));
+        event.setPrerequisites(decoder.readPrerequisites(fields));
+        if ((fields & TIMESTAMP) != 0) {
+            event.setTimestamp(decoder.in.readTimestamp());
+        }
+        if ((fields & DESCRIPTION) != 0) {
+            event.setDescription(decoder.in.readString());
+        }
+        if ((fields & TRIGGERED_BY) != 0) {
+            event.setTriggeredBy(decoder.in.readString());
+        }
+        if ((fields & METADATA) != 0) {
+            event.setMetadata(decoder.in.readString());
+        }
+        if ((fields & MESSAGE_ID) != 0) {
+            event.setMessageId(decoder.readMessageId(event.getFlagName()));
+        }
+        if ((fields & CHANGES) != 0) {
+            int count = decoder.in.readCount();
+            List<FeatureFlagEventDTO.FlagChange> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                FeatureFlagEventDTO.FlagChange change = new FeatureFlagEventDTO.FlagChange();
+                change.setEventType(decoder.readEnum(EVENT_TYPES));
+                int changeFields = decoder.in.readVarInt();
+                change.setFlagName(decoder.readName(changeFields));
+                change.setEnabled(enabled(changeFields));
+                change.setType(decoder.readType(changeFields));
+                change.setValue(decoder.readValue(changeFields));
+                change.setRules(decoder.readRules(changeFields));
+                change.setPrerequisites(decoder.readPrerequisites(changeFields));
+                changes.add(change);
+            }
+            event.setChanges(changes);
+        }
+        decoder.end();
+        return event;
+    }
+
+    public static byte[] encodeBatch(FeatureFlagBatchResponse response) {
+        Encoder encoder = new Encoder();
+        int fields = bit(FLAGS, response.getFlags()) | bit(RESPONSE_TIMESTAMP, response.getResponseTimestamp());
+        encoder.body.writeVarLong(fields);
+        if ((fields & FLAGS) != 0) {
+            encoder.writeFlags(response.getFlags());
+        }
+        if ((fields & RESPONSE_TIMESTAMP) != 0) {
+            encoder.body.writeTimestamp(response.getResponseTimestamp());
+        }
+        return encoder.finish(KIND_BATCH);
+    }
+
+    public static FeatureFlagBatchResponse decodeBatch(byte[] message) {
+        Decoder decoder = new Decoder(message, KIND_BATCH);
+        FeatureFlagBatchResponse response = new FeatureFlagBatchResponse();
+        int fields = decoder.in.readVarInt();
+        if ((fields & FLAGS) != 0) {
+            response.setFlags(decoder.readFlags());
+        }
+        if ((fields & RESPONSE_TIMESTAMP) != 0) {
+            response.setResponseTimestamp(decoder.in.readTimestamp());
+        }
+        decoder.end();
+        return response;
+    }
+
+    public static byte[] encodeChanges(FlagChangesResponse response) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeVarLong(response.getRevision());
+        encoder.body.writeByte(response.isFullSnapshot() ? 1 : 0);
+        int fields = bit(FLAGS, response.getFlags()) | bit(DELETED, response.getDeleted())
+                | bit(RESPONSE_TIMESTAMP, response.getResponseTimestamp());
+        encoder.body.writeVarLong(fields);
+        if ((fields & FLAGS) != 0) {
+            encoder.writeFlags(response.getFlags());
+        }
+        if ((fields & DELETED) != 0) {
+            encoder.writeNames(response.getDeleted());
+        }
+        if ((fields & RESPONSE_TIMESTAMP) != 0) {
+            encoder.body.writeTimestamp(response.getResponseTimestamp());
+        }
+        return encoder.finish(KIND_CHANGES);
+    }
+
+    public static FlagChangesResponse decodeChanges(byte[] message) {
+        Decoder decoder = new Decoder(message, KIND_CHANGES);
+        FlagChangesResponse response = new FlagChangesResponse();
+        response.setRevision(decoder.in.readVarLong());
+        response.setFullSnapshot(decoder.in.readByte() != 0);
+        int fields = decoder.in.readVarInt();
+        if ((fields & FLAGS) != 0) {
+            response.setFlags(decoder.readFlags());
+        }
+        if ((fields & DELETED) != 0) {
+            response.setDeleted(decoder.readNames());
+        }
+        if ((fields & RESPONSE_TIMESTAMP) != 0) {
+            response.setResponseTimestamp(decoder.in.readTimestamp());
+        }
+        decoder.end();
+        return response;
+    }
+
+    private static int flagFields(String name, Boolean enabled, FlagType type, JsonNode value,
+            List<TargetingRule> rules, List<String> prerequisites) {
+        return bit(NAME, name) | bit(ENABLED, enabled) | (Boolean.TRUE.equals(enabled) ? ENABLED_ON : 0)
+                | bit(TYPE, type) | (value == null || value.isNull() ? 0 : VALUE) | bit(RULES, rules)
+                | bit(PREREQUISITES, prerequisites);
+    }
+
+    private static Boolean enabled(int fields) {
+        return (fields & ENABLED) == 0 ? null : (fields & ENABLED_ON) != 0;
+    }
+
+    private static int bit(int bit, Object field) {
+        return field == null ? 0 : bit;
+    }
+
+    private static <E> int code(E[] table, E value) {
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No wire code for " + value);
+    }
+
+    /**
+     * Writes the body while collecting the name table, which goes first.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> names = new LinkedHashMap<>();
+        private final Output body = new Output(256);
+
+        void writeName(String name) {
+            Integer index = names.putIfAbsent(name, names.size());
+            body.writeVarLong(index == null ? names.size() - 1 : index);
+        }
+
+        void writeNames(List<String> list) {
+            body.writeVarLong(list.size());
+            list.forEach(this::writeName);
+        }
+
+        void writeFlagFields(int fields, String name, FlagType type, JsonNode value, List<TargetingRule> rules,
+                List<String> prerequisites) {
+            if ((fields & NAME) != 0) {
+                writeName(name);
+            }
+            if ((fields & TYPE) != 0) {
+                body.writeByte(code(FLAG_TYPES, type));
+            }
+            if ((fields & VALUE) != 0) {
+                body.writeString(value.toString());
+            }
+            if ((fields & RULES) != 0) {
+                writeRules(rules);
+            }
+            if ((fields & PREREQUISITES) != 0) {
+                writeNames(prerequisites);
+            }
+        }
+
+        void writeRules(List<TargetingRule> rules) {
+            body.writeVarLong(rules.size());
+            for (TargetingRule rule : rules) {
+                int fields = bit(SERVE, rule.getServe()) | (Boolean.TRUE.equals(rule.getServe()) ? SERVE_ON : 0)
+                        | bit(ROLLOUT, rule.getRolloutPercentage()) | bit(CONDITIONS, rule.getConditions());
+                body.writeByte(fields);
+                if ((fields & ROLLOUT) != 0) {
+                    body.writeDouble(rule.getRolloutPercentage());
+                }
+                if ((fields & CONDITIONS) != 0) {
+                    body.writeVarLong(rule.getConditions().size());
+                    for (TargetingRule.Condition condition : rule.getConditions()) {
+                        int conditionFields = bit(ATTRIBUTE, condition.getAttribute())
+                                | bit(OPERATOR, condition.getOperator()) | bit(VALUES, condition.getValues());
+                        body.writeByte(conditionFields);
+                        if ((conditionFields & ATTRIBUTE) != 0) {
+                            writeName(condition.getAttribute());
+                        }
+                        if ((conditionFields & OPERATOR) != 0) {
+                            body.writeByte(code(OPERATORS, condition.getOperator()));
+                        }
+                        if ((conditionFields & VALUES) != 0) {
+                            body.writeVarLong(condition.getValues().size());
+                            condition.getValues().forEach(body::writeString);
+                        }
+                    }
+                }
+            }
+        }
+
+        void writeFlags(Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flags) {
+            body.writeVarLong(flags.size());
+            for (Map.Entry<String, FeatureFlagBatchResponse.FeatureFlagInfo> entry : flags.entrySet()) {
+                writeName(entry.getKey());
+                FeatureFlagBatchResponse.FeatureFlagInfo info = entry.getValue();
+                int fields = flagFields(info.getName(), info.getEnabled(), info.getType(), info.getValue(),
+                        info.getRules(), info.getPrerequisites())
+                        | bit(TIMESTAMP, info.getTimestamp()) | bit(DESCRIPTION, info.getDescription());
+                body.writeVarLong(fields);
+                writeFlagFields(fields, info.getName(), info.getType(), info.getValue(), info.getRules(),
+                        info.getPrerequisites());
+                if ((fields & TIMESTAMP) != 0) {
+                    body.writeTimestamp(info.getTimestamp());
+                }
+                if ((fields & DESCRIPTION) != 0) {
+                    body.writeString(info.getDescription());
+                }
+            }
+        }
+
+        void writeMessageId(String messageId, String flagName) {
+            String prefix = flagName == null ? null : "flag-" + flagName + "-";
+            if (prefix != null && messageId.startsWith(prefix) && messageId.length() == prefix.length() + 22) {
+                // 13 digit millis, a dash and 8 hex digits
+                String millis = messageId.substring(prefix.length(), prefix.length() + 13);
+                byte[] random = hex(messageId, prefix.length() + 14, 4);
+                if (messageId.charAt(prefix.length() + 13) == '-' && random != null && isMillis(millis)) {
+                    body.writeByte(MESSAGE_ID_FLAG);
+                    body.writeVarLong(Long.parseLong(millis));
+                    body.writeBytes(random);
+                    return;
+                }
+            }
+            if (messageId.startsWith("msg-") && messageId.length() == 36) {
+                byte[] random = hex(messageId, 4, 16);
+                if (random != null) {
+                    body.writeByte(MESSAGE_ID_SIMPLE);
+                    body.writeBytes(random);
+                    return;
+                }
+            }
+            body.writeByte(MESSAGE_ID_TEXT);
+            body.writeString(messageId);
+        }
+
+        byte[] finish(byte kind) {
+            Output out = new Output(body.size + 16 * names.size() + 8);
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind);
+            out.writeVarLong(names.size());
+            names.keySet().forEach(out::writeString);
+            out.writeBytes(body.buffer, body.size);
+            return out.toByteArray();
+        }
+
+        private static boolean isMillis(String digits) {
+            if (digits.charAt(0) == '0') {
+                return false;
+            }
+            for (int i = 0; i < digits.length(); i++) {
+                if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Lowercase hex only, so the text comes back exactly as it was
+        private static byte[] hex(String text, int from, int length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                int high = Character.digit(text.charAt(from + 2 * i), 16);
+                int low = Character.digit(text.charAt(from + 2 * i + 1), 16);
+                if (high < 0 || low < 0 || Character.isUpperCase(text.charAt(from + 2 * i))
+                        || Character.isUpperCase(text.charAt(from + 2 * i + 1))) {
+                    return null;
+                }
+                bytes[i] = (byte) (high << 4 | low);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Reads the header and name table, then the body through {@link #in}.
+     */
+    private static final class Decoder {
+        private final Input in;
+        private final String[] names;
+
+        Decoder(byte[] message, byte kind) {
+            if (!isBinary(message)) {
+                throw new IllegalArgumentException("Not a binary flag message");
+            }
+            in = new Input(message);
+            in.readByte();
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported wire format version " + version);
+            }
+            int actualKind = in.readByte();
+            if (actualKind != kind) {
+                throw new IllegalArgumentException("Expected message kind " + kind + " but got " + actualKind);
+            }
+            names = new String[in.readCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readString();
+            }
+        }
+
+        String readName() {
+            int index = in.readVarInt();
+            if (index >= names.length) {
+                throw new IllegalArgumentException("Name index " + index + " outside the name table");
+            }
+            return names[index];
+        }
+
+        String readName(int fields) {
+            return (fields & NAME) == 0 ? null : readName();
+        }
+
+        List<String> readNames() {
+            int count = in.readCount();
+            List<String> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(readName());
+            }
+            return list;
+        }
+
+        <E> E readEnum(E[] table) {
+            int code = in.readByte();
+            if (code >= table.length) {
+                throw new IllegalArgumentException("Unknown wire code " + code);
+            }
+            return table[code];
+        }
+
+        FlagType readType(int fields) {
+            return (fields & TYPE) == 0 ? null : readEnum(FLAG_TYPES);
+        }
+
+        JsonNode readValue(int fields) {
+            if ((fields & VALUE) == 0) {
+                return null;
+            }
+            try {
+                return JSON.readTree(in.readString());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed flag value", e);
+            }
+        }
+
+        List<TargetingRule> readRules(int fields) {
+            if ((fields & RULES) == 0) {
+                return null;
+            }
+            int count = in.readCount();
+            List<TargetingRule> rules = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int ruleFields = in.readByte();
+                TargetingRule rule = new TargetingRule();
+                rule.setServe((ruleFields & SERVE) == 0 ? null : (ruleFields & SERVE_ON) != 0);
+                if ((ruleFields & ROLLOUT) != 0) {
+                    rule.setRolloutPercentage(in.readDouble());
+                }
+                if ((ruleFields & CONDITIONS) != 0) {
+                    int conditionCount = in.readCount();
+                    List<TargetingRule.Condition> conditions = new ArrayList<>(conditionCount);
+                    for (int j = 0; j < conditionCount; j++) {
+                        int conditionFields = in.readByte();
+                        TargetingRule.Condition condition = new TargetingRule.Condition();
+                        if ((conditionFields & ATTRIBUTE) != 0) {
+                            condition.setAttribute(readName());
+                        }
+                        if ((conditionFields & OPERATOR) != 0) {
+                            condition.setOperator(readEnum(OPERATORS));
+                        }
+                        if ((conditionFields & VALUES) != 0) {
+                            int valueCount = in.readCount();
+                            List<String> values = new ArrayList<>(valueCount);
+                            for (int k = 0; k < valueCount; k++) {
+                                values.add(in.readString());
+                            }
+                            condition.setValues(values);
+                        }
+                        conditions.add(condition);
+                    }
+                    rule.setConditions(conditions);
+                } else {
+                    rule.setConditions(null);
+                }
+                rules.add(rule);
+            }
+            return rules;
+        }
+
+        List<String> readPrerequisites(int fields) {
+            return (fields & PREREQUISITES) == 0 ? null : readNames();
+        }
+
+        Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> readFlags() {
+            int count = in.readCount();
+            Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flags = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String key = readName();
+                int fields = in.readVarInt();
+                FeatureFlagBatchResponse.FeatureFlagInfo info = new FeatureFlagBatchResponse.FeatureFlagInfo();
+                info.setName(readName(fields));
+                info.setEnabled(enabled(fields));
+                info.setType(readType(fields));
+                info.setValue(readValue(fields));
+                info.setRules(readRules(fields));
+                info.setPrerequisites(readPrerequisites(fields));
+                if ((fields & TIMESTAMP) != 0) {
+                    info.setTimestamp(in.readTimestamp());
+                }
+                if ((fields & DESCRIPTION) != 0) {
+                    info.setDescription(in.readString());
+                }
+                flags.put(key, info);
+            }
+            return flags;
+        }
+
+        String readMessageId(String flagName) {
+            int form = in.readByte();
+            switch (form) {
+                case MESSAGE_ID_FLAG:
+                    if (flagName == null) {
+                        throw new IllegalArgumentException("Flag message ID without a flag name");
+                    }
+                    long millis = in.readVarLong();
+                    return "flag-" + flagName + "-" + millis + "-" + hex(in.readBytes(4));
+                case MESSAGE_ID_SIMPLE:
+                    return "msg-" + hex(in.readBytes(16));
+                case MESSAGE_ID_TEXT:
+                    return in.readString();
+                default:
+                    throw new IllegalArgumentException("Unknown message ID form " + form);
+            }
+        }
+
+        void end() {
+            if (in.remaining() != 0) {
+                throw new IllegalArgumentException(in.remaining() + " unread bytes after the message");
+            }
+        }
+
+        private static String hex(byte[] bytes) {
+            StringBuilder text = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                text.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return text.toString();
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeBytes(bytes, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        void writeTimestamp(LocalDateTime timestamp) {
+            writeVarLong(timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        byte[] readBytes(int length) {
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int readVarInt() {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Varint " + value + " out of range");
+            }
+            return (int) value;
+        }
+
+        // A count can't exceed the bytes left, which bounds allocations on corrupt input
+        int readCount() {
+            int count = readVarInt();
+            if (count > remaining()) {
+                throw new IllegalArgumentException("Count " + count + " exceeds the message");
+            }
+            return count;
+        }
+
+        double readDouble() {
+            require(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = bits << 8 | (buffer[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int length = readCount();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        LocalDateTime readTimestamp() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(readVarLong()), ZoneOffset.UTC);
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        private void require(int length) {
+            if (remaining() < length) {
+                throw new IllegalArgumentException("Truncated flag message");
+            }
+        }
+    }
+}
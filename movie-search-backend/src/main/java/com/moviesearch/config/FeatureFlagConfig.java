@@ -1,9 +1,12 @@
 package com.moviesearch.config;
 
+import com.moviesearch.client.FlagWireFormat;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -14,9 +17,127 @@ public class FeatureFlagConfig {
     private Service service = new Service();
     private Map<String, Boolean> subscribed;
     private long refreshInterval = 300000; // 5 minutes default
+    private Snapshot snapshot = new Snapshot();
+    private LongPoll longPoll = new LongPoll();
+    private Events events = new Events();
+    private Subscription subscription = new Subscription();
+    private Segments segments = new Segments();
+    private Evaluation evaluation = new Evaluation();
+    private Telemetry telemetry = new Telemetry();
+    private Exposures exposures = new Exposures();
+    private Wire wire = new Wire();
 
     @Data
     public static class Service {
         private String url;
     }
+
+    /**
+     * Local snapshot file used to restore flag states at startup without
+     * waiting for the feature flag service.
+     */
+    @Data
+    public static class Snapshot {
+        private boolean enabled = true;
+        private String path = "data/feature-flags.snapshot";
+    }
+
+    /**
+     * Long-poll sync: the feature flag service holds each request until a
+     * subscribed flag changes, so the fixed-rate refresh only runs while
+     * long-polling is failing.
+     */
+    @Data
+    public static class LongPoll {
+        private boolean enabled = true;
+        private long timeout = 30000; // hold time requested from the server
+        private long maxBackoff = 30000; // max delay between failed polls
+    }
+
+    /**
+     * Dispatch of Redis pub/sub events: each flag maps to one partition so its
+     * events apply in order, while different flags apply in parallel.
+     */
+    @Data
+    public static class Events {
+        private int partitions = 4;
+        private int queueCapacity = 1000; // per partition and for the intake queue
+    }
+
+    /**
+     * Which flags the consumer tracks. STATIC tracks only the names under
+     * {@code subscribed}, PREFIX additionally tracks every flag whose name starts
+     * with one of {@code prefixes}, and ALL tracks every flag. The store never
+     * holds more than {@code maxFlags} flags.
+     */
+    @Data
+    public static class Subscription {
+        private Mode mode = Mode.STATIC;
+        private List<String> prefixes = new ArrayList<>();
+        private int maxFlags = 10000;
+
+        public enum Mode {
+            STATIC, PREFIX, ALL
+        }
+    }
+
+    /**
+     * Local copies of the segments referenced by targeting rules. Pending
+     * segments are fetched every {@code loadInterval} ms; a segment is not
+     * loaded when all segments together would take more than {@code maxBytes}.
+     */
+    @Data
+    public static class Segments {
+        private long maxBytes = 64L * 1024 * 1024;
+        private long loadInterval = 5000;
+    }
+
+    /**
+     * Server-side evaluation for thin clients. Results are cached per
+     * context until a flag or segment changes; the cache is emptied when it
+     * would grow beyond {@code cacheSize} contexts.
+     */
+    @Data
+    public static class Evaluation {
+        private int cacheSize = 100000;
+    }
+
+    /**
+     * Evaluation counts per flag, uploaded to the feature flag service every
+     * {@code flushInterval} ms so it can tell which flags are still used.
+     */
+    @Data
+    public static class Telemetry {
+        private boolean enabled = true;
+        private long flushInterval = 60000;
+    }
+
+    /**
+     * Keys of the users served each flag variant, added every
+     * {@code flushInterval} ms to per-day HyperLogLog sketches in Redis for
+     * the unique-user exposure counts. At most {@code maxBufferedKeys} keys
+     * are held between flushes, further users are dropped until the next.
+     */
+    @Data
+    public static class Exposures {
+        private boolean enabled = false;
+        private long flushInterval = 5000;
+        private int maxBufferedKeys = 100000;
+        private int retentionDays = 35;
+    }
+
+    /**
+     * Wire format of flag events and of batch and changes responses: 1 for
+     * JSON, 2 for the compact binary format, which subscribes to the binary
+     * event channel and asks the service for binary responses with JSON as
+     * the fallback.
+     */
+    @Data
+    public static class Wire {
+        private int version = 1;
+
+        public boolean isBinary() {
+            return version >= FlagWireFormat.VERSION;
+        }
+    }
 }
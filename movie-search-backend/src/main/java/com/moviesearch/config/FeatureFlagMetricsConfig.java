@@ -0,0 +1,80 @@
+package com.moviesearch.config;
+
+import com.moviesearch.service.EvaluationTelemetryService;
+import com.moviesearch.service.ExposureTelemetryService;
+import com.moviesearch.service.FeatureFlagConsumer;
+import com.moviesearch.service.FlagEvaluationService;
+import com.moviesearch.service.SegmentSyncService;
+import com.moviesearch.targeting.Segment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes feature flag consumer statistics as metrics.
+ */
+@Configuration
+public class FeatureFlagMetricsConfig {
+
+    @Bean
+    public MeterBinder featureFlagSubscriptionMetrics(FeatureFlagConsumer featureFlagConsumer,
+            SegmentSyncService segmentSyncService, FlagEvaluationService flagEvaluationService,
+            EvaluationTelemetryService evaluationTelemetryService, ExposureTelemetryService exposureTelemetryService) {
+        return registry -> {
+            Gauge.builder("feature_flag.subscription.tracked", featureFlagConsumer,
+                    consumer -> consumer.getSubscriptionStats().trackedFlags())
+                    .description("Feature flags held in the consumer store")
+                    .register(registry);
+            Gauge.builder("feature_flag.subscription.ignored", featureFlagConsumer,
+                    consumer -> consumer.getSubscriptionStats().ignoredUpdates())
+                    .description("Updates ignored because the flag is not subscribed")
+                    .register(registry);
+            Gauge.builder("feature_flag.subscription.rejected", featureFlagConsumer,
+                    consumer -> consumer.getSubscriptionStats().rejectedUpdates())
+                    .description("Updates rejected because the consumer store is full")
+                    .register(registry);
+            Gauge.builder("feature_flag.segments.loaded", featureFlagConsumer,
+                    consumer -> consumer.getSegments().all().stream().filter(Segment::isLoaded).count())
+                    .description("Segments referenced by targeting rules with their members loaded")
+                    .register(registry);
+            Gauge.builder("feature_flag.segments.bytes", featureFlagConsumer,
+                    consumer -> consumer.getSegments().getSizeInBytes())
+                    .description("Memory held by the members of loaded segments")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("feature_flag.segments.rejected", segmentSyncService,
+                    SegmentSyncService::getRejectedLoads)
+                    .description("Segment loads skipped because they would exceed the memory budget")
+                    .register(registry);
+            Gauge.builder("feature_flag.evaluation.cache.size", flagEvaluationService,
+                    FlagEvaluationService::getCacheSize)
+                    .description("User contexts with cached server-side evaluations")
+                    .register(registry);
+            Gauge.builder("feature_flag.evaluation.cache.hits", flagEvaluationService,
+                    FlagEvaluationService::getCacheHits)
+                    .description("Server-side evaluations answered from the cache")
+                    .register(registry);
+            Gauge.builder("feature_flag.evaluation.cache.misses", flagEvaluationService,
+                    FlagEvaluationService::getCacheMisses)
+                    .description("Server-side evaluations computed because no current result was cached")
+                    .register(registry);
+            Gauge.builder("feature_flag.telemetry.failed", evaluationTelemetryService,
+                    EvaluationTelemetryService::getFailedUploads)
+                    .description("Evaluation count uploads that failed and were retried with the next flush")
+                    .register(registry);
+            Gauge.builder("feature_flag.exposures.buffered", featureFlagConsumer,
+                    consumer -> consumer.getExposureBuffer().getBufferedKeys())
+                    .description("User keys waiting to be added to the exposure counts")
+                    .register(registry);
+            Gauge.builder("feature_flag.exposures.dropped", featureFlagConsumer,
+                    consumer -> consumer.getExposureBuffer().getDroppedKeys())
+                    .description("User keys not buffered because the exposure buffer was full")
+                    .register(registry);
+            Gauge.builder("feature_flag.exposures.failed", exposureTelemetryService,
+                    ExposureTelemetryService::getFailedFlushes)
+                    .description("Exposure flushes that failed, their users were dropped")
+                    .register(registry);
+        };
+    }
+}
@@ -2,9 +2,13 @@ package com.moviesearch.config;
 
 import feign.Logger;
 import feign.Request;
+import feign.RequestInterceptor;
 import feign.Retryer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
 
 import java.util.concurrent.TimeUnit;
 
@@ -35,4 +39,30 @@ public class FeignConfig {
                 3 // max attempts
         );
     }
+
+    /**
+     * Decodes binary flag responses; picked up by the Feign decoder through
+     * the shared message converters.
+     */
+    @Bean
+    public HttpMessageConverter<Object> flagWireMessageConverter() {
+        return new FlagWireMessageConverter();
+    }
+
+    /**
+     * Asks for binary batch and changes responses when the binary wire format
+     * is configured, with JSON as the fallback of services that don't offer it.
+     */
+    @Bean
+    public RequestInterceptor flagWireFormatInterceptor(FeatureFlagConfig featureFlagConfig) {
+        String accept = FlagWireMessageConverter.MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+        return template -> {
+            String path = template.path();
+            if (featureFlagConfig.getWire().isBinary()
+                    && (path.endsWith("/flags/batch") || path.endsWith("/flags/changes"))) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, accept);
+            }
+        };
+    }
 }
@@ -0,0 +1,57 @@
+package com.moviesearch.config;
+
+import com.moviesearch.client.FlagWireFormat;
+import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.FlagChangesResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads batch and changes responses that the feature flag service sent in
+ * wire format version 2. Never writes, so it doesn't affect this service's own
+ * responses.
+ */
+public class FlagWireMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-feature-flags",
+            Map.of("version", String.valueOf(FlagWireFormat.VERSION)));
+
+    public FlagWireMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == FeatureFlagBatchResponse.class || clazz == FlagChangesResponse.class;
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return clazz == FlagChangesResponse.class
+                    ? FlagWireFormat.decodeChanges(body)
+                    : FlagWireFormat.decodeBatch(body);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Invalid binary flag response: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Flag responses are only read in the binary wire format");
+    }
+}
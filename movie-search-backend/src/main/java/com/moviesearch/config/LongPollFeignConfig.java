@@ -0,0 +1,32 @@
+package com.moviesearch.config;
+
+import feign.Request;
+import feign.Retryer;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign configuration for the long-poll client only.
+ * Not annotated with @Configuration so these beans don't replace the defaults
+ * in {@link FeignConfig} for other clients.
+ */
+public class LongPollFeignConfig {
+
+    @Bean
+    public Request.Options longPollRequestOptions(FeatureFlagConfig featureFlagConfig) {
+        return new Request.Options(
+                5000, // connect timeout
+                TimeUnit.MILLISECONDS,
+                featureFlagConfig.getLongPoll().getTimeout() + 10000, // read timeout above the hold time
+                TimeUnit.MILLISECONDS,
+                true // follow redirects
+        );
+    }
+
+    @Bean
+    public Retryer longPollRetryer() {
+        // The poll loop handles failures with its own backoff
+        return Retryer.NEVER_RETRY;
+    }
+}
@@ -1,8 +1,13 @@
 package com.moviesearch.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviesearch.client.FlagWireFormat;
 import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.SegmentEventDTO;
 import com.moviesearch.service.FeatureFlagConsumer;
+import com.moviesearch.service.FeatureFlagEventDispatcher;
+import com.moviesearch.service.SegmentSyncService;
+import com.moviesearch.targeting.FlagValue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -11,8 +16,14 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
@@ -20,18 +31,47 @@ public class RedisMessageListenerConfig {
 
     private final FeatureFlagConsumer featureFlagConsumer;
     private final ObjectMapper objectMapper;
+    private final FeatureFlagEventDispatcher featureFlagEventDispatcher;
+    private final SegmentSyncService segmentSyncService;
+    private final FeatureFlagConfig featureFlagConfig;
 
+    /**
+     * JSON events, or the same events in the binary wire format on their own
+     * channel when that is configured.
+     */
     @Bean
     public ChannelTopic featureFlagTopic() {
+        if (featureFlagConfig.getWire().isBinary()) {
+            return new ChannelTopic("feature-flag-events:v" + FlagWireFormat.VERSION);
+        }
         return new ChannelTopic("feature-flag-events");
     }
 
+    @Bean
+    public ChannelTopic segmentTopic() {
+        return new ChannelTopic("segment-events");
+    }
+
     @Bean
     public MessageListenerAdapter featureFlagMessageListener() {
+        FeatureFlagMessageListener listener = new FeatureFlagMessageListener(featureFlagConsumer, objectMapper,
+                featureFlagEventDispatcher);
+        if (featureFlagConfig.getWire().isBinary()) {
+            MessageListenerAdapter adapter = new MessageListenerAdapter(listener, "handleBinaryMessage");
+            adapter.setSerializer(RedisSerializer.byteArray());
+            return adapter;
+        }
+        MessageListenerAdapter adapter = new MessageListenerAdapter(listener, "handleMessage");
+        // Use StringRedisSerializer to receive string messages from Redis pub/sub
+        adapter.setSerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
+        return adapter;
+    }
+
+    @Bean
+    public MessageListenerAdapter segmentMessageListener() {
         MessageListenerAdapter adapter = new MessageListenerAdapter(
-                new FeatureFlagMessageListener(featureFlagConsumer, objectMapper),
+                new SegmentMessageListener(segmentSyncService, objectMapper, featureFlagEventDispatcher),
                 "handleMessage");
-        // Use StringRedisSerializer to receive string messages from Redis pub/sub
         adapter.setSerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
         return adapter;
     }
@@ -43,7 +83,10 @@ public class RedisMessageListenerConfig {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
+        // Bounded, ordered dispatch instead of the default thread-per-message executor
+        container.setTaskExecutor(featureFlagEventDispatcher.intakeExecutor());
         container.addMessageListener(featureFlagMessageListener(), featureFlagTopic());
+        container.addMessageListener(segmentMessageListener(), segmentTopic());
 
         log.info("[REDIS] Added message listener for topic: {}", featureFlagTopic().getTopic());
         log.info("[REDIS] Message listener: {}", featureFlagMessageListener().getClass().getSimpleName());
@@ -52,25 +95,37 @@ public class RedisMessageListenerConfig {
     }
 
     /**
-     * Message listener for feature flag events using structured JSON format.
+     * Message listener for feature flag events in the structured JSON format
+     * or the binary wire format.
      */
     @Component
     public static class FeatureFlagMessageListener {
         private final FeatureFlagConsumer featureFlagConsumer;
         private final ObjectMapper objectMapper;
+        private final FeatureFlagEventDispatcher featureFlagEventDispatcher;
 
-        public FeatureFlagMessageListener(FeatureFlagConsumer featureFlagConsumer, ObjectMapper objectMapper) {
+        public FeatureFlagMessageListener(FeatureFlagConsumer featureFlagConsumer, ObjectMapper objectMapper,
+                FeatureFlagEventDispatcher featureFlagEventDispatcher) {
             this.featureFlagConsumer = featureFlagConsumer;
             this.objectMapper = objectMapper;
+            this.featureFlagEventDispatcher = featureFlagEventDispatcher;
         }
 
         /**
          * Handle incoming feature flag event messages.
-         * Expects JSON format with structured event data.
+         * Expects JSON format with structured event data. Parsing happens on the
+         * intake thread; the event is then applied on its flag's partition.
          */
         public void handleMessage(String message) {
             log.info("[PUB/SUB] Received Redis message: {}", message);
 
+            // Skip events for unsubscribed flags without a full JSON parse
+            String flagName = peekFlagName(message);
+            if (flagName != null && !featureFlagConsumer.acceptsFlag(flagName)) {
+                log.debug("[PUB/SUB] Skipping event for unsubscribed flag '{}'", flagName);
+                return;
+            }
+
             try {
                 log.info("[PUB/SUB] Starting to parse JSON message...");
                 // Parse JSON message to structured event
@@ -79,10 +134,7 @@ public class RedisMessageListenerConfig {
                         "[PUB/SUB] Successfully parsed event: flagName={}, eventType={}, enabled={}, timestamp={}, messageId={}",
                         event.getFlagName(), event.getEventType(), event.getEnabled(), event.getTimestamp(),
                         event.getMessageId());
-
-                log.info("[PUB/SUB] Starting to process event...");
-                processEvent(event);
-                log.info("[PUB/SUB] Successfully processed event for flag: {}", event.getFlagName());
+                dispatchEvent(event);
             } catch (Exception e) {
                 log.error("[PUB/SUB] Error processing feature flag event message: {}", e.getMessage(), e);
                 // Consider implementing dead letter queue for failed messages
@@ -90,6 +142,106 @@ public class RedisMessageListenerConfig {
             }
         }
 
+        /**
+         * Handle incoming feature flag events in the binary wire format. A
+         * JSON message that still arrives on the channel is handled as such.
+         */
+        public void handleBinaryMessage(byte[] message) {
+            if (!FlagWireFormat.isBinary(message)) {
+                handleMessage(new String(message, StandardCharsets.UTF_8));
+                return;
+            }
+            try {
+                FeatureFlagEventDTO event = FlagWireFormat.decodeEvent(message);
+                log.debug("[PUB/SUB] Decoded {} byte binary event: flagName={}, eventType={}, messageId={}",
+                        message.length, event.getFlagName(), event.getEventType(), event.getMessageId());
+                if (event.getEventType() != FeatureFlagEventDTO.EventType.BULK
+                        && !featureFlagConsumer.acceptsFlag(event.getFlagName())) {
+                    log.debug("[PUB/SUB] Skipping event for unsubscribed flag '{}'", event.getFlagName());
+                    return;
+                }
+                dispatchEvent(event);
+            } catch (Exception e) {
+                log.error("[PUB/SUB] Error processing binary feature flag event: {}", e.getMessage(), e);
+                handleFailedMessage(Base64.getEncoder().encodeToString(message), e);
+            }
+        }
+
+        private void dispatchEvent(FeatureFlagEventDTO event) {
+            if (event.getEventType() == FeatureFlagEventDTO.EventType.BULK) {
+                dispatchBulkEvent(event);
+                return;
+            }
+
+            featureFlagEventDispatcher.dispatch(event.getFlagName(), () -> processEvent(event));
+            log.debug("[PUB/SUB] Dispatched event for flag: {}", event.getFlagName());
+        }
+
+        /**
+         * Dispatch the subscribed changes of an aggregated event. Changes are
+         * grouped by partition and each group is applied in one step.
+         */
+        private void dispatchBulkEvent(FeatureFlagEventDTO event) {
+            if (event.getChanges() == null || event.getChanges().isEmpty()) {
+                log.warn("[PUB/SUB] Ignoring bulk event without changes, messageId {}", event.getMessageId());
+                return;
+            }
+
+            // Later changes to the same flag win
+            Map<String, FeatureFlagEventDTO.FlagChange> changes = new LinkedHashMap<>();
+            for (FeatureFlagEventDTO.FlagChange change : event.getChanges()) {
+                if (featureFlagConsumer.acceptsFlag(change.getFlagName())) {
+                    changes.put(change.getFlagName(), change);
+                }
+            }
+            if (changes.isEmpty()) {
+                log.debug("[PUB/SUB] Bulk event {} has no subscribed flags", event.getMessageId());
+                return;
+            }
+
+            featureFlagEventDispatcher.dispatchAll(changes.keySet(), flagNames -> {
+                Map<String, FeatureFlagEventDTO.FlagChange> partitionChanges = new LinkedHashMap<>();
+                flagNames.forEach(flagName -> partitionChanges.put(flagName, changes.get(flagName)));
+                featureFlagConsumer.applyFlagChanges(partitionChanges, event.getMessageId());
+            });
+            log.info("[PUB/SUB] Dispatched bulk event {} with {} subscribed changes", event.getMessageId(),
+                    changes.size());
+        }
+
+        /**
+         * Extract the flag name from a raw event message without parsing the
+         * whole JSON document. Returns null when the name can't be read cheaply
+         * (missing or containing escapes), in which case the full parse decides.
+         */
+        static String peekFlagName(String message) {
+            // Aggregated events carry a flag name per change, which must not be
+            // mistaken for the event's own flag
+            if (message == null || message.contains("\"changes\":[")) {
+                return null;
+            }
+            int key = message.indexOf("\"flagName\"");
+            if (key < 0) {
+                return null;
+            }
+            int start = message.indexOf(':', key + 10);
+            if (start < 0) {
+                return null;
+            }
+            start++;
+            while (start < message.length() && Character.isWhitespace(message.charAt(start))) {
+                start++;
+            }
+            if (start >= message.length() || message.charAt(start) != '"') {
+                return null;
+            }
+            int end = message.indexOf('"', start + 1);
+            if (end < 0) {
+                return null;
+            }
+            String flagName = message.substring(start + 1, end);
+            return flagName.indexOf('\\') >= 0 ? null : flagName;
+        }
+
         /**
          * Process structured feature flag event.
          */
@@ -105,7 +257,8 @@ public class RedisMessageListenerConfig {
                                 event.getFlagName(), event.getEnabled(), event.getMessageId());
                         // Use messageId for deduplication, accept eventual consistency
                         featureFlagConsumer.updateFeatureFlag(event.getFlagName(), event.getEnabled(),
-                                event.getMessageId());
+                                event.getRules(), FlagValue.of(event.getType(), event.getValue()),
+                                event.getPrerequisites(), event.getMessageId());
                         log.info("[PUB/SUB] Successfully updated feature flag '{}' to {}",
                                 event.getFlagName(), event.getEnabled());
                     } else {
@@ -134,4 +287,32 @@ public class RedisMessageListenerConfig {
         }
     }
 
+    /**
+     * Message listener for segment membership deltas. Events of one segment
+     * are applied in order on the partition of its name.
+     */
+    public static class SegmentMessageListener {
+        private final SegmentSyncService segmentSyncService;
+        private final ObjectMapper objectMapper;
+        private final FeatureFlagEventDispatcher featureFlagEventDispatcher;
+
+        public SegmentMessageListener(SegmentSyncService segmentSyncService, ObjectMapper objectMapper,
+                FeatureFlagEventDispatcher featureFlagEventDispatcher) {
+            this.segmentSyncService = segmentSyncService;
+            this.objectMapper = objectMapper;
+            this.featureFlagEventDispatcher = featureFlagEventDispatcher;
+        }
+
+        public void handleMessage(String message) {
+            try {
+                SegmentEventDTO event = objectMapper.readValue(message, SegmentEventDTO.class);
+                log.debug("[PUB/SUB] Received segment {} event for '{}' at version {}", event.getEventType(),
+                        event.getSegmentName(), event.getVersion());
+                featureFlagEventDispatcher.dispatch("segment:" + event.getSegmentName(),
+                        () -> segmentSyncService.applyEvent(event));
+            } catch (Exception e) {
+                log.error("[PUB/SUB] Error processing segment event message: {}", e.getMessage(), e);
+            }
+        }
+    }
 }
@@ -1,14 +1,18 @@
 package com.moviesearch.controller;
 
+import com.moviesearch.dto.FlagEvaluationRequest;
+import com.moviesearch.dto.FlagEvaluationResponse;
 import com.moviesearch.dto.MovieSearchRequest;
 import com.moviesearch.dto.MovieSearchResponse;
 import com.moviesearch.dto.MovieResponse;
+import com.moviesearch.service.FlagEvaluationService;
 import com.moviesearch.service.MovieService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +29,7 @@ import java.util.Map;
 public class MovieController {
 
         private final MovieService movieService;
+        private final FlagEvaluationService flagEvaluationService;
 
         /**
          * Search for movies
@@ -80,6 +85,22 @@ public class MovieController {
                                                                 imdbId, error.getMessage()));
         }
 
+        /**
+         * Evaluate the requested feature flags for a user context
+         */
+        @PostMapping("/flags/evaluate")
+        @Operation(summary = "Evaluate feature flags", description = "Evaluate the targeting rules of the requested feature flags, or of every feature flag, for a user context in one request")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully evaluated feature flags"),
+                        @ApiResponse(responseCode = "400", description = "Invalid user context")
+        })
+        public ResponseEntity<FlagEvaluationResponse> evaluateFeatureFlags(
+                        @Parameter(description = "User key and attributes") @Valid @RequestBody FlagEvaluationRequest request) {
+                log.debug("Feature flag evaluation request for key: {}", request.getKey());
+
+                return ResponseEntity.ok(flagEvaluationService.evaluate(request));
+        }
+
         /**
          * Get specific feature flag status
          */
@@ -0,0 +1,37 @@
+package com.moviesearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Flag evaluations counted since the previous report, one entry per evaluated
+ * flag. This is a copy of the DTO from feature-flag-backend.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationReport {
+
+    /**
+     * Largest number of flags the feature flag service accepts in one report
+     */
+    public static final int MAX_FLAGS = 1000;
+
+    private List<FlagCount> counts;
+
+    /**
+     * Evaluations of one flag per variant: on or off for the evaluated
+     * context
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlagCount {
+        private String flag;
+        private long on;
+        private long off;
+    }
+}
@@ -2,12 +2,14 @@ package com.moviesearch.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +51,31 @@ public class FeatureFlagBatchResponse {
         @JsonProperty("enabled")
         private Boolean enabled;
 
+        /**
+         * Flag type
+         */
+        @JsonProperty("type")
+        private FlagType type;
+
+        /**
+         * Value served while the flag is on, null for BOOLEAN flags
+         */
+        @JsonProperty("value")
+        private JsonNode value;
+
+        /**
+         * Ordered targeting rules, null when the flag has none
+         */
+        @JsonProperty("rules")
+        private List<TargetingRule> rules;
+
+        /**
+         * Names of flags that must be on for this flag to be on, null when
+         * it has none
+         */
+        @JsonProperty("prerequisites")
+        private List<String> prerequisites;
+
         /**
          * Last update timestamp from database
          */
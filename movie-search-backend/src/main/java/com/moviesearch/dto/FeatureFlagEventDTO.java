@@ -2,12 +2,14 @@ package com.moviesearch.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for feature flag events published to Redis pub/sub.
@@ -24,7 +26,8 @@ import java.time.LocalDateTime;
 public class FeatureFlagEventDTO {
 
     /**
-     * Event type: CREATED, UPDATED, DELETED
+     * Event type: CREATED, UPDATED, DELETED, or BULK for an aggregated set of
+     * changes
      */
     @JsonProperty("eventType")
     private EventType eventType;
@@ -47,6 +50,32 @@ public class FeatureFlagEventDTO {
     @JsonProperty("enabled")
     private Boolean enabled;
 
+    /**
+     * Type of a created or updated flag
+     */
+    @JsonProperty("type")
+    private FlagType type;
+
+    /**
+     * Value served while the flag is on, null for BOOLEAN flags
+     */
+    @JsonProperty("value")
+    private JsonNode value;
+
+    /**
+     * Ordered targeting rules of a created or updated flag, null when it has
+     * none
+     */
+    @JsonProperty("rules")
+    private List<TargetingRule> rules;
+
+    /**
+     * Prerequisite flag names of a created or updated flag, null when it has
+     * none
+     */
+    @JsonProperty("prerequisites")
+    private List<String> prerequisites;
+
     /**
      * User who triggered the event
      */
@@ -79,7 +108,68 @@ public class FeatureFlagEventDTO {
     @JsonProperty("messageId")
     private String messageId;
 
+    /**
+     * Individual flag changes of a BULK event, applied together
+     */
+    @JsonProperty("changes")
+    private List<FlagChange> changes;
+
     public enum EventType {
-        CREATED, UPDATED, DELETED
+        CREATED, UPDATED, DELETED, BULK
+    }
+
+    /**
+     * Compact flag change carried by a BULK event.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlagChange {
+
+        @JsonProperty("eventType")
+        private EventType eventType;
+
+        @JsonProperty("flagName")
+        private String flagName;
+
+        @JsonProperty("enabled")
+        private Boolean enabled;
+
+        /**
+         * Replacement targeting rules, null when the change left them as they
+         * were
+         */
+        @JsonProperty("rules")
+        private List<TargetingRule> rules;
+
+        /**
+         * Replacement type and value, null when the change left them as they
+         * were
+         */
+        @JsonProperty("type")
+        private FlagType type;
+
+        @JsonProperty("value")
+        private JsonNode value;
+
+        /**
+         * Replacement prerequisites, null when the change left them as they
+         * were
+         */
+        @JsonProperty("prerequisites")
+        private List<String> prerequisites;
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled) {
+            this(eventType, flagName, enabled, null, null, null, null);
+        }
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled, List<TargetingRule> rules) {
+            this(eventType, flagName, enabled, rules, null, null, null);
+        }
+
+        public FlagChange(EventType eventType, String flagName, Boolean enabled, List<TargetingRule> rules,
+                FlagType type, JsonNode value) {
+            this(eventType, flagName, enabled, rules, type, value, null);
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for long-polling flag changes since a known revision.
+ * This is a copy of the DTO from feature-flag-backend to maintain consistency.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagChangesRequest {
+
+    /**
+     * Feature flag names the consumer is interested in
+     */
+    @JsonProperty("flagNames")
+    private List<String> flagNames;
+
+    /**
+     * Flag name prefixes the consumer is interested in, an empty prefix matches
+     * all flags
+     */
+    @JsonProperty("prefixes")
+    private List<String> prefixes;
+
+    /**
+     * Last revision applied by the consumer, 0 for a full snapshot
+     */
+    @JsonProperty("revision")
+    private long revision;
+}
@@ -0,0 +1,54 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for long-polling flag changes.
+ * This is a copy of the DTO from feature-flag-backend to maintain consistency.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagChangesResponse {
+
+    /**
+     * Revision to send on the next poll
+     */
+    @JsonProperty("revision")
+    private long revision;
+
+    /**
+     * Whether the flags map is a full snapshot rather than a delta
+     */
+    @JsonProperty("fullSnapshot")
+    private boolean fullSnapshot;
+
+    /**
+     * Created or updated flags
+     */
+    @JsonProperty("flags")
+    private Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flags;
+
+    /**
+     * Names of requested flags that were deleted
+     */
+    @JsonProperty("deleted")
+    private List<String> deleted;
+
+    /**
+     * Response timestamp for consistency checking
+     */
+    @JsonProperty("responseTimestamp")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime responseTimestamp;
+}
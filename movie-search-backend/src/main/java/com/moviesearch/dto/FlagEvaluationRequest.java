@@ -0,0 +1,49 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request DTO for evaluating flags for one user on the server, used by
+ * clients that can't evaluate targeting rules themselves.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagEvaluationRequest {
+
+    /**
+     * Stable key of the user, used for percentage rollouts; null for
+     * anonymous users
+     */
+    @JsonProperty("key")
+    @Size(max = 256, message = "Key must not exceed 256 characters")
+    private String key;
+
+    /**
+     * Attributes targeting rules match on, such as country, plan and
+     * app_version
+     */
+    @JsonProperty("attributes")
+    @Size(max = 50, message = "At most 50 attributes are allowed")
+    private Map<String, String> attributes;
+
+    /**
+     * Names of the flags the client reads; null for all tracked flags
+     */
+    @JsonProperty("flags")
+    @Size(max = 500, message = "At most 500 flags can be requested")
+    private List<String> flags;
+
+    public FlagEvaluationRequest(String key, Map<String, String> attributes) {
+        this(key, attributes, null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Response DTO with the flag values for the requested context.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlagEvaluationResponse {
+
+    /**
+     * Value of each requested flag for the context, or of every flag tracked
+     * by this service when the request named none
+     */
+    @JsonProperty("flags")
+    private Map<String, Boolean> flags;
+
+    /**
+     * Revision of the flags and segments the values were computed from; a
+     * different revision means some flag may have changed
+     */
+    @JsonProperty("revision")
+    private long revision;
+}
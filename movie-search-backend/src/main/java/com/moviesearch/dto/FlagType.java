@@ -0,0 +1,9 @@
+package com.moviesearch.dto;
+
+/**
+ * Type of the value a flag serves while it is on.
+ * This is a copy of the enum from feature-flag-backend to maintain consistency.
+ */
+public enum FlagType {
+    BOOLEAN, STRING, NUMBER, JSON
+}
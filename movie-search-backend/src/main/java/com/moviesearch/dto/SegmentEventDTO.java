@@ -0,0 +1,54 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for segment events received from Redis pub/sub. Membership changes carry
+ * the added and removed user IDs as serialized Roaring bitmaps.
+ * This is a copy of the DTO from feature-flag-backend to maintain consistency.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentEventDTO {
+
+    @JsonProperty("eventType")
+    private EventType eventType;
+
+    @JsonProperty("segmentName")
+    private String segmentName;
+
+    /**
+     * Segment version after the change
+     */
+    @JsonProperty("version")
+    private Long version;
+
+    @JsonProperty("added")
+    private byte[] added;
+
+    @JsonProperty("removed")
+    private byte[] removed;
+
+    @JsonProperty("triggeredBy")
+    private String triggeredBy;
+
+    @JsonProperty("timestamp")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime timestamp;
+
+    @JsonProperty("messageId")
+    private String messageId;
+
+    public enum EventType {
+        UPDATED, DELETED
+    }
+}
@@ -0,0 +1,25 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Segment summary from the feature flag service, used to check that a loaded
+ * segment is still at the latest version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentResponse {
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("memberCount")
+    private Long memberCount;
+
+    @JsonProperty("version")
+    private Long version;
+}
@@ -0,0 +1,56 @@
+package com.moviesearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Targeting rule of a feature flag. A rule matches a request context when all
+ * of its conditions hold and the user falls in its rollout percentage, if
+ * set; the first matching rule decides the flag's value.
+ * This is a copy of the model from feature-flag-backend to maintain
+ * consistency.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetingRule {
+
+    @JsonProperty("conditions")
+    private List<Condition> conditions;
+
+    @JsonProperty("serve")
+    private Boolean serve;
+
+    @JsonProperty("rolloutPercentage")
+    private Double rolloutPercentage;
+
+    public TargetingRule(List<Condition> conditions, Boolean serve) {
+        this(conditions, serve, null);
+    }
+
+    public enum Operator {
+        IN, NOT_IN, STARTS_WITH, VERSION_AT_LEAST, VERSION_BELOW, IN_SEGMENT, NOT_IN_SEGMENT
+    }
+
+    /**
+     * Condition on one context attribute.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Condition {
+
+        @JsonProperty("attribute")
+        private String attribute;
+
+        @JsonProperty("operator")
+        private Operator operator;
+
+        @JsonProperty("values")
+        private List<String> values;
+    }
+}
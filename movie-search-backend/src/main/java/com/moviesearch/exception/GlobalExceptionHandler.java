@@ -3,6 +3,7 @@ package com.moviesearch.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -56,6 +57,26 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(status).body(errorResponse);
         }
 
+        /**
+         * Handle request body validation failures
+         */
+        @ExceptionHandler(MethodArgumentNotValidException.class)
+        public ResponseEntity<Map<String, Object>> handleValidationException(MethodArgumentNotValidException ex) {
+                String message = ex.getBindingResult().getFieldErrors().stream()
+                                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                                .findFirst()
+                                .orElse("Invalid request");
+                log.warn("Validation error: {}", message);
+
+                Map<String, Object> errorResponse = Map.of(
+                                "error", ErrorCode.INVALID_PARAMETER.getMessage(),
+                                "message", message,
+                                "code", ErrorCode.INVALID_PARAMETER.getCode(),
+                                "timestamp", LocalDateTime.now());
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
         /**
          * Handle general exceptions
          */
@@ -0,0 +1,78 @@
+package com.moviesearch.service;
+
+import com.moviesearch.client.FeatureFlagClient;
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.EvaluationReport;
+import com.moviesearch.targeting.EvaluationCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Uploads the flag evaluations counted by {@link FeatureFlagConsumer} to the
+ * feature flag service.
+ *
+ * Every flush drains the counters and sends the flags evaluated since the
+ * previous one in reports of up to {@link EvaluationReport#MAX_FLAGS} flags,
+ * so the upload costs a request per interval however often flags are
+ * evaluated. Counts of a failed upload are put back and go out with the next
+ * flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EvaluationTelemetryService {
+
+    private final FeatureFlagClient featureFlagClient;
+    private final FeatureFlagConsumer featureFlagConsumer;
+    private final FeatureFlagConfig featureFlagConfig;
+
+    private final LongAdder failedUploads = new LongAdder();
+
+    /**
+     * Upload the evaluations counted since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${feature-flag.telemetry.flush-interval:60000}")
+    public void flush() {
+        if (!featureFlagConfig.getTelemetry().isEnabled()) {
+            return;
+        }
+        EvaluationCounters counters = featureFlagConsumer.getEvaluationCounters();
+        List<EvaluationCounters.Drained> drained = counters.drain();
+        for (int from = 0; from < drained.size(); from += EvaluationReport.MAX_FLAGS) {
+            List<EvaluationCounters.Drained> batch = drained.subList(from,
+                    Math.min(from + EvaluationReport.MAX_FLAGS, drained.size()));
+            try {
+                featureFlagClient.reportEvaluations(new EvaluationReport(batch.stream()
+                        .map(counts -> new EvaluationReport.FlagCount(counts.flagName(), counts.on(), counts.off()))
+                        .toList()));
+            } catch (Exception e) {
+                failedUploads.increment();
+                counters.restore(drained.subList(from, drained.size()));
+                log.warn("[TELEMETRY] Failed to upload evaluations of {} flags, retrying with the next flush: {}",
+                        drained.size() - from, e.getMessage());
+                return;
+            }
+        }
+        if (!drained.isEmpty()) {
+            log.debug("[TELEMETRY] Uploaded evaluations of {} flags", drained.size());
+        }
+    }
+
+    /**
+     * Upload what was counted since the last flush before shutting down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public long getFailedUploads() {
+        return failedUploads.sum();
+    }
+}
@@ -0,0 +1,107 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.targeting.ExposureBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adds the users buffered by {@link FeatureFlagConsumer} to the unique-user
+ * exposure counts in Redis.
+ *
+ * Each flag variant has a HyperLogLog sketch per UTC day, read by the
+ * feature flag service. A sketch takes at most 12 KB however many users it
+ * counts, so memory per flag and day is fixed regardless of traffic. Every
+ * flush sends the users buffered since the previous one as PFADD commands of
+ * up to {@link #BATCH_SIZE} keys in a single pipeline, with an EXPIRE per
+ * sketch so old days go away on their own. Users of a failed flush are
+ * dropped; the counts are estimates and re-buffering them would hold memory
+ * while Redis is down.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExposureTelemetryService {
+
+    // Must match the keys read by the feature flag service
+    static final String KEY_PREFIX = "feature-flag:exposures:";
+    static final int BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final FeatureFlagConsumer featureFlagConsumer;
+    private final FeatureFlagConfig featureFlagConfig;
+
+    private final LongAdder failedFlushes = new LongAdder();
+
+    /**
+     * Add the users buffered since the last flush to the sketches of the days
+     * they were served on.
+     */
+    @Scheduled(fixedDelayString = "${feature-flag.exposures.flush-interval:5000}")
+    public void flush() {
+        if (!featureFlagConfig.getExposures().isEnabled()) {
+            return;
+        }
+        List<ExposureBuffer.Drained> drained = featureFlagConsumer.getExposureBuffer().drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = Duration.ofDays(featureFlagConfig.getExposures().getRetentionDays()).toSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ExposureBuffer.Drained exposures : drained) {
+                    byte[] key = key(exposures.flagName(), exposures.variant(), exposures.day())
+                            .getBytes(StandardCharsets.UTF_8);
+                    byte[][] batch = new byte[Math.min(BATCH_SIZE, exposures.userKeys().size())][];
+                    int size = 0;
+                    for (String userKey : exposures.userKeys()) {
+                        batch[size++] = userKey.getBytes(StandardCharsets.UTF_8);
+                        if (size == batch.length) {
+                            connection.hyperLogLogCommands().pfAdd(key, batch);
+                            size = 0;
+                        }
+                    }
+                    if (size > 0) {
+                        byte[][] rest = new byte[size][];
+                        System.arraycopy(batch, 0, rest, 0, size);
+                        connection.hyperLogLogCommands().pfAdd(key, rest);
+                    }
+                    connection.keyCommands().expire(key, ttlSeconds);
+                }
+                return null;
+            });
+            log.debug("[EXPOSURES] Added users of {} flag variants", drained.size());
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.warn("[EXPOSURES] Failed to add users of {} flag variants, dropping them: {}",
+                    drained.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Add what was buffered since the last flush before shutting down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    static String key(String flagName, String variant, LocalDate day) {
+        return KEY_PREFIX + flagName + ":" + variant + ":" + day;
+    }
+}
@@ -1,13 +1,30 @@
 package com.moviesearch.service;
 
 import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.TargetingRule;
+import com.moviesearch.targeting.CompiledRules;
+import com.moviesearch.targeting.EvaluationContext;
+import com.moviesearch.targeting.EvaluationCounters;
+import com.moviesearch.targeting.ExposureBuffer;
+import com.moviesearch.targeting.FlagValue;
+import com.moviesearch.targeting.Segments;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @RequiredArgsConstructor
@@ -20,17 +37,77 @@ public class FeatureFlagConsumer {
     // Configuration for feature flag defaults
     private final FeatureFlagConfig featureFlagConfig;
 
+    // Segments referenced by targeting rules, loaded by SegmentSyncService
+    private final Segments segments = new Segments();
+
+    // Evaluations per flag and variant, uploaded by EvaluationTelemetryService
+    private final EvaluationCounters evaluationCounters = new EvaluationCounters();
+
+    // Users served each flag variant, uploaded by ExposureTelemetryService
+    private final ExposureBuffer exposureBuffer = new ExposureBuffer(this::maxBufferedExposures);
+
+    // Tracked flags naming each flag as a direct prerequisite, whether that flag is tracked or not.
+    // Guarded by graphLock, which also serializes state changes with the plan rebuilds they cause
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private final Object graphLock = new Object();
+
+    // Moves on every change to the flag store, so cached evaluations can tell they are stale
+    private final AtomicLong revision = new AtomicLong();
+
+    // Subscription statistics
+    private final LongAdder ignoredUpdates = new LongAdder();
+    private final LongAdder rejectedUpdates = new LongAdder();
+
+    /**
+     * Snapshot of subscription statistics for monitoring.
+     */
+    public record SubscriptionStats(FeatureFlagConfig.Subscription.Mode mode, int trackedFlags,
+            long ignoredUpdates, long rejectedUpdates) {
+    }
+
     /**
      * Internal state for feature flags with message deduplication support.
-     * Simplified to focus on essential functionality.
+     * Targeting rules are compiled and typed values decoded once when the
+     * state is created. A flag with prerequisites also holds its evaluation
+     * plan: the states of all its transitive prerequisites, each ordered
+     * before the flags that require it, rebuilt by the consumer whenever one
+     * of them changes.
      */
     public static class FeatureFlagState {
+        private static final FeatureFlagState[] NO_PREREQUISITES = new FeatureFlagState[0];
+        // Stands in for a missing, untracked or cyclic prerequisite, which keeps the flags needing it off
+        private static final FeatureFlagState UNAVAILABLE = new FeatureFlagState(false, null);
+
         private final boolean enabled;
+        private final CompiledRules rules;
+        private final FlagValue value;
+        private final List<String> prerequisites;
         private final String messageId;
         private final LocalDateTime lastUpdated;
+        private volatile FeatureFlagState[] plan = NO_PREREQUISITES;
+        // Set before the state is published, null when evaluations aren't counted
+        private EvaluationCounters.Counts counts;
+        // Set before the state is published, null when exposures aren't recorded
+        private ExposureBuffer.Exposures exposures;
 
         public FeatureFlagState(boolean enabled, String messageId) {
+            this(enabled, null, messageId);
+        }
+
+        public FeatureFlagState(boolean enabled, CompiledRules rules, String messageId) {
+            this(enabled, rules, null, messageId);
+        }
+
+        public FeatureFlagState(boolean enabled, CompiledRules rules, FlagValue value, String messageId) {
+            this(enabled, rules, value, null, messageId);
+        }
+
+        public FeatureFlagState(boolean enabled, CompiledRules rules, FlagValue value, List<String> prerequisites,
+                String messageId) {
             this.enabled = enabled;
+            this.rules = rules;
+            this.value = value;
+            this.prerequisites = prerequisites == null || prerequisites.isEmpty() ? null : List.copyOf(prerequisites);
             this.messageId = messageId;
             this.lastUpdated = LocalDateTime.now();
         }
@@ -39,6 +116,76 @@ public class FeatureFlagConsumer {
             return enabled;
         }
 
+        public CompiledRules getRules() {
+            return rules;
+        }
+
+        public FlagValue getValue() {
+            return value;
+        }
+
+        public List<String> getPrerequisites() {
+            return prerequisites;
+        }
+
+        FeatureFlagState[] getPlan() {
+            return plan;
+        }
+
+        /**
+         * Value for the given context: off when disabled, otherwise decided
+         * by the rules, if any, and then by the plan, which must have every
+         * prerequisite on for the context. Walks the plan without lookups or
+         * allocation.
+         */
+        public boolean evaluate(EvaluationContext context) {
+            if (!evaluateOwn(context)) {
+                return false;
+            }
+            for (FeatureFlagState prerequisite : plan) {
+                if (!prerequisite.evaluateOwn(context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Whether the flag and all of its prerequisites are enabled, ignoring
+         * targeting rules
+         */
+        public boolean isEnabledWithPrerequisites() {
+            if (!enabled) {
+                return false;
+            }
+            for (FeatureFlagState prerequisite : plan) {
+                if (!prerequisite.enabled) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean evaluateOwn(EvaluationContext context) {
+            return enabled && (rules == null || rules.evaluate(context));
+        }
+
+        private boolean counted(boolean result) {
+            EvaluationCounters.Counts counts = this.counts;
+            if (counts != null) {
+                counts.record(result);
+            }
+            return result;
+        }
+
+        private boolean counted(boolean result, EvaluationContext context) {
+            ExposureBuffer.Exposures exposures = this.exposures;
+            if (exposures != null && context.getKey() != null) {
+                exposures.record(result, context.getKey());
+            }
+            return counted(result);
+        }
+
         public String getMessageId() {
             return messageId;
         }
@@ -48,6 +195,31 @@ public class FeatureFlagConsumer {
         }
     }
 
+    /**
+     * Segments referenced by the compiled targeting rules
+     */
+    public Segments getSegments() {
+        return segments;
+    }
+
+    /**
+     * Evaluation counts of the tracked flags
+     */
+    public EvaluationCounters getEvaluationCounters() {
+        return evaluationCounters;
+    }
+
+    /**
+     * Users served each variant of the tracked flags
+     */
+    public ExposureBuffer getExposureBuffer() {
+        return exposureBuffer;
+    }
+
+    private int maxBufferedExposures() {
+        return featureFlagConfig.getExposures().getMaxBufferedKeys();
+    }
+
     /**
      * Check if maintenance mode is enabled with fallback mechanism
      */
@@ -58,12 +230,207 @@ public class FeatureFlagConsumer {
 
     /**
      * Get a specific feature flag value directly without creating a copy of all
-     * flags
+     * flags, off unless its prerequisites are enabled as well
      * Returns null if the flag doesn't exist
      */
     public Boolean getFeatureFlag(String flagName) {
         FeatureFlagState state = flagStates.get(flagName);
-        return state != null ? state.isEnabled() : null;
+        return state != null ? state.counted(state.isEnabledWithPrerequisites()) : null;
+    }
+
+    FeatureFlagState getFlagState(String flagName) {
+        return flagStates.get(flagName);
+    }
+
+    /**
+     * Evaluate a flag's targeting rules for a request context without
+     * allocating, counting the result and the user it was served to for
+     * telemetry. Returns null if the flag doesn't exist.
+     */
+    public Boolean evaluate(String flagName, EvaluationContext context) {
+        FeatureFlagState state = flagStates.get(flagName);
+        return state != null ? state.counted(state.evaluate(context), context) : null;
+    }
+
+    /**
+     * Value of a typed flag served to the context, null when the flag doesn't
+     * exist, is off for the context or has no value
+     */
+    private FlagValue servedValue(String flagName, EvaluationContext context) {
+        FeatureFlagState state = flagStates.get(flagName);
+        return state != null && state.getValue() != null && state.counted(state.evaluate(context), context)
+                ? state.getValue()
+                : null;
+    }
+
+    /**
+     * Get the int value of a NUMBER flag for a context, or the default when
+     * the flag is missing, off or doesn't hold an int. Reads don't allocate.
+     */
+    public int getInt(String flagName, EvaluationContext context, int defaultValue) {
+        FlagValue value = servedValue(flagName, context);
+        return value != null && value.isInt() ? value.intValue() : defaultValue;
+    }
+
+    public int getInt(String flagName, int defaultValue) {
+        return getInt(flagName, EvaluationContext.EMPTY, defaultValue);
+    }
+
+    /**
+     * Get the long value of a NUMBER flag for a context, or the default when
+     * the flag is missing, off or doesn't hold a long
+     */
+    public long getLong(String flagName, EvaluationContext context, long defaultValue) {
+        FlagValue value = servedValue(flagName, context);
+        return value != null && value.isLong() ? value.longValue() : defaultValue;
+    }
+
+    public long getLong(String flagName, long defaultValue) {
+        return getLong(flagName, EvaluationContext.EMPTY, defaultValue);
+    }
+
+    /**
+     * Get the value of a NUMBER flag for a context as a double, or the
+     * default when the flag is missing, off or not a number
+     */
+    public double getDouble(String flagName, EvaluationContext context, double defaultValue) {
+        FlagValue value = servedValue(flagName, context);
+        return value != null && value.isNumber() ? value.doubleValue() : defaultValue;
+    }
+
+    public double getDouble(String flagName, double defaultValue) {
+        return getDouble(flagName, EvaluationContext.EMPTY, defaultValue);
+    }
+
+    /**
+     * Get the value of a STRING flag for a context, or the default when the
+     * flag is missing, off or not a string
+     */
+    public String getString(String flagName, EvaluationContext context, String defaultValue) {
+        FlagValue value = servedValue(flagName, context);
+        return value != null && value.stringValue() != null ? value.stringValue() : defaultValue;
+    }
+
+    public String getString(String flagName, String defaultValue) {
+        return getString(flagName, EvaluationContext.EMPTY, defaultValue);
+    }
+
+    /**
+     * Get the value of a JSON flag for a context converted to the given type,
+     * or the default when the flag is missing, off or doesn't convert. The
+     * value is parsed once per update, so repeated reads return the same
+     * instance, which callers must not modify.
+     */
+    public <T> T getJson(String flagName, EvaluationContext context, Class<T> valueType, T defaultValue) {
+        FlagValue value = servedValue(flagName, context);
+        T converted = value != null ? value.jsonValue(valueType) : null;
+        return converted != null ? converted : defaultValue;
+    }
+
+    public <T> T getJson(String flagName, Class<T> valueType, T defaultValue) {
+        return getJson(flagName, EvaluationContext.EMPTY, valueType, defaultValue);
+    }
+
+    /**
+     * Evaluate every flag in the store for a request context. The result
+     * holds a value for each tracked flag, off for disabled flags. Nothing is
+     * counted, since the caller may serve only some of the values, or serve
+     * them again later; it records what it serves with {@link #recordServed}.
+     */
+    public Map<String, Boolean> evaluateAll(EvaluationContext context) {
+        Map<String, Boolean> flags = new HashMap<>(Math.max(16, flagStates.size() * 4 / 3 + 1));
+        flagStates.forEach((flagName, state) -> flags.put(flagName, state.evaluate(context)));
+        return flags;
+    }
+
+    /**
+     * Count a flag value evaluated earlier and served now, and the user it
+     * was served to
+     */
+    public void recordServed(String flagName, boolean result, EvaluationContext context) {
+        FeatureFlagState state = flagStates.get(flagName);
+        if (state != null) {
+            state.counted(result, context);
+        }
+    }
+
+    /**
+     * Revision of all evaluation inputs: changes whenever a flag or the
+     * members of a referenced segment change, so a result computed at one
+     * revision is still valid while the revision stays the same.
+     */
+    public long getRevision() {
+        return revision.get() + segments.getRevision();
+    }
+
+    /**
+     * Check whether a flag is covered by the configured subscription mode
+     */
+    public boolean isSubscribed(String flagName) {
+        if (flagName == null) {
+            return false;
+        }
+        FeatureFlagConfig.Subscription subscription = featureFlagConfig.getSubscription();
+        switch (subscription.getMode()) {
+            case ALL:
+                return true;
+            case PREFIX:
+                for (String prefix : subscription.getPrefixes()) {
+                    if (flagName.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+                return isStaticallySubscribed(flagName);
+            default:
+                return isStaticallySubscribed(flagName);
+        }
+    }
+
+    /**
+     * Check whether an update for the flag should be applied, counting it as
+     * ignored when the flag is not subscribed
+     */
+    public boolean acceptsFlag(String flagName) {
+        if (isSubscribed(flagName)) {
+            return true;
+        }
+        ignoredUpdates.increment();
+        return false;
+    }
+
+    private boolean isStaticallySubscribed(String flagName) {
+        Map<String, Boolean> subscribed = featureFlagConfig.getSubscribed();
+        return subscribed != null && subscribed.containsKey(flagName);
+    }
+
+    /**
+     * Get subscription statistics
+     */
+    public SubscriptionStats getSubscriptionStats() {
+        return new SubscriptionStats(featureFlagConfig.getSubscription().getMode(), flagStates.size(),
+                ignoredUpdates.sum(), rejectedUpdates.sum());
+    }
+
+    /**
+     * Get a point-in-time copy of all feature flag values held in memory
+     */
+    public Map<String, Boolean> getAllFeatureFlags() {
+        Map<String, Boolean> flags = new HashMap<>();
+        flagStates.forEach((flagName, state) -> flags.put(flagName, state.isEnabledWithPrerequisites()));
+        return flags;
+    }
+
+    /**
+     * Get the flag values to persist in the local snapshot. The snapshot has
+     * no rules, typed values or prerequisites, so flags with targeting rules
+     * or prerequisites are stored as off, and typed flags serve defaults,
+     * until the next sync after a restart brings them back.
+     */
+    public Map<String, Boolean> getSnapshotFeatureFlags() {
+        Map<String, Boolean> flags = new HashMap<>();
+        flagStates.forEach((flagName, state) -> flags.put(flagName,
+                state.isEnabled() && state.getRules() == null && state.getPrerequisites() == null));
+        return flags;
     }
 
     /**
@@ -80,9 +447,47 @@ public class FeatureFlagConsumer {
      * consistency
      */
     public void updateFeatureFlag(String flagName, boolean enabled, String messageId) {
+        updateFeatureFlag(flagName, enabled, null, messageId);
+    }
+
+    /**
+     * Update feature flag status and replace its targeting rules, compiling
+     * them once here so evaluations only walk the compiled form
+     */
+    public void updateFeatureFlag(String flagName, boolean enabled, List<TargetingRule> rules, String messageId) {
+        updateFeatureFlag(flagName, enabled, rules, null, messageId);
+    }
+
+    /**
+     * Update feature flag status and replace its targeting rules and typed
+     * value
+     */
+    public void updateFeatureFlag(String flagName, boolean enabled, List<TargetingRule> rules, FlagValue value,
+            String messageId) {
+        updateFeatureFlag(flagName, enabled, rules, value, null, messageId);
+    }
+
+    /**
+     * Update feature flag status and replace its targeting rules, typed value
+     * and prerequisites. The evaluation plans of the flag and of the flags
+     * depending on it are rebuilt; other plans are left as they are.
+     */
+    public void updateFeatureFlag(String flagName, boolean enabled, List<TargetingRule> rules, FlagValue value,
+            List<String> prerequisites, String messageId) {
+        applyUpdate(flagName, enabled, rules, false, value, false, prerequisites, false, messageId);
+    }
+
+    private void applyUpdate(String flagName, boolean enabled, List<TargetingRule> rules, boolean keepRules,
+            FlagValue value, boolean keepValue, List<String> prerequisites, boolean keepPrerequisites,
+            String messageId) {
         log.info("[CONSUMER] Received feature flag update '{}' to {} (messageId: {})",
                 flagName, enabled, messageId);
 
+        if (!acceptsFlag(flagName)) {
+            log.debug("[CONSUMER] Ignoring update for unsubscribed flag '{}'", flagName);
+            return;
+        }
+
         // Get current state
         FeatureFlagState currentState = flagStates.get(flagName);
         log.debug("[CONSUMER] Current state for '{}': {}", flagName,
@@ -95,9 +500,40 @@ public class FeatureFlagConsumer {
             return;
         }
 
+        // Keep the store bounded when subscribing by prefix or to all flags
+        int maxFlags = featureFlagConfig.getSubscription().getMaxFlags();
+        if (currentState == null && flagStates.size() >= maxFlags) {
+            rejectedUpdates.increment();
+            log.warn("[CONSUMER] Feature flag store is full ({} flags), not tracking '{}'", maxFlags, flagName);
+            return;
+        }
+
         // Update the flag state atomically - accept eventual consistency
-        FeatureFlagState newState = new FeatureFlagState(enabled, messageId);
-        flagStates.put(flagName, newState);
+        CompiledRules compiledRules = keepRules
+                ? (currentState != null ? currentState.getRules() : null)
+                : CompiledRules.compile(flagName, rules, segments);
+        FlagValue flagValue = keepValue
+                ? (currentState != null ? currentState.getValue() : null)
+                : value;
+        List<String> flagPrerequisites = keepPrerequisites
+                ? (currentState != null ? currentState.getPrerequisites() : null)
+                : prerequisites;
+        FeatureFlagState newState = new FeatureFlagState(enabled, compiledRules, flagValue, flagPrerequisites,
+                messageId);
+        if (featureFlagConfig.getTelemetry().isEnabled()) {
+            newState.counts = evaluationCounters.forFlag(flagName);
+        }
+        if (featureFlagConfig.getExposures().isEnabled()) {
+            newState.exposures = exposureBuffer.forFlag(flagName);
+        }
+        synchronized (graphLock) {
+            // Planned before it is published, so lock-free readers never see the flag without its prerequisites
+            link(flagName, flagStates.get(flagName), newState.getPrerequisites());
+            newState.plan = plan(flagName, newState);
+            flagStates.put(flagName, newState);
+            replanDependents(flagName);
+        }
+        revision.incrementAndGet();
 
         log.info("[CONSUMER] Successfully updated feature flag '{}' to {} (messageId: {})",
                 flagName, enabled, messageId);
@@ -105,11 +541,119 @@ public class FeatureFlagConsumer {
     }
 
     /**
-     * Remove feature flag
+     * Apply the changes of an aggregated event for the given flags, skipping
+     * flags that aren't subscribed
+     */
+    public void applyFlagChanges(Map<String, FeatureFlagEventDTO.FlagChange> changes, String messageId) {
+        changes.forEach((flagName, change) -> {
+            if (change.getEventType() == FeatureFlagEventDTO.EventType.DELETED) {
+                removeFeatureFlag(flagName);
+            } else if (change.getEnabled() != null) {
+                // Changes without rules, type or prerequisites, such as bulk toggles, keep the current ones
+                applyUpdate(flagName, change.getEnabled(), change.getRules(), change.getRules() == null,
+                        FlagValue.of(change.getType(), change.getValue()), change.getType() == null,
+                        change.getPrerequisites(), change.getPrerequisites() == null, messageId);
+            }
+        });
+        log.info("[CONSUMER] Applied {} feature flag changes from aggregated event (messageId: {})",
+                changes.size(), messageId);
+    }
+
+    /**
+     * Remove feature flag. Flags that depend on it stay tracked and are off
+     * until it comes back.
      */
     public void removeFeatureFlag(String flagName) {
         log.info("Removing feature flag '{}'", flagName);
-        flagStates.remove(flagName);
+        synchronized (graphLock) {
+            FeatureFlagState removed = flagStates.remove(flagName);
+            if (removed == null) {
+                return;
+            }
+            link(flagName, removed, null);
+            replanDependents(flagName);
+        }
+        evaluationCounters.retire(flagName);
+        exposureBuffer.retire(flagName);
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Move the flag's edges in the dependents graph from the prerequisites of
+     * its previous state to the given ones. Called under graphLock.
+     */
+    private void link(String flagName, FeatureFlagState previous, List<String> prerequisites) {
+        if (previous != null && previous.getPrerequisites() != null) {
+            for (String prerequisite : previous.getPrerequisites()) {
+                Set<String> names = dependents.get(prerequisite);
+                if (names != null && names.remove(flagName) && names.isEmpty()) {
+                    dependents.remove(prerequisite);
+                }
+            }
+        }
+        if (prerequisites != null) {
+            for (String prerequisite : prerequisites) {
+                dependents.computeIfAbsent(prerequisite, name -> new HashSet<>()).add(flagName);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the plans of every tracked flag depending on the flag, directly
+     * or through others, since their plans hold its replaced state. The flag's
+     * own plan is built before its state is published. Called under
+     * graphLock.
+     */
+    private void replanDependents(String flagName) {
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        queue.add(flagName);
+        seen.add(flagName);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            for (String dependent : dependents.getOrDefault(name, Set.of())) {
+                if (seen.add(dependent)) {
+                    FeatureFlagState state = flagStates.get(dependent);
+                    if (state != null) {
+                        state.plan = plan(dependent, state);
+                    }
+                    queue.add(dependent);
+                }
+            }
+        }
+    }
+
+    private FeatureFlagState[] plan(String flagName, FeatureFlagState state) {
+        if (state.getPrerequisites() == null) {
+            return FeatureFlagState.NO_PREREQUISITES;
+        }
+        Map<String, FeatureFlagState> ordered = new LinkedHashMap<>();
+        Set<String> visiting = new HashSet<>();
+        visiting.add(flagName);
+        for (String prerequisite : state.getPrerequisites()) {
+            visit(prerequisite, visiting, ordered);
+        }
+        return ordered.values().toArray(new FeatureFlagState[0]);
+    }
+
+    // Depth first, adding each prerequisite after its own ones; a cycle back to a flag still being visited
+    // leaves that flag unavailable, which keeps the whole cycle off
+    private void visit(String flagName, Set<String> visiting, Map<String, FeatureFlagState> ordered) {
+        if (ordered.containsKey(flagName)) {
+            return;
+        }
+        FeatureFlagState state = flagStates.get(flagName);
+        if (state == null || !visiting.add(flagName)) {
+            ordered.put(flagName, FeatureFlagState.UNAVAILABLE);
+            return;
+        }
+        if (state.getPrerequisites() != null) {
+            for (String prerequisite : state.getPrerequisites()) {
+                visit(prerequisite, visiting, ordered);
+            }
+        }
+        visiting.remove(flagName);
+        ordered.putIfAbsent(flagName, state);
     }
 
     /**
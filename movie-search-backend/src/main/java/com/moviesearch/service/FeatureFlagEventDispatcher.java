@@ -0,0 +1,173 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded dispatcher for feature flag pub/sub events.
+ *
+ * Messages from the Redis listener container are handed to a single intake
+ * thread (preserving arrival order), which routes each event to a partition
+ * chosen by flag name. Every partition is a single worker thread with a
+ * bounded queue, so events for the same flag are applied serially and in
+ * order while different flags are applied in parallel. A full partition
+ * blocks the intake thread; a full intake queue drops the message, leaving
+ * the periodic sync to reconcile.
+ */
+@Component
+@Slf4j
+public class FeatureFlagEventDispatcher {
+
+    private final ThreadPoolExecutor intakeExecutor;
+    private final ThreadPoolExecutor[] partitions;
+    private final Timer dispatchLatency;
+    private final Counter rejectedMessages;
+
+    public FeatureFlagEventDispatcher(FeatureFlagConfig featureFlagConfig, MeterRegistry meterRegistry) {
+        FeatureFlagConfig.Events events = featureFlagConfig.getEvents();
+        int partitionCount = Math.max(1, events.getPartitions());
+        int queueCapacity = Math.max(1, events.getQueueCapacity());
+
+        this.intakeExecutor = newSingleThreadExecutor("flag-event-intake", queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = newSingleThreadExecutor("flag-event-partition-" + i, queueCapacity,
+                    FeatureFlagEventDispatcher::blockUntilQueued);
+        }
+
+        this.dispatchLatency = Timer.builder("feature_flag.events.dispatch.latency")
+                .description("Time from receiving a flag event to starting to apply it")
+                .register(meterRegistry);
+        this.rejectedMessages = Counter.builder("feature_flag.events.rejected")
+                .description("Flag event messages dropped because the intake queue was full")
+                .register(meterRegistry);
+        Gauge.builder("feature_flag.events.queue.depth", this, FeatureFlagEventDispatcher::getQueueDepth)
+                .description("Flag events waiting in the intake and partition queues")
+                .register(meterRegistry);
+
+        log.info("Feature flag event dispatcher started with {} partitions (queue capacity {})",
+                partitionCount, queueCapacity);
+    }
+
+    private static ThreadPoolExecutor newSingleThreadExecutor(String threadName, int queueCapacity,
+            RejectedExecutionHandler rejectedExecutionHandler) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectedExecutionHandler);
+    }
+
+    /**
+     * Apply back-pressure to the intake thread instead of reordering or
+     * dropping events once a partition queue is full.
+     */
+    private static void blockUntilQueued(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Feature flag event dispatcher is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing feature flag event", e);
+        }
+    }
+
+    /**
+     * Task executor for the Redis listener container. Messages are processed
+     * on the single intake thread in arrival order.
+     */
+    public TaskExecutor intakeExecutor() {
+        return task -> {
+            try {
+                intakeExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejectedMessages.increment();
+                log.error("[PUB/SUB] Intake queue full, dropping feature flag event message");
+            }
+        };
+    }
+
+    /**
+     * Apply an event for the given flag on the flag's partition, after all
+     * previously dispatched events for the same flag.
+     */
+    public void dispatch(String flagName, Runnable task) {
+        submit(partitionIndex(flagName), "flag '" + flagName + "'", task);
+    }
+
+    /**
+     * Apply an event covering several flags. The flags are grouped by
+     * partition and each group is applied in one task on its partition, so
+     * ordering with earlier single-flag events is kept.
+     */
+    public void dispatchAll(Collection<String> flagNames, Consumer<List<String>> task) {
+        Map<Integer, List<String>> namesByPartition = new TreeMap<>();
+        for (String flagName : flagNames) {
+            namesByPartition.computeIfAbsent(partitionIndex(flagName), index -> new ArrayList<>()).add(flagName);
+        }
+        namesByPartition.forEach((index, names) ->
+                submit(index, names.size() + " flags", () -> task.accept(names)));
+    }
+
+    private void submit(int partition, String description, Runnable task) {
+        long receivedAt = System.nanoTime();
+        partitions[partition].execute(() -> {
+            dispatchLatency.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("[PUB/SUB] Error applying feature flag event for {}: {}", description,
+                        e.getMessage(), e);
+            }
+        });
+    }
+
+    int partitionIndex(String flagName) {
+        int hash = flagName != null ? flagName.hashCode() : 0;
+        return Math.floorMod(hash, partitions.length);
+    }
+
+    /**
+     * Number of events waiting to be parsed or applied.
+     */
+    public int getQueueDepth() {
+        int depth = intakeExecutor.getQueue().size();
+        for (ThreadPoolExecutor partition : partitions) {
+            depth += partition.getQueue().size();
+        }
+        return depth;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        intakeExecutor.shutdown();
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the applied feature flag states to a small local file so the
+ * consumer can restore them at startup before the feature flag service is
+ * reachable.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int   magic           "FFSN"
+ * short format version
+ * short reserved
+ * long  written at (epoch millis)
+ * int   entry count
+ * int   payload length
+ * int   CRC32 of payload
+ * ...   payload: [short name length][name UTF-8 bytes][byte enabled] per entry
+ * </pre>
+ *
+ * Writes go to a temporary file that is fsynced and atomically moved over the
+ * previous snapshot, so a crash mid-write never leaves a half-written file in
+ * place. Reads memory-map the file and fall back to an empty result when the
+ * file is missing, truncated, of an unknown version or fails the checksum.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeatureFlagSnapshotStore {
+
+    static final int MAGIC = 0x4646534E; // "FFSN"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 28;
+
+    private final FeatureFlagConfig featureFlagConfig;
+
+    /**
+     * Load the last persisted snapshot.
+     * Returns an empty map if the snapshot is disabled, missing or corrupted.
+     */
+    public Map<String, Boolean> load() {
+        if (!featureFlagConfig.getSnapshot().isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        Path path = snapshotPath();
+        if (!Files.exists(path)) {
+            log.info("No local feature flag snapshot found at {}", path);
+            return Collections.emptyMap();
+        }
+
+        long startTime = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                log.warn("Ignoring truncated feature flag snapshot {} ({} bytes)", path, size);
+                return Collections.emptyMap();
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Map<String, Boolean> flags = decode(buffer);
+            if (flags == null) {
+                log.warn("Ignoring corrupted feature flag snapshot {}", path);
+                return Collections.emptyMap();
+            }
+
+            log.info("Loaded {} feature flags from local snapshot in {}us", flags.size(),
+                    (System.nanoTime() - startTime) / 1000);
+            return flags;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read feature flag snapshot {}: {}", path, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Persist the given flag states, replacing the previous snapshot atomically.
+     * Failures are logged and never propagated to the caller.
+     */
+    public synchronized void save(Map<String, Boolean> flags) {
+        if (!featureFlagConfig.getSnapshot().isEnabled() || flags == null) {
+            return;
+        }
+
+        Path path = snapshotPath();
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            ByteBuffer buffer = encode(flags);
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("Saved {} feature flags to local snapshot {}", flags.size(), path);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to save feature flag snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path snapshotPath() {
+        return Paths.get(featureFlagConfig.getSnapshot().getPath());
+    }
+
+    static ByteBuffer encode(Map<String, Boolean> flags) {
+        int payloadLength = 0;
+        Map<byte[], Boolean> encoded = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> entry : flags.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (name.length > Short.MAX_VALUE) {
+                continue;
+            }
+            encoded.put(name, entry.getValue());
+            payloadLength += Short.BYTES + name.length + 1;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        encoded.forEach((name, enabled) -> {
+            payload.putShort((short) name.length);
+            payload.put(name);
+            payload.put((byte) (enabled ? 1 : 0));
+        });
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadLength);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(encoded.size());
+        buffer.putInt(payloadLength);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode a snapshot buffer, returning null when it fails validation.
+     */
+    static Map<String, Boolean> decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        short version = buffer.getShort();
+        if (version != FORMAT_VERSION) {
+            log.warn("Unsupported feature flag snapshot version: {}", version);
+            return null;
+        }
+        buffer.getShort(); // reserved
+        buffer.getLong(); // written at
+        int entryCount = buffer.getInt();
+        int payloadLength = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (entryCount < 0 || payloadLength < 0 || payloadLength != buffer.remaining()) {
+            return null;
+        }
+
+        ByteBuffer payload = buffer.slice();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        Map<String, Boolean> flags = new LinkedHashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            byte[] name = new byte[payload.getShort()];
+            payload.get(name);
+            flags.put(new String(name, StandardCharsets.UTF_8), payload.get() != 0);
+        }
+        return payload.hasRemaining() ? null : flags;
+    }
+}
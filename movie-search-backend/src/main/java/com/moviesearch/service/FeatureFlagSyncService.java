@@ -1,8 +1,14 @@
 package com.moviesearch.service;
 
+import com.moviesearch.client.FeatureFlagLongPollClient;
 import com.moviesearch.dto.FeatureFlagBatchResponse;
 import com.moviesearch.client.FeatureFlagClient;
 import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.FlagChangesRequest;
+import com.moviesearch.dto.FlagChangesResponse;
+import com.moviesearch.targeting.FlagValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -12,6 +18,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -19,17 +26,58 @@ import java.util.Map;
 public class FeatureFlagSyncService {
 
     private final FeatureFlagClient featureFlagClient;
+    private final FeatureFlagLongPollClient featureFlagLongPollClient;
     private final FeatureFlagConfig featureFlagConfig;
     private final FeatureFlagConsumer featureFlagConsumer;
+    private final FeatureFlagSnapshotStore featureFlagSnapshotStore;
+
+    // Last revision applied from the long-poll endpoint, 0 requests a full snapshot
+    private volatile long revision;
+    private volatile boolean longPollHealthy;
+    private volatile boolean running;
+    private Thread longPollThread;
+
+    /**
+     * Restore the last applied flag states from the local snapshot before the
+     * web server starts accepting requests.
+     */
+    @PostConstruct
+    public void restoreLocalSnapshot() {
+        Map<String, Boolean> snapshot = featureFlagSnapshotStore.load();
+        snapshot.forEach(featureFlagConsumer::updateFeatureFlag);
+        if (!snapshot.isEmpty()) {
+            log.info("Restored feature flags from local snapshot: {}", snapshot.keySet());
+        }
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     public void initializeSubscribedFlags() {
-        log.info("Initializing subscribed feature flags via Feign batch fetch...");
-        refreshSubscribedFlags();
+        if (featureFlagConfig.getLongPoll().isEnabled()) {
+            log.info("Initializing subscribed feature flags via long-poll sync...");
+            startLongPolling();
+        } else {
+            log.info("Initializing subscribed feature flags via Feign batch fetch in background...");
+            CompletableFuture.runAsync(this::refreshSubscribedFlags);
+        }
     }
 
+    /**
+     * Fixed-rate refresh of all subscribed flags. Skipped while long-polling is
+     * healthy: revisions are shared by all backend replicas, so the poll loop
+     * delivers every change whichever replica it reaches.
+     */
     @Scheduled(fixedRateString = "${feature-flag.refresh-interval:300000}")
     public void refreshSubscribedFlags() {
+        if (longPollHealthy) {
+            log.debug("Long-poll sync is healthy; skipping fixed-rate refresh");
+            return;
+        }
+
+        if (featureFlagConfig.getSubscription().getMode() != FeatureFlagConfig.Subscription.Mode.STATIC) {
+            refreshSubscribedSnapshot();
+            return;
+        }
+
         Map<String, Boolean> subscribedFlags = featureFlagConfig.getSubscribed();
         if (subscribedFlags == null || subscribedFlags.isEmpty()) {
             log.debug("No subscribed feature flags configured; skipping refresh");
@@ -47,12 +95,155 @@ public class FeatureFlagSyncService {
             // Update only subscribed flags into local cache
             response.getFlags().forEach((name, flagInfo) -> {
                 if (flagInfo.getEnabled() != null) {
-                    featureFlagConsumer.updateFeatureFlag(name, flagInfo.getEnabled());
+                    featureFlagConsumer.updateFeatureFlag(name, flagInfo.getEnabled(), flagInfo.getRules(),
+                            FlagValue.of(flagInfo.getType(), flagInfo.getValue()), flagInfo.getPrerequisites(), null);
                 }
             });
             log.info("Refreshed subscribed feature flags: {}", response.getFlags().keySet());
+
+            // Persist the applied snapshot for the next startup
+            featureFlagSnapshotStore.save(featureFlagConsumer.getSnapshotFeatureFlags());
         } catch (Exception e) {
             log.error("Error refreshing subscribed feature flags via Feign: {}", e.getMessage());
         }
     }
+
+    /**
+     * Fetch a full snapshot of all flags matching the subscription. Used for
+     * prefix and all-flag subscriptions, whose names aren't known up front.
+     */
+    private void refreshSubscribedSnapshot() {
+        try {
+            FlagChangesRequest request = buildChangesRequest(0);
+            applyFlagChanges(request, featureFlagLongPollClient.pollFlagChanges(0, request));
+        } catch (Exception e) {
+            log.error("Error refreshing subscribed feature flag snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Describe the subscription to the feature flag service: explicit names plus
+     * name prefixes, where an empty prefix selects all flags.
+     */
+    FlagChangesRequest buildChangesRequest(long sinceRevision) {
+        Map<String, Boolean> subscribedFlags = featureFlagConfig.getSubscribed();
+        List<String> flagNames = subscribedFlags == null ? List.of() : List.copyOf(subscribedFlags.keySet());
+        FeatureFlagConfig.Subscription subscription = featureFlagConfig.getSubscription();
+        List<String> prefixes = switch (subscription.getMode()) {
+            case PREFIX -> List.copyOf(subscription.getPrefixes());
+            case ALL -> List.of("");
+            default -> List.of();
+        };
+        return new FlagChangesRequest(flagNames, prefixes, sinceRevision);
+    }
+
+    private synchronized void startLongPolling() {
+        FlagChangesRequest request = buildChangesRequest(0);
+        if (running || (request.getFlagNames().isEmpty() && request.getPrefixes().isEmpty())) {
+            return;
+        }
+        running = true;
+        longPollThread = new Thread(this::runLongPollLoop, "feature-flag-long-poll");
+        longPollThread.setDaemon(true);
+        longPollThread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stopLongPolling() {
+        running = false;
+        if (longPollThread != null) {
+            longPollThread.interrupt();
+        }
+    }
+
+    private void runLongPollLoop() {
+        int consecutiveFailures = 0;
+        while (running) {
+            try {
+                pollFlagChanges();
+                longPollHealthy = true;
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                longPollHealthy = false;
+                consecutiveFailures++;
+                long backoff = Math.min(featureFlagConfig.getLongPoll().getMaxBackoff(),
+                        1000L << Math.min(consecutiveFailures - 1, 10));
+                log.warn("Long-poll for feature flag changes failed ({} in a row), retrying in {}ms: {}",
+                        consecutiveFailures, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a single long-poll round trip and apply the returned deltas.
+     */
+    void pollFlagChanges() {
+        FlagChangesRequest request = buildChangesRequest(revision);
+        applyFlagChanges(request, featureFlagLongPollClient.pollFlagChanges(
+                featureFlagConfig.getLongPoll().getTimeout(), request));
+    }
+
+    private void applyFlagChanges(FlagChangesRequest request, FlagChangesResponse response) {
+        if (response == null) {
+            throw new IllegalStateException("Empty long-poll response");
+        }
+        if (response.isFullSnapshot()) {
+            removeFlagsMissingFromSnapshot(request, response);
+        }
+
+        boolean changed = false;
+        if (response.getFlags() != null) {
+            for (FeatureFlagBatchResponse.FeatureFlagInfo flagInfo : response.getFlags().values()) {
+                if (flagInfo.getName() != null && flagInfo.getEnabled() != null) {
+                    featureFlagConsumer.updateFeatureFlag(flagInfo.getName(), flagInfo.getEnabled(),
+                            flagInfo.getRules(), FlagValue.of(flagInfo.getType(), flagInfo.getValue()),
+                            flagInfo.getPrerequisites(), null);
+                    changed = true;
+                }
+            }
+        }
+        if (response.getDeleted() != null) {
+            for (String flagName : response.getDeleted()) {
+                featureFlagConsumer.removeFeatureFlag(flagName);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            log.info("Applied feature flag {} at revision {}: updated={}, deleted={}",
+                    response.isFullSnapshot() ? "snapshot" : "delta", response.getRevision(),
+                    response.getFlags() != null ? response.getFlags().keySet() : List.of(), response.getDeleted());
+            featureFlagSnapshotStore.save(featureFlagConsumer.getSnapshotFeatureFlags());
+        }
+        revision = response.getRevision();
+    }
+
+    /**
+     * Drop held flags of the requested selection that a full snapshot no
+     * longer contains, since flags deleted while this consumer was behind
+     * aren't in the change log it missed.
+     */
+    private void removeFlagsMissingFromSnapshot(FlagChangesRequest request, FlagChangesResponse response) {
+        Map<String, ?> snapshotFlags = response.getFlags() != null ? response.getFlags() : Map.of();
+        List<String> deleted = response.getDeleted() != null ? response.getDeleted() : List.of();
+        for (String flagName : featureFlagConsumer.getAllFeatureFlags().keySet()) {
+            boolean selected = request.getFlagNames().contains(flagName)
+                    || request.getPrefixes().stream().anyMatch(flagName::startsWith);
+            if (selected && !snapshotFlags.containsKey(flagName) && !deleted.contains(flagName)) {
+                log.info("Removing feature flag '{}' missing from the snapshot at revision {}", flagName,
+                        response.getRevision());
+                featureFlagConsumer.removeFeatureFlag(flagName);
+            }
+        }
+    }
+
+    long getRevision() {
+        return revision;
+    }
 }
@@ -0,0 +1,132 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.FlagEvaluationRequest;
+import com.moviesearch.dto.FlagEvaluationResponse;
+import com.moviesearch.targeting.EvaluationContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates all flags for a user context on behalf of clients that can't run
+ * targeting rules, such as the frontend.
+ *
+ * Results are cached per normalized context, which makes repeated requests of
+ * the same user a map lookup. Each result carries the consumer revision it was
+ * computed at and is recomputed once a flag or segment changes, so flag
+ * updates are visible on the next request without explicit invalidation.
+ *
+ * Evaluations and exposures are counted per served response, cache hits
+ * included, and only for the flags in the response. Clients should name the flags they read, so
+ * flags nobody reads are reported as unevaluated; a request without names is
+ * served, and counted, for every tracked flag.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlagEvaluationService {
+
+    private final FeatureFlagConsumer featureFlagConsumer;
+    private final FeatureFlagConfig featureFlagConfig;
+
+    private final ConcurrentMap<ContextKey, CachedFlags> cache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * Context with null attributes dropped, equal for requests that evaluate
+     * the same way regardless of attribute order.
+     */
+    private record ContextKey(String key, Map<String, String> attributes) {
+    }
+
+    private record CachedFlags(Map<String, Boolean> flags, long revision) {
+    }
+
+    /**
+     * Evaluate the requested flags, or every tracked flag, for the context of
+     * the request.
+     */
+    public FlagEvaluationResponse evaluate(FlagEvaluationRequest request) {
+        ContextKey contextKey = normalize(request);
+
+        // Read the revision first: a change during evaluation leaves the result stale, not wrong
+        long revision = featureFlagConsumer.getRevision();
+        CachedFlags cached = cache.get(contextKey);
+        if (cached != null && cached.revision() == revision) {
+            cacheHits.increment();
+            return served(request, cached.flags(), contextKey, revision);
+        }
+        cacheMisses.increment();
+
+        Map<String, Boolean> flags = Collections.unmodifiableMap(featureFlagConsumer.evaluateAll(context(contextKey)));
+
+        // Stale entries are overwritten on use, so bound the cache by emptying it when full
+        if (cached == null && cache.size() >= featureFlagConfig.getEvaluation().getCacheSize()) {
+            log.debug("[EVALUATION] Cache holds {} contexts, clearing it", cache.size());
+            cache.clear();
+        }
+        cache.put(contextKey, new CachedFlags(flags, revision));
+        return served(request, flags, contextKey, revision);
+    }
+
+    /**
+     * Pick the requested flags from all evaluated ones and count them, and
+     * the user, as served.
+     */
+    private FlagEvaluationResponse served(FlagEvaluationRequest request, Map<String, Boolean> allFlags,
+            ContextKey contextKey, long revision) {
+        Map<String, Boolean> flags = allFlags;
+        if (request.getFlags() != null) {
+            flags = new HashMap<>();
+            for (String flagName : request.getFlags()) {
+                Boolean value = allFlags.get(flagName);
+                if (value != null) {
+                    flags.put(flagName, value);
+                }
+            }
+        }
+        EvaluationContext context = EvaluationContext.builder().key(contextKey.key()).build();
+        flags.forEach((flagName, value) -> featureFlagConsumer.recordServed(flagName, value, context));
+        return new FlagEvaluationResponse(flags, revision);
+    }
+
+    private static EvaluationContext context(ContextKey contextKey) {
+        EvaluationContext.Builder context = EvaluationContext.builder();
+        contextKey.attributes().forEach(context::attribute);
+        return context.key(contextKey.key()).build();
+    }
+
+    private static ContextKey normalize(FlagEvaluationRequest request) {
+        Map<String, String> attributes = new HashMap<>();
+        if (request.getAttributes() != null) {
+            request.getAttributes().forEach((name, value) -> {
+                // The key attribute always holds the user key, as in EvaluationContext
+                if (name != null && value != null && !EvaluationContext.KEY_ATTRIBUTE.equals(name)) {
+                    attributes.put(name, value);
+                }
+            });
+        }
+        return new ContextKey(request.getKey(), Map.copyOf(attributes));
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+}
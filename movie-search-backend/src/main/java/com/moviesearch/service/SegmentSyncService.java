@@ -0,0 +1,160 @@
+package com.moviesearch.service;
+
+import com.moviesearch.client.FeatureFlagClient;
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.SegmentEventDTO;
+import com.moviesearch.dto.SegmentResponse;
+import com.moviesearch.targeting.Segment;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the local copies of the segments referenced by targeting rules in
+ * step with the feature flag service.
+ *
+ * Segments are fetched in full, as a compressed bitmap, when a rule first
+ * refers to them and whenever a delta was missed. Between those loads, deltas
+ * from pub/sub are applied in version order, so membership changes cost the
+ * size of the change rather than the segment. A periodic version check
+ * catches deltas lost while pub/sub was down.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentSyncService {
+
+    static final String SEGMENT_VERSION_HEADER = "X-Segment-Version";
+
+    private final FeatureFlagClient featureFlagClient;
+    private final FeatureFlagConsumer featureFlagConsumer;
+    private final FeatureFlagConfig featureFlagConfig;
+
+    // Loads skipped because they would exceed the memory budget
+    private final LongAdder rejectedLoads = new LongAdder();
+    // Segments over budget are only retried by the periodic version check
+    private final Set<String> overBudget = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Apply a segment event. Segments that no rule refers to are ignored; a
+     * delta that doesn't follow the loaded version marks the segment for a
+     * full load.
+     */
+    public void applyEvent(SegmentEventDTO event) {
+        Segment segment = featureFlagConsumer.getSegments().find(event.getSegmentName());
+        if (segment == null) {
+            log.debug("[SEGMENTS] Ignoring event for unreferenced segment '{}'", event.getSegmentName());
+            return;
+        }
+
+        if (event.getEventType() == SegmentEventDTO.EventType.DELETED) {
+            segment.clear();
+            log.info("[SEGMENTS] Segment '{}' was deleted, treating it as empty", segment.getName());
+            return;
+        }
+
+        if (event.getVersion() == null
+                || !segment.applyDelta(event.getVersion(), deserialize(event.getAdded()),
+                        deserialize(event.getRemoved()))) {
+            log.info("[SEGMENTS] Segment '{}' is at version {} and can't apply delta {}, reloading",
+                    segment.getName(), segment.getVersion(), event.getVersion());
+            segment.markStale();
+            return;
+        }
+        log.debug("[SEGMENTS] Applied delta to segment '{}', now at version {} with {} members",
+                segment.getName(), segment.getVersion(), segment.getMemberCount());
+    }
+
+    /**
+     * Load segments that rules started referring to or that missed a delta.
+     */
+    @Scheduled(fixedDelayString = "${feature-flag.segments.load-interval:5000}")
+    public void loadPendingSegments() {
+        for (Segment segment : featureFlagConsumer.getSegments().all()) {
+            if (segment.needsLoad() && !overBudget.contains(segment.getName())) {
+                loadSegment(segment);
+            }
+        }
+    }
+
+    /**
+     * Reload loaded segments whose version moved on without a delta reaching
+     * this consumer, and retry segments that were over budget.
+     */
+    @Scheduled(fixedRateString = "${feature-flag.refresh-interval:300000}")
+    public void verifySegmentVersions() {
+        overBudget.clear();
+        for (Segment segment : featureFlagConsumer.getSegments().all()) {
+            if (segment.needsLoad()) {
+                continue;
+            }
+            try {
+                SegmentResponse latest = featureFlagClient.getSegment(segment.getName());
+                if (latest.getVersion() != null && latest.getVersion() != segment.getVersion()) {
+                    segment.markStale();
+                    loadSegment(segment);
+                }
+            } catch (FeignException.NotFound e) {
+                segment.clear();
+            } catch (Exception e) {
+                log.warn("[SEGMENTS] Failed to check version of segment '{}': {}", segment.getName(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    void loadSegment(Segment segment) {
+        try {
+            ResponseEntity<byte[]> response = featureFlagClient.getSegmentMembers(segment.getName());
+            String version = response.getHeaders().getFirst(SEGMENT_VERSION_HEADER);
+            RoaringBitmap members = deserialize(response.getBody());
+
+            long maxBytes = featureFlagConfig.getSegments().getMaxBytes();
+            long otherBytes = featureFlagConsumer.getSegments().getSizeInBytes() - segment.getSizeInBytes();
+            if (otherBytes + members.getLongSizeInBytes() > maxBytes) {
+                rejectedLoads.increment();
+                overBudget.add(segment.getName());
+                log.warn("[SEGMENTS] Not loading segment '{}' with {} members: {} bytes would exceed the {} byte budget",
+                        segment.getName(), members.getLongCardinality(), members.getLongSizeInBytes(), maxBytes);
+                return;
+            }
+
+            segment.replace(members, version != null ? Long.parseLong(version) : 0);
+            log.info("[SEGMENTS] Loaded segment '{}' at version {}: {} members in {} bytes", segment.getName(),
+                    segment.getVersion(), segment.getMemberCount(), segment.getSizeInBytes());
+        } catch (FeignException.NotFound e) {
+            // Unknown segments are empty until created, which the version check notices
+            segment.clear();
+            log.warn("[SEGMENTS] Segment '{}' doesn't exist, treating it as empty", segment.getName());
+        } catch (Exception e) {
+            log.error("[SEGMENTS] Failed to load segment '{}': {}", segment.getName(), e.getMessage());
+        }
+    }
+
+    public long getRejectedLoads() {
+        return rejectedLoads.sum();
+    }
+
+    private static RoaringBitmap deserialize(byte[] serialized) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (serialized == null || serialized.length == 0) {
+            return bitmap;
+        }
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(serialized));
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt segment bitmap", e);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,349 @@
+package com.moviesearch.targeting;
+
+import com.moviesearch.dto.TargetingRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Targeting rules of one flag compiled into matchers, so each evaluation only
+ * walks prebuilt arrays: no parsing, no boxing and no allocation.
+ *
+ * Rules are checked in order and the first rule whose conditions all match
+ * decides the value; when none matches the flag is off. Compilation drops
+ * rules that can never match (unknown operators, no valid version, a 0%
+ * rollout) and every rule after one that matches everyone.
+ *
+ * A rule with a rollout percentage only matches users whose bucket falls
+ * below it. The bucket is a murmur3 hash of the flag name and the user key
+ * mapped to 0-9999, so a user keeps their bucket for the flag and raising
+ * the percentage only adds users, lowering it only removes them. Different
+ * flags bucket users independently. Contexts without a key are in no
+ * partial rollout.
+ */
+public final class CompiledRules {
+
+    // Up to this many values a linear scan beats hashing the attribute
+    static final int LINEAR_SCAN_MAX_VALUES = 8;
+
+    // Rollout buckets, so percentages resolve to 0.01%
+    static final int ROLLOUT_BUCKETS = 10_000;
+
+    private final Matcher[][] conditions;
+    private final boolean[] serve;
+
+    private CompiledRules(Matcher[][] conditions, boolean[] serve) {
+        this.conditions = conditions;
+        this.serve = serve;
+    }
+
+    /**
+     * Compile the ordered rules of a flag. Returns null when there are no
+     * rules, meaning the flag's enabled state applies to everyone. The flag
+     * name salts the rollout buckets.
+     */
+    public static CompiledRules compile(String flagName, List<TargetingRule> rules) {
+        return compile(flagName, rules, null);
+    }
+
+    /**
+     * Compile the ordered rules of a flag, registering the segments they refer
+     * to. Without a segment registry, segment conditions never match.
+     */
+    public static CompiledRules compile(String flagName, List<TargetingRule> rules, Segments segments) {
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        int salt = Murmur3.hashChars(0, flagName);
+        List<Matcher[]> compiledConditions = new ArrayList<>(rules.size());
+        List<Boolean> compiledServe = new ArrayList<>(rules.size());
+        for (TargetingRule rule : rules) {
+            if (rule == null || rule.getServe() == null) {
+                continue;
+            }
+            Matcher[] matchers = compileConditions(rule.getConditions(), segments);
+            if (matchers == null) {
+                continue;
+            }
+            if (rule.getRolloutPercentage() != null) {
+                int threshold = (int) Math.round(rule.getRolloutPercentage() * (ROLLOUT_BUCKETS / 100));
+                if (threshold <= 0) {
+                    continue;
+                }
+                if (threshold < ROLLOUT_BUCKETS) {
+                    // Checked last, after the cheaper attribute conditions
+                    matchers = Arrays.copyOf(matchers, matchers.length + 1);
+                    matchers[matchers.length - 1] = new RolloutMatcher(salt, threshold);
+                }
+            }
+            compiledConditions.add(matchers);
+            compiledServe.add(rule.getServe());
+            if (matchers.length == 0) {
+                break;
+            }
+        }
+
+        boolean[] serve = new boolean[compiledServe.size()];
+        for (int i = 0; i < serve.length; i++) {
+            serve[i] = compiledServe.get(i);
+        }
+        return new CompiledRules(compiledConditions.toArray(new Matcher[0][]), serve);
+    }
+
+    /**
+     * Returns null when one of the conditions can never match.
+     */
+    private static Matcher[] compileConditions(List<TargetingRule.Condition> conditions, Segments segments) {
+        if (conditions == null) {
+            return new Matcher[0];
+        }
+        Matcher[] matchers = new Matcher[conditions.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = compileCondition(conditions.get(i), segments);
+            if (matchers[i] == null) {
+                return null;
+            }
+        }
+        return matchers;
+    }
+
+    private static Matcher compileCondition(TargetingRule.Condition condition, Segments segments) {
+        if (condition == null || condition.getAttribute() == null || condition.getOperator() == null
+                || condition.getValues() == null) {
+            return null;
+        }
+        String attribute = condition.getAttribute();
+        String[] values = condition.getValues().stream()
+                .filter(value -> value != null)
+                .distinct()
+                .toArray(String[]::new);
+        switch (condition.getOperator()) {
+            case IN:
+                return values.length == 0 ? null : new InMatcher(attribute, values, false);
+            case NOT_IN:
+                return new InMatcher(attribute, values, true);
+            case STARTS_WITH:
+                return values.length == 0 ? null : new StartsWithMatcher(attribute, values);
+            case VERSION_AT_LEAST:
+                long minimum = lowestVersion(values);
+                return minimum == Versions.NOT_A_VERSION ? null : new VersionMatcher(attribute, minimum, true);
+            case VERSION_BELOW:
+                long limit = highestVersion(values);
+                return limit == Versions.NOT_A_VERSION ? null : new VersionMatcher(attribute, limit, false);
+            case IN_SEGMENT:
+            case NOT_IN_SEGMENT:
+                if (segments == null || values.length == 0) {
+                    return null;
+                }
+                Segment[] referenced = new Segment[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    referenced[i] = segments.register(values[i]);
+                }
+                return new SegmentMatcher(attribute, referenced,
+                        condition.getOperator() == TargetingRule.Operator.NOT_IN_SEGMENT);
+            default:
+                return null;
+        }
+    }
+
+    // Any of several versions satisfies "at least", so the lowest one decides
+    private static long lowestVersion(String[] values) {
+        long lowest = Versions.NOT_A_VERSION;
+        for (String value : values) {
+            long version = Versions.parse(value);
+            if (version != Versions.NOT_A_VERSION && (lowest == Versions.NOT_A_VERSION || version < lowest)) {
+                lowest = version;
+            }
+        }
+        return lowest;
+    }
+
+    private static long highestVersion(String[] values) {
+        long highest = Versions.NOT_A_VERSION;
+        for (String value : values) {
+            highest = Math.max(highest, Versions.parse(value));
+        }
+        return highest;
+    }
+
+    /**
+     * Value of the first matching rule, or false when no rule matches.
+     */
+    public boolean evaluate(EvaluationContext context) {
+        for (int i = 0; i < conditions.length; i++) {
+            if (matchesAll(conditions[i], context)) {
+                return serve[i];
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAll(Matcher[] matchers, EvaluationContext context) {
+        for (Matcher matcher : matchers) {
+            if (!matcher.matches(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of rules left after compilation.
+     */
+    public int size() {
+        return conditions.length;
+    }
+
+    private interface Matcher {
+        boolean matches(EvaluationContext context);
+    }
+
+    /**
+     * IN and NOT_IN; a missing attribute is in no list.
+     */
+    private static final class InMatcher implements Matcher {
+        private final String attribute;
+        private final String[] values;
+        private final Set<String> valueSet;
+        private final boolean negate;
+
+        InMatcher(String attribute, String[] values, boolean negate) {
+            this.attribute = attribute;
+            this.values = values;
+            this.valueSet = values.length > LINEAR_SCAN_MAX_VALUES ? new HashSet<>(List.of(values)) : null;
+            this.negate = negate;
+        }
+
+        @Override
+        public boolean matches(EvaluationContext context) {
+            String value = context.get(attribute);
+            boolean found = value != null && contains(value);
+            return found != negate;
+        }
+
+        private boolean contains(String value) {
+            if (valueSet != null) {
+                return valueSet.contains(value);
+            }
+            for (String candidate : values) {
+                if (candidate.equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class StartsWithMatcher implements Matcher {
+        private final String attribute;
+        private final String[] prefixes;
+
+        StartsWithMatcher(String attribute, String[] prefixes) {
+            this.attribute = attribute;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public boolean matches(EvaluationContext context) {
+            String value = context.get(attribute);
+            if (value == null) {
+                return false;
+            }
+            for (String prefix : prefixes) {
+                if (value.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * VERSION_AT_LEAST and VERSION_BELOW on the version parsed when the
+     * context was built.
+     */
+    private static final class VersionMatcher implements Matcher {
+        private final String attribute;
+        private final long threshold;
+        private final boolean atLeast;
+
+        VersionMatcher(String attribute, long threshold, boolean atLeast) {
+            this.attribute = attribute;
+            this.threshold = threshold;
+            this.atLeast = atLeast;
+        }
+
+        @Override
+        public boolean matches(EvaluationContext context) {
+            EvaluationContext.Attribute value = context.attribute(attribute);
+            if (value == null || value.version == Versions.NOT_A_VERSION) {
+                return false;
+            }
+            return atLeast ? value.version >= threshold : value.version < threshold;
+        }
+    }
+
+    /**
+     * IN_SEGMENT and NOT_IN_SEGMENT on the user ID parsed when the context
+     * was built. Membership of a loaded segment decides either operator, but
+     * NOT_IN_SEGMENT only matches once all its segments are loaded, so a
+     * consumer that just started never targets users by mistake.
+     */
+    private static final class SegmentMatcher implements Matcher {
+        private final String attribute;
+        private final Segment[] segments;
+        private final boolean negate;
+
+        SegmentMatcher(String attribute, Segment[] segments, boolean negate) {
+            this.attribute = attribute;
+            this.segments = segments;
+            this.negate = negate;
+        }
+
+        @Override
+        public boolean matches(EvaluationContext context) {
+            EvaluationContext.Attribute value = context.attribute(attribute);
+            long userId = value != null ? value.userId : -1;
+            boolean complete = true;
+            for (Segment segment : segments) {
+                if (!segment.isLoaded()) {
+                    complete = false;
+                } else if (userId >= 0 && segment.contains((int) userId)) {
+                    return !negate;
+                }
+            }
+            return negate && complete;
+        }
+    }
+
+    /**
+     * Partial rollout: matches users whose bucket is below the threshold.
+     */
+    private static final class RolloutMatcher implements Matcher {
+        private final int salt;
+        private final int threshold;
+
+        RolloutMatcher(int salt, int threshold) {
+            this.salt = salt;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean matches(EvaluationContext context) {
+            String key = context.getKey();
+            return key != null && bucket(salt, key) < threshold;
+        }
+    }
+
+    /**
+     * Bucket 0-9999 of a user key, scaling the unsigned hash instead of
+     * taking a remainder so buckets stay evenly sized.
+     */
+    static int bucket(int salt, String key) {
+        long hash = Murmur3.hashChars(salt, key) & 0xFFFFFFFFL;
+        return (int) ((hash * ROLLOUT_BUCKETS) >>> 32);
+    }
+}
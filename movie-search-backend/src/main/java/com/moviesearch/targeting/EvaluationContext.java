@@ -0,0 +1,111 @@
+package com.moviesearch.targeting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Attributes of the user and request a flag is evaluated for, such as
+ * country, plan and app_version. A context is built once per request and
+ * shared by all flag evaluations of that request. Values that look like
+ * versions or numeric user IDs are parsed when the context is built, so
+ * evaluating targeting rules against it never allocates.
+ */
+public final class EvaluationContext {
+
+    /**
+     * Attribute name under which the user key is also available to rules.
+     */
+    public static final String KEY_ATTRIBUTE = "key";
+
+    public static final EvaluationContext EMPTY = builder().build();
+
+    private final String key;
+    private final Map<String, Attribute> attributes;
+
+    private EvaluationContext(String key, Map<String, Attribute> attributes) {
+        this.key = key;
+        this.attributes = attributes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Stable key of the user, or null for anonymous requests.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Value of the attribute, or null when the context doesn't have it.
+     */
+    public String get(String name) {
+        Attribute attribute = attributes.get(name);
+        return attribute != null ? attribute.value : null;
+    }
+
+    Attribute attribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Attribute value with its parsed version and user ID, each -1 when the
+     * value isn't one.
+     */
+    static final class Attribute {
+        final String value;
+        final long version;
+        final long userId;
+
+        Attribute(String value) {
+            this.value = value;
+            this.version = Versions.parse(value);
+            this.userId = parseUserId(value);
+        }
+    }
+
+    // Segment members are unsigned 32-bit user IDs written in decimal
+    private static long parseUserId(String value) {
+        if (value.isEmpty() || value.length() > 10) {
+            return -1;
+        }
+        long userId = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            userId = userId * 10 + (c - '0');
+        }
+        return userId <= 0xFFFFFFFFL ? userId : -1;
+    }
+
+    public static final class Builder {
+        private String key;
+        private final Map<String, Attribute> attributes = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder key(String key) {
+            this.key = key;
+            return attribute(KEY_ATTRIBUTE, key);
+        }
+
+        /**
+         * Set an attribute; null names or values leave the attribute unset.
+         */
+        public Builder attribute(String name, String value) {
+            if (name != null && value != null) {
+                attributes.put(name, new Attribute(value));
+            }
+            return this;
+        }
+
+        public EvaluationContext build() {
+            return new EvaluationContext(key, Map.copyOf(attributes));
+        }
+    }
+}
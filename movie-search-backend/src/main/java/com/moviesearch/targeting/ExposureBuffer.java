@@ -0,0 +1,186 @@
+package com.moviesearch.targeting;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Keys of the users each flag variant was served to since the buffer was
+ * last drained, for the unique-user exposure counts.
+ *
+ * Keys are deduplicated per flag, variant and UTC day until drained, so a
+ * user who evaluates a flag on every request is uploaded once per flush, and
+ * a repeat evaluation only looks the key up. Each key is stamped with the day
+ * it was served on, so users buffered before midnight count for that day even
+ * when they are drained after it. At most a fixed number of keys is buffered;
+ * keys beyond it are dropped and counted. Exposure counts are estimates, so a
+ * key added while its set is being drained may be lost.
+ */
+public final class ExposureBuffer {
+
+    public static final String ON = "on";
+    public static final String OFF = "off";
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final IntSupplier maxKeys;
+    private final LongSupplier clock;
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentMap<String, Exposures> exposures = new ConcurrentHashMap<>();
+    // Exposures of removed flags, drained once more so their last users are uploaded
+    private final Queue<Exposures> retired = new ConcurrentLinkedQueue<>();
+    // Users of days that have ended since the last drain
+    private final Queue<Day> ended = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Users served each variant of one flag on one UTC day.
+     */
+    private static final class Day {
+        private final String flagName;
+        private final long epochDay;
+        private volatile Set<String> on = ConcurrentHashMap.newKeySet();
+        private volatile Set<String> off = ConcurrentHashMap.newKeySet();
+
+        private Day(String flagName, long epochDay) {
+            this.flagName = flagName;
+            this.epochDay = epochDay;
+        }
+    }
+
+    /**
+     * Users served each variant of one flag.
+     */
+    public final class Exposures {
+        private final String flagName;
+        private volatile Day current;
+
+        private Exposures(String flagName) {
+            this.flagName = flagName;
+            this.current = new Day(flagName, today());
+        }
+
+        public void record(boolean result, String userKey) {
+            Day day = current;
+            long today = today();
+            if (day.epochDay < today) {
+                day = startDay(day, today);
+            }
+            Set<String> userKeys = result ? day.on : day.off;
+            if (userKeys.contains(userKey)) {
+                return;
+            }
+            if (buffered.get() >= maxKeys.getAsInt()) {
+                dropped.increment();
+                return;
+            }
+            if (userKeys.add(userKey)) {
+                buffered.incrementAndGet();
+            }
+        }
+
+        private synchronized Day startDay(Day seen, long today) {
+            Day day = current;
+            if (day == seen) {
+                ended.add(day);
+                day = new Day(flagName, today);
+                current = day;
+            }
+            return day;
+        }
+    }
+
+    /**
+     * Users served one variant of a flag on a UTC day, taken from the buffer.
+     */
+    public record Drained(String flagName, String variant, LocalDate day, Set<String> userKeys) {
+    }
+
+    /**
+     * Create a buffer holding at most the given number of keys, read when a
+     * new key is added so it follows configuration changes.
+     */
+    public ExposureBuffer(IntSupplier maxKeys) {
+        this(maxKeys, System::currentTimeMillis);
+    }
+
+    ExposureBuffer(IntSupplier maxKeys, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * The exposures of this flag, created on first use.
+     */
+    public Exposures forFlag(String flagName) {
+        return exposures.computeIfAbsent(flagName, Exposures::new);
+    }
+
+    /**
+     * Stop tracking a removed flag; the users it was served to so far are
+     * still drained.
+     */
+    public void retire(String flagName) {
+        Exposures removed = exposures.remove(flagName);
+        if (removed != null) {
+            retired.add(removed);
+        }
+    }
+
+    /**
+     * Take the users of every flag variant served since the last drain,
+     * leaving out variants served to nobody.
+     */
+    public List<Drained> drain() {
+        List<Drained> drained = new ArrayList<>();
+        for (Day day = ended.poll(); day != null; day = ended.poll()) {
+            drain(day, drained);
+        }
+        for (Exposures flagExposures : exposures.values()) {
+            drain(flagExposures.current, drained);
+        }
+        for (Exposures flagExposures = retired.poll(); flagExposures != null; flagExposures = retired.poll()) {
+            drain(flagExposures.current, drained);
+        }
+        return drained;
+    }
+
+    public int getBufferedKeys() {
+        return buffered.get();
+    }
+
+    public long getDroppedKeys() {
+        return dropped.sum();
+    }
+
+    private long today() {
+        return Math.floorDiv(clock.getAsLong(), MILLIS_PER_DAY);
+    }
+
+    private void drain(Day day, List<Drained> drained) {
+        if (!day.on.isEmpty()) {
+            Set<String> userKeys = day.on;
+            day.on = ConcurrentHashMap.newKeySet();
+            take(day, ON, userKeys, drained);
+        }
+        if (!day.off.isEmpty()) {
+            Set<String> userKeys = day.off;
+            day.off = ConcurrentHashMap.newKeySet();
+            take(day, OFF, userKeys, drained);
+        }
+    }
+
+    private void take(Day day, String variant, Set<String> userKeys, List<Drained> drained) {
+        buffered.addAndGet(-userKeys.size());
+        drained.add(new Drained(day.flagName, variant, LocalDate.ofEpochDay(day.epochDay), userKeys));
+    }
+}
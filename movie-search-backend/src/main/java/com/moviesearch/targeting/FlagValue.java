@@ -0,0 +1,131 @@
+package com.moviesearch.targeting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviesearch.dto.FlagType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Value a typed flag serves while it is on, decoded once when the flag is
+ * updated so reads never parse: numbers are kept as primitives, strings as
+ * they are, and JSON as a parsed tree whose conversion to the caller's type
+ * is done on first use and reused until the next update replaces the value.
+ */
+@Slf4j
+public final class FlagValue {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final FlagType type;
+    private final String stringValue;
+    private final long longValue;
+    private final double doubleValue;
+    private final boolean integral;
+    private final JsonNode json;
+
+    // Last conversion of the JSON value, a failed one is kept as null
+    private volatile Converted converted;
+
+    private record Converted(Class<?> type, Object value) {
+    }
+
+    private FlagValue(FlagType type, JsonNode value) {
+        this.type = type;
+        this.stringValue = type == FlagType.STRING ? value.textValue() : null;
+        this.integral = type == FlagType.NUMBER && value.canConvertToExactIntegral() && value.canConvertToLong();
+        this.longValue = integral ? value.longValue() : 0L;
+        this.doubleValue = type == FlagType.NUMBER ? value.doubleValue() : 0.0;
+        this.json = type == FlagType.JSON ? value : null;
+    }
+
+    /**
+     * Decode the value of a flag. Returns null for BOOLEAN flags and for
+     * values that don't match the type, which then read as the default.
+     */
+    public static FlagValue of(FlagType type, JsonNode value) {
+        if (type == null || type == FlagType.BOOLEAN || value == null || value.isNull()) {
+            return null;
+        }
+        boolean matches = switch (type) {
+            case STRING -> value.isTextual();
+            case NUMBER -> value.isNumber();
+            case JSON -> value.isContainerNode();
+            default -> false;
+        };
+        if (!matches) {
+            log.warn("Ignoring {} flag value of node type {}", type, value.getNodeType());
+            return null;
+        }
+        return new FlagValue(type, value);
+    }
+
+    public FlagType getType() {
+        return type;
+    }
+
+    /**
+     * Whether the value is a number that fits an int without loss
+     */
+    public boolean isInt() {
+        return integral && longValue == (int) longValue;
+    }
+
+    /**
+     * Whether the value is a number that fits a long without loss
+     */
+    public boolean isLong() {
+        return integral;
+    }
+
+    public boolean isNumber() {
+        return type == FlagType.NUMBER;
+    }
+
+    public int intValue() {
+        return (int) longValue;
+    }
+
+    public long longValue() {
+        return longValue;
+    }
+
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * The string of a STRING flag, null for other types
+     */
+    public String stringValue() {
+        return stringValue;
+    }
+
+    /**
+     * The JSON value converted to the given type, or null when the flag
+     * isn't JSON or the value doesn't convert. The conversion is cached for
+     * the last requested type.
+     */
+    public <T> T jsonValue(Class<T> valueType) {
+        if (json == null) {
+            return null;
+        }
+        Converted current = converted;
+        if (current == null || current.type() != valueType) {
+            current = new Converted(valueType, convert(valueType));
+            converted = current;
+        }
+        return valueType.cast(current.value());
+    }
+
+    private Object convert(Class<?> valueType) {
+        if (valueType.isInstance(json)) {
+            return json;
+        }
+        try {
+            return OBJECT_MAPPER.treeToValue(json, valueType);
+        } catch (Exception e) {
+            log.warn("Flag value can't be read as {}: {}", valueType.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.moviesearch.targeting;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copy of one user segment, shared by every compiled rule that refers
+ * to it. Membership checks read an immutable bitmap through a volatile
+ * field: a delta is applied to a copy that then replaces the current members,
+ * so checks never lock and never see a half-applied change.
+ *
+ * A segment starts unloaded, which proves neither membership nor its
+ * absence, until its members arrive. A deleted or unknown segment is loaded
+ * and empty.
+ */
+public final class Segment {
+
+    private static final Members UNLOADED = new Members(new RoaringBitmap(), -1);
+
+    private final String name;
+    // Shared by all segments of a registry, counts membership changes
+    private final AtomicLong revision;
+    private volatile Members members = UNLOADED;
+    private volatile boolean stale;
+
+    private record Members(RoaringBitmap bitmap, long version) {
+    }
+
+    Segment(String name, AtomicLong revision) {
+        this.name = name;
+        this.revision = revision;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isLoaded() {
+        return members != UNLOADED;
+    }
+
+    /**
+     * Version of the loaded members, -1 while unloaded and 0 when the
+     * segment doesn't exist.
+     */
+    public long getVersion() {
+        return members.version();
+    }
+
+    /**
+     * Whether the members must be fetched: never loaded, or a delta was
+     * missed. A stale segment keeps serving its last members meanwhile.
+     */
+    public boolean needsLoad() {
+        return stale || !isLoaded();
+    }
+
+    public void markStale() {
+        stale = true;
+    }
+
+    public long getMemberCount() {
+        return members.bitmap().getLongCardinality();
+    }
+
+    public long getSizeInBytes() {
+        return isLoaded() ? members.bitmap().getLongSizeInBytes() : 0;
+    }
+
+    /**
+     * Membership of an unsigned 32-bit user ID.
+     */
+    boolean contains(int userId) {
+        return members.bitmap().contains(userId);
+    }
+
+    /**
+     * Replace all members, unless a newer version is already loaded.
+     */
+    public synchronized void replace(RoaringBitmap bitmap, long version) {
+        if (isLoaded() && version < members.version()) {
+            return;
+        }
+        bitmap.runOptimize();
+        members = new Members(bitmap, version);
+        stale = false;
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Empty the segment after it was deleted or found missing, at version 0
+     * so that it is reloaded once it is created again.
+     */
+    public synchronized void clear() {
+        members = new Members(new RoaringBitmap(), 0);
+        stale = false;
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Apply the delta that moved the segment to the given version. Returns
+     * false, leaving the members as they are, when the delta doesn't follow
+     * the loaded version; older deltas are ignored, gaps need a full load.
+     */
+    public synchronized boolean applyDelta(long version, RoaringBitmap added, RoaringBitmap removed) {
+        Members current = members;
+        if (isLoaded() && version <= current.version()) {
+            return true;
+        }
+        if (!isLoaded() || version != current.version() + 1) {
+            return false;
+        }
+        RoaringBitmap next = RoaringBitmap.or(current.bitmap(), added);
+        next.andNot(removed);
+        next.runOptimize();
+        members = new Members(next, version);
+        revision.incrementAndGet();
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.moviesearch.targeting;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The segments referenced by compiled targeting rules. Compiling a rule that
+ * refers to a segment registers it here, and a sync process loads the members
+ * of every registered segment and keeps them current.
+ */
+public final class Segments {
+
+    private final ConcurrentMap<String, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong revision = new AtomicLong();
+
+    /**
+     * The segment with this name, registered on first use.
+     */
+    public Segment register(String name) {
+        return segments.computeIfAbsent(name, segmentName -> new Segment(segmentName, revision));
+    }
+
+    /**
+     * The segment with this name, or null if no rule refers to it.
+     */
+    public Segment find(String name) {
+        return segments.get(name);
+    }
+
+    /**
+     * Counter that moves whenever the members of any segment change.
+     */
+    public long getRevision() {
+        return revision.get();
+    }
+
+    public Collection<Segment> all() {
+        return Collections.unmodifiableCollection(segments.values());
+    }
+
+    /**
+     * Memory held by the members of all loaded segments.
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.getSizeInBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,49 @@
+package com.moviesearch.targeting;
+
+/**
+ * Parses dotted numeric versions such as 5.2.1 into a single long that
+ * compares like the version: 20 bits each for major, minor and patch.
+ * Missing parts count as 0 and a pre-release or build suffix after '-' or
+ * '+' is ignored.
+ */
+final class Versions {
+
+    static final long NOT_A_VERSION = -1;
+
+    private static final int PART_BITS = 20;
+    private static final int MAX_PART = (1 << PART_BITS) - 1;
+
+    private Versions() {
+    }
+
+    static long parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return NOT_A_VERSION;
+        }
+        long version = 0;
+        int parts = 0;
+        int part = -1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                part = (part < 0 ? 0 : part * 10) + (c - '0');
+                if (part > MAX_PART) {
+                    return NOT_A_VERSION;
+                }
+            } else if (c == '.' && part >= 0 && parts < 2) {
+                version = (version << PART_BITS) | part;
+                parts++;
+                part = -1;
+            } else if ((c == '-' || c == '+') && part >= 0) {
+                break;
+            } else {
+                return NOT_A_VERSION;
+            }
+        }
+        if (part < 0) {
+            return NOT_A_VERSION;
+        }
+        version = (version << PART_BITS) | part;
+        return version << (PART_BITS * (2 - parts));
+    }
+}
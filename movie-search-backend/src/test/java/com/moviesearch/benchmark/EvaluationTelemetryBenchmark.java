@@ -0,0 +1,87 @@
+package com.moviesearch.benchmark;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.service.FeatureFlagConsumer;
+import com.moviesearch.targeting.EvaluationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per flag evaluation through {@link FeatureFlagConsumer#evaluate} with
+ * evaluation counting off and on, over 1,000 flags without targeting rules
+ * so the counting is a large share of the work. The difference between the
+ * two settings is the telemetry overhead per evaluation.
+ *
+ * {@code evaluate} walks the flags from one thread; {@code evaluateHotFlag}
+ * has four threads evaluating the same flag, where the counters of a single
+ * flag are contended. See {@link EvaluationTelemetryBenchmarkIT}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationTelemetryBenchmark {
+
+    static final int FLAGS = 1_000;
+
+    @Param({"false", "true"})
+    public boolean telemetry;
+
+    private FeatureFlagConsumer consumer;
+    private String[] flagNames;
+    private EvaluationContext context;
+
+    /**
+     * Position of each thread in the flag names.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int nextIndex() {
+            int index = next;
+            next = index + 1 == FLAGS ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        FeatureFlagConfig config = new FeatureFlagConfig();
+        config.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        config.getTelemetry().setEnabled(telemetry);
+        consumer = new FeatureFlagConsumer(config);
+
+        flagNames = new String[FLAGS];
+        for (int i = 0; i < FLAGS; i++) {
+            flagNames[i] = "bench_flag_" + i;
+            consumer.updateFeatureFlag(flagNames[i], i % 2 == 0, null);
+        }
+        context = EvaluationContext.builder().key("bench-user").attribute("country", "US").build();
+    }
+
+    @Benchmark
+    public Boolean evaluate(Cursor cursor) {
+        return consumer.evaluate(flagNames[cursor.nextIndex()], context);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Boolean evaluateHotFlag() {
+        return consumer.evaluate(flagNames[0], context);
+    }
+}
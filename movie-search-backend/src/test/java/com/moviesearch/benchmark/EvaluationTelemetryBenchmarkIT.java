@@ -0,0 +1,51 @@
+package com.moviesearch.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link EvaluationTelemetryBenchmark}, printing ns/evaluation with and
+ * without counting, and checks that counting adds less than 10ns to a
+ * single-threaded evaluation. The contended case is printed only, as it
+ * depends on the cores of the machine running it.
+ *
+ * The benchmark takes about a minute, so it only runs when requested:
+ * mvn verify -Dit.test=EvaluationTelemetryBenchmarkIT -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EvaluationTelemetryBenchmarkIT {
+
+    @Test
+    void countEvaluations() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(EvaluationTelemetryBenchmark.class.getName())
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertEquals(4, results.size());
+        Map<String, Double> scores = new HashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.') + 1) + " telemetry="
+                    + result.getParams().getParam("telemetry");
+            scores.put(name, result.getPrimaryResult().getScore());
+            System.out.printf("%s: %.1f ns/evaluation%n", name, result.getPrimaryResult().getScore());
+        }
+        double overhead = scores.get("evaluate telemetry=true") - scores.get("evaluate telemetry=false");
+        System.out.printf("Counting overhead: %.1f ns/evaluation single-threaded, %.1f ns/evaluation contended%n",
+                overhead, scores.get("evaluateHotFlag telemetry=true") - scores.get("evaluateHotFlag telemetry=false"));
+        assertTrue(overhead < 10.0, "counting added " + overhead + " ns per evaluation");
+    }
+}
@@ -0,0 +1,129 @@
+package com.moviesearch.benchmark;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.TargetingRule;
+import com.moviesearch.service.FeatureFlagConsumer;
+import com.moviesearch.targeting.EvaluationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per flag evaluation through {@link FeatureFlagConsumer#evaluate} with
+ * 1,000 flags of 50 targeting rules each. Every benchmark call evaluates the
+ * next flag, so the score is nanoseconds per evaluation.
+ *
+ * The contexts hit the first rule, the last rule, or no rule at all, the
+ * worst case where every rule is checked. A second set of 1,000 flags rolls
+ * out to 25% of users, measuring the hash-based bucketing. Run with the GC profiler to confirm
+ * evaluations don't allocate, see {@link TargetingEvaluationBenchmarkIT}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetingEvaluationBenchmark {
+
+    static final int FLAGS = 1_000;
+    static final int RULES_PER_FLAG = 50;
+
+    private FeatureFlagConsumer consumer;
+    private String[] flagNames;
+    private String[] rolloutFlagNames;
+    private EvaluationContext firstRuleContext;
+    private EvaluationContext lastRuleContext;
+    private EvaluationContext noMatchContext;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        FeatureFlagConfig config = new FeatureFlagConfig();
+        config.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        consumer = new FeatureFlagConsumer(config);
+
+        flagNames = new String[FLAGS];
+        rolloutFlagNames = new String[FLAGS];
+        List<TargetingRule> rollout = List.of(new TargetingRule(List.of(), true, 25.0));
+        for (int i = 0; i < FLAGS; i++) {
+            flagNames[i] = "bench_flag_" + i;
+            consumer.updateFeatureFlag(flagNames[i], true, rules(), null);
+            rolloutFlagNames[i] = "bench_rollout_" + i;
+            consumer.updateFeatureFlag(rolloutFlagNames[i], true, rollout, null);
+        }
+
+        firstRuleContext = context("C0", "plan_0", "1.0.0");
+        lastRuleContext = context("C" + (RULES_PER_FLAG - 1), "plan_" + (RULES_PER_FLAG - 1), "9.0.0");
+        noMatchContext = context("XX", "none", "9.0.0");
+    }
+
+    /**
+     * Rule i targets country Ci or Ci+100..Ci+400, plan_i and a minimum
+     * version, so each context matches exactly one rule index.
+     */
+    private static List<TargetingRule> rules() {
+        List<TargetingRule> rules = new ArrayList<>(RULES_PER_FLAG);
+        for (int i = 0; i < RULES_PER_FLAG; i++) {
+            List<String> countries = List.of("C" + i, "C" + (i + 100), "C" + (i + 200), "C" + (i + 300),
+                    "C" + (i + 400));
+            rules.add(new TargetingRule(List.of(
+                    new TargetingRule.Condition("country", TargetingRule.Operator.IN, countries),
+                    new TargetingRule.Condition("plan", TargetingRule.Operator.IN, List.of("plan_" + i)),
+                    new TargetingRule.Condition("app_version", TargetingRule.Operator.VERSION_AT_LEAST,
+                            List.of("1.0"))),
+                    i % 2 == 0));
+        }
+        return rules;
+    }
+
+    private static EvaluationContext context(String country, String plan, String appVersion) {
+        return EvaluationContext.builder()
+                .key("bench-user")
+                .attribute("country", country)
+                .attribute("plan", plan)
+                .attribute("app_version", appVersion)
+                .build();
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == FLAGS ? 0 : index + 1;
+        return index;
+    }
+
+    private String nextFlag() {
+        return flagNames[nextIndex()];
+    }
+
+    @Benchmark
+    public Boolean firstRuleMatches() {
+        return consumer.evaluate(nextFlag(), firstRuleContext);
+    }
+
+    @Benchmark
+    public Boolean lastRuleMatches() {
+        return consumer.evaluate(nextFlag(), lastRuleContext);
+    }
+
+    @Benchmark
+    public Boolean noRuleMatches() {
+        return consumer.evaluate(nextFlag(), noMatchContext);
+    }
+
+    @Benchmark
+    public Boolean rolloutBucketing() {
+        return consumer.evaluate(rolloutFlagNames[nextIndex()], firstRuleContext);
+    }
+}
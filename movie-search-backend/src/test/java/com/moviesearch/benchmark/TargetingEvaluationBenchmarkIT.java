@@ -0,0 +1,45 @@
+package com.moviesearch.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link TargetingEvaluationBenchmark} with the GC profiler, printing
+ * ns/evaluation and bytes allocated per evaluation. The forked JVM gets its
+ * own arguments so it doesn't inherit the coverage agent of the test run.
+ *
+ * The benchmark takes about half a minute, so it only runs when requested:
+ * mvn verify -Dit.test=TargetingEvaluationBenchmarkIT -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TargetingEvaluationBenchmarkIT {
+
+    @Test
+    void evaluateTargetingRules() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TargetingEvaluationBenchmark.class.getName())
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertEquals(4, results.size());
+        for (RunResult result : results) {
+            double allocatedPerEvaluation = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+            System.out.printf("%s: %.1f ns/evaluation, %.1f bytes/evaluation%n",
+                    result.getParams().getBenchmark(), result.getPrimaryResult().getScore(),
+                    allocatedPerEvaluation);
+            assertTrue(allocatedPerEvaluation < 1.0, "evaluation allocated " + allocatedPerEvaluation + " bytes");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.moviesearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviesearch.client.FlagWireFormat;
+import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.FlagChangesResponse;
+import com.moviesearch.dto.FlagType;
+import com.moviesearch.dto.TargetingRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to encode and decode flag messages as JSON and in the binary wire
+ * format: a single update event with targeting rules, a bulk event of 100
+ * changes and a full snapshot changes response of 500 flags. JSON goes
+ * through a plain {@link ObjectMapper}, as the consumer parses events.
+ * See {@link WireFormatBenchmarkIT}, which also compares the message sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    static final String[] PAYLOADS = {"event", "bulk", "snapshot"};
+    static final ObjectMapper JSON = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 10, 19, 9, 30, 15, 123_000_000);
+
+    @Param({"event", "bulk", "snapshot"})
+    public String payload;
+
+    private Object message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        message = message(payload);
+        json = JSON.writeValueAsBytes(message);
+        binary = encode(message);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return JSON.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return encode(message);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws Exception {
+        return JSON.readValue(json, message.getClass());
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return decode(binary, message.getClass());
+    }
+
+    static Object message(String payload) {
+        return switch (payload) {
+            case "event" -> event();
+            case "bulk" -> bulkEvent();
+            case "snapshot" -> snapshot();
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    static byte[] encode(Object message) {
+        if (message instanceof FeatureFlagEventDTO event) {
+            return FlagWireFormat.encodeEvent(event);
+        }
+        return FlagWireFormat.encodeChanges((FlagChangesResponse) message);
+    }
+
+    static Object decode(byte[] message, Class<?> type) {
+        if (type == FeatureFlagEventDTO.class) {
+            return FlagWireFormat.decodeEvent(message);
+        }
+        return FlagWireFormat.decodeChanges(message);
+    }
+
+    private static List<TargetingRule> rules(int i) {
+        return List.of(
+                new TargetingRule(List.of(
+                        new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US", "CA")),
+                        new TargetingRule.Condition("appVersion", TargetingRule.Operator.VERSION_AT_LEAST,
+                                List.of("5." + i % 10))),
+                        true, 25.0),
+                new TargetingRule(List.of(
+                        new TargetingRule.Condition("userId", TargetingRule.Operator.IN_SEGMENT,
+                                List.of("beta_testers"))),
+                        true, null));
+    }
+
+    private static String messageId(String flagName, int i) {
+        return "flag-" + flagName + "-" + (1_792_000_000_000L + i) + "-"
+                + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+    }
+
+    private static FeatureFlagEventDTO event() {
+        return FeatureFlagEventDTO.builder()
+                .eventType(FeatureFlagEventDTO.EventType.UPDATED)
+                .flagName("search_ranking_v2")
+                .description("New search ranking for movie results")
+                .enabled(true)
+                .type(FlagType.JSON)
+                .value(JSON.createObjectNode().put("ranker", "bm25").put("boost", 1.5))
+                .rules(rules(0))
+                .prerequisites(List.of("search_index_ready"))
+                .triggeredBy("alice")
+                .timestamp(TIMESTAMP)
+                .messageId(messageId("search_ranking_v2", 0))
+                .build();
+    }
+
+    private static FeatureFlagEventDTO bulkEvent() {
+        List<FeatureFlagEventDTO.FlagChange> changes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            changes.add(new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED,
+                    "bulk_flag_" + i, i % 2 == 0, i % 4 == 0 ? rules(i) : null));
+        }
+        return FeatureFlagEventDTO.builder()
+                .eventType(FeatureFlagEventDTO.EventType.BULK)
+                .changes(changes)
+                .triggeredBy("system")
+                .timestamp(TIMESTAMP)
+                .messageId("msg-" + UUID.randomUUID().toString().replace("-", ""))
+                .build();
+    }
+
+    private static FlagChangesResponse snapshot() {
+        Map<String, FeatureFlagBatchResponse.FeatureFlagInfo> flags = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            String name = "snapshot_flag_" + i;
+            flags.put(name, FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                    .name(name)
+                    .enabled(i % 3 != 0)
+                    .type(FlagType.BOOLEAN)
+                    .rules(i % 2 == 0 ? rules(i) : null)
+                    .timestamp(TIMESTAMP.minusMinutes(i))
+                    .description("Snapshot flag " + i)
+                    .build());
+        }
+        return FlagChangesResponse.builder()
+                .revision(1_000_000)
+                .fullSnapshot(true)
+                .flags(flags)
+                .deleted(List.of())
+                .responseTimestamp(TIMESTAMP)
+                .build();
+    }
+}
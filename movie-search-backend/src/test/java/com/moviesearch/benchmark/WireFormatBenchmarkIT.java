@@ -0,0 +1,58 @@
+package com.moviesearch.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prints the JSON and binary sizes of the messages of
+ * {@link WireFormatBenchmark}, then runs it, printing us/message for each
+ * format. Checks that the binary messages are at most half the size of the
+ * JSON ones and that decoding the snapshot is faster than from JSON.
+ *
+ * The benchmark takes about two minutes, so it only runs when requested:
+ * mvn verify -Dit.test=WireFormatBenchmarkIT -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WireFormatBenchmarkIT {
+
+    @Test
+    void compareWireFormats() throws Exception {
+        for (String payload : WireFormatBenchmark.PAYLOADS) {
+            Object message = WireFormatBenchmark.message(payload);
+            int json = WireFormatBenchmark.JSON.writeValueAsBytes(message).length;
+            int binary = WireFormatBenchmark.encode(message).length;
+            System.out.printf("%s: %d bytes JSON, %d bytes binary (%.0f%%)%n", payload, json, binary,
+                    100.0 * binary / json);
+            assertTrue(binary * 2 <= json, payload + " is " + binary + " bytes against " + json + " JSON bytes");
+        }
+
+        Options options = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getName())
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertEquals(12, results.size());
+        Map<String, Double> scores = new HashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.') + 1) + " "
+                    + result.getParams().getParam("payload");
+            scores.put(name, result.getPrimaryResult().getScore());
+            System.out.printf("%s: %.2f us/message%n", name, result.getPrimaryResult().getScore());
+        }
+        assertTrue(scores.get("decodeBinary snapshot") < scores.get("decodeJson snapshot"),
+                "binary snapshot decoded in " + scores.get("decodeBinary snapshot") + " us");
+    }
+}
@@ -0,0 +1,69 @@
+package com.moviesearch.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.FlagChangesResponse;
+import com.moviesearch.dto.FlagType;
+import com.moviesearch.dto.TargetingRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlagWireFormatTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 10, 19, 9, 30, 15, 123_000_000);
+
+    @Test
+    void testEvent_RoundTripsBulkChanges() {
+        // Given
+        List<TargetingRule> rules = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("country", TargetingRule.Operator.NOT_IN, List.of("US"))), true, 50.0));
+        FeatureFlagEventDTO event = FeatureFlagEventDTO.builder()
+                .eventType(FeatureFlagEventDTO.EventType.BULK)
+                .changes(List.of(
+                        new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "dark_mode", true,
+                                rules),
+                        new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.CREATED, "banner_text",
+                                true, null, FlagType.STRING, new ObjectMapper().getNodeFactory().textNode("Hi"))))
+                .triggeredBy("system")
+                .timestamp(TIMESTAMP)
+                .messageId("msg-550e8400e29b41d4a716446655440000")
+                .build();
+
+        // When
+        FeatureFlagEventDTO decoded = FlagWireFormat.decodeEvent(FlagWireFormat.encodeEvent(event));
+
+        // Then
+        assertEquals(FlagWireFormat.EVENT_VERSION, decoded.getVersion());
+        decoded.setVersion(event.getVersion());
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void testChanges_RoundTripsSnapshotAndRejectsJson() {
+        // Given
+        FlagChangesResponse response = FlagChangesResponse.builder()
+                .revision(7)
+                .fullSnapshot(true)
+                .flags(Map.of("dark_mode", FeatureFlagBatchResponse.FeatureFlagInfo.builder()
+                        .name("dark_mode").enabled(true).type(FlagType.BOOLEAN).prerequisites(List.of("beta_ui"))
+                        .timestamp(TIMESTAMP).build()))
+                .deleted(List.of("old_flag"))
+                .responseTimestamp(TIMESTAMP)
+                .build();
+
+        // When
+        byte[] binary = FlagWireFormat.encodeChanges(response);
+
+        // Then
+        assertEquals(response, FlagWireFormat.decodeChanges(binary));
+        assertThrows(IllegalArgumentException.class, () -> FlagWireFormat.decodeBatch(binary));
+        assertThrows(IllegalArgumentException.class,
+                () -> FlagWireFormat.decodeChanges("{\"revision\":7}".getBytes()));
+    }
+}
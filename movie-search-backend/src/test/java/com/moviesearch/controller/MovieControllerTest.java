@@ -1,8 +1,11 @@
 package com.moviesearch.controller;
 
+import com.moviesearch.dto.FlagEvaluationRequest;
+import com.moviesearch.dto.FlagEvaluationResponse;
 import com.moviesearch.dto.MovieSearchRequest;
 import com.moviesearch.dto.MovieSearchResponse;
 import com.moviesearch.dto.MovieResponse;
+import com.moviesearch.service.FlagEvaluationService;
 import com.moviesearch.service.MovieService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +34,9 @@ class MovieControllerTest {
         @Mock
         private MovieService movieService;
 
+        @Mock
+        private FlagEvaluationService flagEvaluationService;
+
         @InjectMocks
         private MovieController movieController;
 
@@ -191,6 +198,26 @@ class MovieControllerTest {
                 verify(movieService).isFeatureFlagEnabled("dark_mode");
         }
 
+        @Test
+        void testEvaluateFeatureFlags_Success() {
+                // Given
+                FlagEvaluationRequest request = new FlagEvaluationRequest("user-1", Map.of("country", "US"));
+                when(flagEvaluationService.evaluate(request))
+                                .thenReturn(new FlagEvaluationResponse(Map.of("dark_mode", true), 7L));
+
+                // When
+                org.springframework.http.ResponseEntity<FlagEvaluationResponse> result = movieController
+                                .evaluateFeatureFlags(request);
+
+                // Then
+                assertEquals(200, result.getStatusCode().value());
+                assertNotNull(result.getBody());
+                assertEquals(Map.of("dark_mode", true), result.getBody().getFlags());
+                assertEquals(7L, result.getBody().getRevision());
+
+                verify(flagEvaluationService).evaluate(request);
+        }
+
         @Test
         void testGetFeatureFlag_NotFound() {
                 // Given
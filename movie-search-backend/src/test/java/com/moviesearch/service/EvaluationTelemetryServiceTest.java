@@ -0,0 +1,106 @@
+package com.moviesearch.service;
+
+import com.moviesearch.client.FeatureFlagClient;
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.EvaluationReport;
+import com.moviesearch.targeting.EvaluationContext;
+import com.moviesearch.targeting.EvaluationCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationTelemetryServiceTest {
+
+    @Mock
+    private FeatureFlagClient featureFlagClient;
+
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagConsumer featureFlagConsumer;
+    private EvaluationTelemetryService evaluationTelemetryService;
+
+    @BeforeEach
+    void setUp() {
+        featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        featureFlagConsumer = new FeatureFlagConsumer(featureFlagConfig);
+        evaluationTelemetryService = new EvaluationTelemetryService(featureFlagClient, featureFlagConsumer,
+                featureFlagConfig);
+    }
+
+    private void evaluate(String flagName, int times) {
+        for (int i = 0; i < times; i++) {
+            featureFlagConsumer.evaluate(flagName, EvaluationContext.EMPTY);
+        }
+    }
+
+    @Test
+    void testFlush_UploadsCountsInBatches() {
+        // Given
+        for (int i = 0; i < EvaluationReport.MAX_FLAGS + 1; i++) {
+            featureFlagConsumer.updateFeatureFlag("flag_" + i, i % 2 == 0, null);
+            evaluate("flag_" + i, 2);
+        }
+
+        // When
+        evaluationTelemetryService.flush();
+
+        // Then
+        ArgumentCaptor<EvaluationReport> reports = ArgumentCaptor.forClass(EvaluationReport.class);
+        verify(featureFlagClient, times(2)).reportEvaluations(reports.capture());
+        List<EvaluationReport.FlagCount> counts = reports.getAllValues().stream()
+                .flatMap(report -> report.getCounts().stream())
+                .toList();
+        assertEquals(EvaluationReport.MAX_FLAGS, reports.getAllValues().get(0).getCounts().size());
+        assertEquals(EvaluationReport.MAX_FLAGS + 1, counts.size());
+        assertTrue(counts.contains(new EvaluationReport.FlagCount("flag_0", 2, 0)));
+        assertTrue(counts.contains(new EvaluationReport.FlagCount("flag_1", 0, 2)));
+
+        // Nothing was evaluated since
+        evaluationTelemetryService.flush();
+        verifyNoMoreInteractions(featureFlagClient);
+    }
+
+    @Test
+    void testFlush_FailedUploadIsRetriedWithNextFlush() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true, null);
+        evaluate("dark_mode", 3);
+        doThrow(new RuntimeException("Connection refused")).doNothing()
+                .when(featureFlagClient).reportEvaluations(any(EvaluationReport.class));
+
+        // When
+        evaluationTelemetryService.flush();
+        evaluate("dark_mode", 1);
+        evaluationTelemetryService.flush();
+
+        // Then
+        verify(featureFlagClient).reportEvaluations(
+                new EvaluationReport(List.of(new EvaluationReport.FlagCount("dark_mode", 4, 0))));
+        assertEquals(1, evaluationTelemetryService.getFailedUploads());
+    }
+
+    @Test
+    void testFlush_DisabledTelemetryCountsNothing() {
+        // Given
+        featureFlagConfig.getTelemetry().setEnabled(false);
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true, null);
+        evaluate("dark_mode", 3);
+
+        // When
+        evaluationTelemetryService.flush();
+
+        // Then
+        assertEquals(List.of(), featureFlagConsumer.getEvaluationCounters().drain());
+        verifyNoInteractions(featureFlagClient);
+    }
+}
@@ -0,0 +1,177 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.targeting.EvaluationContext;
+import com.moviesearch.targeting.ExposureBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHyperLogLogCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExposureTelemetryServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisHyperLogLogCommands hyperLogLogCommands;
+
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagConsumer featureFlagConsumer;
+    private ExposureTelemetryService exposureTelemetryService;
+
+    // User keys added per sketch key, and the size of each PFADD
+    private final Map<String, Set<String>> added = new HashMap<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        featureFlagConfig.getExposures().setEnabled(true);
+        featureFlagConsumer = new FeatureFlagConsumer(featureFlagConfig);
+        exposureTelemetryService = new ExposureTelemetryService(stringRedisTemplate, featureFlagConsumer,
+                featureFlagConfig);
+
+        lenient().when(connection.hyperLogLogCommands()).thenReturn(hyperLogLogCommands);
+        lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+        lenient().when(hyperLogLogCommands.pfAdd(any(byte[].class), any(byte[][].class))).thenAnswer(invocation -> {
+            byte[][] values = (byte[][]) invocation.getRawArguments()[1];
+            batchSizes.add(values.length);
+            Set<String> userKeys = added.computeIfAbsent(
+                    new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8), key -> new HashSet<>());
+            for (byte[] value : values) {
+                userKeys.add(new String(value, StandardCharsets.UTF_8));
+            }
+            return 1L;
+        });
+        lenient().when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+    }
+
+    private void evaluate(String flagName, String userKey) {
+        featureFlagConsumer.evaluate(flagName, EvaluationContext.builder().key(userKey).build());
+    }
+
+    private static String key(String flagName, String variant) {
+        return ExposureTelemetryService.key(flagName, variant, LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @Test
+    void testFlush_AddsUsersPerVariantInBatches() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("new_search", true, null);
+        featureFlagConsumer.updateFeatureFlag("dark_mode", false, null);
+        for (int i = 0; i < ExposureTelemetryService.BATCH_SIZE + 1; i++) {
+            evaluate("new_search", "user-" + i);
+            evaluate("new_search", "user-" + i);
+        }
+        evaluate("dark_mode", "user-1");
+        featureFlagConsumer.evaluate("dark_mode", EvaluationContext.EMPTY);
+
+        // When
+        exposureTelemetryService.flush();
+
+        // Then
+        assertEquals(ExposureTelemetryService.BATCH_SIZE + 1, added.get(key("new_search", "on")).size());
+        assertEquals(Set.of("user-1"), added.get(key("dark_mode", "off")));
+        assertEquals(List.of(ExposureTelemetryService.BATCH_SIZE, 1, 1),
+                batchSizes.stream().sorted((a, b) -> b - a).toList());
+        verify(keyCommands).expire(key("new_search", "on").getBytes(StandardCharsets.UTF_8), 35L * 24 * 60 * 60);
+        verify(keyCommands).expire(key("dark_mode", "off").getBytes(StandardCharsets.UTF_8), 35L * 24 * 60 * 60);
+        assertEquals(0, featureFlagConsumer.getExposureBuffer().getBufferedKeys());
+
+        // When
+        exposureTelemetryService.flush();
+
+        // Then
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void testRecord_DropsUsersBeyondTheBufferLimit() {
+        // Given
+        featureFlagConfig.getExposures().setMaxBufferedKeys(2);
+        featureFlagConsumer.updateFeatureFlag("new_search", true, null);
+
+        // When
+        evaluate("new_search", "user-1");
+        evaluate("new_search", "user-2");
+        evaluate("new_search", "user-1");
+        evaluate("new_search", "user-3");
+
+        // Then
+        ExposureBuffer buffer = featureFlagConsumer.getExposureBuffer();
+        assertEquals(2, buffer.getBufferedKeys());
+        assertEquals(1, buffer.getDroppedKeys());
+
+        // When
+        exposureTelemetryService.flush();
+        evaluate("new_search", "user-3");
+        exposureTelemetryService.flush();
+
+        // Then
+        assertEquals(Set.of("user-1", "user-2", "user-3"), added.get(key("new_search", "on")));
+    }
+
+    @Test
+    void testFlush_DropsUsersWhenRedisFails() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("new_search", true, null);
+        evaluate("new_search", "user-1");
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // When
+        exposureTelemetryService.flush();
+
+        // Then
+        assertEquals(1, exposureTelemetryService.getFailedFlushes());
+        assertEquals(0, featureFlagConsumer.getExposureBuffer().getBufferedKeys());
+    }
+
+    @Test
+    void testFlush_NothingRecordedWhenDisabled() {
+        // Given
+        featureFlagConfig.getExposures().setEnabled(false);
+        featureFlagConsumer.updateFeatureFlag("new_search", true, null);
+        evaluate("new_search", "user-1");
+
+        // When
+        exposureTelemetryService.flush();
+
+        // Then
+        assertEquals(0, featureFlagConsumer.getExposureBuffer().getBufferedKeys());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+}
@@ -1,6 +1,18 @@
 package com.moviesearch.service;
 
 import com.moviesearch.config.FeatureFlagConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.moviesearch.dto.FeatureFlagEventDTO;
+import com.moviesearch.dto.FlagType;
+import com.moviesearch.dto.TargetingRule;
+import com.moviesearch.targeting.EvaluationContext;
+import com.moviesearch.targeting.EvaluationCounters;
+import com.moviesearch.targeting.FlagValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,7 +23,11 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.lenient;
@@ -28,6 +44,8 @@ class FeatureFlagConsumerTest {
     @Mock
     private FeatureFlagConfig featureFlagConfig;
 
+    private FeatureFlagConfig.Subscription subscription;
+
     @InjectMocks
     private FeatureFlagConsumer featureFlagConsumer;
 
@@ -39,6 +57,13 @@ class FeatureFlagConsumerTest {
         Map<String, Boolean> subscribed = new HashMap<>();
         subscribed.put("maintenance_mode", false);
         lenient().when(featureFlagConfig.getSubscribed()).thenReturn(subscribed);
+
+        // Track all flags unless a test narrows the subscription
+        subscription = new FeatureFlagConfig.Subscription();
+        subscription.setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        lenient().when(featureFlagConfig.getSubscription()).thenReturn(subscription);
+        lenient().when(featureFlagConfig.getTelemetry()).thenReturn(new FeatureFlagConfig.Telemetry());
+        lenient().when(featureFlagConfig.getExposures()).thenReturn(new FeatureFlagConfig.Exposures());
     }
 
     @Test
@@ -118,4 +143,357 @@ class FeatureFlagConsumerTest {
         featureFlagConsumer.updateFeatureFlag("maintenance_mode", false);
         assertFalse(featureFlagConsumer.isMaintenanceModeEnabled());
     }
+
+    @Test
+    void testStaticSubscription_IgnoresUnsubscribedFlags() {
+        // Given
+        subscription.setMode(FeatureFlagConfig.Subscription.Mode.STATIC);
+
+        // When
+        featureFlagConsumer.updateFeatureFlag("maintenance_mode", true, "msg-1");
+        featureFlagConsumer.updateFeatureFlag("unrelated_flag", true, "msg-2");
+
+        // Then
+        assertTrue(featureFlagConsumer.getFeatureFlag("maintenance_mode"));
+        assertNull(featureFlagConsumer.getFeatureFlag("unrelated_flag"));
+        FeatureFlagConsumer.SubscriptionStats stats = featureFlagConsumer.getSubscriptionStats();
+        assertEquals(1, stats.trackedFlags());
+        assertEquals(1, stats.ignoredUpdates());
+    }
+
+    @Test
+    void testPrefixSubscription_TracksMatchingAndStaticFlags() {
+        // Given
+        subscription.setMode(FeatureFlagConfig.Subscription.Mode.PREFIX);
+        subscription.setPrefixes(List.of("search_"));
+
+        // Then
+        assertTrue(featureFlagConsumer.isSubscribed("search_v2"));
+        assertTrue(featureFlagConsumer.isSubscribed("maintenance_mode"));
+        assertFalse(featureFlagConsumer.isSubscribed("dark_mode"));
+        assertFalse(featureFlagConsumer.isSubscribed(null));
+    }
+
+    @Test
+    void testAllSubscription_BoundedStore() {
+        // Given
+        subscription.setMaxFlags(2);
+
+        // When
+        featureFlagConsumer.updateFeatureFlag("flag_a", true);
+        featureFlagConsumer.updateFeatureFlag("flag_b", true);
+        featureFlagConsumer.updateFeatureFlag("flag_c", true);
+        featureFlagConsumer.updateFeatureFlag("flag_a", false);
+
+        // Then
+        assertNull(featureFlagConsumer.getFeatureFlag("flag_c"));
+        assertFalse(featureFlagConsumer.getFeatureFlag("flag_a"));
+        assertEquals(1, featureFlagConsumer.getSubscriptionStats().rejectedUpdates());
+    }
+
+    @Test
+    void testApplyFlagChanges_AppliesUpdatesAndDeletes() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true);
+        Map<String, FeatureFlagEventDTO.FlagChange> changes = new LinkedHashMap<>();
+        changes.put("maintenance_mode",
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.UPDATED, "maintenance_mode", true));
+        changes.put("dark_mode",
+                new FeatureFlagEventDTO.FlagChange(FeatureFlagEventDTO.EventType.DELETED, "dark_mode", null));
+
+        // When
+        featureFlagConsumer.applyFlagChanges(changes, "msg-bulk");
+
+        // Then
+        assertTrue(featureFlagConsumer.getFeatureFlag("maintenance_mode"));
+        assertNull(featureFlagConsumer.getFeatureFlag("dark_mode"));
+    }
+
+    @Test
+    void testEvaluate_AppliesTargetingRules() {
+        // Given
+        List<TargetingRule> rules = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US"))), true));
+        EvaluationContext us = EvaluationContext.builder().attribute("country", "US").build();
+        EvaluationContext de = EvaluationContext.builder().attribute("country", "DE").build();
+
+        // When
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, rules, "msg-1");
+
+        // Then
+        assertTrue(featureFlagConsumer.evaluate("new_search_ui", us));
+        assertFalse(featureFlagConsumer.evaluate("new_search_ui", de));
+        assertTrue(featureFlagConsumer.getFeatureFlag("new_search_ui"));
+        assertNull(featureFlagConsumer.evaluate("unknown_flag", us));
+
+        // Disabling the flag turns it off for everyone
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", false, rules, "msg-2");
+        assertFalse(featureFlagConsumer.evaluate("new_search_ui", us));
+    }
+
+    @Test
+    void testApplyFlagChanges_KeepsRulesWhenChangeHasNone() {
+        // Given
+        List<TargetingRule> rules = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("plan", TargetingRule.Operator.IN, List.of("pro"))), true));
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", false, rules, "msg-1");
+        EvaluationContext free = EvaluationContext.builder().attribute("plan", "free").build();
+
+        // When
+        featureFlagConsumer.applyFlagChanges(Map.of("new_search_ui", new FeatureFlagEventDTO.FlagChange(
+                FeatureFlagEventDTO.EventType.UPDATED, "new_search_ui", true)), "msg-bulk");
+
+        // Then
+        assertFalse(featureFlagConsumer.evaluate("new_search_ui", free));
+        assertTrue(featureFlagConsumer.evaluate("new_search_ui",
+                EvaluationContext.builder().attribute("plan", "pro").build()));
+
+        // A change with an empty rule list removes the rules
+        featureFlagConsumer.applyFlagChanges(Map.of("new_search_ui", new FeatureFlagEventDTO.FlagChange(
+                FeatureFlagEventDTO.EventType.UPDATED, "new_search_ui", true, List.of())), "msg-import");
+        assertTrue(featureFlagConsumer.evaluate("new_search_ui", free));
+    }
+
+    @Test
+    void testGetSnapshotFeatureFlags_StoresTargetedFlagsAsOff() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true);
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, List.of(new TargetingRule(List.of(), true)),
+                "msg-1");
+
+        // When
+        Map<String, Boolean> snapshot = featureFlagConsumer.getSnapshotFeatureFlags();
+
+        // Then
+        assertTrue(snapshot.get("dark_mode"));
+        assertFalse(snapshot.get("new_search_ui"));
+    }
+
+    @Test
+    void testTypedGetters_ReturnValueWhileFlagIsOn() {
+        // Given
+        ObjectNode layout = JsonNodeFactory.instance.objectNode().put("columns", 4).put("theme", "dark");
+        featureFlagConsumer.updateFeatureFlag("page_size", true, null,
+                FlagValue.of(FlagType.NUMBER, IntNode.valueOf(50)), "msg-1");
+        featureFlagConsumer.updateFeatureFlag("boost", true, null,
+                FlagValue.of(FlagType.NUMBER, DoubleNode.valueOf(1.5)), "msg-2");
+        featureFlagConsumer.updateFeatureFlag("ranking", true, null,
+                FlagValue.of(FlagType.STRING, TextNode.valueOf("bm25")), "msg-3");
+        featureFlagConsumer.updateFeatureFlag("layout", true, null, FlagValue.of(FlagType.JSON, layout), "msg-4");
+
+        // Then
+        assertEquals(50, featureFlagConsumer.getInt("page_size", 20));
+        assertEquals(50L, featureFlagConsumer.getLong("page_size", 20L));
+        assertEquals(1.5, featureFlagConsumer.getDouble("boost", 1.0));
+        assertEquals(20, featureFlagConsumer.getInt("boost", 20));
+        assertEquals("bm25", featureFlagConsumer.getString("ranking", "tf-idf"));
+        assertEquals(Map.of("columns", 4, "theme", "dark"), featureFlagConsumer.getJson("layout", Map.class, null));
+        assertEquals(layout, featureFlagConsumer.getJson("layout", JsonNode.class, null));
+    }
+
+    @Test
+    void testTypedGetters_ReturnDefaultWhenOffOrMismatched() {
+        // Given
+        List<TargetingRule> rules = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US"))), true));
+        featureFlagConsumer.updateFeatureFlag("page_size", true, rules,
+                FlagValue.of(FlagType.NUMBER, IntNode.valueOf(50)), "msg-1");
+        featureFlagConsumer.updateFeatureFlag("ranking", false, null,
+                FlagValue.of(FlagType.STRING, TextNode.valueOf("bm25")), "msg-2");
+
+        // Then
+        assertEquals(50, featureFlagConsumer.getInt("page_size",
+                EvaluationContext.builder().attribute("country", "US").build(), 20));
+        assertEquals(20, featureFlagConsumer.getInt("page_size",
+                EvaluationContext.builder().attribute("country", "DE").build(), 20));
+        assertEquals("tf-idf", featureFlagConsumer.getString("ranking", "tf-idf"));
+        assertEquals("fallback", featureFlagConsumer.getString("page_size", "fallback"));
+        assertEquals(7, featureFlagConsumer.getInt("unknown_flag", 7));
+        assertNull(FlagValue.of(FlagType.NUMBER, TextNode.valueOf("50")));
+    }
+
+    @Test
+    void testGetJson_ParsesOncePerUpdate() {
+        // Given
+        ObjectNode layout = JsonNodeFactory.instance.objectNode().put("columns", 4);
+        featureFlagConsumer.updateFeatureFlag("layout", true, null, FlagValue.of(FlagType.JSON, layout), "msg-1");
+
+        // When
+        Object first = featureFlagConsumer.getJson("layout", Map.class, null);
+        Object second = featureFlagConsumer.getJson("layout", Map.class, null);
+        featureFlagConsumer.updateFeatureFlag("layout", true, null, FlagValue.of(FlagType.JSON, layout), "msg-2");
+        Object updated = featureFlagConsumer.getJson("layout", Map.class, null);
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(first, updated);
+        assertEquals(first, updated);
+        assertEquals(List.of(), featureFlagConsumer.getJson("layout", List.class, List.of()));
+    }
+
+    @Test
+    void testApplyFlagChanges_KeepsValueWhenChangeHasNoType() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("page_size", false, null,
+                FlagValue.of(FlagType.NUMBER, IntNode.valueOf(50)), "msg-1");
+
+        // When
+        featureFlagConsumer.applyFlagChanges(Map.of("page_size", new FeatureFlagEventDTO.FlagChange(
+                FeatureFlagEventDTO.EventType.UPDATED, "page_size", true)), "msg-bulk");
+
+        // Then
+        assertEquals(50, featureFlagConsumer.getInt("page_size", 20));
+
+        // A change with a type replaces the value
+        featureFlagConsumer.applyFlagChanges(Map.of("page_size", new FeatureFlagEventDTO.FlagChange(
+                FeatureFlagEventDTO.EventType.UPDATED, "page_size", true, null, FlagType.NUMBER,
+                IntNode.valueOf(100))), "msg-import");
+        assertEquals(100, featureFlagConsumer.getInt("page_size", 20));
+    }
+
+    @Test
+    void testEvaluate_RequiresPrerequisitesForTheContext() {
+        // Given
+        List<TargetingRule> usOnly = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US"))), true));
+        featureFlagConsumer.updateFeatureFlag("search_v2", true, null, null, null, "msg-1");
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, usOnly, null, List.of("search_v2"), "msg-2");
+        featureFlagConsumer.updateFeatureFlag("advanced_filtering", true, null, null, List.of("new_search_ui"),
+                "msg-3");
+        EvaluationContext us = EvaluationContext.builder().attribute("country", "US").build();
+        EvaluationContext de = EvaluationContext.builder().attribute("country", "DE").build();
+
+        // When & Then
+        assertTrue(featureFlagConsumer.evaluate("advanced_filtering", us));
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", de));
+        assertTrue(featureFlagConsumer.getFeatureFlag("advanced_filtering"));
+
+        // Turning off a prerequisite two levels down turns the flag off
+        featureFlagConsumer.updateFeatureFlag("search_v2", false, null, null, null, "msg-4");
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", us));
+        assertFalse(featureFlagConsumer.getFeatureFlag("advanced_filtering"));
+        assertFalse(featureFlagConsumer.getSnapshotFeatureFlags().get("advanced_filtering"));
+    }
+
+    @Test
+    void testEvaluate_MissingOrCyclicPrerequisiteKeepsFlagOff() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("advanced_filtering", true, null, null, List.of("new_search_ui"),
+                "msg-1");
+
+        // When & Then
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, null, null, "msg-2");
+        assertTrue(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, null, List.of("advanced_filtering"),
+                "msg-3");
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+        assertFalse(featureFlagConsumer.evaluate("new_search_ui", EvaluationContext.EMPTY));
+
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, null, null, "msg-4");
+        featureFlagConsumer.removeFeatureFlag("new_search_ui");
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testUpdateFeatureFlag_RebuildsOnlyDependentPlans() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, null, null, "msg-1");
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true, null, null, null, "msg-2");
+        featureFlagConsumer.updateFeatureFlag("advanced_filtering", true, null, null, List.of("new_search_ui"),
+                "msg-3");
+        featureFlagConsumer.updateFeatureFlag("night_theme", true, null, null, List.of("dark_mode"), "msg-4");
+        FeatureFlagConsumer.FeatureFlagState[] unrelated = state("night_theme").getPlan();
+        FeatureFlagConsumer.FeatureFlagState[] dependent = state("advanced_filtering").getPlan();
+
+        // When
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", false, null, null, null, "msg-5");
+
+        // Then
+        assertSame(unrelated, state("night_theme").getPlan());
+        assertNotSame(dependent, state("advanced_filtering").getPlan());
+        assertSame(state("new_search_ui"), state("advanced_filtering").getPlan()[0]);
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testUpdateFeatureFlag_ConcurrentReadersNeverSeeFlagWithoutItsPrerequisites() throws Exception {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", false, null, null, null, "msg-0");
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger sawOn = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (Boolean.TRUE.equals(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY))
+                        || Boolean.TRUE.equals(featureFlagConsumer.getFeatureFlag("advanced_filtering"))) {
+                    sawOn.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        // When
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                featureFlagConsumer.updateFeatureFlag("advanced_filtering", true, null, null,
+                        List.of("new_search_ui"), "msg-" + (i + 1));
+                featureFlagConsumer.removeFeatureFlag("advanced_filtering");
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+
+        // Then
+        assertEquals(0, sawOn.get());
+    }
+
+    @Test
+    void testApplyFlagChanges_KeepsPrerequisitesWhenChangeHasNone() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("advanced_filtering", false, null, null, List.of("new_search_ui"),
+                "msg-1");
+
+        // When
+        featureFlagConsumer.applyFlagChanges(Map.of("advanced_filtering", new FeatureFlagEventDTO.FlagChange(
+                FeatureFlagEventDTO.EventType.UPDATED, "advanced_filtering", true)), "msg-bulk");
+
+        // Then
+        assertEquals(List.of("new_search_ui"), state("advanced_filtering").getPrerequisites());
+        assertFalse(featureFlagConsumer.evaluate("advanced_filtering", EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testEvaluate_CountsEvaluationsPerVariantAcrossUpdates() {
+        // Given
+        List<TargetingRule> usOnly = List.of(new TargetingRule(List.of(
+                new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US"))), true));
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, usOnly, "msg-1");
+        EvaluationContext us = EvaluationContext.builder().attribute("country", "US").build();
+        EvaluationContext de = EvaluationContext.builder().attribute("country", "DE").build();
+
+        // When
+        featureFlagConsumer.evaluate("new_search_ui", us);
+        featureFlagConsumer.evaluate("new_search_ui", de);
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, "msg-2");
+        featureFlagConsumer.evaluate("new_search_ui", de);
+        featureFlagConsumer.getFeatureFlag("new_search_ui");
+        featureFlagConsumer.evaluate("unknown_flag", us);
+
+        // Then
+        EvaluationCounters counters = featureFlagConsumer.getEvaluationCounters();
+        assertEquals(List.of(new EvaluationCounters.Drained("new_search_ui", 3, 1)), counters.drain());
+        assertEquals(List.of(), counters.drain());
+
+        // A removed flag reports what it counted once more
+        featureFlagConsumer.evaluate("new_search_ui", us);
+        featureFlagConsumer.removeFeatureFlag("new_search_ui");
+        assertEquals(List.of(new EvaluationCounters.Drained("new_search_ui", 1, 0)), counters.drain());
+        assertEquals(List.of(), counters.drain());
+    }
+
+    private FeatureFlagConsumer.FeatureFlagState state(String flagName) {
+        return featureFlagConsumer.getFlagState(flagName);
+    }
 }
@@ -0,0 +1,167 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureFlagEventDispatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FeatureFlagEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        FeatureFlagConfig featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConfig.getEvents().setPartitions(4);
+        featureFlagConfig.getEvents().setQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new FeatureFlagEventDispatcher(featureFlagConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private String flagOnOtherPartition(String flagName) {
+        int partition = dispatcher.partitionIndex(flagName);
+        return IntStream.range(0, 100)
+                .mapToObj(i -> "flag_" + i)
+                .filter(name -> dispatcher.partitionIndex(name) != partition)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testDispatch_SameFlagAppliedInOrder() throws Exception {
+        // Given
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When - more events than the queue capacity, so the caller is back-pressured
+        for (int i = 0; i < 500; i++) {
+            int sequence = i;
+            dispatcher.dispatch("maintenance_mode", () -> applied.add(sequence));
+        }
+        dispatcher.dispatch("maintenance_mode", done::countDown);
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 500).boxed().toList(), applied);
+    }
+
+    @Test
+    void testDispatch_DifferentFlagsNotBlockedByEachOther() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherApplied = new CountDownLatch(1);
+        dispatcher.dispatch("maintenance_mode", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        dispatcher.dispatch(flagOnOtherPartition("maintenance_mode"), otherApplied::countDown);
+
+        // Then
+        assertTrue(otherApplied.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_FailedEventDoesNotStopPartition() throws Exception {
+        // Given
+        CountDownLatch applied = new CountDownLatch(1);
+
+        // When
+        dispatcher.dispatch("dark_mode", () -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.dispatch("dark_mode", applied::countDown);
+
+        // Then
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testIntakeExecutor_DropsWhenFullAndCountsRejection() throws Exception {
+        // Given - block the intake thread and fill its queue
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        var intake = dispatcher.intakeExecutor();
+        intake.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        intake.execute(() -> {
+        });
+        intake.execute(() -> {
+        });
+
+        // When
+        intake.execute(() -> {
+        });
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("feature_flag.events.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("feature_flag.events.queue.depth").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_RecordsLatency() throws Exception {
+        // Given
+        CountDownLatch applied = new CountDownLatch(1);
+
+        // When
+        dispatcher.dispatch("dark_mode", applied::countDown);
+
+        // Then
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("feature_flag.events.dispatch.latency").timer().count());
+    }
+
+    @Test
+    void testDispatchAll_GroupsFlagsByPartitionAfterEarlierEvents() throws Exception {
+        // Given
+        String otherFlag = flagOnOtherPartition("maintenance_mode");
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        List<List<String>> groups = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+        dispatcher.dispatch("maintenance_mode", () -> applied.add("single"));
+
+        // When
+        dispatcher.dispatchAll(List.of("maintenance_mode", otherFlag), names -> {
+            groups.add(names);
+            if (names.contains("maintenance_mode")) {
+                applied.add("bulk");
+            }
+            done.countDown();
+        });
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("single", "bulk"), applied);
+        assertEquals(2, groups.size());
+        assertTrue(groups.stream().allMatch(group -> group.size() == 1));
+    }
+}
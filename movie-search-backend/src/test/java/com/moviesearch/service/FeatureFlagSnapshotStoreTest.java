@@ -0,0 +1,138 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureFlagSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = tempDir.resolve("flags/feature-flags.snapshot");
+        featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConfig.getSnapshot().setPath(snapshotPath.toString());
+        snapshotStore = new FeatureFlagSnapshotStore(featureFlagConfig);
+    }
+
+    private Map<String, Boolean> sampleFlags() {
+        Map<String, Boolean> flags = new LinkedHashMap<>();
+        flags.put("maintenance_mode", false);
+        flags.put("dark_mode", true);
+        return flags;
+    }
+
+    @Test
+    void testSaveAndLoad_RoundTrip() {
+        // When
+        snapshotStore.save(sampleFlags());
+        Map<String, Boolean> loaded = snapshotStore.load();
+
+        // Then
+        assertEquals(sampleFlags(), loaded);
+        assertFalse(Files.exists(snapshotPath.resolveSibling("feature-flags.snapshot.tmp")));
+    }
+
+    @Test
+    void testLoad_MissingFile() {
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_Disabled() {
+        // Given
+        snapshotStore.save(sampleFlags());
+        featureFlagConfig.getSnapshot().setEnabled(false);
+
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_CorruptedPayload() throws Exception {
+        // Given
+        snapshotStore.save(sampleFlags());
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshotPath, bytes);
+
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_TruncatedFile() throws Exception {
+        // Given
+        snapshotStore.save(sampleFlags());
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        Files.write(snapshotPath, Arrays.copyOf(bytes, bytes.length - 3));
+
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_TruncatedHeader() throws Exception {
+        // Given
+        Files.createDirectories(snapshotPath.getParent());
+        Files.write(snapshotPath, new byte[] { 0x46, 0x46 });
+
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_UnsupportedVersion() throws Exception {
+        // Given
+        snapshotStore.save(sampleFlags());
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        bytes[5] = 99; // low byte of the format version
+        Files.write(snapshotPath, bytes);
+
+        // When & Then
+        assertTrue(snapshotStore.load().isEmpty());
+    }
+
+    @Test
+    void testLoad_IgnoresLeftoverTempFileFromCrashedWrite() throws Exception {
+        // Given a good snapshot and a half-written temp file from an interrupted save
+        snapshotStore.save(sampleFlags());
+        Files.write(snapshotPath.resolveSibling("feature-flags.snapshot.tmp"), new byte[] { 1, 2, 3 });
+
+        // When
+        Map<String, Boolean> loaded = snapshotStore.load();
+
+        // Then
+        assertEquals(sampleFlags(), loaded);
+    }
+
+    @Test
+    void testSave_ReplacesPreviousSnapshotAfterCrashedWrite() throws Exception {
+        // Given
+        snapshotStore.save(sampleFlags());
+        Files.write(snapshotPath.resolveSibling("feature-flags.snapshot.tmp"), new byte[] { 1, 2, 3 });
+
+        // When
+        snapshotStore.save(Map.of("dark_mode", false));
+
+        // Then
+        assertEquals(Map.of("dark_mode", false), snapshotStore.load());
+        assertFalse(Files.exists(snapshotPath.resolveSibling("feature-flags.snapshot.tmp")));
+    }
+}
@@ -0,0 +1,204 @@
+package com.moviesearch.service;
+
+import com.moviesearch.client.FeatureFlagClient;
+import com.moviesearch.client.FeatureFlagLongPollClient;
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.FeatureFlagBatchResponse;
+import com.moviesearch.dto.FlagChangesRequest;
+import com.moviesearch.dto.FlagChangesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeatureFlagSyncServiceTest {
+
+    @Mock
+    private FeatureFlagClient featureFlagClient;
+
+    @Mock
+    private FeatureFlagLongPollClient featureFlagLongPollClient;
+
+    @Mock
+    private FeatureFlagConsumer featureFlagConsumer;
+
+    @Mock
+    private FeatureFlagSnapshotStore featureFlagSnapshotStore;
+
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagSyncService featureFlagSyncService;
+
+    @BeforeEach
+    void setUp() {
+        featureFlagConfig = new FeatureFlagConfig();
+        Map<String, Boolean> subscribed = new LinkedHashMap<>();
+        subscribed.put("maintenance_mode", false);
+        subscribed.put("dark_mode", false);
+        featureFlagConfig.setSubscribed(subscribed);
+
+        featureFlagSyncService = new FeatureFlagSyncService(featureFlagClient, featureFlagLongPollClient,
+                featureFlagConfig, featureFlagConsumer, featureFlagSnapshotStore);
+    }
+
+    private FeatureFlagBatchResponse.FeatureFlagInfo flagInfo(String name, boolean enabled) {
+        return FeatureFlagBatchResponse.FeatureFlagInfo.builder().name(name).enabled(enabled).build();
+    }
+
+    @Test
+    void testRestoreLocalSnapshot() {
+        // Given
+        when(featureFlagSnapshotStore.load()).thenReturn(Map.of("maintenance_mode", true));
+
+        // When
+        featureFlagSyncService.restoreLocalSnapshot();
+
+        // Then
+        verify(featureFlagConsumer).updateFeatureFlag("maintenance_mode", true);
+    }
+
+    @Test
+    void testPollFlagChanges_AppliesDeltaAndAdvancesRevision() {
+        // Given
+        FlagChangesResponse response = FlagChangesResponse.builder()
+                .revision(42L)
+                .flags(Map.of("dark_mode", flagInfo("dark_mode", true)))
+                .deleted(List.of("maintenance_mode"))
+                .build();
+        when(featureFlagLongPollClient.pollFlagChanges(anyLong(), any(FlagChangesRequest.class))).thenReturn(response);
+
+        // When
+        featureFlagSyncService.pollFlagChanges();
+
+        // Then
+        ArgumentCaptor<FlagChangesRequest> captor = ArgumentCaptor.forClass(FlagChangesRequest.class);
+        verify(featureFlagLongPollClient).pollFlagChanges(eq(30000L), captor.capture());
+        assertEquals(0L, captor.getValue().getRevision());
+        assertEquals(List.of("maintenance_mode", "dark_mode"), captor.getValue().getFlagNames());
+
+        verify(featureFlagConsumer).updateFeatureFlag("dark_mode", true, null, null, null, null);
+        verify(featureFlagConsumer).removeFeatureFlag("maintenance_mode");
+        verify(featureFlagSnapshotStore).save(anyMap());
+        assertEquals(42L, featureFlagSyncService.getRevision());
+    }
+
+    @Test
+    void testPollFlagChanges_EmptyDeltaOnTimeout() {
+        // Given
+        FlagChangesResponse response = FlagChangesResponse.builder()
+                .revision(7L)
+                .flags(Map.of())
+                .deleted(List.of())
+                .build();
+        when(featureFlagLongPollClient.pollFlagChanges(anyLong(), any(FlagChangesRequest.class))).thenReturn(response);
+
+        // When
+        featureFlagSyncService.pollFlagChanges();
+
+        // Then
+        verifyNoInteractions(featureFlagConsumer, featureFlagSnapshotStore);
+        assertEquals(7L, featureFlagSyncService.getRevision());
+    }
+
+    @Test
+    void testPollFlagChanges_NullResponse() {
+        // Given
+        when(featureFlagLongPollClient.pollFlagChanges(anyLong(), any(FlagChangesRequest.class))).thenReturn(null);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> featureFlagSyncService.pollFlagChanges());
+        assertEquals(0L, featureFlagSyncService.getRevision());
+    }
+
+    @Test
+    void testRefreshSubscribedFlags_PersistsSnapshot() {
+        // Given
+        FeatureFlagBatchResponse response = FeatureFlagBatchResponse.builder()
+                .flags(Map.of("maintenance_mode", flagInfo("maintenance_mode", true)))
+                .build();
+        when(featureFlagClient.getFeatureFlagsBatch(any())).thenReturn(response);
+
+        // When
+        featureFlagSyncService.refreshSubscribedFlags();
+
+        // Then
+        verify(featureFlagConsumer).updateFeatureFlag("maintenance_mode", true, null, null, null, null);
+        verify(featureFlagSnapshotStore).save(anyMap());
+    }
+
+    @Test
+    void testBuildChangesRequest_SubscriptionModes() {
+        // Static names only by default
+        assertEquals(List.of(), featureFlagSyncService.buildChangesRequest(0).getPrefixes());
+
+        // Prefix mode sends the configured prefixes
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.PREFIX);
+        featureFlagConfig.getSubscription().setPrefixes(List.of("search_"));
+        assertEquals(List.of("search_"), featureFlagSyncService.buildChangesRequest(0).getPrefixes());
+
+        // All mode sends the empty prefix
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        FlagChangesRequest request = featureFlagSyncService.buildChangesRequest(5);
+        assertEquals(List.of(""), request.getPrefixes());
+        assertEquals(5L, request.getRevision());
+    }
+
+    @Test
+    void testRefreshSubscribedFlags_PrefixModeUsesFullSnapshot() {
+        // Given
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.PREFIX);
+        featureFlagConfig.getSubscription().setPrefixes(List.of("search_"));
+        FlagChangesResponse response = FlagChangesResponse.builder()
+                .revision(9L)
+                .fullSnapshot(true)
+                .flags(Map.of("search_v2", flagInfo("search_v2", true)))
+                .deleted(List.of())
+                .build();
+        when(featureFlagLongPollClient.pollFlagChanges(eq(0L), any(FlagChangesRequest.class))).thenReturn(response);
+
+        // When
+        featureFlagSyncService.refreshSubscribedFlags();
+
+        // Then
+        verify(featureFlagConsumer).updateFeatureFlag("search_v2", true, null, null, null, null);
+        verifyNoInteractions(featureFlagClient);
+        assertEquals(9L, featureFlagSyncService.getRevision());
+    }
+
+    @Test
+    void testRefreshSubscribedFlags_SnapshotRemovesFlagsMissingFromIt() {
+        // Given
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.PREFIX);
+        featureFlagConfig.getSubscription().setPrefixes(List.of("search_"));
+        FlagChangesResponse response = FlagChangesResponse.builder()
+                .revision(9L)
+                .fullSnapshot(true)
+                .flags(Map.of("search_v2", flagInfo("search_v2", true)))
+                .deleted(List.of())
+                .build();
+        when(featureFlagLongPollClient.pollFlagChanges(eq(0L), any(FlagChangesRequest.class))).thenReturn(response);
+        when(featureFlagConsumer.getAllFeatureFlags())
+                .thenReturn(Map.of("search_v2", false, "search_legacy", true, "payments_v3", true));
+
+        // When
+        featureFlagSyncService.refreshSubscribedFlags();
+
+        // Then
+        verify(featureFlagConsumer).removeFeatureFlag("search_legacy");
+        verify(featureFlagConsumer, never()).removeFeatureFlag("search_v2");
+        verify(featureFlagConsumer, never()).removeFeatureFlag("payments_v3");
+    }
+}
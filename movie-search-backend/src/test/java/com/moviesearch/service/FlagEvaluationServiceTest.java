@@ -0,0 +1,168 @@
+package com.moviesearch.service;
+
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.FlagEvaluationRequest;
+import com.moviesearch.dto.FlagEvaluationResponse;
+import com.moviesearch.dto.TargetingRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlagEvaluationServiceTest {
+
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagConsumer featureFlagConsumer;
+    private FlagEvaluationService flagEvaluationService;
+
+    @BeforeEach
+    void setUp() {
+        featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConfig.getSubscription().setMode(FeatureFlagConfig.Subscription.Mode.ALL);
+        featureFlagConsumer = new FeatureFlagConsumer(featureFlagConfig);
+        flagEvaluationService = new FlagEvaluationService(featureFlagConsumer, featureFlagConfig);
+
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true, null, null);
+        featureFlagConsumer.updateFeatureFlag("maintenance_mode", false, null, null);
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, List.of(new TargetingRule(
+                List.of(new TargetingRule.Condition("country", TargetingRule.Operator.IN, List.of("US", "CA"))),
+                true)), null);
+    }
+
+    private static FlagEvaluationRequest request(String key, String country) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("country", country);
+        return new FlagEvaluationRequest(key, attributes);
+    }
+
+    @Test
+    void testEvaluate_ReturnsEveryFlag() {
+        // When
+        FlagEvaluationResponse us = flagEvaluationService.evaluate(request("user-1", "US"));
+        FlagEvaluationResponse de = flagEvaluationService.evaluate(request("user-1", "DE"));
+
+        // Then
+        assertEquals(Map.of("dark_mode", true, "maintenance_mode", false, "new_search_ui", true), us.getFlags());
+        assertEquals(Map.of("dark_mode", true, "maintenance_mode", false, "new_search_ui", false), de.getFlags());
+        assertEquals(featureFlagConsumer.getRevision(), us.getRevision());
+    }
+
+    @Test
+    void testEvaluate_CachesPerNormalizedContext() {
+        // Given
+        Map<String, String> ordered = new LinkedHashMap<>();
+        ordered.put("plan", "pro");
+        ordered.put("country", "US");
+        ordered.put("app_version", null);
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("country", "US");
+        reordered.put("plan", "pro");
+
+        // When
+        FlagEvaluationResponse first = flagEvaluationService.evaluate(new FlagEvaluationRequest("user-1", ordered));
+        FlagEvaluationResponse second = flagEvaluationService.evaluate(
+                new FlagEvaluationRequest("user-1", reordered));
+        flagEvaluationService.evaluate(new FlagEvaluationRequest("user-2", reordered));
+
+        // Then
+        assertSame(first.getFlags(), second.getFlags());
+        assertEquals(1, flagEvaluationService.getCacheHits());
+        assertEquals(2, flagEvaluationService.getCacheMisses());
+        assertEquals(2, flagEvaluationService.getCacheSize());
+    }
+
+    @Test
+    void testEvaluate_FlagChangeInvalidatesCachedResults() {
+        // Given
+        flagEvaluationService.evaluate(request("user-1", "DE"));
+
+        // When
+        featureFlagConsumer.updateFeatureFlag("new_search_ui", true, null, null);
+        FlagEvaluationResponse updated = flagEvaluationService.evaluate(request("user-1", "DE"));
+        featureFlagConsumer.removeFeatureFlag("dark_mode");
+        FlagEvaluationResponse removed = flagEvaluationService.evaluate(request("user-1", "DE"));
+
+        // Then
+        assertTrue(updated.getFlags().get("new_search_ui"));
+        assertFalse(removed.getFlags().containsKey("dark_mode"));
+        assertTrue(removed.getRevision() > updated.getRevision());
+        assertEquals(0, flagEvaluationService.getCacheHits());
+    }
+
+    @Test
+    void testEvaluate_SegmentChangeInvalidatesCachedResults() {
+        // Given
+        featureFlagConsumer.updateFeatureFlag("beta_player", true, List.of(new TargetingRule(
+                List.of(new TargetingRule.Condition("user_id", TargetingRule.Operator.IN_SEGMENT,
+                        List.of("beta_testers"))),
+                true)), null);
+        FlagEvaluationRequest request = new FlagEvaluationRequest("user-42", Map.of("user_id", "42"));
+        assertFalse(flagEvaluationService.evaluate(request).getFlags().get("beta_player"));
+
+        // When
+        featureFlagConsumer.getSegments().find("beta_testers").replace(RoaringBitmap.bitmapOf(42), 1);
+
+        // Then
+        assertTrue(flagEvaluationService.evaluate(request).getFlags().get("beta_player"));
+    }
+
+    @Test
+    void testEvaluate_CacheIsBounded() {
+        // Given
+        featureFlagConfig.getEvaluation().setCacheSize(100);
+
+        // When
+        for (int i = 0; i < 250; i++) {
+            flagEvaluationService.evaluate(request("user-" + i, "US"));
+        }
+
+        // Then
+        assertTrue(flagEvaluationService.getCacheSize() <= 100);
+        assertEquals(250, flagEvaluationService.getCacheMisses());
+    }
+
+    @Test
+    void testEvaluate_CountsServedFlagsIncludingCacheHits() {
+        // Given
+        FlagEvaluationRequest named = new FlagEvaluationRequest("user-1", Map.of("country", "US"),
+                List.of("new_search_ui", "unknown_flag"));
+
+        // When
+        FlagEvaluationResponse first = flagEvaluationService.evaluate(named);
+        flagEvaluationService.evaluate(named);
+        flagEvaluationService.evaluate(request("user-1", "US"));
+
+        // Then
+        assertEquals(Map.of("new_search_ui", true), first.getFlags());
+        assertEquals(2, flagEvaluationService.getCacheHits());
+        Map<String, Long> onCounts = new HashMap<>();
+        featureFlagConsumer.getEvaluationCounters().drain()
+                .forEach(drained -> onCounts.put(drained.flagName(), drained.on()));
+        assertEquals(Map.of("new_search_ui", 3L, "dark_mode", 1L, "maintenance_mode", 0L), onCounts);
+    }
+
+    @Test
+    void testEvaluate_RecordsExposuresOnCacheHits() {
+        // Given
+        featureFlagConfig.getExposures().setEnabled(true);
+        featureFlagConsumer.updateFeatureFlag("dark_mode", true, null, null);
+        flagEvaluationService.evaluate(request("user-1", "US"));
+        featureFlagConsumer.getExposureBuffer().drain();
+
+        // When
+        flagEvaluationService.evaluate(request("user-1", "US"));
+
+        // Then
+        assertEquals(1, flagEvaluationService.getCacheHits());
+        assertEquals(Set.of("user-1"), featureFlagConsumer.getExposureBuffer().drain().stream()
+                .filter(drained -> drained.flagName().equals("dark_mode"))
+                .findFirst().orElseThrow().userKeys());
+    }
+}
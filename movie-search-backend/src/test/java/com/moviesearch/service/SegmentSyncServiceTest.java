@@ -0,0 +1,195 @@
+package com.moviesearch.service;
+
+import com.moviesearch.client.FeatureFlagClient;
+import com.moviesearch.config.FeatureFlagConfig;
+import com.moviesearch.dto.SegmentEventDTO;
+import com.moviesearch.dto.SegmentResponse;
+import com.moviesearch.targeting.Segment;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SegmentSyncServiceTest {
+
+    @Mock
+    private FeatureFlagClient featureFlagClient;
+
+    private FeatureFlagConfig featureFlagConfig;
+    private FeatureFlagConsumer featureFlagConsumer;
+    private SegmentSyncService segmentSyncService;
+    private Segment segment;
+
+    @BeforeEach
+    void setUp() {
+        featureFlagConfig = new FeatureFlagConfig();
+        featureFlagConsumer = new FeatureFlagConsumer(featureFlagConfig);
+        segmentSyncService = new SegmentSyncService(featureFlagClient, featureFlagConsumer, featureFlagConfig);
+        segment = featureFlagConsumer.getSegments().register("beta_testers");
+    }
+
+    private static byte[] serialize(int... userIds) {
+        RoaringBitmap bitmap = RoaringBitmap.bitmapOf(userIds);
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    private static ResponseEntity<byte[]> members(long version, int... userIds) {
+        return ResponseEntity.ok()
+                .header(SegmentSyncService.SEGMENT_VERSION_HEADER, String.valueOf(version))
+                .body(serialize(userIds));
+    }
+
+    private static SegmentEventDTO delta(long version, int[] added, int[] removed) {
+        return SegmentEventDTO.builder()
+                .eventType(SegmentEventDTO.EventType.UPDATED)
+                .segmentName("beta_testers")
+                .version(version)
+                .added(serialize(added))
+                .removed(serialize(removed))
+                .build();
+    }
+
+    private static FeignException.NotFound notFound() {
+        Request request = Request.create(Request.HttpMethod.GET, "/segments/beta_testers", new HashMap<>(), null,
+                null, null);
+        return new FeignException.NotFound("Segment not found", request, null, null);
+    }
+
+    @Test
+    void testLoadPendingSegments_LoadsReferencedSegments() {
+        // Given
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(4, 1, 2, 3));
+
+        // When
+        segmentSyncService.loadPendingSegments();
+
+        // Then
+        assertTrue(segment.isLoaded());
+        assertFalse(segment.needsLoad());
+        assertEquals(4, segment.getVersion());
+        assertEquals(3, segment.getMemberCount());
+
+        // And loaded segments aren't fetched again
+        segmentSyncService.loadPendingSegments();
+        verify(featureFlagClient, times(1)).getSegmentMembers(anyString());
+    }
+
+    @Test
+    void testApplyEvent_AppliesDeltasInVersionOrder() {
+        // Given
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(4, 1, 2, 3));
+        segmentSyncService.loadPendingSegments();
+
+        // When
+        segmentSyncService.applyEvent(delta(5, new int[] { 7 }, new int[] { 1 }));
+        segmentSyncService.applyEvent(delta(5, new int[] { 1 }, new int[] {}));
+
+        // Then: the repeated version 5 is ignored
+        assertEquals(5, segment.getVersion());
+        assertEquals(3, segment.getMemberCount());
+        assertFalse(segment.needsLoad());
+    }
+
+    @Test
+    void testApplyEvent_MissedDeltaReloadsSegment() {
+        // Given
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(4, 1, 2, 3))
+                .thenReturn(members(7, 2, 3, 9));
+        segmentSyncService.loadPendingSegments();
+
+        // When
+        segmentSyncService.applyEvent(delta(7, new int[] { 9 }, new int[] {}));
+
+        // Then: the members stay in use until the reload
+        assertTrue(segment.needsLoad());
+        assertEquals(4, segment.getVersion());
+
+        segmentSyncService.loadPendingSegments();
+        assertEquals(7, segment.getVersion());
+        assertEquals(3, segment.getMemberCount());
+    }
+
+    @Test
+    void testApplyEvent_IgnoresUnreferencedSegments() {
+        // When
+        segmentSyncService.applyEvent(SegmentEventDTO.builder()
+                .eventType(SegmentEventDTO.EventType.DELETED)
+                .segmentName("internal_staff")
+                .build());
+
+        // Then
+        assertNull(featureFlagConsumer.getSegments().find("internal_staff"));
+    }
+
+    @Test
+    void testLoadSegment_OverBudgetStaysUnloadedUntilVersionCheck() {
+        // Given
+        featureFlagConfig.getSegments().setMaxBytes(64);
+        int[] userIds = new int[10_000];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = i * 100;
+        }
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(2, userIds));
+
+        // When
+        segmentSyncService.loadPendingSegments();
+        segmentSyncService.loadPendingSegments();
+
+        // Then
+        assertFalse(segment.isLoaded());
+        assertEquals(1, segmentSyncService.getRejectedLoads());
+        verify(featureFlagClient, times(1)).getSegmentMembers(anyString());
+
+        // And the version check clears the back-off
+        segmentSyncService.verifySegmentVersions();
+        segmentSyncService.loadPendingSegments();
+        verify(featureFlagClient, times(2)).getSegmentMembers(anyString());
+    }
+
+    @Test
+    void testVerifySegmentVersions_DeletedSegmentBecomesEmpty() {
+        // Given
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(4, 1, 2, 3));
+        segmentSyncService.loadPendingSegments();
+        when(featureFlagClient.getSegment("beta_testers")).thenThrow(notFound());
+
+        // When
+        segmentSyncService.verifySegmentVersions();
+
+        // Then
+        assertTrue(segment.isLoaded());
+        assertEquals(0, segment.getVersion());
+        assertEquals(0, segment.getMemberCount());
+    }
+
+    @Test
+    void testVerifySegmentVersions_ReloadsChangedSegment() {
+        // Given
+        when(featureFlagClient.getSegmentMembers("beta_testers")).thenReturn(members(4, 1, 2, 3))
+                .thenReturn(members(6, 1));
+        segmentSyncService.loadPendingSegments();
+        when(featureFlagClient.getSegment("beta_testers")).thenReturn(new SegmentResponse("beta_testers", 1L, 6L));
+
+        // When
+        segmentSyncService.verifySegmentVersions();
+
+        // Then
+        assertEquals(6, segment.getVersion());
+        assertEquals(1, segment.getMemberCount());
+    }
+}
@@ -0,0 +1,292 @@
+package com.moviesearch.targeting;
+
+import com.moviesearch.dto.TargetingRule;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledRulesTest {
+
+    private static final String FLAG = "new_search_ui";
+
+    private static TargetingRule.Condition condition(String attribute, TargetingRule.Operator operator,
+            String... values) {
+        return new TargetingRule.Condition(attribute, operator, List.of(values));
+    }
+
+    private static TargetingRule rule(boolean serve, TargetingRule.Condition... conditions) {
+        return new TargetingRule(List.of(conditions), serve);
+    }
+
+    private static EvaluationContext context(String country, String plan, String appVersion) {
+        return EvaluationContext.builder()
+                .key("user-1")
+                .attribute("country", country)
+                .attribute("plan", plan)
+                .attribute("app_version", appVersion)
+                .build();
+    }
+
+    @Test
+    void testCompile_NoRules() {
+        assertNull(CompiledRules.compile(FLAG, null));
+        assertNull(CompiledRules.compile(FLAG, List.of()));
+    }
+
+    @Test
+    void testEvaluate_FirstMatchingRuleDecides() {
+        // Given
+        CompiledRules rules = CompiledRules.compile(FLAG, List.of(
+                rule(false, condition("plan", TargetingRule.Operator.IN, "free")),
+                rule(true, condition("country", TargetingRule.Operator.IN, "US", "CA"),
+                        condition("app_version", TargetingRule.Operator.VERSION_AT_LEAST, "5.2"))));
+
+        // When & Then
+        assertTrue(rules.evaluate(context("US", "pro", "5.2.1")));
+        assertFalse(rules.evaluate(context("US", "free", "5.2.1")));
+        assertFalse(rules.evaluate(context("US", "pro", "5.1.9")));
+        assertFalse(rules.evaluate(context("DE", "pro", "6.0")));
+        assertFalse(rules.evaluate(EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testEvaluate_Operators() {
+        // Given
+        List<String> manyCountries = IntStream.range(0, 100).mapToObj(i -> "C" + i).collect(Collectors.toList());
+        CompiledRules inLargeList = CompiledRules.compile(FLAG, List.of(
+                new TargetingRule(List.of(new TargetingRule.Condition("country", TargetingRule.Operator.IN,
+                        manyCountries)), true)));
+        CompiledRules notIn = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("plan", TargetingRule.Operator.NOT_IN, "free"))));
+        CompiledRules startsWith = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("key", TargetingRule.Operator.STARTS_WITH, "staff-", "user-"))));
+        CompiledRules below = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("app_version", TargetingRule.Operator.VERSION_BELOW, "5.10.0"))));
+
+        // When & Then
+        assertTrue(inLargeList.evaluate(context("C42", null, null)));
+        assertFalse(inLargeList.evaluate(context("US", null, null)));
+        assertTrue(notIn.evaluate(context(null, "pro", null)));
+        assertTrue(notIn.evaluate(context(null, null, null)));
+        assertFalse(notIn.evaluate(context(null, "free", null)));
+        assertTrue(startsWith.evaluate(context(null, null, null)));
+        assertTrue(below.evaluate(context(null, null, "5.9.12")));
+        assertFalse(below.evaluate(context(null, null, "5.10")));
+        assertFalse(below.evaluate(context(null, null, "beta")));
+    }
+
+    @Test
+    void testCompile_DropsRulesThatCanNeverMatch() {
+        // Given
+        CompiledRules rules = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("app_version", TargetingRule.Operator.VERSION_AT_LEAST, "latest")),
+                new TargetingRule(List.of(), false),
+                rule(true, condition("country", TargetingRule.Operator.IN, "US"))));
+
+        // Then: the version rule is invalid and the catch-all hides the last rule
+        assertEquals(1, rules.size());
+        assertFalse(rules.evaluate(context("US", null, "9.9.9")));
+    }
+
+    private static Set<String> servedUsers(CompiledRules rules, int users) {
+        return IntStream.range(0, users)
+                .mapToObj(i -> "user-" + i)
+                .filter(key -> rules.evaluate(EvaluationContext.builder().key(key).build()))
+                .collect(Collectors.toSet());
+    }
+
+    private static CompiledRules rollout(String flagName, double percentage) {
+        return CompiledRules.compile(flagName, List.of(new TargetingRule(List.of(), true, percentage)));
+    }
+
+    @Test
+    void testEvaluate_RolloutServesShareOfUsers() {
+        // When
+        Set<String> served = servedUsers(rollout(FLAG, 25), 20_000);
+
+        // Then
+        assertEquals(5_000, served.size(), 300);
+        assertFalse(rollout(FLAG, 25).evaluate(EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testEvaluate_RaisingRolloutOnlyAddsUsers() {
+        // When
+        Set<String> onePercent = servedUsers(rollout(FLAG, 1), 20_000);
+        Set<String> fivePercent = servedUsers(rollout(FLAG, 5), 20_000);
+        Set<String> everyone = servedUsers(rollout(FLAG, 100), 20_000);
+
+        // Then
+        assertEquals(200, onePercent.size(), 60);
+        assertEquals(1_000, fivePercent.size(), 150);
+        assertTrue(fivePercent.containsAll(onePercent));
+        assertEquals(20_000, everyone.size());
+        assertEquals(0, rollout(FLAG, 0).size());
+    }
+
+    @Test
+    void testEvaluate_RolloutBucketsDependOnFlag() {
+        // When
+        Set<String> search = servedUsers(rollout("new_search_ui", 50), 2_000);
+        Set<String> player = servedUsers(rollout("new_player", 50), 2_000);
+
+        // Then: independent halves overlap on about a quarter of the users
+        Set<String> both = new HashSet<>(search);
+        both.retainAll(player);
+        assertEquals(500, both.size(), 100);
+        assertEquals(search, servedUsers(rollout("new_search_ui", 50), 2_000));
+    }
+
+    @Test
+    void testEvaluate_RolloutFallsThroughToNextRule() {
+        // Given: 10% of users get the flag, everyone else in the US is excluded explicitly
+        CompiledRules rules = CompiledRules.compile(FLAG, List.of(
+                new TargetingRule(List.of(), true, 10.0),
+                rule(false, condition("country", TargetingRule.Operator.IN, "US"))));
+
+        // When
+        Set<String> served = servedUsers(rules, 10_000);
+
+        // Then
+        assertEquals(2, rules.size());
+        assertEquals(1_000, served.size(), 150);
+    }
+
+    private static EvaluationContext user(String userId) {
+        return EvaluationContext.builder().key("user-" + userId).attribute("user_id", userId).build();
+    }
+
+    @Test
+    void testEvaluate_SegmentMembership() {
+        // Given
+        Segments segments = new Segments();
+        CompiledRules inSegment = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("user_id", TargetingRule.Operator.IN_SEGMENT, "beta_testers", "staff"))),
+                segments);
+        CompiledRules notInSegment = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("user_id", TargetingRule.Operator.NOT_IN_SEGMENT, "beta_testers", "staff"))),
+                segments);
+
+        // When
+        segments.find("beta_testers").replace(RoaringBitmap.bitmapOf(7, -1), 3);
+        segments.find("staff").replace(RoaringBitmap.bitmapOf(12), 1);
+
+        // Then
+        assertTrue(inSegment.evaluate(user("7")));
+        assertTrue(inSegment.evaluate(user("12")));
+        assertTrue(inSegment.evaluate(user("4294967295")));
+        assertFalse(inSegment.evaluate(user("8")));
+        assertFalse(inSegment.evaluate(user("4294967296")));
+        assertFalse(inSegment.evaluate(user("-7")));
+        assertFalse(notInSegment.evaluate(user("7")));
+        assertTrue(notInSegment.evaluate(user("8")));
+        assertTrue(notInSegment.evaluate(EvaluationContext.EMPTY));
+    }
+
+    @Test
+    void testEvaluate_UnloadedSegmentNeverMatches() {
+        // Given
+        Segments segments = new Segments();
+        CompiledRules inSegment = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("user_id", TargetingRule.Operator.IN_SEGMENT, "beta_testers"))), segments);
+        CompiledRules notInSegment = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("user_id", TargetingRule.Operator.NOT_IN_SEGMENT, "beta_testers", "staff"))),
+                segments);
+        segments.find("beta_testers").replace(RoaringBitmap.bitmapOf(7), 1);
+
+        // Then: membership in a loaded segment is known, absence from all isn't
+        assertTrue(inSegment.evaluate(user("7")));
+        assertFalse(notInSegment.evaluate(user("7")));
+        assertFalse(notInSegment.evaluate(user("8")));
+
+        // And a deleted segment is empty
+        segments.find("staff").clear();
+        assertTrue(notInSegment.evaluate(user("8")));
+    }
+
+    @Test
+    void testEvaluate_SegmentDeltasReplaceMembers() {
+        // Given
+        Segments segments = new Segments();
+        CompiledRules rules = CompiledRules.compile(FLAG, List.of(
+                rule(true, condition("user_id", TargetingRule.Operator.IN_SEGMENT, "beta_testers"))), segments);
+        Segment segment = segments.find("beta_testers");
+
+        // When & Then
+        assertFalse(segment.applyDelta(1, RoaringBitmap.bitmapOf(7), new RoaringBitmap()));
+        segment.replace(RoaringBitmap.bitmapOf(7), 1);
+        assertTrue(segment.applyDelta(2, RoaringBitmap.bitmapOf(8), RoaringBitmap.bitmapOf(7)));
+        assertFalse(rules.evaluate(user("7")));
+        assertTrue(rules.evaluate(user("8")));
+        assertFalse(segment.applyDelta(4, RoaringBitmap.bitmapOf(9), new RoaringBitmap()));
+        assertTrue(segment.applyDelta(2, RoaringBitmap.bitmapOf(7), new RoaringBitmap()));
+        assertEquals(2, segment.getVersion());
+        assertFalse(rules.evaluate(user("7")));
+    }
+
+    @Test
+    void testMurmur3_MatchesReferenceVectors() {
+        // Reference values of MurmurHash3_x86_32 over the UTF-16LE bytes of the input
+        assertEquals(0, Murmur3.hashChars(0, ""));
+        assertEquals(-675079799, Murmur3.hashChars(0, "hello"));
+        assertEquals(-1591625367, Murmur3.hashChars(0, "user-42"));
+        assertEquals(599360756, Murmur3.hashChars(0x9747b28c, "new_search_ui"));
+        assertEquals(1404670877, Murmur3.hashChars(0, "\u00e9\u2713"));
+    }
+
+    @Test
+    void testVersions_Parse() {
+        assertTrue(Versions.parse("5.2.1") > Versions.parse("5.2"));
+        assertEquals(Versions.parse("5.2.0"), Versions.parse("5.2"));
+        assertEquals(Versions.parse("5.2.0"), Versions.parse("5.2.0-beta+7"));
+        assertTrue(Versions.parse("10.0") > Versions.parse("9.99.99"));
+        assertEquals(Versions.NOT_A_VERSION, Versions.parse("5..2"));
+        assertEquals(Versions.NOT_A_VERSION, Versions.parse("1.2.3.4"));
+        assertEquals(Versions.NOT_A_VERSION, Versions.parse("v5"));
+        assertEquals(Versions.NOT_A_VERSION, Versions.parse(""));
+    }
+
+    @Test
+    void testEvaluate_DoesNotAllocate() {
+        // Given
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Segments segments = new Segments();
+        CompiledRules rules = CompiledRules.compile(FLAG, List.of(
+                rule(false, condition("plan", TargetingRule.Operator.IN, "free")),
+                rule(false, condition("user_id", TargetingRule.Operator.IN_SEGMENT, "blocked")),
+                new TargetingRule(List.of(condition("country", TargetingRule.Operator.IN, "US", "CA"),
+                        condition("app_version", TargetingRule.Operator.VERSION_AT_LEAST, "5.2")), true, 100.0),
+                new TargetingRule(List.of(), true, 99.99)), segments);
+        segments.find("blocked").replace(RoaringBitmap.bitmapOf(1, 2, 3), 1);
+        EvaluationContext context = EvaluationContext.builder()
+                .key("user-1")
+                .attribute("country", "DE")
+                .attribute("plan", "pro")
+                .attribute("app_version", "5.3.0")
+                .attribute("user_id", "42")
+                .build();
+        for (int i = 0; i < 10_000; i++) {
+            rules.evaluate(context);
+        }
+
+        // When
+        long before = threads.getCurrentThreadAllocatedBytes();
+        boolean result = true;
+        for (int i = 0; i < 100_000; i++) {
+            result &= rules.evaluate(context);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Then: allow for the measurement itself, far below one object per evaluation
+        assertTrue(result);
+        assertTrue(allocated < 10_000, "allocated " + allocated + " bytes");
+    }
+}
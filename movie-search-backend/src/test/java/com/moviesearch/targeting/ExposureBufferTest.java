@@ -0,0 +1,39 @@
+package com.moviesearch.targeting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExposureBufferTest {
+
+    @Test
+    void testDrain_StampsUsersWithTheDayTheyWereServedOn() {
+        // Given
+        LocalDate day = LocalDate.of(2026, 10, 19);
+        AtomicLong clock = new AtomicLong(day.atTime(23, 59, 59).toInstant(ZoneOffset.UTC).toEpochMilli());
+        ExposureBuffer buffer = new ExposureBuffer(() -> 100, clock::get);
+        ExposureBuffer.Exposures exposures = buffer.forFlag("new_search");
+        exposures.record(true, "user-1");
+        exposures.record(true, "user-2");
+
+        // When
+        clock.addAndGet(2_000);
+        exposures.record(true, "user-1");
+        List<ExposureBuffer.Drained> drained = buffer.drain();
+
+        // Then
+        Map<LocalDate, Set<String>> usersByDay = new HashMap<>();
+        drained.forEach(entry -> usersByDay.put(entry.day(), entry.userKeys()));
+        assertEquals(Map.of(day, Set.of("user-1", "user-2"), day.plusDays(1), Set.of("user-1")), usersByDay);
+        assertEquals(0, buffer.getBufferedKeys());
+        assertTrue(buffer.drain().isEmpty());
+    }
+}